@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.Element;
+import org.fitting.selenium.SeleniumDataTypeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+
+/** Benchmarks for {@link org.fitting.selenium.SeleniumDataTypeConverter#convert(java.util.List)}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataTypeConverterBenchmark {
+    /** The number of elements to convert. */
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+    /** The elements to convert. */
+    private List<WebElement> elements;
+
+    @Setup
+    public void setUp() {
+        final FakeWebDriver driver = new FakeWebDriver();
+        elements = new ArrayList<WebElement>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(new FakeWebElement(driver, "li", "item " + i));
+        }
+    }
+
+    @Benchmark
+    public List<Element> convertList() {
+        return SeleniumDataTypeConverter.convert(elements);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.ElementContainer;
+import org.fitting.ElementContainerProvider;
+import org.fitting.FittingException;
+import org.fitting.selenium.SeleniumWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the container lookup and activation of an {@link org.fitting.ElementContainerProvider}.
+ * <p>
+ * The provider manages {@link org.fitting.selenium.SeleniumWindow}s on a {@link org.fitting.benchmarks.FakeWebDriver}, so activating a container
+ * goes through the same window switching as it does against a real browser.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElementContainerProviderBenchmark {
+    /** The number of managed containers. */
+    @Param({"1", "10", "100"})
+    public int containers;
+    /** The provider. */
+    private ElementContainerProvider provider;
+    /** The ids of the managed containers. */
+    private String[] ids;
+    /** The index of the next container. */
+    private int next;
+
+    @Setup
+    public void setUp() {
+        provider = new FakeWindowProvider(new FakeWebDriver());
+        ids = new String[containers];
+        for (int i = 0; i < containers; i++) {
+            ids[i] = provider.createNewElementContainer("about:blank", i == 0).getId();
+        }
+    }
+
+    @Benchmark
+    public ElementContainer lookup() {
+        next = (next + 1) % containers;
+        return provider.getElementContainer(ids[next]);
+    }
+
+    @Benchmark
+    public ElementContainer activeContainer() {
+        return provider.getActiveElementContainer();
+    }
+
+    @Benchmark
+    public ElementContainer activate() {
+        next = (next + 1) % containers;
+        return provider.activateElementContainer(ids[next]);
+    }
+
+    /** {@link org.fitting.ElementContainerProvider} opening windows on a {@link org.fitting.benchmarks.FakeWebDriver}. */
+    private static final class FakeWindowProvider extends ElementContainerProvider {
+        /** The driver. */
+        private final FakeWebDriver driver;
+        /** The number of created windows. */
+        private int windows;
+
+        /**
+         * Create a new FakeWindowProvider.
+         * @param driver The driver.
+         */
+        private FakeWindowProvider(final FakeWebDriver driver) {
+            this.driver = driver;
+        }
+
+        @Override
+        protected ElementContainer createContainer(final String uri) throws FittingException {
+            final String handle = "window-" + windows++;
+            driver.openWindow(handle);
+            return new SeleniumWindow(handle, driver);
+        }
+
+        @Override
+        protected ElementContainer createContainer(final String uri, final ElementContainer parent) throws FittingException {
+            final String handle = "window-" + windows++;
+            driver.openWindow(handle);
+            return new SeleniumWindow(handle, parent.getId(), driver);
+        }
+    }
+}
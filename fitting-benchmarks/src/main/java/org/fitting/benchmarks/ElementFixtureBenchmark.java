@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.FittingContainer;
+import org.fitting.fixture.ElementFixture;
+import org.fitting.selenium.BrowserConnector;
+import org.fitting.selenium.FittingSeleniumConnector;
+import org.fitting.selenium.SeleniumSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+/**
+ * End-to-end benchmarks for {@link org.fitting.fixture.ElementFixture} calls.
+ * <p>
+ * The fixture runs against a {@link org.fitting.selenium.FittingSeleniumConnector} on a {@link org.fitting.benchmarks.FakeWebDriver}, so the results
+ * show the per-call overhead of the framework: connector lookup, selector resolution, element lookup, conversion and snapshotting.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElementFixtureBenchmark {
+    /** The number of list items on the page. */
+    private static final int ITEMS = 10;
+    /** The connector. */
+    private FittingSeleniumConnector connector;
+    /** The fixture. */
+    private ElementFixture fixture;
+
+    @Setup
+    public void setUp() {
+        final FakeWebDriver driver = new FakeWebDriver();
+        driver.register(By.id("username"), new FakeWebElement(driver, "input", "").withAttribute("value", "fitting"));
+        driver.register(By.id("message"), new FakeWebElement(driver, "div", "Welcome to Fitting").withAttribute("class", "message info"));
+        driver.register(By.id("submit"), new FakeWebElement(driver, "button", "Submit"));
+        for (int i = 0; i < ITEMS; i++) {
+            driver.register(By.className("item"), new FakeWebElement(driver, "li", "item " + i));
+        }
+        connector = new FittingSeleniumConnector(new BrowserConnector(driver, true) {
+        });
+        FittingContainer.set(connector);
+        fixture = new ElementFixture();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FittingContainer.unset();
+        connector.destroy();
+    }
+
+    @Benchmark
+    public String textForElement() {
+        return fixture.textForElementWithBeing(SeleniumSelector.ID, "message");
+    }
+
+    @Benchmark
+    public boolean textForElementIs() {
+        return fixture.textForElementWithBeingIs(SeleniumSelector.ID, "message", "welcome to fitting");
+    }
+
+    @Benchmark
+    public String valueOfElement() {
+        return fixture.valueOfElementWithBeing(SeleniumSelector.ID, "username");
+    }
+
+    @Benchmark
+    public String attributeValueOfElement() {
+        return fixture.attributeValueOfForElementWithBeing("class", SeleniumSelector.ID, "message");
+    }
+
+    @Benchmark
+    public boolean elementExists() {
+        return fixture.elementWithBeingExists(SeleniumSelector.ID, "submit");
+    }
+
+    @Benchmark
+    public int numberOfElements() {
+        return fixture.numberOfElementsWithBeingIs(SeleniumSelector.CLASS_NAME, "item");
+    }
+
+    @Benchmark
+    public void clickElement() {
+        fixture.clickElementWithBeing(SeleniumSelector.ID, "submit");
+    }
+}
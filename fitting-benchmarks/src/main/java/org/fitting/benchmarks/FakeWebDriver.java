@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static java.lang.String.format;
+
+/**
+ * In-process {@link org.openqa.selenium.WebDriver} serving a fixed set of {@link org.fitting.benchmarks.FakeWebElement}s.
+ * <p>
+ * Elements are registered for a Selenium <code>By</code> clause and found again by the textual form of the clause, so a lookup costs a single map access.
+ * This keeps the time spent in the driver negligible and lets the benchmarks measure the overhead of Fitting itself.
+ * </p>
+ * <p>
+ * Scripts are not interpreted: a script that is executed with a single element as argument returns the properties of that element in the format of the
+ * Fitting snapshot script, a script that is executed with an element and a text types the text into the element and returns <code>true</code>, like the
+ * Fitting set value script, and all other scripts return <code>null</code>.
+ * </p>
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor {
+    /** The handle of the main window. */
+    public static final String MAIN_WINDOW = "main";
+    /** The registered elements by the textual form of their By clause. */
+    private final Map<String, List<WebElement>> elements = new HashMap<String, List<WebElement>>();
+    /** The handles of the open windows. */
+    private final Set<String> windowHandles = new LinkedHashSet<String>();
+    /** The handle of the active window. */
+    private String windowHandle = MAIN_WINDOW;
+    /** The current location. */
+    private String currentUrl = "about:blank";
+
+    /** Create a new FakeWebDriver with only the main window open. */
+    public FakeWebDriver() {
+        windowHandles.add(MAIN_WINDOW);
+    }
+
+    /**
+     * Register an element that is found for a By clause.
+     * @param by The By clause.
+     * @param element The element.
+     * @return The registered element.
+     */
+    public FakeWebElement register(final By by, final FakeWebElement element) {
+        List<WebElement> found = elements.get(by.toString());
+        if (found == null) {
+            found = new ArrayList<WebElement>();
+            elements.put(by.toString(), found);
+        }
+        found.add(element);
+        return element;
+    }
+
+    /**
+     * Open a new window.
+     * @param handle The handle of the window.
+     */
+    public void openWindow(final String handle) {
+        windowHandles.add(handle);
+    }
+
+    @Override
+    public List<WebElement> findElements(final By by) {
+        final List<WebElement> found = elements.get(by.toString());
+        return found == null ? Collections.<WebElement>emptyList() : new ArrayList<WebElement>(found);
+    }
+
+    @Override
+    public WebElement findElement(final By by) {
+        final List<WebElement> found = elements.get(by.toString());
+        if (found == null) {
+            throw new NoSuchElementException(format("No element registered for %s.", by));
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public Object executeScript(final String script, final Object... args) {
+        Object result = null;
+        if (args != null && args.length == 1 && args[0] instanceof FakeWebElement) {
+            result = ((FakeWebElement) args[0]).toScriptResult();
+        } else if (args != null && args.length == 2 && args[0] instanceof FakeWebElement && args[1] instanceof String) {
+            ((FakeWebElement) args[0]).sendKeys((String) args[1]);
+            result = Boolean.TRUE;
+        }
+        return result;
+    }
+
+    @Override
+    public Object executeAsyncScript(final String script, final Object... args) {
+        return null;
+    }
+
+    @Override
+    public void get(final String url) {
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "";
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+        windowHandles.remove(windowHandle);
+    }
+
+    @Override
+    public void quit() {
+        windowHandles.clear();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return new LinkedHashSet<String>(windowHandles);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return windowHandle;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return new FakeTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException("Navigation is not supported by the fake driver.");
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException("Options are not supported by the fake driver.");
+    }
+
+    /** {@link org.openqa.selenium.WebDriver.TargetLocator} switching between the windows of the fake driver. */
+    private final class FakeTargetLocator implements TargetLocator {
+        @Override
+        public WebDriver frame(final int index) {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(final String nameOrId) {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(final WebElement frameElement) {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver window(final String nameOrHandle) {
+            if (!windowHandles.contains(nameOrHandle)) {
+                throw new NoSuchWindowException(format("No window open with handle %s.", nameOrHandle));
+            }
+            windowHandle = nameOrHandle;
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement() {
+            throw new UnsupportedOperationException("Active elements are not supported by the fake driver.");
+        }
+
+        @Override
+        public Alert alert() {
+            throw new UnsupportedOperationException("Alerts are not supported by the fake driver.");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+/** In-memory {@link org.openqa.selenium.WebElement} for the {@link org.fitting.benchmarks.FakeWebDriver}. */
+public class FakeWebElement implements WebElement, WrapsDriver {
+    /** The driver the element belongs to. */
+    private final FakeWebDriver driver;
+    /** The tag name. */
+    private final String tagName;
+    /** The visible text. */
+    private final String text;
+    /** The attributes. */
+    private final Map<String, String> attributes = new LinkedHashMap<String, String>();
+    /** Flag indicating if the element is selected. */
+    private boolean selected;
+
+    /**
+     * Create a new FakeWebElement.
+     * @param driver The driver the element belongs to.
+     * @param tagName The tag name.
+     * @param text The visible text.
+     */
+    public FakeWebElement(final FakeWebDriver driver, final String tagName, final String text) {
+        this.driver = driver;
+        this.tagName = tagName;
+        this.text = text;
+    }
+
+    /**
+     * Set an attribute.
+     * @param name The name of the attribute.
+     * @param value The value of the attribute.
+     * @return The element.
+     */
+    public FakeWebElement withAttribute(final String name, final String value) {
+        attributes.put(name, value);
+        return this;
+    }
+
+    /**
+     * Get the properties of the element in the format returned by the Fitting snapshot script.
+     * @return The properties.
+     */
+    Map<String, Object> toScriptResult() {
+        final Map<String, Object> result = new HashMap<String, Object>();
+        result.put("tag", tagName);
+        result.put("text", text);
+        result.put("value", attributes.get("value"));
+        result.put("attributes", new HashMap<String, String>(attributes));
+        result.put("displayed", Boolean.TRUE);
+        result.put("selected", selected);
+        result.put("x", 0L);
+        result.put("y", 0L);
+        result.put("width", 100L);
+        result.put("height", 20L);
+        result.put("input", isInput());
+        return result;
+    }
+
+    /**
+     * Check if the element accepts input.
+     * @return <code>true</code> for input, select and textarea elements.
+     */
+    private boolean isInput() {
+        return "input".equals(tagName) || "select".equals(tagName) || "textarea".equals(tagName);
+    }
+
+    @Override
+    public void click() {
+        selected = !selected;
+    }
+
+    @Override
+    public void submit() {
+    }
+
+    @Override
+    public void sendKeys(final CharSequence... keysToSend) {
+        final StringBuilder value = new StringBuilder(attributes.containsKey("value") ? attributes.get("value") : "");
+        for (CharSequence keys : keysToSend) {
+            value.append(keys);
+        }
+        attributes.put("value", value.toString());
+    }
+
+    @Override
+    public void clear() {
+        attributes.put("value", "");
+    }
+
+    @Override
+    public String getTagName() {
+        return tagName;
+    }
+
+    @Override
+    public String getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return selected;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public List<WebElement> findElements(final By by) {
+        return driver.findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(final By by) {
+        return driver.findElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public String getCssValue(final String propertyName) {
+        return "";
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.Element;
+import org.fitting.FittingContainer;
+import org.fitting.selenium.BrowserConnector;
+import org.fitting.selenium.FittingSeleniumConnector;
+import org.fitting.selenium.InputStrategy;
+import org.fitting.selenium.SeleniumSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+/**
+ * Benchmarks for typing large texts with the {@link org.fitting.selenium.InputStrategy} values.
+ * <p>
+ * By default the text is typed on a {@link org.fitting.benchmarks.FakeWebDriver}, which shows the overhead of Fitting for both strategies. To compare
+ * the strategies in a browser, set the <code>fitting.benchmark.browser</code> system property to the browser of a running Selenium server on
+ * <code>fitting.benchmark.host</code> (default <code>localhost</code>) and <code>fitting.benchmark.port</code> (default <code>4444</code>).
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InputStrategyBenchmark {
+    /** The page with the text field for a browser. */
+    private static final String PAGE = "data:text/html,<html><body><textarea id='text'></textarea></body></html>";
+    /** The size of the typed text in characters. */
+    @Param({"1024", "10240", "102400"})
+    private int size;
+    /** The input strategy. */
+    @Param({"KEYS", "SCRIPT"})
+    private InputStrategy strategy;
+    /** The connector. */
+    private FittingSeleniumConnector connector;
+    /** The typed text. */
+    private String text;
+    /** The text field. */
+    private Element field;
+
+    @Setup
+    public void setUp() {
+        final String browser = System.getProperty("fitting.benchmark.browser");
+        if (browser == null) {
+            final FakeWebDriver driver = new FakeWebDriver();
+            driver.register(By.id("text"), new FakeWebElement(driver, "textarea", ""));
+            connector = new FittingSeleniumConnector(new BrowserConnector(driver, true) {
+            });
+        } else {
+            connector = new FittingSeleniumConnector(BrowserConnector.builder().withBrowser(browser)
+                    .onHost(System.getProperty("fitting.benchmark.host", "localhost"), Integer.getInteger("fitting.benchmark.port", 4444)).build());
+            connector.getWebDriver().get(PAGE);
+        }
+        connector.setInputStrategy(strategy);
+        FittingContainer.set(connector);
+        final char[] characters = new char[size];
+        Arrays.fill(characters, 'x');
+        text = new String(characters);
+        field = connector.getDefaultSearchContext().findElementBy(connector.getSelectorProvider().getSelector(SeleniumSelector.ID, "text"));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearField() {
+        field.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FittingContainer.unset();
+        connector.destroy();
+    }
+
+    @Benchmark
+    public void setValue() {
+        field.setValue(text);
+    }
+}
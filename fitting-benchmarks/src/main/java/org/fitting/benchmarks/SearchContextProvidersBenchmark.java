@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.SearchContext;
+import org.fitting.SearchContextProvider;
+import org.fitting.SearchContextProviders;
+import org.fitting.SelectorProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for the provider lookup of {@link org.fitting.SearchContextProviders}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchContextProvidersBenchmark {
+    /** The number of registered providers. */
+    @Param({"1", "10", "100"})
+    public int size;
+    /** The providers. */
+    private SearchContextProviders providers;
+    /** The ids of the registered providers. */
+    private String[] ids;
+    /** The index of the next provider. */
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final SearchContextProvider[] registered = new SearchContextProvider[size];
+        ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = "provider-" + i;
+            registered[i] = new NamedSearchContextProvider(ids[i]);
+        }
+        providers = new SearchContextProviders(registered);
+    }
+
+    @Benchmark
+    public SearchContextProvider lookup() {
+        next = (next + 1) % size;
+        return providers.getSearchContextProvider(ids[next]);
+    }
+
+    @Benchmark
+    public SearchContextProvider lookupUnknown() {
+        return providers.getSearchContextProvider("unknown");
+    }
+
+    @Benchmark
+    public boolean isKnown() {
+        next = (next + 1) % size;
+        return providers.isSearchContextProviderKnown(ids[next]);
+    }
+
+    /** {@link org.fitting.SearchContextProvider} returning the root search context. */
+    private static final class NamedSearchContextProvider implements SearchContextProvider {
+        /** The id of the provider. */
+        private final String id;
+
+        /**
+         * Create a new NamedSearchContextProvider.
+         * @param id The id of the provider.
+         */
+        private NamedSearchContextProvider(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public SearchContext getSearchContext(final SearchContext root, final SelectorProvider provider) {
+            return root;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.Selector;
+import org.fitting.selenium.SeleniumSelector;
+import org.fitting.selenium.SeleniumSelectorProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link org.fitting.selenium.SeleniumSelectorProvider#getSelector(String, String)}.
+ * <p>
+ * The cached benchmark resolves the same query over and over, the uncached benchmark cycles through more distinct queries than the cache can hold,
+ * so every call has to validate and create a new selector.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectorProviderBenchmark {
+    /** The number of distinct queries for the uncached benchmark. */
+    private static final int QUERIES = 1024;
+    /** The selector tag. */
+    @Param({SeleniumSelector.ID, SeleniumSelector.CSS_SELECTOR, SeleniumSelector.XPATH})
+    public String tag;
+    /** The provider with the default cache. */
+    private SeleniumSelectorProvider cachedProvider;
+    /** The provider with a cache smaller than the number of queries. */
+    private SeleniumSelectorProvider uncachedProvider;
+    /** The distinct queries. */
+    private String[] queries;
+    /** The index of the next query. */
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new SeleniumSelectorProvider();
+        uncachedProvider = new SeleniumSelectorProvider(QUERIES / 2);
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = query(i);
+        }
+    }
+
+    @Benchmark
+    public Selector cached() {
+        return cachedProvider.getSelector(tag, queries[0]);
+    }
+
+    @Benchmark
+    public Selector uncached() {
+        next = (next + 1) % QUERIES;
+        return uncachedProvider.getSelector(tag, queries[next]);
+    }
+
+    /**
+     * Create a query for the selector tag.
+     * @param index The index of the query.
+     * @return The query.
+     */
+    private String query(final int index) {
+        final String query;
+        if (SeleniumSelector.XPATH.equals(tag)) {
+            query = "//form[@id='login']//input[@name='field" + index + "']";
+        } else if (SeleniumSelector.CSS_SELECTOR.equals(tag)) {
+            query = "form#login input[name='field" + index + "']";
+        } else {
+            query = "field" + index;
+        }
+        return query;
+    }
+}
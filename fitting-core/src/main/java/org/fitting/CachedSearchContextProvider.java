@@ -28,6 +28,7 @@ package org.fitting;
  * <p>
  * This class is inherently thread <em>unsafe</em>, expecting to be used in a single-thread (or thread-bound) context.
  * </p>
+ * @see org.fitting.InvalidatingSearchContextProvider
  */
 public class CachedSearchContextProvider implements SearchContextProvider {
     /** The id of the SearchContextProvider. */
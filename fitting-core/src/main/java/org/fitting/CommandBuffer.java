@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+/**
+ * {@link org.fitting.FittingConnector} that can queue commands on the system under test instead of executing them right away.
+ * <p>
+ * Queued commands are executed before the next command that reads from the system under test, and at the latest when {@link #flush()} is called
+ * at the end of a table.
+ * </p>
+ * @see org.fitting.fixture.FittingFixture#endTable()
+ */
+public interface CommandBuffer {
+    /**
+     * Execute all queued commands.
+     * @throws FittingException When a queued command failed, naming the fixture call that queued it.
+     */
+    void flush() throws FittingException;
+}
@@ -87,6 +87,17 @@ public interface Element extends SearchContext {
      */
     String getValue();
 
+    /**
+     * Get a snapshot of the commonly read properties of the element, fetched at once.
+     * <p>
+     * Use the snapshot when multiple properties of the element are read, to avoid querying the element for each property. The properties are the
+     * same as returned by the methods of the element, e.g. {@link #getText()} and {@link #isDisplayed()}.
+     * </p>
+     * @return The snapshot.
+     * @throws FittingException When the properties of the element could not be read.
+     */
+    ElementSnapshot snapshot() throws FittingException;
+
     /** Click the element. */
     void click();
 
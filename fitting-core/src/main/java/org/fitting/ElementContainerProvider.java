@@ -23,36 +23,52 @@ import org.fitting.event.ContainerClosedEvent;
 import org.fitting.event.ContainerCreatedEvent;
 import org.fitting.event.ContainerListener;
 import org.fitting.event.LocationChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 /**
  * Provider that provides {@link org.fitting.ElementContainer} management functionality as well as management for multiple containers.
  * Event hooks are provided for various container events (like location changes, creation and destruction).
+ * <p>
+ * The provider is thread-safe, so it can be shared between a fixture thread and background listeners.
+ * Listeners can be registered and removed while events are dispatched, every event is delivered to the listeners registered when it was fired.
+ * When a listener executor is set, listeners are notified through the executor instead of on the thread changing the containers.
+ * </p>
  * @see org.fitting.event.ContainerListener
  * @see org.fitting.event.ContainerCreatedEvent
  * @see org.fitting.event.ContainerClosedEvent
  * @see org.fitting.event.LocationChangedEvent
  */
 public abstract class ElementContainerProvider {
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElementContainerProvider.class);
     /** The element containers, indexed by their id. */
-    private final Map<String, ElementContainer> elementContainers;
+    private final ConcurrentMap<String, ElementContainer> elementContainers;
     /** The registered {@link org.fitting.event.ContainerListener} implementations for events. */
     private final List<ContainerListener> containerListeners;
+    /** The lock guarding changes of the active and main container. */
+    private final Object activationLock = new Object();
     /** The id of the main element container, like for example the main window. */
-    private String mainElementContainerId;
+    private volatile String mainElementContainerId;
     /** The id of the currently active element container. */
-    private String activeElementContainerId;
+    private volatile String activeElementContainerId;
+    /** The executor notifying the listeners, <code>null</code> to notify them on the calling thread. */
+    private volatile Executor listenerExecutor;
 
     /** Create a new {@link org.fitting.ElementContainerProvider} instance. */
     public ElementContainerProvider() {
-        elementContainers = new HashMap<String, ElementContainer>();
-        containerListeners = new ArrayList<ContainerListener>();
+        elementContainers = new ConcurrentHashMap<String, ElementContainer>();
+        containerListeners = new CopyOnWriteArrayList<ContainerListener>();
     }
 
     /**
@@ -70,11 +86,23 @@ public abstract class ElementContainerProvider {
      * @param listener The listener to remove.
      */
     public final void remove(final ContainerListener listener) {
-        if ((listener != null) && (containerListeners.contains(listener))) {
+        if (listener != null) {
             containerListeners.remove(listener);
         }
     }
 
+    /**
+     * Set the executor that notifies the registered listeners.
+     * <p>
+     * With an executor, slow listeners don't block the thread that creates, closes or navigates containers.
+     * Exceptions thrown by listeners are then logged instead of propagated.
+     * </p>
+     * @param executor The executor or <code>null</code> to notify the listeners on the calling thread.
+     */
+    public final void setListenerExecutor(final Executor executor) {
+        this.listenerExecutor = executor;
+    }
+
     /**
      * Activate the container with a given id.
      * @param id The id of the container.
@@ -82,10 +110,12 @@ public abstract class ElementContainerProvider {
      * @throws NoSuchContainerException When no container was found with the given id.
      */
     public final ElementContainer activateElementContainer(final String id) throws NoSuchContainerException {
-        final ElementContainer elementContainer = getElementContainer(id);
-        elementContainer.activate();
-        activeElementContainerId = id;
-        return elementContainer;
+        synchronized (activationLock) {
+            final ElementContainer elementContainer = getElementContainer(id);
+            elementContainer.activate();
+            activeElementContainerId = id;
+            return elementContainer;
+        }
     }
 
     /**
@@ -96,10 +126,8 @@ public abstract class ElementContainerProvider {
      */
 
     public final ElementContainer getElementContainer(final String id) throws NoSuchContainerException {
-        ElementContainer elementContainer = null;
-        if (!isEmpty(id) && elementContainers.containsKey(id)) {
-            elementContainer = elementContainers.get(id);
-        } else {
+        final ElementContainer elementContainer = isEmpty(id) ? null : elementContainers.get(id);
+        if (elementContainer == null) {
             throw new NoSuchContainerException(id);
         }
         return elementContainer;
@@ -114,10 +142,17 @@ public abstract class ElementContainerProvider {
      * @throws NoSuchContainerException When no container is active and no containers are registered.
      */
     public final ElementContainer getActiveElementContainer() {
-        if (activeElementContainerId == null && !elementContainers.isEmpty()) {
-            activateElementContainer(elementContainers.keySet().iterator().next());
+        String id = activeElementContainerId;
+        if (id == null) {
+            synchronized (activationLock) {
+                final Iterator<String> ids = elementContainers.keySet().iterator();
+                if (activeElementContainerId == null && ids.hasNext()) {
+                    activateElementContainer(ids.next());
+                }
+                id = activeElementContainerId;
+            }
         }
-        return getElementContainer(activeElementContainerId);
+        return getElementContainer(id);
     }
 
     /**
@@ -134,26 +169,62 @@ public abstract class ElementContainerProvider {
      * <p>
      * Notes:
      * <ul>
-     * <li>If the closed container was the active container, the main container is activated.</li>
-     * <li>A {@link org.fitting.event.ContainerClosedEvent} is fired to all registered listeners.</li>
-     * <li>@TODO: Currently child containers are not automatically closed/removed.</li>
+     * <li>Child containers are closed first, recursively.</li>
+     * <li>If the closed container or one of its children was the active container, the main container is activated.</li>
+     * <li>A {@link org.fitting.event.ContainerClosedEvent} is fired to all registered listeners for each closed container, children first.</li>
      * </ul>
      * </p>
      * @param id The id of the container to close.
      * @throws NoSuchContainerException When no container was found with the given id.
      */
     public final void closeElementContainer(final String id) throws NoSuchContainerException {
-        final ElementContainer container = getElementContainer(id);
-        elementContainers.remove(id);
+        final ElementContainer container = isEmpty(id) ? null : elementContainers.remove(id);
+        if (container == null) {
+            throw new NoSuchContainerException(id);
+        }
+        final List<ElementContainer> closed = new ArrayList<ElementContainer>();
+        closeChildElementContainers(id, closed);
         container.close();
-        if (isElementContainerActive(id)) {
-            if (!id.equals(mainElementContainerId)) {
+        closed.add(container);
+        synchronized (activationLock) {
+            boolean activeClosed = false;
+            for (ElementContainer closedContainer : closed) {
+                final String closedId = closedContainer.getId();
+                if (closedId.equals(mainElementContainerId)) {
+                    mainElementContainerId = null;
+                }
+                if (closedId.equals(activeElementContainerId)) {
+                    activeElementContainerId = null;
+                    activeClosed = true;
+                }
+            }
+            if (activeClosed && mainElementContainerId != null) {
                 activateMainElementContainer();
             }
         }
-        final ContainerClosedEvent event = new ContainerClosedEvent(container, this);
-        for (ContainerListener l : containerListeners) {
-            l.onContainerClosed(event);
+        for (ElementContainer closedContainer : closed) {
+            final ContainerClosedEvent event = new ContainerClosedEvent(closedContainer, this);
+            fire(new ListenerNotification() {
+                @Override
+                public void deliver(final ContainerListener listener) {
+                    listener.onContainerClosed(event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove and close the children of a container, recursively and children first.
+     * @param parentId The id of the parent container.
+     * @param closed The list to add the closed containers to.
+     */
+    private void closeChildElementContainers(final String parentId, final List<ElementContainer> closed) {
+        for (ElementContainer child : elementContainers.values()) {
+            if (parentId.equals(child.getParentId()) && elementContainers.remove(child.getId(), child)) {
+                closeChildElementContainers(child.getId(), closed);
+                child.close();
+                closed.add(child);
+            }
         }
     }
 
@@ -185,8 +256,10 @@ public abstract class ElementContainerProvider {
      * @throws NoSuchContainerException When there is no container registered with the given id.
      */
     public final void setMainElementContainer(final String id) throws NoSuchContainerException {
-        final ElementContainer container = getElementContainer(id);
-        mainElementContainerId = id;
+        synchronized (activationLock) {
+            getElementContainer(id);
+            mainElementContainerId = id;
+        }
     }
 
     /**
@@ -205,7 +278,8 @@ public abstract class ElementContainerProvider {
      * @throws NoSuchContainerException When no container was found with the given id.
      */
     public boolean isElementContainerActive(final String id) throws NoSuchContainerException {
-        return activeElementContainerId != null && activeElementContainerId.equals(id) && getElementContainer(id).isActive();
+        final String activeId = activeElementContainerId;
+        return activeId != null && activeId.equals(id) && getElementContainer(id).isActive();
     }
 
     /**
@@ -241,9 +315,12 @@ public abstract class ElementContainerProvider {
         elementContainer.navigateTo(uri);
 
         final LocationChangedEvent event = new LocationChangedEvent(elementContainer, oldLocation, uri, this);
-        for (ContainerListener listener : containerListeners) {
-            listener.onLocationChanged(event);
-        }
+        fire(new ListenerNotification() {
+            @Override
+            public void deliver(final ContainerListener listener) {
+                listener.onLocationChanged(event);
+            }
+        });
     }
 
     /**
@@ -281,16 +358,48 @@ public abstract class ElementContainerProvider {
      */
     protected void manageElementContainer(final ElementContainer elementContainer, boolean activate) {
         final String containerId = elementContainer.getId();
-        elementContainers.put(containerId, elementContainer);
-        if (activate) {
-            activateElementContainer(containerId);
+        if (isEmpty(containerId)) {
+            throw new FittingException("Can't manage an element container without id.");
         }
-        if (mainElementContainerId == null) {
-            setMainElementContainer(containerId);
+        elementContainers.put(containerId, elementContainer);
+        synchronized (activationLock) {
+            if (activate) {
+                activateElementContainer(containerId);
+            }
+            if (mainElementContainerId == null) {
+                mainElementContainerId = containerId;
+            }
         }
         final ContainerCreatedEvent event = new ContainerCreatedEvent(elementContainer, this);
-        for (ContainerListener l : containerListeners) {
-            l.onContainerCreated(event);
+        fire(new ListenerNotification() {
+            @Override
+            public void deliver(final ContainerListener listener) {
+                listener.onContainerCreated(event);
+            }
+        });
+    }
+
+    /**
+     * Notify all registered listeners, directly or through the listener executor.
+     * @param notification The notification to deliver to each listener.
+     */
+    private void fire(final ListenerNotification notification) {
+        final Executor executor = listenerExecutor;
+        for (final ContainerListener listener : containerListeners) {
+            if (executor == null) {
+                notification.deliver(listener);
+            } else {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            notification.deliver(listener);
+                        } catch (RuntimeException e) {
+                            LOGGER.warn("Container listener " + listener + " failed.", e);
+                        }
+                    }
+                });
+            }
         }
     }
 
@@ -310,4 +419,13 @@ public abstract class ElementContainerProvider {
      * @throws org.fitting.FittingException When creation failed.
      */
     protected abstract ElementContainer createContainer(final String uri, final ElementContainer parent) throws FittingException;
+
+    /** Notification of a single {@link org.fitting.event.ContainerListener} about an event. */
+    private interface ListenerNotification {
+        /**
+         * Deliver the notification to the listener.
+         * @param listener The listener.
+         */
+        void deliver(ContainerListener listener);
+    }
 }
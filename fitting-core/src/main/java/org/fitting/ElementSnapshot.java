@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Immutable snapshot of the commonly read properties of an {@link org.fitting.Element}, taken at a single moment.
+ * @see Element#snapshot()
+ */
+public final class ElementSnapshot {
+    /** The name of the element. */
+    private final String name;
+    /** The displayed text of the element. */
+    private final String text;
+    /** The raw value of the element, <code>null</code> for elements without value. */
+    private final String value;
+    /** The attributes of the element. */
+    private final Map<String, String> attributes;
+    /** Flag for the element being displayed. */
+    private final boolean displayed;
+    /** Flag for the element being active. */
+    private final boolean active;
+    /** The location of the element. */
+    private final Point location;
+    /** The size of the element. */
+    private final Dimension size;
+    /** Flag for the element being an input element. */
+    private final boolean input;
+
+    /**
+     * Create a new ElementSnapshot.
+     * @param name The name of the element.
+     * @param text The displayed text of the element.
+     * @param value The raw value of the element or <code>null</code> if the element has no value.
+     * @param attributes The attributes of the element.
+     * @param displayed <code>true</code> if the element is displayed.
+     * @param active <code>true</code> if the element is active.
+     * @param location The location of the element or <code>null</code> if not available.
+     * @param size The size of the element or <code>null</code> if not available.
+     * @param input <code>true</code> if the element is an input element.
+     */
+    public ElementSnapshot(final String name, final String text, final String value, final Map<String, String> attributes, final boolean displayed,
+                           final boolean active, final Point location, final Dimension size, final boolean input) {
+        this.name = name;
+        this.text = text;
+        this.value = value;
+        this.attributes = attributes == null ? Collections.<String, String>emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<String, String>(attributes));
+        this.displayed = displayed;
+        this.active = active;
+        this.location = location == null ? null : new Point(location);
+        this.size = size == null ? null : new Dimension(size);
+        this.input = input;
+    }
+
+    /**
+     * Get the name of the element.
+     * @return The name.
+     * @see Element#getName()
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the displayed text of the element.
+     * @return The text.
+     * @see Element#getText()
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the value of the element, being the text for elements without value.
+     * @return The value.
+     * @see Element#getValue()
+     */
+    public String getValue() {
+        return value != null ? value : text;
+    }
+
+    /**
+     * Check if the element has a value of its own.
+     * @return <code>true</code> if the element has a value.
+     */
+    public boolean hasValue() {
+        return value != null;
+    }
+
+    /**
+     * Get the value of an attribute.
+     * @param attributeName The name of the attribute.
+     * @return The value or <code>null</code> if the element has no attribute with the given name.
+     */
+    public String getAttributeValue(final String attributeName) {
+        return attributes.get(attributeName);
+    }
+
+    /**
+     * Get all attributes of the element.
+     * @return The attribute values, keyed by attribute name.
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Check if the element is displayed.
+     * @return <code>true</code> if the element is displayed.
+     * @see Element#isDisplayed()
+     */
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    /**
+     * Check if the element is active.
+     * @return <code>true</code> if the element is active.
+     * @see Element#isActive()
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Get the location of the element.
+     * @return A copy of the location or <code>null</code> if no location information was available.
+     * @see Element#getLocation()
+     */
+    public Point getLocation() {
+        return location == null ? null : location.getLocation();
+    }
+
+    /**
+     * Get the size of the element.
+     * @return A copy of the size or <code>null</code> if no size information was available.
+     * @see Element#getSize()
+     */
+    public Dimension getSize() {
+        return size == null ? null : new Dimension(size);
+    }
+
+    /**
+     * Check if the element is an input element.
+     * @return <code>true</code> if the element is an input element.
+     * @see Element#isInput()
+     */
+    public boolean isInput() {
+        return input;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s[name=%s,text=%s,value=%s,displayed=%s]", getClass().getSimpleName(), name, text, value, displayed);
+    }
+}
@@ -19,13 +19,33 @@
 
 package org.fitting;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.apache.commons.configuration.CompositeConfiguration;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** General fitting configuration. */
+import static java.lang.String.format;
+
+/**
+ * General fitting configuration.
+ * <p>
+ * The configuration is read once into an immutable {@link Snapshot}, including the resolved connector classes, that is safely published to all
+ * threads. Calling {@link #reload()}, or enabling the watch on the properties file with {@link #enableReload(long, java.util.concurrent.TimeUnit)},
+ * replaces the snapshot atomically; readers either see the old or the new snapshot, never a mix.
+ * </p>
+ */
 public class FittingConfiguration {
     /** The logging instance. */
     private static final Logger LOGGER = LoggerFactory.getLogger(FittingConfiguration.class);
@@ -37,20 +57,19 @@ public class FittingConfiguration {
     private static final String KEY_SYSTEM_DEFAULT = "fitting.system.default";
     /** The key for the test system. */
     private static final String KEY_SYSTEM = "fitting.system";
-    /** The singleton instance. */
-    private static FittingConfiguration instance;
-    /** The configuration. */
-    private final CompositeConfiguration configuration;
-
+    /** The singleton instance, created when the class is first used. */
+    private static final FittingConfiguration INSTANCE = new FittingConfiguration();
+    /** The current snapshot. */
+    private final AtomicReference<Snapshot> snapshot;
+    /** The executor watching the properties file, if reloading is enabled. */
+    private ScheduledExecutorService watcher;
 
     /**
      * Create a new instance.
      * Private to prevent external instantiation.
      */
     private FittingConfiguration() {
-        configuration = new CompositeConfiguration();
-        loadProperties();
-        loadDefaults();
+        snapshot = new AtomicReference<Snapshot>(load());
     }
 
     /**
@@ -58,82 +77,418 @@ public class FittingConfiguration {
      * @return The instance.
      */
     public static FittingConfiguration getInstance() {
-        // Don't worry about race conditions, worst case scenario the configuration gets read twice.
-        if (instance == null) {
-            instance = new FittingConfiguration();
+        return INSTANCE;
+    }
+
+    /**
+     * Create a key for an integer value.
+     * @param name The name of the property.
+     * @param defaultValue The value to use when the property is not configured.
+     * @return The key.
+     */
+    public static Key<Integer> integerKey(final String name, final int defaultValue) {
+        return new Key<Integer>(name, defaultValue) {
+            @Override
+            protected Integer parse(final String value) {
+                return Integer.valueOf(value);
+            }
+        };
+    }
+
+    /**
+     * Create a key for a long value.
+     * @param name The name of the property.
+     * @param defaultValue The value to use when the property is not configured.
+     * @return The key.
+     */
+    public static Key<Long> longKey(final String name, final long defaultValue) {
+        return new Key<Long>(name, defaultValue) {
+            @Override
+            protected Long parse(final String value) {
+                return Long.valueOf(value);
+            }
+        };
+    }
+
+    /**
+     * Create a key for a boolean value.
+     * @param name The name of the property.
+     * @param defaultValue The value to use when the property is not configured.
+     * @return The key.
+     */
+    public static Key<Boolean> booleanKey(final String name, final boolean defaultValue) {
+        return new Key<Boolean>(name, defaultValue) {
+            @Override
+            protected Boolean parse(final String value) {
+                if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                    throw new IllegalArgumentException(format("Not a boolean: %s", value));
+                }
+                return Boolean.valueOf(value);
+            }
+        };
+    }
+
+    /**
+     * Create a key for a string value.
+     * @param name The name of the property.
+     * @param defaultValue The value to use when the property is not configured.
+     * @return The key.
+     */
+    public static Key<String> stringKey(final String name, final String defaultValue) {
+        return new Key<String>(name, defaultValue) {
+            @Override
+            protected String parse(final String value) {
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Get the current snapshot of the configuration.
+     * <p>Use the snapshot to read several values that need to be consistent with each other.</p>
+     * @return The snapshot.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Get a value from the current snapshot.
+     * @param key The key.
+     * @param <T> The type of the value.
+     * @return The configured value or the default value of the key.
+     * @throws FittingException When the configured value is not valid for the key.
+     */
+    public <T> T get(final Key<T> key) throws FittingException {
+        return getSnapshot().get(key);
+    }
+
+    /**
+     * Get the configured system connector class.
+     * @return The system connector.
+     * @throws org.fitting.FittingException When the connector could not be loaded.
+     */
+    public Class<? extends FittingConnector> getSystemConnector() throws FittingException {
+        return getSnapshot().getSystemConnector();
+    }
+
+    /**
+     * Get the default system connector class.
+     * @return The system connector.
+     * @throws org.fitting.FittingException When the connector could not be loaded.
+     */
+    public Class<? extends FittingConnector> getDefaultSystemConnector() throws FittingException {
+        return getSnapshot().getDefaultSystemConnector();
+    }
+
+    /**
+     * Read the configuration again and replace the current snapshot.
+     * <p>The current snapshot is kept when the configuration could not be read.</p>
+     * @return The new snapshot.
+     * @throws FittingException When the configuration could not be read.
+     */
+    public Snapshot reload() throws FittingException {
+        final Snapshot reloaded = load();
+        snapshot.set(reloaded);
+        LOGGER.info("Reloaded the fitting configuration.");
+        return reloaded;
+    }
+
+    /**
+     * Watch the properties file for changes, reloading the configuration when it was modified.
+     * <p>Only a properties file on the file system can be watched; the call is ignored for a properties file in an archive or without one.</p>
+     * @param interval The interval between the checks.
+     * @param unit The unit of the interval.
+     * @throws IllegalArgumentException When the interval is not positive.
+     */
+    public synchronized void enableReload(final long interval, final TimeUnit unit) throws IllegalArgumentException {
+        if (interval <= 0) {
+            throw new IllegalArgumentException(format("Can't watch the configuration with an interval of %d %s.", interval, unit));
+        }
+        disableReload();
+        if (getSnapshot().getSource() == null) {
+            LOGGER.warn("The {} file is not on the file system, reloading is disabled.", CONFIGURATION_PROPERTIES);
+        } else {
+            watcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "fitting-configuration-watcher");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            watcher.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    reloadWhenModified();
+                }
+            }, interval, interval, unit);
+        }
+    }
+
+    /** Stop watching the properties file for changes. */
+    public synchronized void disableReload() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    /** Reload the configuration when the properties file of the current snapshot was modified. */
+    private void reloadWhenModified() {
+        final Snapshot current = getSnapshot();
+        final File source = current.getSource();
+        if (source != null && source.lastModified() != current.lastModified) {
+            try {
+                reload();
+            } catch (FittingException e) {
+                LOGGER.warn("Unable to reload the fitting configuration, keeping the current configuration.", e);
+            }
         }
-        return instance;
+    }
+
+    /**
+     * Read the configuration.
+     * @return The snapshot of the configuration.
+     * @throws FittingException When the configuration could not be read.
+     */
+    private static Snapshot load() throws FittingException {
+        final CompositeConfiguration configuration = new CompositeConfiguration();
+        final PropertiesConfiguration properties = loadProperties();
+        if (properties != null) {
+            configuration.addConfiguration(properties);
+        }
+        configuration.addConfiguration(loadDefaults());
+
+        final Map<String, String> values = new HashMap<String, String>();
+        for (Iterator<?> keys = configuration.getKeys(); keys.hasNext();) {
+            final String key = (String) keys.next();
+            values.put(key, configuration.getString(key));
+        }
+        final File source = properties == null ? null : properties.getFile();
+        return new Snapshot(values, source != null && source.isFile() ? source : null);
     }
 
     /**
      * Load the default configuration.
-     * @throws org.fitting.FittingException When the properties could not be loaded.
+     * <p>Missing defaults are not fatal, values without a default fall back to the default of their key.</p>
+     * @return The default configuration.
      */
-    private void loadDefaults() throws FittingException {
+    private static PropertiesConfiguration loadDefaults() {
+        PropertiesConfiguration defaults;
         try {
-            configuration.addConfiguration(new PropertiesConfiguration(DEFAULT_CONFIGURATION_PROPERTIES));
+            defaults = new PropertiesConfiguration(DEFAULT_CONFIGURATION_PROPERTIES);
             LOGGER.debug("Added default configuration from {}.", DEFAULT_CONFIGURATION_PROPERTIES);
         } catch (ConfigurationException e) {
-            throw new FittingException("Unable to load default configuration properties file [" + DEFAULT_CONFIGURATION_PROPERTIES + "]", e);
+            LOGGER.warn("Unable to load default configuration properties file [" + DEFAULT_CONFIGURATION_PROPERTIES + "]", e);
+            defaults = new PropertiesConfiguration();
         }
+        return defaults;
     }
 
-    /** Load the configuration from the default properties file. */
-    private void loadProperties() {
+    /**
+     * Load the configuration from the default properties file.
+     * @return The configuration or <code>null</code> if no configuration could be loaded.
+     */
+    private static PropertiesConfiguration loadProperties() {
+        PropertiesConfiguration properties = null;
         try {
-            configuration.addConfiguration(new PropertiesConfiguration(CONFIGURATION_PROPERTIES));
+            properties = new PropertiesConfiguration(CONFIGURATION_PROPERTIES);
             LOGGER.debug("Added configuration from {}.", CONFIGURATION_PROPERTIES);
         } catch (ConfigurationException e) {
             LOGGER.warn("No properties found with the name " + CONFIGURATION_PROPERTIES + " or properties file could not be loaded", e);
         }
+        return properties;
     }
 
     /**
-     * Get the configured system connector class.
-     * @return The system connector.
-     * @throws org.fitting.FittingException When the connector could not be loaded.
+     * Load a configured connector class.
+     * @param className The name of the class.
+     * @param description The description of the connector for the error messages.
+     * @return The connector class.
+     * @throws FittingException When the class could not be loaded.
      */
-    public Class<? extends FittingConnector> getSystemConnector() throws FittingException {
-        // @TODO Determine if it's worth loading to class every time to allow injection/alteration of configurations or that we need to lazy load it.
-        Class<? extends FittingConnector> cls;
-        if (configuration.containsKey(KEY_SYSTEM)) {
-            String className = configuration.getString(KEY_SYSTEM);
-            try {
-                cls = FittingConfiguration.class.getClassLoader().loadClass(className).asSubclass(FittingConnector.class);
-            } catch (ClassCastException e) {
-                throw new FittingException("Configured system connector " + className + " is not a valid FittingConnector", e);
-            } catch (ClassNotFoundException e) {
-                throw new FittingException("Could not load configured system connector" + className, e);
-            }
-        } else {
-            cls = getDefaultSystemConnector();
-            LOGGER.debug("No system connector specified, loading default connector");
+    private static Class<? extends FittingConnector> loadConnector(final String className, final String description) throws FittingException {
+        try {
+            return FittingConfiguration.class.getClassLoader().loadClass(className).asSubclass(FittingConnector.class);
+        } catch (ClassCastException e) {
+            throw new FittingException("Configured " + description + " " + className + " is not a valid FittingConnector", e);
+        } catch (ClassNotFoundException e) {
+            throw new FittingException("Could not load configured " + description + " " + className, e);
         }
-        LOGGER.debug("Loaded system connector {}", cls.getName());
-        return cls;
     }
 
     /**
-     * Get the default system connector class.
-     * @return The system connector.
-     * @throws org.fitting.FittingException When the connector could not be loaded.
+     * Typed key of a configuration value.
+     * @param <T> The type of the value.
+     * @see FittingConfiguration#integerKey(String, int)
+     * @see FittingConfiguration#longKey(String, long)
+     * @see FittingConfiguration#booleanKey(String, boolean)
+     * @see FittingConfiguration#stringKey(String, String)
      */
-    public Class<? extends FittingConnector> getDefaultSystemConnector() throws FittingException {
-        if (!configuration.containsKey(KEY_SYSTEM_DEFAULT)) {
-            throw new FittingException("No default system connector configured.");
+    public abstract static class Key<T> {
+        /** The name of the property. */
+        private final String name;
+        /** The value to use when the property is not configured. */
+        private final T defaultValue;
+
+        /**
+         * Create a new Key.
+         * @param name The name of the property.
+         * @param defaultValue The value to use when the property is not configured.
+         */
+        protected Key(final String name, final T defaultValue) {
+            this.name = name;
+            this.defaultValue = defaultValue;
         }
 
-        // @TODO Determine if it's worth loading to class every time to allow injection/alteration of configurations or that we need to lazy load it.
-        final String className = configuration.getString(KEY_SYSTEM_DEFAULT);
-        Class<? extends FittingConnector> cls;
-        try {
-            cls = FittingConfiguration.class.getClassLoader().loadClass(className).asSubclass(FittingConnector.class);
-            LOGGER.debug("Loaded default system connector {}", cls.getName());
-        } catch (ClassCastException e) {
-            throw new FittingException("Configured default system connector " + className + " is not a valid FittingConnector", e);
-        } catch (ClassNotFoundException e) {
-            throw new FittingException("Could not load configured default system connector" + className, e);
+        /**
+         * Get the name of the property.
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the value to use when the property is not configured.
+         * @return The default value.
+         */
+        public T getDefaultValue() {
+            return defaultValue;
+        }
+
+        /**
+         * Convert a configured value.
+         * @param value The configured value.
+         * @return The converted value.
+         * @throws RuntimeException When the value is not valid.
+         */
+        protected abstract T parse(String value);
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /** Immutable snapshot of the configuration, with the connector classes resolved once. */
+    public static final class Snapshot {
+        /** The configured values, by property name. */
+        private final Map<String, String> values;
+        /** The properties file on the file system, if any. */
+        private final File source;
+        /** The modification time of the properties file when it was read. */
+        private final long lastModified;
+        /** The system connector, <code>null</code> if it could not be loaded. */
+        private final Class<? extends FittingConnector> systemConnector;
+        /** The reason the system connector could not be loaded, if any. */
+        private final FittingException systemConnectorError;
+        /** The default system connector, <code>null</code> if it could not be loaded. */
+        private final Class<? extends FittingConnector> defaultSystemConnector;
+        /** The reason the default system connector could not be loaded, if any. */
+        private final FittingException defaultSystemConnectorError;
+
+        /**
+         * Create a new Snapshot.
+         * @param values The configured values, by property name.
+         * @param source The properties file on the file system or <code>null</code>.
+         */
+        private Snapshot(final Map<String, String> values, final File source) {
+            this.values = Collections.unmodifiableMap(values);
+            this.source = source;
+            this.lastModified = source == null ? 0 : source.lastModified();
+
+            Class<? extends FittingConnector> defaultConnector = null;
+            FittingException defaultError = null;
+            if (values.containsKey(KEY_SYSTEM_DEFAULT)) {
+                try {
+                    defaultConnector = loadConnector(values.get(KEY_SYSTEM_DEFAULT), "default system connector");
+                    LOGGER.debug("Loaded default system connector {}", defaultConnector.getName());
+                } catch (FittingException e) {
+                    defaultError = e;
+                }
+            } else {
+                defaultError = new FittingException("No default system connector configured.");
+            }
+            this.defaultSystemConnector = defaultConnector;
+            this.defaultSystemConnectorError = defaultError;
+
+            Class<? extends FittingConnector> connector = defaultConnector;
+            FittingException error = defaultError;
+            if (values.containsKey(KEY_SYSTEM)) {
+                error = null;
+                try {
+                    connector = loadConnector(values.get(KEY_SYSTEM), "system connector");
+                } catch (FittingException e) {
+                    connector = null;
+                    error = e;
+                }
+            } else {
+                LOGGER.debug("No system connector specified, using default connector");
+            }
+            this.systemConnector = connector;
+            this.systemConnectorError = error;
+        }
+
+        /**
+         * Get a value.
+         * @param key The key.
+         * @param <T> The type of the value.
+         * @return The configured value or the default value of the key.
+         * @throws FittingException When the configured value is not valid for the key.
+         */
+        public <T> T get(final Key<T> key) throws FittingException {
+            final String value = values.get(key.getName());
+            T result = key.getDefaultValue();
+            if (value != null) {
+                try {
+                    result = key.parse(value.trim());
+                } catch (RuntimeException e) {
+                    throw new FittingException(format("Configured value [%s] for %s is not valid.", value, key), e);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Get the configured values.
+         * @return The values, by property name.
+         */
+        public Map<String, String> getValues() {
+            return values;
+        }
+
+        /**
+         * Get the system connector class.
+         * @return The system connector.
+         * @throws FittingException When the connector could not be loaded.
+         */
+        public Class<? extends FittingConnector> getSystemConnector() throws FittingException {
+            if (systemConnectorError != null) {
+                throw new FittingException(systemConnectorError.getMessage(), systemConnectorError.getCause());
+            }
+            return systemConnector;
+        }
+
+        /**
+         * Get the default system connector class.
+         * @return The system connector.
+         * @throws FittingException When the connector could not be loaded.
+         */
+        public Class<? extends FittingConnector> getDefaultSystemConnector() throws FittingException {
+            if (defaultSystemConnectorError != null) {
+                throw new FittingException(defaultSystemConnectorError.getMessage(), defaultSystemConnectorError.getCause());
+            }
+            return defaultSystemConnector;
+        }
+
+        /**
+         * Get the properties file the snapshot was read from.
+         * @return The file or <code>null</code> if the properties file is not on the file system.
+         */
+        File getSource() {
+            return source;
         }
-        return cls;
     }
 }
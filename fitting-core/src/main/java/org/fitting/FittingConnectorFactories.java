@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.fitting.fixture.ContainerFixture;
+import org.fitting.fixture.ElementFixture;
+import org.fitting.metrics.Instrumentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * Registry of the {@link org.fitting.FittingConnectorFactory} implementations on the classpath, with the warm-up of the configured connector.
+ * <p>
+ * The warm-up initialises the connector classes, lets the factory start the system under test and open idle sessions, and runs the fixture
+ * paths a number of times against a synthetic page, so the first test doesn't pay for class initialisation, bootstrapping and JIT compilation.
+ * The warm-up is recorded as {@link org.fitting.metrics.Instrumentation#WARM_UP} and its start marks the start of the
+ * {@link org.fitting.metrics.Instrumentation#TIME_TO_FIRST_TEST time to the first test}.
+ * </p>
+ * <p>
+ * The warm-up has to run in the JVM running the tests, which for Slim is a separate process started by FitNesse, e.g. from a SuiteSetUp page with
+ * the {@link org.fitting.fixture.WarmUpFixture}.
+ * </p>
+ */
+public final class FittingConnectorFactories {
+    /** The configuration key for the number of idle sessions opened by the warm-up. */
+    public static final FittingConfiguration.Key<Integer> WARM_UP_SESSIONS = FittingConfiguration.integerKey("fitting.warmup.sessions", 1);
+    /** The configuration key for the number of times the fixture paths are run against the synthetic page. */
+    public static final FittingConfiguration.Key<Integer> WARM_UP_ITERATIONS = FittingConfiguration.integerKey("fitting.warmup.iterations", 10);
+    /** The configuration key for the URL of the synthetic page, empty for the {@link FittingConnectorFactory#getWarmUpUrl() page of the factory}. */
+    public static final FittingConfiguration.Key<String> WARM_UP_URL = FittingConfiguration.stringKey("fitting.warmup.url", "");
+    /** The id of the element on the synthetic page. */
+    public static final String WARM_UP_ELEMENT = "fitting-warm-up";
+    /** The HTML of the synthetic page. */
+    public static final String WARM_UP_PAGE =
+            "<html><head><title>fitting</title></head><body><p id=\"" + WARM_UP_ELEMENT + "\">fitting</p></body></html>";
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(FittingConnectorFactories.class);
+    /** Flag indicating if the configured connector was warmed up in this JVM. */
+    private static final AtomicBoolean WARMED_UP = new AtomicBoolean();
+    /** The factories, indexed by connector type, loaded once. */
+    private static final ConcurrentMap<Class<? extends FittingConnector>, FittingConnectorFactory> FACTORIES = loadFactories();
+
+    /** Private constructor, for static use only. */
+    private FittingConnectorFactories() {
+    }
+
+    /**
+     * Get the factory for a connector type.
+     * @param connectorType The connector type.
+     * @return The factory.
+     * @throws FittingException When no factory is registered for the connector type.
+     */
+    public static FittingConnectorFactory getFactory(final Class<? extends FittingConnector> connectorType) throws FittingException {
+        final FittingConnectorFactory factory = FACTORIES.get(connectorType);
+        if (factory == null) {
+            throw new FittingException(format("No connector factory registered for %s.", connectorType.getName()));
+        }
+        return factory;
+    }
+
+    /**
+     * Get the factory for the connector configured in the {@link org.fitting.FittingConfiguration}.
+     * @return The factory.
+     * @throws FittingException When the connector could not be loaded or no factory is registered for it.
+     */
+    public static FittingConnectorFactory getConfiguredFactory() throws FittingException {
+        return getFactory(FittingConfiguration.getInstance().getSystemConnector());
+    }
+
+    /**
+     * Warm up the configured connector, with the number of sessions and iterations from the {@link org.fitting.FittingConfiguration}.
+     * @return The warmed up factory.
+     * @throws FittingException When the warm-up failed.
+     * @see #warmUp(FittingConnectorFactory, int, int, String)
+     */
+    public static FittingConnectorFactory warmUp() throws FittingException {
+        final FittingConfiguration.Snapshot configuration = FittingConfiguration.getInstance().getSnapshot();
+        final FittingConnectorFactory factory = getFactory(configuration.getSystemConnector());
+        final String url = configuration.get(WARM_UP_URL);
+        warmUp(factory, configuration.get(WARM_UP_SESSIONS), configuration.get(WARM_UP_ITERATIONS), url.length() > 0 ? url : null);
+        return factory;
+    }
+
+    /**
+     * Warm up the configured connector, unless it was already warmed up in this JVM.
+     * @return <code>true</code> if the connector was warmed up by this call, <code>false</code> if it was warmed up before.
+     * @throws FittingException When the warm-up failed, in which case the next call tries again.
+     * @see #warmUp()
+     */
+    public static boolean warmUpOnce() throws FittingException {
+        boolean warmedUp = false;
+        if (WARMED_UP.compareAndSet(false, true)) {
+            try {
+                warmUp();
+                warmedUp = true;
+            } finally {
+                if (!warmedUp) {
+                    WARMED_UP.set(false);
+                }
+            }
+        }
+        return warmedUp;
+    }
+
+    /**
+     * Warm up a factory.
+     * @param factory The factory.
+     * @param sessions The number of idle sessions to open.
+     * @param iterations The number of times to run the fixture paths against the synthetic page, <code>0</code> to skip them.
+     * @param url The URL of the synthetic page, containing an element with the id {@link #WARM_UP_ELEMENT}, or <code>null</code> for the
+     * {@link FittingConnectorFactory#getWarmUpUrl() page of the factory}.
+     * @throws FittingException When the warm-up failed.
+     */
+    public static void warmUp(final FittingConnectorFactory factory, final int sessions, final int iterations, final String url) throws FittingException {
+        final Instrumentation instrumentation = Instrumentation.getInstance();
+        final long start = System.nanoTime();
+        try {
+            initialise(factory.getConnectorType());
+            factory.warmUp(sessions);
+            if (iterations > 0) {
+                runFixtures(factory, iterations, url == null ? factory.getWarmUpUrl() : url);
+            }
+        } finally {
+            instrumentation.startupPhase(Instrumentation.WARM_UP, start);
+            instrumentation.markStartup(start);
+        }
+        LOGGER.info("Warmed up {} in {}ms.", factory.getConnectorType().getName(), (System.nanoTime() - start) / 1000000);
+    }
+
+    /**
+     * Run the fixture paths against the synthetic page with a connector from the factory.
+     * @param factory The factory.
+     * @param iterations The number of times to run the fixture paths.
+     * @param url The URL of the synthetic page.
+     * @throws FittingException When the fixture paths failed.
+     */
+    private static void runFixtures(final FittingConnectorFactory factory, final int iterations, final String url) throws FittingException {
+        final FittingConnector previous = FittingContainer.isInitialised() ? FittingContainer.get() : null;
+        final FittingConnector connector = factory.createConnector();
+        try {
+            FittingContainer.set(connector);
+            final ContainerFixture containerFixture = new ContainerFixture();
+            final ElementFixture elementFixture = new ElementFixture();
+            containerFixture.navigateTo(url);
+            for (int i = 0; i < iterations; i++) {
+                elementFixture.elementWithBeingExists("id", WARM_UP_ELEMENT);
+                elementFixture.numberOfElementsWithBeingIs("id", WARM_UP_ELEMENT);
+                elementFixture.textForElementWithBeing("id", WARM_UP_ELEMENT);
+                elementFixture.elementWithBeingIsDisplayed("id", WARM_UP_ELEMENT);
+                containerFixture.windowTitle();
+            }
+        } finally {
+            if (previous == null) {
+                FittingContainer.unset();
+            } else {
+                FittingContainer.set(previous);
+            }
+            connector.destroy();
+        }
+    }
+
+    /**
+     * Initialise a connector class, running its static initialisers.
+     * @param connectorType The connector class.
+     * @throws FittingException When the class could not be initialised.
+     */
+    private static void initialise(final Class<? extends FittingConnector> connectorType) throws FittingException {
+        try {
+            Class.forName(connectorType.getName(), true, connectorType.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new FittingException(format("Unable to initialise %s.", connectorType.getName()), e);
+        }
+    }
+
+    /**
+     * Load the factories registered on the classpath.
+     * @return The factories, indexed by connector type.
+     */
+    private static ConcurrentMap<Class<? extends FittingConnector>, FittingConnectorFactory> loadFactories() {
+        final ConcurrentMap<Class<? extends FittingConnector>, FittingConnectorFactory> factories =
+                new ConcurrentHashMap<Class<? extends FittingConnector>, FittingConnectorFactory>();
+        for (Iterator<FittingConnectorFactory> iterator = ServiceLoader.load(FittingConnectorFactory.class, FittingConnectorFactories.class.getClassLoader()).iterator();
+                iterator.hasNext();) {
+            final FittingConnectorFactory factory = iterator.next();
+            if (factories.putIfAbsent(factory.getConnectorType(), factory) == null) {
+                LOGGER.debug("Registered connector factory {} for {}.", factory.getClass().getName(), factory.getConnectorType().getName());
+            } else {
+                LOGGER.warn("Ignoring connector factory {}, another factory is registered for {}.", factory.getClass().getName(), factory.getConnectorType().getName());
+            }
+        }
+        return factories;
+    }
+}
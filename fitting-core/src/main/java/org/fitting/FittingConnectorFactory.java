@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+/**
+ * Service provider interface for creating {@link org.fitting.FittingConnector} instances.
+ * <p>
+ * Implementations are registered in <code>META-INF/services/org.fitting.FittingConnectorFactory</code> and looked up through
+ * {@link org.fitting.FittingConnectorFactories}, matching the connector type to the connector configured in the {@link org.fitting.FittingConfiguration}.
+ * </p>
+ */
+public interface FittingConnectorFactory {
+    /**
+     * Get the type of the connectors created by the factory.
+     * @return The connector type.
+     */
+    Class<? extends FittingConnector> getConnectorType();
+
+    /**
+     * Create a new connector.
+     * @return The connector.
+     * @throws FittingException When the connector could not be created.
+     */
+    FittingConnector createConnector() throws FittingException;
+
+    /**
+     * Prepare for creating connectors, starting the system the connectors connect to and opening idle sessions.
+     * @param sessions The number of idle sessions to open.
+     * @throws FittingException When the factory could not be prepared.
+     */
+    void warmUp(int sessions) throws FittingException;
+
+    /**
+     * Get the URL of a synthetic page the connectors can open, for running the fixture paths during the warm-up.
+     * @return The URL of a page with the {@link org.fitting.FittingConnectorFactories#WARM_UP_PAGE content of the synthetic page}.
+     * @throws FittingException When the page could not be provided.
+     */
+    String getWarmUpUrl() throws FittingException;
+}
@@ -19,6 +19,8 @@
 
 package org.fitting;
 
+import org.fitting.metrics.Instrumentation;
+
 /** Singleton container that holds the FittingConnector in a ThreadLocal so each running test or suite contains its own context. */
 public final class FittingContainer {
     /** ThreadLocal containing the FittingConnector. */
@@ -30,10 +32,14 @@ public final class FittingContainer {
 
     /**
      * Set the FittingConnector to use for the current thread.
+     * <p>
+     * The connector is wrapped in an {@link org.fitting.metrics.InstrumentedFittingConnector} when the instrumentation is enabled.
+     * </p>
      * @param context The FittingConnector to use..
+     * @see org.fitting.metrics.Instrumentation#instrument(FittingConnector)
      */
     public static void set(final FittingConnector context) {
-        LOCAL.set(context);
+        LOCAL.set(Instrumentation.getInstance().instrument(context));
     }
 
     /** Remove the FittingConnector. */
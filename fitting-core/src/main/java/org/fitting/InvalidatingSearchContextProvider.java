@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.fitting.event.ContainerClosedEvent;
+import org.fitting.event.ContainerCreatedEvent;
+import org.fitting.event.ContainerListener;
+import org.fitting.event.LocationChangedEvent;
+
+/**
+ * {@link SearchContextProvider} implementation that caches the search context until the page it was found on may have changed.
+ * <p>
+ * The cached search context is dropped when the root changes, when its time to live expired and, when the provider is registered as listener
+ * with the {@link ElementContainerProvider}, when a container navigates or is closed.
+ * </p>
+ * <p>
+ * The cached search context is not validated with an extra round-trip before it is reused, the next lookup on it is the validation instead.
+ * When that lookup fails with the stale exception type of the connector, the search context is looked up again and the lookup is retried once.
+ * </p>
+ * <p>
+ * This class is thread-safe, so events can be delivered from another thread than the one using the search context.
+ * </p>
+ */
+public class InvalidatingSearchContextProvider implements SearchContextProvider, ContainerListener {
+    /** The time to live for search contexts that should be kept until they are invalidated. */
+    public static final long NO_EXPIRY = 0;
+    /** The id of the SearchContextProvider. */
+    private final String id;
+    /** The identifier for the selector. */
+    private final String selectorIdentifier;
+    /** The query for the selector. */
+    private final String selectorQuery;
+    /** The time to live of the cached search context in nanoseconds, {@link #NO_EXPIRY} to keep it until invalidated. */
+    private final long timeToLive;
+    /** The type of exception thrown for elements that went stale, <code>null</code> if stale lookups should not be retried. */
+    private final Class<? extends RuntimeException> staleExceptionType;
+    /** The cached search context, <code>null</code> if there is none. */
+    private final AtomicReference<CachedContext> cache = new AtomicReference<CachedContext>();
+
+    /**
+     * Create a new InvalidatingSearchContextProvider that keeps the search context until it is invalidated.
+     * @param id The id of the SearchContextProvider.
+     * @param selectorIdentifier The identifier for the selector.
+     * @param selectorQuery The query for the selector.
+     */
+    public InvalidatingSearchContextProvider(final String id, final String selectorIdentifier, final String selectorQuery) {
+        this(id, selectorIdentifier, selectorQuery, NO_EXPIRY, TimeUnit.MILLISECONDS, null);
+    }
+
+    /**
+     * Create a new InvalidatingSearchContextProvider.
+     * @param id The id of the SearchContextProvider.
+     * @param selectorIdentifier The identifier for the selector.
+     * @param selectorQuery The query for the selector.
+     * @param timeToLive The time to live of the cached search context or {@link #NO_EXPIRY} to keep it until invalidated.
+     * @param unit The unit of the time to live.
+     * @param staleExceptionType The type of exception the connector throws for elements that went stale, like the
+     * <code>StaleElementReferenceException</code> of Selenium, or <code>null</code> if stale lookups should not be retried.
+     * @throws IllegalArgumentException When a negative time to live or no time unit was provided.
+     */
+    public InvalidatingSearchContextProvider(final String id, final String selectorIdentifier, final String selectorQuery, final long timeToLive,
+                                             final TimeUnit unit, final Class<? extends RuntimeException> staleExceptionType) throws IllegalArgumentException {
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("The time to live can't be negative.");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("No time unit provided.");
+        }
+        this.id = id;
+        this.selectorIdentifier = selectorIdentifier;
+        this.selectorQuery = selectorQuery;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.staleExceptionType = staleExceptionType;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When no matching element is found on the provided root context, an exception is thrown. Subsequent calls will attempt to find the element again.
+     * </p>
+     * @throws NoSuchElementException When no matching element was found on the provided root search context.
+     * @throws IllegalArgumentException When an invalid {@link SearchContext} or {@link SelectorProvider} are provided.
+     */
+    @Override
+    public SearchContext getSearchContext(final SearchContext root, final SelectorProvider provider) throws IllegalArgumentException, NoSuchElementException {
+        if (root == null) {
+            throw new IllegalArgumentException("No root search context provided.");
+        }
+        if (provider == null) {
+            throw new IllegalArgumentException("No selector provider provided.");
+        }
+        CachedContext cached = cache.get();
+        if (cached == null || cached.root != root || cached.isExpired()) {
+            cached = lookUp(root, provider.getSelector(selectorIdentifier, selectorQuery), cached);
+        }
+        return cached.proxy;
+    }
+
+    /** Drop the cached search context, so it is looked up again on the next call. */
+    public void invalidate() {
+        cache.set(null);
+    }
+
+    @Override
+    public void onContainerCreated(final ContainerCreatedEvent event) {
+        // Creating a container doesn't change the page of the cached search context.
+    }
+
+    @Override
+    public void onContainerClosed(final ContainerClosedEvent event) {
+        invalidate();
+    }
+
+    @Override
+    public void onLocationChanged(final LocationChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Look up the search context and cache it, unless the cache was changed in the meantime.
+     * @param root The root search context.
+     * @param selector The selector of the search context.
+     * @param previous The cached search context the lookup replaces or <code>null</code>.
+     * @return The cached search context.
+     * @throws NoSuchElementException When no matching element was found on the root search context.
+     */
+    private CachedContext lookUp(final SearchContext root, final Selector selector, final CachedContext previous) throws NoSuchElementException {
+        final CachedContext cached = new CachedContext(root, selector, root.findElementBy(selector));
+        cache.compareAndSet(previous, cached);
+        return cached;
+    }
+
+    /**
+     * Check if an exception signals that the search context went stale.
+     * @param exception The exception.
+     * @return <code>true</code> if the exception or one of its causes is of the stale exception type.
+     */
+    private boolean isStale(final RuntimeException exception) {
+        boolean stale = false;
+        if (staleExceptionType != null) {
+            for (Throwable cause = exception; cause != null && !stale; cause = cause.getCause()) {
+                stale = staleExceptionType.isInstance(cause);
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * A lookup on a search context.
+     * @param <T> The type of the result.
+     */
+    private interface Lookup<T> {
+        /**
+         * Execute the lookup.
+         * @param context The search context.
+         * @return The result.
+         */
+        T execute(final SearchContext context);
+    }
+
+    /** A cached search context with the root it was found on. */
+    private final class CachedContext {
+        /** The root search context. */
+        private final SearchContext root;
+        /** The selector of the search context. */
+        private final Selector selector;
+        /** The search context. */
+        private final SearchContext context;
+        /** The time the search context was found, in nanoseconds. */
+        private final long created = System.nanoTime();
+        /** The search context handed out, retrying lookups that find the search context stale. */
+        private final SearchContext proxy = new ValidatingSearchContext(this);
+
+        /**
+         * Create a new CachedContext.
+         * @param root The root search context.
+         * @param selector The selector of the search context.
+         * @param context The search context.
+         */
+        private CachedContext(final SearchContext root, final Selector selector, final SearchContext context) {
+            this.root = root;
+            this.selector = selector;
+            this.context = context;
+        }
+
+        /**
+         * Check if the time to live of the search context expired.
+         * @return <code>true</code> if the search context expired.
+         */
+        private boolean isExpired() {
+            return timeToLive != NO_EXPIRY && System.nanoTime() - created >= timeToLive;
+        }
+    }
+
+    /** {@link SearchContext} delegating to a cached search context, looking it up again once when a lookup finds it stale. */
+    private final class ValidatingSearchContext implements SearchContext {
+        /** The cached search context. */
+        private final CachedContext cached;
+
+        /**
+         * Create a new ValidatingSearchContext.
+         * @param cached The cached search context.
+         */
+        private ValidatingSearchContext(final CachedContext cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public List<Element> findElementsBy(final Selector selector) throws FittingException {
+            return execute(new Lookup<List<Element>>() {
+                @Override
+                public List<Element> execute(final SearchContext context) {
+                    return context.findElementsBy(selector);
+                }
+            });
+        }
+
+        @Override
+        public Element findElementBy(final Selector selector) throws NoSuchElementException, FittingException {
+            return execute(new Lookup<Element>() {
+                @Override
+                public Element execute(final SearchContext context) {
+                    return context.findElementBy(selector);
+                }
+            });
+        }
+
+        @Override
+        public int countElementsBy(final Selector selector) throws FittingException {
+            return execute(new Lookup<Integer>() {
+                @Override
+                public Integer execute(final SearchContext context) {
+                    return context.countElementsBy(selector);
+                }
+            });
+        }
+
+        @Override
+        public boolean exists(final Selector selector) throws FittingException {
+            return execute(new Lookup<Boolean>() {
+                @Override
+                public Boolean execute(final SearchContext context) {
+                    return context.exists(selector);
+                }
+            });
+        }
+
+        @Override
+        public Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) throws FittingException {
+            return execute(new Lookup<Map<Selector, Element>>() {
+                @Override
+                public Map<Selector, Element> execute(final SearchContext context) {
+                    return context.findElementsBy(selectors);
+                }
+            });
+        }
+
+        @Override
+        public void waitForElement(final Selector selector, final int timeout) throws NoSuchElementException {
+            execute(new Lookup<Void>() {
+                @Override
+                public Void execute(final SearchContext context) {
+                    context.waitForElement(selector, timeout);
+                    return null;
+                }
+            });
+        }
+
+        @Override
+        public void waitForElementWithContent(final Selector selector, final String content, final int timeout) {
+            execute(new Lookup<Void>() {
+                @Override
+                public Void execute(final SearchContext context) {
+                    context.waitForElementWithContent(selector, content, timeout);
+                    return null;
+                }
+            });
+        }
+
+        /**
+         * Execute a lookup on the cached search context, looking the search context up again and retrying once when it went stale.
+         * @param lookup The lookup.
+         * @param <T> The type of the result.
+         * @return The result.
+         */
+        private <T> T execute(final Lookup<T> lookup) {
+            try {
+                return lookup.execute(cached.context);
+            } catch (RuntimeException e) {
+                if (!isStale(e)) {
+                    throw e;
+                }
+                return lookup.execute(lookUp(cached.root, cached.selector, cached).context);
+            }
+        }
+    }
+}
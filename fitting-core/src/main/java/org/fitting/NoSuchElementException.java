@@ -32,6 +32,6 @@ public class NoSuchElementException extends FormattedFittingException {
      * @param selector The selector used.
      */
     public NoSuchElementException(final SearchContext searchContext, final Selector selector) {
-        super(format(NO_ELEMENT_MESSAGE, searchContext.toString(), selector.toString()));
+        super(format(NO_ELEMENT_MESSAGE, searchContext, selector));
     }
 }
@@ -19,14 +19,16 @@
 
 package org.fitting;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /** Search context for finding elements on. */
 public interface SearchContext {
     /**
      * Find all elements on the context matching the given selector.
      * @param selector The selector.
-     * @return The matching elements.
+     * @return The matching elements, the list may be unmodifiable.
      * @throws FittingException When the query failed to execute.
      */
     List<Element> findElementsBy(final Selector selector) throws FittingException;
@@ -40,6 +42,34 @@ public interface SearchContext {
      */
     Element findElementBy(final Selector selector) throws NoSuchElementException, FittingException;
 
+    /**
+     * Count the elements on the context matching the given selector, without retrieving them.
+     * @param selector The selector.
+     * @return The number of matching elements.
+     * @throws FittingException When the query failed to execute.
+     */
+    int countElementsBy(final Selector selector) throws FittingException;
+
+    /**
+     * Check if an element matching the given selector exists on the context, without retrieving it.
+     * @param selector The selector.
+     * @return <code>true</code> if a matching element exists.
+     * @throws FittingException When the query failed to execute.
+     */
+    boolean exists(final Selector selector) throws FittingException;
+
+    /**
+     * Find the first element on the context for each of the given selectors in a single lookup.
+     * <p>
+     * Selectors without a matching element are not present in the returned map.
+     * The map iterates in the order of the provided selectors.
+     * </p>
+     * @param selectors The selectors.
+     * @return The matching elements, keyed by their selector.
+     * @throws FittingException When the query failed to execute.
+     */
+    Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) throws FittingException;
+
     /**
      * Wait for a sub-element to become present within the element.
      * @param selector The selector of the element.
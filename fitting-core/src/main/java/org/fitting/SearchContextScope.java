@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fitting.event.ContainerClosedEvent;
+import org.fitting.event.ContainerCreatedEvent;
+import org.fitting.event.ContainerListener;
+import org.fitting.event.LocationChangedEvent;
+
+/**
+ * Scope in which the search contexts resolved by {@link SearchContextProvider}s are memoized, like a table of a fixture.
+ * <p>
+ * Within the scope each provider is asked for its search context once per root, instead of once per call. The memoized search contexts are released
+ * when the scope is closed and, as they are stale then, when a container of the {@link ElementContainerProvider} the scope is registered with
+ * navigates or is closed.
+ * </p>
+ * @see org.fitting.fixture.FittingFixture#beginTable()
+ */
+public final class SearchContextScope implements ContainerListener {
+    /** The memoized search contexts, by provider id. */
+    private final Map<String, ResolvedContext> contexts = new ConcurrentHashMap<String, ResolvedContext>();
+    /** The container provider the scope is registered with, <code>null</code> if the scope isn't registered. */
+    private final ElementContainerProvider containerProvider;
+
+    /**
+     * Create a new SearchContextScope, registering it with a container provider.
+     * @param containerProvider The container provider of which the container events release the memoized search contexts or <code>null</code>.
+     */
+    public SearchContextScope(final ElementContainerProvider containerProvider) {
+        this.containerProvider = containerProvider;
+        if (containerProvider != null) {
+            containerProvider.register(this);
+        }
+    }
+
+    /**
+     * Get the search context of a provider, resolving it only if it was not resolved for the same root within the scope.
+     * @param provider The search context provider.
+     * @param root The root search context.
+     * @param selectorProvider The selector provider.
+     * @return The search context.
+     */
+    public SearchContext getSearchContext(final SearchContextProvider provider, final SearchContext root, final SelectorProvider selectorProvider) {
+        final ResolvedContext resolved = contexts.get(provider.getId());
+        final SearchContext context;
+        if (resolved != null && resolved.root == root) {
+            context = resolved.context;
+        } else {
+            context = provider.getSearchContext(root, selectorProvider);
+            if (context != null) {
+                contexts.put(provider.getId(), new ResolvedContext(root, context));
+            }
+        }
+        return context;
+    }
+
+    /** Release the memoized search contexts. */
+    public void release() {
+        contexts.clear();
+    }
+
+    /** Close the scope, releasing the memoized search contexts and removing the scope from the container provider. */
+    public void close() {
+        if (containerProvider != null) {
+            containerProvider.remove(this);
+        }
+        release();
+    }
+
+    @Override
+    public void onContainerCreated(final ContainerCreatedEvent event) {
+        // Creating a container doesn't change the pages of the memoized search contexts.
+    }
+
+    @Override
+    public void onContainerClosed(final ContainerClosedEvent event) {
+        release();
+    }
+
+    @Override
+    public void onLocationChanged(final LocationChangedEvent event) {
+        release();
+    }
+
+    /** A resolved search context with the root it was resolved on. */
+    private static final class ResolvedContext {
+        /** The root search context. */
+        private final SearchContext root;
+        /** The resolved search context. */
+        private final SearchContext context;
+
+        /**
+         * Create a new ResolvedContext.
+         * @param root The root search context.
+         * @param context The resolved search context.
+         */
+        private ResolvedContext(final SearchContext root, final SearchContext context) {
+            this.root = root;
+            this.context = context;
+        }
+    }
+}
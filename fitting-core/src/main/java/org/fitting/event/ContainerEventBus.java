@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fitting.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * {@link org.fitting.event.ContainerListener} that delivers container events to its subscribers on a dedicated dispatch thread.
+ * <p>
+ * Registering the bus on an {@link org.fitting.ElementContainerProvider} takes slow listeners, like screenshot or HAR recorders, off the critical path of a test:
+ * events are put in a bounded buffer and the provider continues directly. When the buffer is full the {@link OverflowPolicy} decides if the event is dropped
+ * or if the provider waits for room. The dispatch thread drains the buffer in batches and records the time each subscriber takes per event.
+ * </p>
+ * <p>
+ * Events are delivered to each subscriber in the order they were published. Exceptions thrown by subscribers are logged and don't stop the dispatching.
+ * </p>
+ */
+public class ContainerEventBus implements ContainerListener {
+    /** The default number of events that can be buffered. */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /** The default maximum number of events dispatched in a single batch. */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    /** The time in milliseconds the dispatch thread waits for new events before checking if the bus was closed. */
+    private static final long POLL_INTERVAL = 100;
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerEventBus.class);
+    /** The buffered events. */
+    private final BlockingQueue<FittingEvent> buffer;
+    /** The policy for publishing events on a full buffer. */
+    private final OverflowPolicy overflowPolicy;
+    /** The maximum number of events dispatched in a single batch. */
+    private final int batchSize;
+    /** The subscribers. */
+    private final List<ContainerListener> subscribers = new CopyOnWriteArrayList<ContainerListener>();
+    /** The time each subscriber took to handle an event, in microseconds. */
+    private final ConcurrentMap<ContainerListener, LatencyHistogram> latencies = new ConcurrentHashMap<ContainerListener, LatencyHistogram>();
+    /** The number of published events. */
+    private final AtomicLong published = new AtomicLong();
+    /** The number of dispatched events. */
+    private final AtomicLong dispatched = new AtomicLong();
+    /** The number of dropped events. */
+    private final AtomicLong dropped = new AtomicLong();
+    /** The monitor signalled after every dispatched batch. */
+    private final Object progress = new Object();
+    /** The dispatch thread. */
+    private final Thread dispatcher;
+    /** Flag indicating if the bus accepts new events. */
+    private volatile boolean running = true;
+
+    /** Create a new ContainerEventBus with the default capacity, dropping new events when the buffer is full. */
+    public ContainerEventBus() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * Create a new ContainerEventBus.
+     * @param capacity The number of events that can be buffered.
+     * @param overflowPolicy The policy for publishing events on a full buffer.
+     * @throws IllegalArgumentException When the capacity is smaller than 1 or no policy was provided.
+     */
+    public ContainerEventBus(final int capacity, final OverflowPolicy overflowPolicy) throws IllegalArgumentException {
+        this(capacity, overflowPolicy, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create a new ContainerEventBus.
+     * @param capacity The number of events that can be buffered.
+     * @param overflowPolicy The policy for publishing events on a full buffer.
+     * @param batchSize The maximum number of events dispatched in a single batch.
+     * @throws IllegalArgumentException When the capacity or batch size is smaller than 1 or no policy was provided.
+     */
+    public ContainerEventBus(final int capacity, final OverflowPolicy overflowPolicy, final int batchSize) throws IllegalArgumentException {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException(format("Can't create an event bus with capacity %d and batch size %d.", capacity, batchSize));
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("No overflow policy provided.");
+        }
+        this.buffer = new ArrayBlockingQueue<FittingEvent>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.dispatcher = new Thread(new Dispatcher(), "fitting-event-bus");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Subscribe a listener to the events published on the bus.
+     * @param listener The listener.
+     */
+    public final void subscribe(final ContainerListener listener) {
+        if (listener != null) {
+            latencies.putIfAbsent(listener, new LatencyHistogram());
+            subscribers.add(listener);
+        }
+    }
+
+    /**
+     * Unsubscribe a listener.
+     * @param listener The listener.
+     */
+    public final void unsubscribe(final ContainerListener listener) {
+        if (listener != null) {
+            subscribers.remove(listener);
+        }
+    }
+
+    @Override
+    public void onContainerCreated(final ContainerCreatedEvent event) {
+        publish(event);
+    }
+
+    @Override
+    public void onContainerClosed(final ContainerClosedEvent event) {
+        publish(event);
+    }
+
+    @Override
+    public void onLocationChanged(final LocationChangedEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Wait until all events published so far have been dispatched or dropped.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return <code>true</code> if all events were handled within the timeout.
+     * @throws InterruptedException When the thread was interrupted while waiting.
+     */
+    public final boolean flush(final long timeout) throws InterruptedException {
+        final long target = published.get();
+        final long deadline = System.currentTimeMillis() + timeout;
+        synchronized (progress) {
+            long remaining = timeout;
+            while (dispatched.get() + dropped.get() < target && remaining > 0) {
+                progress.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return dispatched.get() + dropped.get() >= target;
+        }
+    }
+
+    /**
+     * Close the bus, dispatching the buffered events and stopping the dispatch thread.
+     * <p>
+     * Events published after closing are dropped.
+     * </p>
+     * @param timeout The maximum time to wait for the buffered events in milliseconds.
+     * @throws InterruptedException When the thread was interrupted while waiting.
+     */
+    public final void close(final long timeout) throws InterruptedException {
+        running = false;
+        dispatcher.join(timeout);
+        if (!dispatcher.isAlive()) {
+            // Events published while the dispatch thread was stopping.
+            for (FittingEvent event = buffer.poll(); event != null; event = buffer.poll()) {
+                drop(event);
+            }
+        }
+    }
+
+    /**
+     * Get the time a subscriber took to handle the events.
+     * @param listener The subscriber.
+     * @return The latencies in microseconds or <code>null</code> if the listener never subscribed.
+     */
+    public final LatencyHistogram getLatencies(final ContainerListener listener) {
+        return listener == null ? null : latencies.get(listener);
+    }
+
+    /**
+     * Get the number of events published on the bus.
+     * @return The number of events.
+     */
+    public final long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Get the number of events delivered to the subscribers.
+     * @return The number of events.
+     */
+    public final long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    /**
+     * Get the number of events dropped because the buffer was full or the bus was closed.
+     * @return The number of events.
+     */
+    public final long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the number of events waiting to be dispatched.
+     * @return The number of events.
+     */
+    public final int getBufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Publish an event, applying the overflow policy when the buffer is full.
+     * @param event The event.
+     */
+    private void publish(final FittingEvent event) {
+        published.incrementAndGet();
+        if (!running) {
+            drop(event);
+        } else if (!buffer.offer(event)) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    try {
+                        buffer.put(event);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        drop(event);
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!buffer.offer(event)) {
+                        final FittingEvent oldest = buffer.poll();
+                        if (oldest != null) {
+                            drop(oldest);
+                        }
+                    }
+                    break;
+                default:
+                    drop(event);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Register an event as dropped.
+     * @param event The event.
+     */
+    private void drop(final FittingEvent event) {
+        LOGGER.debug("Dropped event {}.", event);
+        dropped.incrementAndGet();
+        signalProgress();
+    }
+
+    /** Wake up the threads waiting for events to be handled. */
+    private void signalProgress() {
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+
+    /**
+     * Deliver an event to a subscriber, recording the time it took.
+     * @param listener The subscriber.
+     * @param event The event.
+     */
+    private void deliver(final ContainerListener listener, final FittingEvent event) {
+        final long start = System.nanoTime();
+        try {
+            if (event instanceof ContainerCreatedEvent) {
+                listener.onContainerCreated((ContainerCreatedEvent) event);
+            } else if (event instanceof ContainerClosedEvent) {
+                listener.onContainerClosed((ContainerClosedEvent) event);
+            } else if (event instanceof LocationChangedEvent) {
+                listener.onLocationChanged((LocationChangedEvent) event);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn(format("Container listener %s failed to handle event %s.", listener, event), e);
+        } finally {
+            final LatencyHistogram histogram = latencies.get(listener);
+            if (histogram != null) {
+                histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        }
+    }
+
+    /** Policies for publishing an event when the buffer is full. */
+    public enum OverflowPolicy {
+        /** Wait until there is room in the buffer. */
+        BLOCK,
+        /** Drop the event that is published. */
+        DROP_NEWEST,
+        /** Drop the oldest buffered event to make room. */
+        DROP_OLDEST
+    }
+
+    /** The task of the dispatch thread. */
+    private final class Dispatcher implements Runnable {
+        @Override
+        public void run() {
+            final List<FittingEvent> batch = new ArrayList<FittingEvent>(batchSize);
+            while (running || !buffer.isEmpty()) {
+                try {
+                    final FittingEvent first = buffer.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        buffer.drainTo(batch, batchSize - 1);
+                        for (FittingEvent event : batch) {
+                            for (ContainerListener listener : subscribers) {
+                                deliver(listener, event);
+                            }
+                            dispatched.incrementAndGet();
+                        }
+                        batch.clear();
+                        signalProgress();
+                    }
+                } catch (InterruptedException e) {
+                    LOGGER.debug("Event dispatching interrupted.", e);
+                    running = false;
+                }
+            }
+        }
+    }
+}
@@ -19,9 +19,6 @@
 
 package org.fitting.fixture;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.fitting.Element;
 import org.fitting.FittingException;
 import org.fitting.FormattedFittingException;
@@ -98,14 +95,7 @@ public class ElementFixture extends FittingFixture {
      * @throws FittingException When the selector could not be found.
      */
     public boolean elementWithBeingExists(final String selector, final String identifier) throws FittingException {
-        boolean present;
-        try {
-            getElement(selector, identifier);
-            present = true;
-        } catch (NoSuchElementException e) {
-            present = false;
-        }
-        return present;
+        return getSearchContext().exists(getSelector(selector, identifier));
     }
 
     /**
@@ -120,7 +110,7 @@ public class ElementFixture extends FittingFixture {
      * @throws FittingException When the selector could not be found.
      */
     public int numberOfElementsWithBeingIs(final String selector, final String identifier) throws FittingException {
-        return getElements(selector, identifier).size();
+        return getSearchContext().countElementsBy(getSelector(selector, identifier));
     }
 
     /**
@@ -289,22 +279,6 @@ public class ElementFixture extends FittingFixture {
         return getSearchContext().findElementBy(getSelector(selector, identifier));
     }
 
-    /**
-     * Get all the elements that match the given criteria from the base search context.
-     * @param selector The name of the selector.
-     * @param identifier The identifier/query for the selector.
-     * @return The elements.
-     * @throws FittingException When no matching selector could be found.
-     */
-    private List<Element> getElements(final String selector, final String identifier) throws FittingException {
-        final List<Element> elements = new ArrayList<Element>();
-        final List<Element> foundElements = getSearchContext().findElementsBy(getSelector(selector, identifier));
-        if (foundElements != null) {
-            elements.addAll(foundElements);
-        }
-        return elements;
-    }
-
     /**
      * Get the value of an attribute on an element.
      * @param selector The name of the selector.
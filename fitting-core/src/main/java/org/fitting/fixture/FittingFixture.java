@@ -20,6 +20,7 @@
 package org.fitting.fixture;
 
 import org.fitting.*;
+import org.fitting.metrics.InstrumentedFittingConnector;
 
 import static java.lang.String.format;
 
@@ -27,6 +28,8 @@ import static java.lang.String.format;
 public abstract class FittingFixture {
     /** The search context providers to use. */
     private final ThreadLocal<SearchContextProviders> providers = new ThreadLocal<SearchContextProviders>();
+    /** The scope of the current table, memoizing the resolved search contexts, <code>null</code> outside a table. */
+    private final ThreadLocal<SearchContextScope> tableScope = new ThreadLocal<SearchContextScope>();
 
     public FittingFixture() {
     }
@@ -39,6 +42,48 @@ public abstract class FittingFixture {
         providers.set(new SearchContextProviders(searchContextProviders));
     }
 
+    /**
+     * Begin a table, memoizing the search contexts resolved by the search context providers until the table ends.
+     * <p>
+     * Called by FitNesse before the first row of a table, so the search context of a provider is resolved once per table instead of once per row.
+     * </p>
+     * @see #endTable()
+     */
+    public void beginTable() {
+        closeTableScope();
+        final FittingConnector connector = getConnector();
+        tableScope.set(new SearchContextScope(connector == null ? null : connector.getElementContainerProvider()));
+    }
+
+    /**
+     * End the table, executing the commands still queued by the connector and releasing the memoized search contexts.
+     * <p>
+     * Called by FitNesse after the last row of a table.
+     * </p>
+     * @throws FittingException When a queued command failed.
+     * @see #beginTable()
+     * @see org.fitting.CommandBuffer
+     */
+    public void endTable() throws FittingException {
+        try {
+            final FittingConnector connector = InstrumentedFittingConnector.unwrap(getConnector());
+            if (connector instanceof CommandBuffer) {
+                ((CommandBuffer) connector).flush();
+            }
+        } finally {
+            closeTableScope();
+        }
+    }
+
+    /** Release the search contexts memoized for the current table, if any. */
+    private void closeTableScope() {
+        final SearchContextScope scope = tableScope.get();
+        if (scope != null) {
+            tableScope.remove();
+            scope.close();
+        }
+    }
+
     /**
      * Get the currently active {@link org.fitting.FittingConnector}.
      * @return The {@link org.fitting.FittingConnector} instance.
@@ -102,6 +147,7 @@ public abstract class FittingFixture {
     /**
      * Get the search context by its id.
      * The search context is either a WebElement or the WebDriver.
+     * Within a table the search context is only resolved once, see {@link #beginTable()}.
      * @param id The id of the search context.
      * @return The search context or null if there is no search context for the given id.
      */
@@ -109,7 +155,13 @@ public abstract class FittingFixture {
         SearchContext context = null;
         if (providers.get().isSearchContextProviderKnown(id)) {
             final SearchContextProvider provider = providers.get().getSearchContextProvider(id);
-            context = provider.getSearchContext(FittingContainer.get().getDefaultSearchContext(), getSelectorProvider());
+            final SearchContext root = FittingContainer.get().getDefaultSearchContext();
+            final SearchContextScope scope = tableScope.get();
+            if (scope == null) {
+                context = provider.getSearchContext(root, getSelectorProvider());
+            } else {
+                context = scope.getSearchContext(provider, root, getSelectorProvider());
+            }
         }
         return context;
     }
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.fixture;
+
+import org.fitting.FittingConnectorFactories;
+import org.fitting.FittingException;
+
+/**
+ * Fixture warming up the configured connector in the JVM running the tests.
+ * <p>
+ * FitNesse usage, e.g. on the SuiteSetUp page:
+ * <pre>| script | warm up fixture |
+ * | warm up |</pre>
+ * </p>
+ * @see org.fitting.FittingConnectorFactories#warmUpOnce()
+ */
+public class WarmUpFixture {
+    /**
+     * Warm up the configured connector, unless it was already warmed up in this JVM.
+     * <p>
+     * FitNesse usage:
+     * <pre>| warm up |</pre>
+     * </p>
+     * @return <code>true</code> when the connector is warmed up.
+     * @throws FittingException When the warm-up failed.
+     */
+    public boolean warmUp() throws FittingException {
+        FittingConnectorFactories.warmUpOnce();
+        return true;
+    }
+}
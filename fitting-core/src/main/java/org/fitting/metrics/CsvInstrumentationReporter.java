@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+/** {@link InstrumentationReporter} writing the statistics as CSV, one line per operation with all times in microseconds. */
+public class CsvInstrumentationReporter extends FileInstrumentationReporter {
+    /** The header line. */
+    static final String HEADER = "type,operation,invocations,remoteCalls,waitTime,workTime,min,mean,p50,p90,p99,max";
+
+    /**
+     * Create a new CsvInstrumentationReporter.
+     * @param file The file to write the report to.
+     * @throws IllegalArgumentException When no file was provided.
+     */
+    public CsvInstrumentationReporter(final File file) throws IllegalArgumentException {
+        super(file);
+    }
+
+    @Override
+    protected void write(final Writer writer, final List<OperationStatistics> statistics) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (OperationStatistics operation : statistics) {
+            final LatencyHistogram latencies = operation.getLatencies();
+            writer.write(format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%.1f,%d,%d,%d,%d\n", operation.getType(), quote(operation.getName()),
+                    operation.getInvocations(), operation.getRemoteCalls(), operation.getWaitTime(), operation.getWorkTime(), latencies.getMin(),
+                    latencies.getMean(), latencies.getPercentile(50), latencies.getPercentile(90), latencies.getPercentile(99), latencies.getMax()));
+        }
+    }
+
+    /**
+     * Quote a value when it contains separators or quotes.
+     * @param value The value.
+     * @return The CSV field.
+     */
+    private static String quote(final String value) {
+        String field = value;
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            field = '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return field;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+/** Base {@link InstrumentationReporter} writing the statistics to a file, replacing the previous report. */
+public abstract class FileInstrumentationReporter implements InstrumentationReporter {
+    /** The encoding of the report. */
+    private static final String ENCODING = "UTF-8";
+    /** The file to write the report to. */
+    private final File file;
+
+    /**
+     * Create a new FileInstrumentationReporter.
+     * @param file The file to write the report to.
+     * @throws IllegalArgumentException When no file was provided.
+     */
+    protected FileInstrumentationReporter(final File file) throws IllegalArgumentException {
+        if (file == null) {
+            throw new IllegalArgumentException("No report file provided.");
+        }
+        this.file = file;
+    }
+
+    @Override
+    public final void report(final List<OperationStatistics> statistics) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create the directory for report " + file);
+        }
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), ENCODING));
+        try {
+            write(writer, statistics);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Get the file the report is written to.
+     * @return The file.
+     */
+    public final File getFile() {
+        return file;
+    }
+
+    /**
+     * Write the statistics.
+     * @param writer The writer for the report file.
+     * @param statistics The statistics of the instrumented operations.
+     * @throws IOException When the report could not be written.
+     */
+    protected abstract void write(final Writer writer, final List<OperationStatistics> statistics) throws IOException;
+}
@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fitting.FittingConfiguration;
+import org.fitting.FittingConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * Registry collecting the timing of the commands issued on the system under test.
+ * <p>
+ * Commands are recorded by the instrumented wrappers like {@link InstrumentedFittingConnector}, which {@link #instrument(FittingConnector)} puts
+ * around every connector set in the {@link org.fitting.FittingContainer}. Commands are attributed to the {@link Call} running on the same thread,
+ * if any was {@link #start(String) started}. For every operation the latencies, the number of remote commands and the time spent waiting versus
+ * working are kept. The statistics are exported by the registered {@link InstrumentationReporter reporters} when {@link #report()} is called or when
+ * the JVM exits at the end of a suite.
+ * </p>
+ * <p>
+ * Instrumentation is disabled by default, set {@link #ENABLED} to enable it and {@link #REPORT} to write the statistics to a file.
+ * </p>
+ */
+public final class Instrumentation {
+    /** The name of the startup phase warming up the connector. */
+    public static final String WARM_UP = "Startup.warmUp";
+    /** The name of the startup phase from the {@link #markStartup(long) startup} until the first command or call. */
+    public static final String TIME_TO_FIRST_TEST = "Startup.timeToFirstTest";
+    /** The configuration key for instrumenting the connectors set in the {@link org.fitting.FittingContainer}. */
+    public static final FittingConfiguration.Key<Boolean> ENABLED = FittingConfiguration.booleanKey("fitting.instrumentation.enabled", false);
+    /** The configuration key for the file the statistics are written to when the JVM exits, JSON for <code>.json</code> files, CSV otherwise. */
+    public static final FittingConfiguration.Key<String> REPORT = FittingConfiguration.stringKey("fitting.instrumentation.report", "");
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(Instrumentation.class);
+    /** The singleton instance. */
+    private static final Instrumentation INSTANCE = new Instrumentation();
+    /** The value of the startup time when no startup is marked or the first command or call has been recorded. */
+    private static final long NO_STARTUP = Long.MIN_VALUE;
+    /** The call returned when nothing is recorded. */
+    private static final Call NO_CALL = new Call(null, null);
+    /** The statistics of the fixture calls, indexed by name. */
+    private final ConcurrentMap<String, OperationStatistics> fixtures = new ConcurrentHashMap<String, OperationStatistics>();
+    /** The statistics of the commands, indexed by name. */
+    private final ConcurrentMap<String, OperationStatistics> commands = new ConcurrentHashMap<String, OperationStatistics>();
+    /** The statistics of the startup phases, indexed by name. */
+    private final ConcurrentMap<String, OperationStatistics> startup = new ConcurrentHashMap<String, OperationStatistics>();
+    /** The value of {@link System#nanoTime()} at the marked startup, until the first command or call is recorded. */
+    private final AtomicLong startupTime = new AtomicLong(NO_STARTUP);
+    /** The registered reporters. */
+    private final List<InstrumentationReporter> reporters = new CopyOnWriteArrayList<InstrumentationReporter>();
+    /** The fixture call running on the current thread. */
+    private final ThreadLocal<Call> currentCall = new ThreadLocal<Call>();
+    /** Flag indicating if the statistics are collected. */
+    private volatile boolean enabled;
+    /** Flag indicating if the reporters are invoked when the JVM exits. */
+    private boolean shutdownHookRegistered;
+    /** Flag indicating if the configuration has been read. */
+    private boolean configured;
+
+    /** Private constructor for the singleton. */
+    private Instrumentation() {
+    }
+
+    /**
+     * Get the singleton instance.
+     * @return The instance.
+     */
+    public static Instrumentation getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check if the statistics are collected.
+     * @return <code>true</code> if the instrumentation is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable the collection of statistics.
+     * @param enabled <code>true</code> to collect statistics.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Wrap a connector so the commands issued through it are recorded, if the instrumentation is enabled.
+     * <p>
+     * The {@link #ENABLED} and {@link #REPORT} configuration is read the first time a connector is instrumented.
+     * </p>
+     * @param connector The connector.
+     * @return The instrumented connector, or the provided connector when the instrumentation is disabled or the connector is already instrumented.
+     * @see org.fitting.FittingContainer#set(org.fitting.FittingConnector)
+     */
+    public FittingConnector instrument(final FittingConnector connector) {
+        configure();
+        FittingConnector instrumented = connector;
+        if (enabled && connector != null && !(connector instanceof InstrumentedFittingConnector)) {
+            instrumented = new InstrumentedFittingConnector(connector, this);
+        }
+        return instrumented;
+    }
+
+    /**
+     * Start a fixture call on the current thread.
+     * <p>
+     * Calls started while another call is running on the thread are part of the running call and are not recorded separately.
+     * </p>
+     * @param operation The name of the fixture method.
+     * @return The call, which must be {@link Call#stop() stopped} when the fixture method returns.
+     */
+    public Call start(final String operation) {
+        Call call = NO_CALL;
+        if (enabled && currentCall.get() == null) {
+            recordTimeToFirstTest();
+            call = new Call(this, operation);
+            currentCall.set(call);
+        }
+        return call;
+    }
+
+    /**
+     * Record a command on the system under test, attributing it to the fixture call running on the current thread.
+     * @param operation The name of the command.
+     * @param start The value of {@link System#nanoTime()} when the command started.
+     * @param waiting <code>true</code> if the command was waiting for the system under test.
+     */
+    public void command(final String operation, final long start, final boolean waiting) {
+        if (enabled) {
+            recordTimeToFirstTest();
+            final long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            final long waited = waiting ? elapsed : 0;
+            getStatistics(commands, operation, OperationStatistics.Type.COMMAND).record(elapsed, 1, waited, elapsed - waited);
+            final Call call = currentCall.get();
+            if (call != null) {
+                call.commands++;
+                call.waited += waited;
+                call.worked += elapsed - waited;
+            }
+        }
+    }
+
+    /**
+     * Mark the startup of the system, recording the time until the next command or call as {@link #TIME_TO_FIRST_TEST}.
+     * @param start The value of {@link System#nanoTime()} when the system started.
+     */
+    public void markStartup(final long start) {
+        startupTime.set(start == NO_STARTUP ? start + 1 : start);
+    }
+
+    /**
+     * Record a phase of the startup of the system, independent of any fixture call.
+     * @param operation The name of the phase.
+     * @param start The value of {@link System#nanoTime()} when the phase started.
+     */
+    public void startupPhase(final String operation, final long start) {
+        if (enabled) {
+            final long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            getStatistics(startup, operation, OperationStatistics.Type.STARTUP).record(elapsed, 0, 0, elapsed);
+        }
+    }
+
+    /**
+     * Get the statistics of all recorded operations.
+     * @return The statistics, fixture calls first, then the commands and the startup phases, sorted by name.
+     */
+    public List<OperationStatistics> getStatistics() {
+        final List<OperationStatistics> statistics = new ArrayList<OperationStatistics>(fixtures.values());
+        final List<OperationStatistics> commandStatistics = new ArrayList<OperationStatistics>(commands.values());
+        final List<OperationStatistics> startupStatistics = new ArrayList<OperationStatistics>(startup.values());
+        final Comparator<OperationStatistics> byName = new Comparator<OperationStatistics>() {
+            @Override
+            public int compare(final OperationStatistics first, final OperationStatistics second) {
+                return first.getName().compareTo(second.getName());
+            }
+        };
+        Collections.sort(statistics, byName);
+        Collections.sort(commandStatistics, byName);
+        Collections.sort(startupStatistics, byName);
+        statistics.addAll(commandStatistics);
+        statistics.addAll(startupStatistics);
+        return statistics;
+    }
+
+    /** Remove all recorded statistics. */
+    public void reset() {
+        fixtures.clear();
+        commands.clear();
+        startup.clear();
+    }
+
+    /**
+     * Register a reporter.
+     * <p>
+     * All registered reporters are invoked once more when the JVM exits, so the statistics of a suite are exported without an explicit call.
+     * </p>
+     * @param reporter The reporter.
+     */
+    public void addReporter(final InstrumentationReporter reporter) {
+        if (reporter != null) {
+            reporters.add(reporter);
+            registerShutdownHook();
+        }
+    }
+
+    /**
+     * Remove a registered reporter.
+     * @param reporter The reporter.
+     */
+    public void removeReporter(final InstrumentationReporter reporter) {
+        if (reporter != null) {
+            reporters.remove(reporter);
+        }
+    }
+
+    /** Export the recorded statistics with all registered reporters. */
+    public void report() {
+        final List<OperationStatistics> statistics = getStatistics();
+        for (InstrumentationReporter reporter : reporters) {
+            try {
+                reporter.report(statistics);
+            } catch (IOException e) {
+                LOGGER.warn(format("Instrumentation reporter %s failed to report.", reporter), e);
+            } catch (RuntimeException e) {
+                LOGGER.warn(format("Instrumentation reporter %s failed to report.", reporter), e);
+            }
+        }
+    }
+
+    /** Read the configuration, enabling the instrumentation and registering the report file when configured. */
+    private synchronized void configure() {
+        if (!configured) {
+            configured = true;
+            final FittingConfiguration configuration = FittingConfiguration.getInstance();
+            if (configuration.get(ENABLED)) {
+                enabled = true;
+                final String report = configuration.get(REPORT);
+                if (report.endsWith(".json")) {
+                    addReporter(new JsonInstrumentationReporter(new File(report)));
+                } else if (report.length() > 0) {
+                    addReporter(new CsvInstrumentationReporter(new File(report)));
+                }
+            }
+        }
+    }
+
+    /** Record the {@link #TIME_TO_FIRST_TEST} if a startup was marked and nothing was recorded since. */
+    private void recordTimeToFirstTest() {
+        final long startup = startupTime.getAndSet(NO_STARTUP);
+        if (startup != NO_STARTUP) {
+            startupPhase(TIME_TO_FIRST_TEST, startup);
+        }
+    }
+
+    /** Invoke the reporters when the JVM exits. */
+    private synchronized void registerShutdownHook() {
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread("fitting-instrumentation-report") {
+                @Override
+                public void run() {
+                    report();
+                }
+            });
+            shutdownHookRegistered = true;
+        }
+    }
+
+    /**
+     * Stop a fixture call.
+     * @param call The call.
+     */
+    private void stop(final Call call) {
+        if (currentCall.get() == call) {
+            currentCall.remove();
+        }
+        final long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - call.start);
+        getStatistics(fixtures, call.operation, OperationStatistics.Type.FIXTURE).record(elapsed, call.commands, call.waited, call.worked);
+    }
+
+    /**
+     * Get the statistics of an operation, creating them when needed.
+     * @param statistics The statistics of the operations of the same type.
+     * @param operation The name of the operation.
+     * @param type The type of the operation.
+     * @return The statistics.
+     */
+    private static OperationStatistics getStatistics(final ConcurrentMap<String, OperationStatistics> statistics, final String operation,
+            final OperationStatistics.Type type) {
+        OperationStatistics operationStatistics = statistics.get(operation);
+        if (operationStatistics == null) {
+            final OperationStatistics created = new OperationStatistics(operation, type);
+            operationStatistics = statistics.putIfAbsent(operation, created);
+            if (operationStatistics == null) {
+                operationStatistics = created;
+            }
+        }
+        return operationStatistics;
+    }
+
+    /** A running fixture call, only to be used on the thread that started it. */
+    public static final class Call {
+        /** The instrumentation recording the call, <code>null</code> if the call is not recorded. */
+        private final Instrumentation instrumentation;
+        /** The name of the fixture method. */
+        private final String operation;
+        /** The value of {@link System#nanoTime()} when the call started. */
+        private final long start;
+        /** The number of commands issued. */
+        private long commands;
+        /** The time spent waiting in microseconds. */
+        private long waited;
+        /** The time spent in other commands in microseconds. */
+        private long worked;
+        /** Flag indicating if the call was stopped. */
+        private boolean stopped;
+
+        /**
+         * Create a new Call.
+         * @param instrumentation The instrumentation recording the call, <code>null</code> if the call is not recorded.
+         * @param operation The name of the fixture method.
+         */
+        private Call(final Instrumentation instrumentation, final String operation) {
+            this.instrumentation = instrumentation;
+            this.operation = operation;
+            this.start = instrumentation == null ? 0 : System.nanoTime();
+        }
+
+        /** Stop the call, recording its statistics. Stopping a call more than once has no effect. */
+        public void stop() {
+            if (instrumentation != null && !stopped) {
+                stopped = true;
+                instrumentation.stop(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reporter exporting the statistics collected by {@link Instrumentation}.
+ * @see Instrumentation#addReporter(InstrumentationReporter)
+ */
+public interface InstrumentationReporter {
+    /**
+     * Report the statistics.
+     * @param statistics The statistics of the instrumented operations, sorted by type and name.
+     * @throws IOException When the report could not be written.
+     */
+    void report(final List<OperationStatistics> statistics) throws IOException;
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import org.fitting.Dimension;
+import org.fitting.Element;
+import org.fitting.ElementSnapshot;
+import org.fitting.FittingException;
+import org.fitting.Point;
+
+/** {@link org.fitting.Element} recording every call on the wrapped element as command in the {@link Instrumentation}. */
+public class InstrumentedElement extends InstrumentedSearchContext implements Element {
+
+    /**
+     * Create a new InstrumentedElement.
+     * @param delegate The element to wrap.
+     * @param instrumentation The instrumentation recording the commands.
+     */
+    public InstrumentedElement(final Element delegate, final Instrumentation instrumentation) {
+        super(delegate, instrumentation, "Element.");
+    }
+
+    @Override
+    public String getName() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getName();
+        } finally {
+            getInstrumentation().command("Element.getName", start, false);
+        }
+    }
+
+    @Override
+    public String getType() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getType();
+        } finally {
+            getInstrumentation().command("Element.getType", start, false);
+        }
+    }
+
+    @Override
+    public String getText() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getText();
+        } finally {
+            getInstrumentation().command("Element.getText", start, false);
+        }
+    }
+
+    @Override
+    public String getAttributeValue(final String attributeName) {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getAttributeValue(attributeName);
+        } finally {
+            getInstrumentation().command("Element.getAttributeValue", start, false);
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().isActive();
+        } finally {
+            getInstrumentation().command("Element.isActive", start, false);
+        }
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().isDisplayed();
+        } finally {
+            getInstrumentation().command("Element.isDisplayed", start, false);
+        }
+    }
+
+    @Override
+    public Point getLocation() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getLocation();
+        } finally {
+            getInstrumentation().command("Element.getLocation", start, false);
+        }
+    }
+
+    @Override
+    public Dimension getSize() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getSize();
+        } finally {
+            getInstrumentation().command("Element.getSize", start, false);
+        }
+    }
+
+    @Override
+    public boolean isInput() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().isInput();
+        } finally {
+            getInstrumentation().command("Element.isInput", start, false);
+        }
+    }
+
+    @Override
+    public String getValue() {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().getValue();
+        } finally {
+            getInstrumentation().command("Element.getValue", start, false);
+        }
+    }
+
+    @Override
+    public ElementSnapshot snapshot() throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            return getDelegate().snapshot();
+        } finally {
+            getInstrumentation().command("Element.snapshot", start, false);
+        }
+    }
+
+    @Override
+    public void click() {
+        final long start = System.nanoTime();
+        try {
+            getDelegate().click();
+        } finally {
+            getInstrumentation().command("Element.click", start, false);
+        }
+    }
+
+    @Override
+    public void sendKeys(final CharSequence... characters) {
+        final long start = System.nanoTime();
+        try {
+            getDelegate().sendKeys(characters);
+        } finally {
+            getInstrumentation().command("Element.sendKeys", start, false);
+        }
+    }
+
+    @Override
+    public void setValue(final String value) throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            getDelegate().setValue(value);
+        } finally {
+            getInstrumentation().command("Element.setValue", start, false);
+        }
+    }
+
+    @Override
+    public void setValueWithText(final String text) throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            getDelegate().setValueWithText(text);
+        } finally {
+            getInstrumentation().command("Element.setValueWithText", start, false);
+        }
+    }
+
+    @Override
+    public void clear() {
+        final long start = System.nanoTime();
+        try {
+            getDelegate().clear();
+        } finally {
+            getInstrumentation().command("Element.clear", start, false);
+        }
+    }
+
+    @Override
+    public Element getDelegate() {
+        return (Element) super.getDelegate();
+    }
+}
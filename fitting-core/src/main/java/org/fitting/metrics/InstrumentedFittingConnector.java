@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import org.fitting.ElementContainerProvider;
+import org.fitting.FittingConnector;
+import org.fitting.SearchContext;
+import org.fitting.SelectorProvider;
+
+/**
+ * {@link org.fitting.FittingConnector} recording the commands issued on the search contexts and elements of the wrapped connector.
+ * <p>
+ * Connectors set in the {@link org.fitting.FittingContainer} are wrapped automatically when {@link Instrumentation#ENABLED} is configured.
+ * </p>
+ */
+public class InstrumentedFittingConnector implements FittingConnector {
+    /** The wrapped connector. */
+    private final FittingConnector delegate;
+    /** The instrumentation recording the commands. */
+    private final Instrumentation instrumentation;
+    /** The wrapper of the last default search context of the wrapped connector, <code>null</code> until first requested. */
+    private InstrumentedSearchContext defaultSearchContext;
+
+    /**
+     * Create a new InstrumentedFittingConnector.
+     * @param delegate The connector to wrap.
+     * @param instrumentation The instrumentation recording the commands.
+     * @throws IllegalArgumentException When no connector or instrumentation was provided.
+     */
+    public InstrumentedFittingConnector(final FittingConnector delegate, final Instrumentation instrumentation) throws IllegalArgumentException {
+        if (delegate == null || instrumentation == null) {
+            throw new IllegalArgumentException("Both a connector and an instrumentation must be provided.");
+        }
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public SelectorProvider getSelectorProvider() {
+        return delegate.getSelectorProvider();
+    }
+
+    @Override
+    public ElementContainerProvider getElementContainerProvider() {
+        return delegate.getElementContainerProvider();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The wrapper is kept as long as the wrapped connector returns the same search context, so the search contexts resolved on it can be cached.
+     * </p>
+     */
+    @Override
+    public synchronized SearchContext getDefaultSearchContext() {
+        final SearchContext searchContext = delegate.getDefaultSearchContext();
+        if (searchContext == null) {
+            defaultSearchContext = null;
+        } else if (defaultSearchContext == null || defaultSearchContext.getDelegate() != searchContext) {
+            defaultSearchContext = new InstrumentedSearchContext(searchContext, instrumentation);
+        }
+        return defaultSearchContext;
+    }
+
+    @Override
+    public void destroy() {
+        delegate.destroy();
+    }
+
+    /**
+     * Get the wrapped connector.
+     * @return The connector.
+     */
+    public FittingConnector getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Get the connector wrapped by an instrumented connector.
+     * @param connector The connector.
+     * @return The wrapped connector, or the provided connector when it is not instrumented.
+     */
+    public static FittingConnector unwrap(final FittingConnector connector) {
+        FittingConnector unwrapped = connector;
+        while (unwrapped instanceof InstrumentedFittingConnector) {
+            unwrapped = ((InstrumentedFittingConnector) unwrapped).getDelegate();
+        }
+        return unwrapped;
+    }
+}
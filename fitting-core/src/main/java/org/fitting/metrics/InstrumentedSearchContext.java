@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fitting.Element;
+import org.fitting.FittingException;
+import org.fitting.NoSuchElementException;
+import org.fitting.SearchContext;
+import org.fitting.Selector;
+
+/**
+ * {@link org.fitting.SearchContext} recording every lookup and wait on the wrapped context as command in the {@link Instrumentation}.
+ * <p>
+ * Found elements are wrapped as well, so the commands on them are recorded too. Lists of elements are wrapped as they are read.
+ * </p>
+ */
+public class InstrumentedSearchContext implements SearchContext {
+    /** The wrapped search context. */
+    private final SearchContext delegate;
+    /** The instrumentation recording the commands. */
+    private final Instrumentation instrumentation;
+    /** The prefix for the names of the commands. */
+    private final String prefix;
+
+    /**
+     * Create a new InstrumentedSearchContext.
+     * @param delegate The search context to wrap.
+     * @param instrumentation The instrumentation recording the commands.
+     */
+    public InstrumentedSearchContext(final SearchContext delegate, final Instrumentation instrumentation) {
+        this(delegate, instrumentation, "SearchContext.");
+    }
+
+    /**
+     * Create a new InstrumentedSearchContext.
+     * @param delegate The search context to wrap.
+     * @param instrumentation The instrumentation recording the commands.
+     * @param prefix The prefix for the names of the commands.
+     */
+    InstrumentedSearchContext(final SearchContext delegate, final Instrumentation instrumentation, final String prefix) {
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public List<Element> findElementsBy(final Selector selector) throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            final List<Element> elements = delegate.findElementsBy(selector);
+            return elements == null ? null : new AbstractList<Element>() {
+                @Override
+                public Element get(final int index) {
+                    return instrument(elements.get(index));
+                }
+
+                @Override
+                public int size() {
+                    return elements.size();
+                }
+            };
+        } finally {
+            instrumentation.command(prefix + "findElementsBy", start, false);
+        }
+    }
+
+    @Override
+    public Element findElementBy(final Selector selector) throws NoSuchElementException, FittingException {
+        final long start = System.nanoTime();
+        try {
+            return instrument(delegate.findElementBy(selector));
+        } finally {
+            instrumentation.command(prefix + "findElementBy", start, false);
+        }
+    }
+
+    @Override
+    public int countElementsBy(final Selector selector) throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            return delegate.countElementsBy(selector);
+        } finally {
+            instrumentation.command(prefix + "countElementsBy", start, false);
+        }
+    }
+
+    @Override
+    public boolean exists(final Selector selector) throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            return delegate.exists(selector);
+        } finally {
+            instrumentation.command(prefix + "exists", start, false);
+        }
+    }
+
+    @Override
+    public Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) throws FittingException {
+        final long start = System.nanoTime();
+        try {
+            final Map<Selector, Element> elements = delegate.findElementsBy(selectors);
+            Map<Selector, Element> instrumented = null;
+            if (elements != null) {
+                instrumented = new LinkedHashMap<Selector, Element>();
+                for (Map.Entry<Selector, Element> entry : elements.entrySet()) {
+                    instrumented.put(entry.getKey(), instrument(entry.getValue()));
+                }
+            }
+            return instrumented;
+        } finally {
+            instrumentation.command(prefix + "findElementsBySelectors", start, false);
+        }
+    }
+
+    @Override
+    public void waitForElement(final Selector selector, final int timeout) throws NoSuchElementException {
+        final long start = System.nanoTime();
+        try {
+            delegate.waitForElement(selector, timeout);
+        } finally {
+            instrumentation.command(prefix + "waitForElement", start, true);
+        }
+    }
+
+    @Override
+    public void waitForElementWithContent(final Selector selector, final String content, final int timeout) {
+        final long start = System.nanoTime();
+        try {
+            delegate.waitForElementWithContent(selector, content, timeout);
+        } finally {
+            instrumentation.command(prefix + "waitForElementWithContent", start, true);
+        }
+    }
+
+    /**
+     * Get the wrapped search context.
+     * @return The search context.
+     */
+    public SearchContext getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Get the instrumentation recording the commands.
+     * @return The instrumentation.
+     */
+    protected final Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Wrap an element.
+     * @param element The element.
+     * @return The instrumented element or <code>null</code> if no element was provided.
+     */
+    private Element instrument(final Element element) {
+        Element instrumented = element;
+        if (element != null && !(element instanceof InstrumentedElement)) {
+            instrumented = new InstrumentedElement(element, instrumentation);
+        }
+        return instrumented;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+import static java.lang.String.format;
+
+/** {@link InstrumentationReporter} writing the statistics as a JSON array, one object per operation with all times in microseconds. */
+public class JsonInstrumentationReporter extends FileInstrumentationReporter {
+
+    /**
+     * Create a new JsonInstrumentationReporter.
+     * @param file The file to write the report to.
+     * @throws IllegalArgumentException When no file was provided.
+     */
+    public JsonInstrumentationReporter(final File file) throws IllegalArgumentException {
+        super(file);
+    }
+
+    @Override
+    protected void write(final Writer writer, final List<OperationStatistics> statistics) throws IOException {
+        writer.write('[');
+        for (int i = 0; i < statistics.size(); i++) {
+            final OperationStatistics operation = statistics.get(i);
+            final LatencyHistogram latencies = operation.getLatencies();
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write(format(Locale.ROOT, "  {\"type\":\"%s\",\"operation\":%s,\"invocations\":%d,\"remoteCalls\":%d,\"waitTime\":%d,\"workTime\":%d,"
+                    + "\"latency\":{\"min\":%d,\"mean\":%.1f,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"max\":%d}}", operation.getType(), quote(operation.getName()),
+                    operation.getInvocations(), operation.getRemoteCalls(), operation.getWaitTime(), operation.getWorkTime(), latencies.getMin(),
+                    latencies.getMean(), latencies.getPercentile(50), latencies.getPercentile(90), latencies.getPercentile(99), latencies.getMax()));
+        }
+        writer.write("\n]\n");
+    }
+
+    /**
+     * Create a JSON string.
+     * @param value The value.
+     * @return The quoted and escaped value.
+     */
+    private static String quote(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < ' ') {
+                builder.append(format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.String.format;
+
+/**
+ * Thread-safe histogram of recorded latencies with a bounded relative error.
+ * <p>
+ * Values below 16 are counted exactly, larger values are counted in 8 linear sub-buckets per power of two, giving a relative error of at most 12.5%.
+ * The unit of the recorded values is up to the caller.
+ * </p>
+ */
+public final class LatencyHistogram {
+    /** The number of sub-buckets per power of two, as power of two. */
+    private static final int SUB_BUCKET_BITS = 3;
+    /** The number of sub-buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** The highest value that is counted exactly. */
+    private static final int EXACT_VALUES = 2 * SUB_BUCKETS;
+    /** The exponent of the first power of two with sub-buckets. */
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+    /** The total number of buckets. */
+    private static final int BUCKETS = EXACT_VALUES + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+    /** The counts per bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    /** The number of recorded values. */
+    private final AtomicLong count = new AtomicLong();
+    /** The sum of the recorded values. */
+    private final AtomicLong sum = new AtomicLong();
+    /** The lowest recorded value. */
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    /** The highest recorded value. */
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record a value.
+     * @param value The value, negative values are recorded as <code>0</code>.
+     */
+    public void record(final long value) {
+        final long recorded = Math.max(0, value);
+        counts.incrementAndGet(index(recorded));
+        count.incrementAndGet();
+        sum.addAndGet(recorded);
+        long current = min.get();
+        while (recorded < current && !min.compareAndSet(current, recorded)) {
+            current = min.get();
+        }
+        current = max.get();
+        while (recorded > current && !max.compareAndSet(current, recorded)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Get the number of recorded values.
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the sum of all recorded values.
+     * @return The sum.
+     */
+    public long getTotal() {
+        return sum.get();
+    }
+
+    /**
+     * Get the lowest recorded value.
+     * @return The lowest value or <code>0</code> if no values were recorded.
+     */
+    public long getMin() {
+        return count.get() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * Get the highest recorded value.
+     * @return The highest value or <code>0</code> if no values were recorded.
+     */
+    public long getMax() {
+        return count.get() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * Get the mean of the recorded values.
+     * @return The mean or <code>0</code> if no values were recorded.
+     */
+    public double getMean() {
+        final long values = count.get();
+        return values == 0 ? 0 : (double) sum.get() / values;
+    }
+
+    /**
+     * Get the value at a given percentile.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The highest value of the bucket containing the percentile, or <code>0</code> if no values were recorded.
+     * @throws IllegalArgumentException When the percentile is not between 0 and 100.
+     */
+    public long getPercentile(final double percentile) throws IllegalArgumentException {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(format("Percentile %s is not between 0 and 100.", percentile));
+        }
+        final long values = count.get();
+        long value = 0;
+        if (values > 0) {
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * values));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    value = Math.min(highestValue(i), getMax());
+                    break;
+                }
+            }
+        }
+        return value;
+    }
+
+    /** Remove all recorded values. */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Get the bucket of a value.
+     * @param value The value.
+     * @return The index of the bucket.
+     */
+    private static int index(final long value) {
+        int index;
+        if (value < EXACT_VALUES) {
+            index = (int) value;
+        } else {
+            final int exponent = 63 - Long.numberOfLeadingZeros(value);
+            final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            index = EXACT_VALUES + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+        }
+        return index;
+    }
+
+    /**
+     * Get the highest value counted in a bucket.
+     * @param index The index of the bucket.
+     * @return The highest value.
+     */
+    private static long highestValue(final int index) {
+        long value;
+        if (index < EXACT_VALUES) {
+            value = index;
+        } else {
+            final int exponent = (index - EXACT_VALUES) / SUB_BUCKETS + FIRST_EXPONENT;
+            final int subBucket = (index - EXACT_VALUES) % SUB_BUCKETS;
+            value = ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+            if (value < 0) {
+                value = Long.MAX_VALUE;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return format("count=%d, min=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, max=%d", getCount(), getMin(), getMean(), getPercentile(50), getPercentile(90),
+                getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Thread-safe statistics of an instrumented operation, like a fixture method or a command on the system under test.
+ * <p>
+ * All times are in microseconds. The wait time is the time spent in commands waiting for the system under test,
+ * the work time is the time spent in all other commands.
+ * </p>
+ */
+public final class OperationStatistics {
+    /** The name of the operation. */
+    private final String name;
+    /** The type of the operation. */
+    private final Type type;
+    /** The latencies of the invocations. */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    /** The number of remote commands issued by the invocations. */
+    private final AtomicLong remoteCalls = new AtomicLong();
+    /** The time spent waiting. */
+    private final AtomicLong waitTime = new AtomicLong();
+    /** The time spent in commands, other than waiting. */
+    private final AtomicLong workTime = new AtomicLong();
+
+    /**
+     * Create new OperationStatistics.
+     * @param name The name of the operation.
+     * @param type The type of the operation.
+     */
+    OperationStatistics(final String name, final Type type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Record an invocation of the operation.
+     * @param latency The latency of the invocation.
+     * @param commands The number of remote commands issued by the invocation.
+     * @param waited The time spent waiting.
+     * @param worked The time spent in commands, other than waiting.
+     */
+    void record(final long latency, final long commands, final long waited, final long worked) {
+        latencies.record(latency);
+        remoteCalls.addAndGet(commands);
+        waitTime.addAndGet(waited);
+        workTime.addAndGet(worked);
+    }
+
+    /**
+     * Get the name of the operation.
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the type of the operation.
+     * @return The type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the number of invocations.
+     * @return The number of invocations.
+     */
+    public long getInvocations() {
+        return latencies.getCount();
+    }
+
+    /**
+     * Get the latencies of the invocations.
+     * @return The latencies in microseconds.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Get the number of remote commands issued by all invocations.
+     * @return The number of commands.
+     */
+    public long getRemoteCalls() {
+        return remoteCalls.get();
+    }
+
+    /**
+     * Get the total time spent waiting for the system under test.
+     * @return The time in microseconds.
+     */
+    public long getWaitTime() {
+        return waitTime.get();
+    }
+
+    /**
+     * Get the total time spent in commands, other than waiting.
+     * @return The time in microseconds.
+     */
+    public long getWorkTime() {
+        return workTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return format("%s %s: remoteCalls=%d, waitTime=%d, workTime=%d, %s", type, name, getRemoteCalls(), getWaitTime(), getWorkTime(), latencies);
+    }
+
+    /** The types of instrumented operations. */
+    public enum Type {
+        /** A fixture method called from a test. */
+        FIXTURE,
+        /** A command on the system under test, like a lookup or a click. */
+        COMMAND,
+        /** A phase of the startup, like the warm-up or the time until the first fixture call. */
+        STARTUP
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.wait;
+
+import org.fitting.FittingException;
+
+/**
+ * Condition to wait for with the {@link org.fitting.wait.WaitEngine}.
+ * @param <T> The type of result of the condition.
+ */
+public interface Condition<T> {
+    /**
+     * Evaluate the condition.
+     * @return The result when the condition is met or <code>null</code> or <code>false</code> when it is not met (yet).
+     * @throws FittingException When the condition could not be evaluated.
+     */
+    T evaluate() throws FittingException;
+}
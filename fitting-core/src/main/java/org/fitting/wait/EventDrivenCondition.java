@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.wait;
+
+import org.fitting.FittingException;
+
+/**
+ * {@link org.fitting.wait.Condition} that can wait for itself to be met without being polled, e.g. by listening to changes within a browser.
+ * @param <T> The type of result of the condition.
+ * @see PollingStrategies#eventDriven(PollingStrategy)
+ */
+public interface EventDrivenCondition<T> extends Condition<T> {
+    /**
+     * Wait until the condition is met or the timeout has passed.
+     * @param timeout The timeout in milliseconds.
+     * @return <code>true</code> if the condition was met within the timeout.
+     * @throws UnsupportedOperationException When the condition can't be awaited, in which case the condition is polled instead.
+     * @throws FittingException When waiting failed.
+     */
+    boolean await(final long timeout) throws UnsupportedOperationException, FittingException;
+}
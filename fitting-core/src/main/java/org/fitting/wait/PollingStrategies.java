@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.wait;
+
+import java.util.Random;
+
+import static java.lang.String.format;
+
+/** Factory for the available {@link org.fitting.wait.PollingStrategy} implementations. */
+public final class PollingStrategies {
+    /** Private constructor, for static use only. */
+    private PollingStrategies() {
+    }
+
+    /**
+     * Create a strategy polling with a fixed interval.
+     * @param interval The interval in milliseconds.
+     * @return The strategy.
+     * @throws IllegalArgumentException When the interval is negative.
+     */
+    public static PollingStrategy fixed(final long interval) throws IllegalArgumentException {
+        if (interval < 0) {
+            throw new IllegalArgumentException(format("Can't poll with a negative interval of %dms.", interval));
+        }
+        return new PollingStrategy() {
+            @Override
+            public long getDelay(final int attempt) {
+                return interval;
+            }
+
+            @Override
+            public String toString() {
+                return format("fixed(%d)", interval);
+            }
+        };
+    }
+
+    /**
+     * Create a strategy with exponentially increasing delays, so fast conditions are detected early while slow conditions are polled less often.
+     * @param initial The first delay in milliseconds.
+     * @param multiplier The factor to multiply the delay with after each evaluation.
+     * @param maximum The maximum delay in milliseconds.
+     * @return The strategy.
+     * @throws IllegalArgumentException When the initial delay is negative, the multiplier is smaller than 1 or the maximum is smaller than the initial delay.
+     */
+    public static PollingStrategy exponential(final long initial, final double multiplier, final long maximum) throws IllegalArgumentException {
+        if (initial < 0 || multiplier < 1 || maximum < initial) {
+            throw new IllegalArgumentException(format("Invalid exponential backoff of %dms * %s up to %dms.", initial, multiplier, maximum));
+        }
+        return new PollingStrategy() {
+            @Override
+            public long getDelay(final int attempt) {
+                return (long) Math.min(maximum, initial * Math.pow(multiplier, attempt - 1));
+            }
+
+            @Override
+            public String toString() {
+                return format("exponential(%d, %s, %d)", initial, multiplier, maximum);
+            }
+        };
+    }
+
+    /**
+     * Create a strategy that randomly varies the delays of another strategy, so concurrent waits don't poll the browser at the same moment.
+     * @param strategy The strategy to vary.
+     * @param jitter The maximum fraction of the delay to add or subtract, between 0 and 1.
+     * @return The strategy.
+     * @throws IllegalArgumentException When the jitter is not between 0 and 1.
+     */
+    public static PollingStrategy jittered(final PollingStrategy strategy, final double jitter) throws IllegalArgumentException {
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException(format("Jitter %s is not between 0 and 1.", jitter));
+        }
+        final Random random = new Random();
+        return new PollingStrategy() {
+            @Override
+            public long getDelay(final int attempt) {
+                final long delay = strategy.getDelay(attempt);
+                return Math.max(0, Math.round(delay * (1 + jitter * (2 * random.nextDouble() - 1))));
+            }
+
+            @Override
+            public String toString() {
+                return format("jittered(%s, %s)", strategy, jitter);
+            }
+        };
+    }
+
+    /**
+     * Create a strategy that lets {@link org.fitting.wait.EventDrivenCondition}s wait for themselves, polling other conditions with a fallback strategy.
+     * @param fallback The strategy for conditions that can't be awaited.
+     * @return The strategy.
+     */
+    public static PollingStrategy eventDriven(final PollingStrategy fallback) {
+        return new EventDrivenStrategy(fallback);
+    }
+
+    /** {@link org.fitting.wait.PollingStrategy} marking that event driven conditions should be awaited instead of polled. */
+    static final class EventDrivenStrategy implements PollingStrategy {
+        /** The strategy for conditions that can't be awaited. */
+        private final PollingStrategy fallback;
+
+        /**
+         * Create a new EventDrivenStrategy.
+         * @param fallback The strategy for conditions that can't be awaited.
+         */
+        EventDrivenStrategy(final PollingStrategy fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public long getDelay(final int attempt) {
+            return fallback.getDelay(attempt);
+        }
+
+        @Override
+        public String toString() {
+            return format("eventDriven(%s)", fallback);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.wait;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.fitting.FittingConfiguration;
+import org.fitting.FittingException;
+import org.fitting.metrics.LatencyHistogram;
+
+/**
+ * Engine for waiting on {@link org.fitting.wait.Condition}s, using a configurable {@link org.fitting.wait.PollingStrategy}.
+ * <p>
+ * The time spent in each wait is recorded in a {@link org.fitting.metrics.LatencyHistogram} per wait name.
+ * </p>
+ */
+public class WaitEngine {
+    /** The name under which sleeps are recorded. */
+    public static final String SLEEP = "sleep";
+    /** The default strategy, awaiting event driven conditions and polling others with a jittered backoff from 50ms up to 500ms. */
+    public static final PollingStrategy DEFAULT_STRATEGY = PollingStrategies.eventDriven(PollingStrategies.jittered(PollingStrategies.exponential(50, 2, 500), 0.2));
+    /** The configuration key for the initial polling interval in milliseconds of the shared instance. */
+    public static final FittingConfiguration.Key<Long> POLLING_INTERVAL = FittingConfiguration.longKey("fitting.wait.pollingInterval", 50);
+    /** The configuration key for the maximum polling interval in milliseconds of the shared instance. */
+    public static final FittingConfiguration.Key<Long> MAX_POLLING_INTERVAL = FittingConfiguration.longKey("fitting.wait.maxPollingInterval", 500);
+    /** The singleton instance, polling with the intervals from the {@link org.fitting.FittingConfiguration}. */
+    private static final WaitEngine INSTANCE = new WaitEngine(createConfiguredStrategy(FittingConfiguration.getInstance().getSnapshot()));
+    /** The strategy to use. */
+    private volatile PollingStrategy strategy;
+    /** The histograms of the waits, in milliseconds, indexed by wait name. */
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    /**
+     * Create a new WaitEngine.
+     * @param strategy The strategy to use.
+     */
+    public WaitEngine(final PollingStrategy strategy) {
+        setPollingStrategy(strategy);
+    }
+
+    /**
+     * Get the shared instance.
+     * @return The instance.
+     */
+    public static WaitEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the strategy used for waiting.
+     * @return The strategy.
+     */
+    public PollingStrategy getPollingStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Set the strategy to use for waiting.
+     * @param strategy The strategy.
+     * @throws IllegalArgumentException When no strategy was provided.
+     */
+    public void setPollingStrategy(final PollingStrategy strategy) throws IllegalArgumentException {
+        if (strategy == null) {
+            throw new IllegalArgumentException("No polling strategy provided.");
+        }
+        this.strategy = strategy;
+    }
+
+    /**
+     * Wait for a condition to be met.
+     * @param name The name to record the wait under.
+     * @param condition The condition.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @param <T> The type of result of the condition.
+     * @return The result of the condition or <code>null</code> if the condition was not met within the timeout.
+     * @throws FittingException When the condition could not be evaluated or the thread was interrupted.
+     */
+    public <T> T waitFor(final String name, final Condition<T> condition, final long timeout) throws FittingException {
+        final PollingStrategy pollingStrategy = strategy;
+        final long start = currentTimeMillis();
+        T result = condition.evaluate();
+        try {
+            boolean timedOut = false;
+            if (!isMet(result) && pollingStrategy instanceof PollingStrategies.EventDrivenStrategy && condition instanceof EventDrivenCondition) {
+                try {
+                    if (((EventDrivenCondition<T>) condition).await(Math.max(0, timeout - (currentTimeMillis() - start)))) {
+                        result = condition.evaluate();
+                    } else {
+                        timedOut = true;
+                    }
+                } catch (UnsupportedOperationException e) {
+                    // Poll the condition instead.
+                }
+            }
+            int attempt = 0;
+            long remaining = timeout - (currentTimeMillis() - start);
+            while (!timedOut && !isMet(result) && remaining > 0) {
+                pause(Math.min(remaining, pollingStrategy.getDelay(++attempt)));
+                result = condition.evaluate();
+                remaining = timeout - (currentTimeMillis() - start);
+            }
+        } finally {
+            getHistogram(name).record(currentTimeMillis() - start);
+        }
+        return isMet(result) ? result : null;
+    }
+
+    /**
+     * Sleep for the given duration, without polling anything.
+     * @param duration The duration in milliseconds.
+     * @throws FittingException When the thread was interrupted.
+     */
+    public void sleep(final long duration) throws FittingException {
+        final long start = currentTimeMillis();
+        try {
+            pause(duration);
+        } finally {
+            getHistogram(SLEEP).record(currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Get the histogram for a wait.
+     * @param name The name of the wait.
+     * @return The histogram with the wait times in milliseconds.
+     */
+    public LatencyHistogram getHistogram(final String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            final LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Get the histograms of all waits.
+     * @return The histograms with the wait times in milliseconds, indexed by wait name.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(histograms));
+    }
+
+    /**
+     * Get the current time.
+     * @return The current time in milliseconds.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Pause the current thread.
+     * @param duration The duration in milliseconds.
+     * @throws FittingException When the thread was interrupted.
+     */
+    protected void pause(final long duration) throws FittingException {
+        if (duration > 0) {
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FittingException("Interrupted while waiting.", e);
+            }
+        }
+    }
+
+    /**
+     * Check if the result of a condition means the condition was met.
+     * @param result The result.
+     * @return <code>true</code> if the condition was met.
+     */
+    private static boolean isMet(final Object result) {
+        return result != null && !Boolean.FALSE.equals(result);
+    }
+
+    /**
+     * Create the strategy of the shared instance, like the {@link #DEFAULT_STRATEGY} but with the configured polling intervals.
+     * @param configuration The configuration.
+     * @return The strategy.
+     */
+    private static PollingStrategy createConfiguredStrategy(final FittingConfiguration.Snapshot configuration) {
+        final long initial = configuration.get(POLLING_INTERVAL);
+        final long maximum = configuration.get(MAX_POLLING_INTERVAL);
+        return PollingStrategies.eventDriven(PollingStrategies.jittered(PollingStrategies.exponential(initial, 2, Math.max(initial, maximum)), 0.2));
+    }
+}
@@ -19,19 +19,37 @@
 
 package org.fitting;
 
+import org.fitting.event.ContainerClosedEvent;
+import org.fitting.event.ContainerCreatedEvent;
 import org.fitting.event.ContainerListener;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.fitting.test.ReflectionUtility.extract;
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /** Unit tests for {@link ElementContainerProvider}. */
@@ -226,6 +244,161 @@ public class ElementContainerProviderTest {
         provider.createNewElementContainer("", false);
     }
 
+    /**
+     * Given a listener that registers another listener when a container is created.<br/>
+     * When a container is created.<br/>
+     * Then the event should be delivered without failing and the new listener should only receive later events.
+     * @see ElementContainerProvider#manageElementContainer(ElementContainer, boolean)
+     */
+    @Test
+    public void shouldAllowListenerRegistrationDuringDispatch() {
+        final ContainerListener registering = mock(ContainerListener.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                provider.register(containerListener);
+                return null;
+            }
+        }).when(registering).onContainerCreated(any(ContainerCreatedEvent.class));
+        provider.register(registering);
+
+        provider.manageElementContainer(elementContainer, false);
+
+        verify(registering).onContainerCreated(any(ContainerCreatedEvent.class));
+        verify(containerListener, never()).onContainerCreated(any(ContainerCreatedEvent.class));
+        assertEquals(2, getListeners(provider).size());
+    }
+
+    /**
+     * Given a provider with a listener executor.<br/>
+     * When a container is created.<br/>
+     * Then the listeners should be notified through the executor.
+     * @see ElementContainerProvider#setListenerExecutor(java.util.concurrent.Executor)
+     */
+    @Test
+    public void shouldNotifyListenersThroughExecutor() {
+        final List<Runnable> scheduled = new ArrayList<Runnable>();
+        provider.setListenerExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                scheduled.add(command);
+            }
+        });
+        provider.register(containerListener);
+
+        provider.manageElementContainer(elementContainer, false);
+        verify(containerListener, never()).onContainerCreated(any(ContainerCreatedEvent.class));
+
+        assertEquals(1, scheduled.size());
+        scheduled.get(0).run();
+        verify(containerListener).onContainerCreated(any(ContainerCreatedEvent.class));
+    }
+
+    /**
+     * Given an active container that is not the main container.<br/>
+     * When the active container is closed.<br/>
+     * Then the main container should be activated.
+     * @see ElementContainerProvider#closeElementContainer(String)
+     */
+    @Test
+    public void shouldActivateMainContainerWhenActiveContainerIsClosed() {
+        final ElementContainer popup = mock(ElementContainer.class);
+        when(popup.getId()).thenReturn("popup");
+        provider.manageElementContainer(elementContainer, true);
+        provider.manageElementContainer(popup, true);
+        provider.register(containerListener);
+
+        provider.closeActiveElementContainer();
+
+        verify(popup).close();
+        verify(elementContainer, times(2)).activate();
+        verify(containerListener).onContainerClosed(any(ContainerClosedEvent.class));
+        assertEquals(Arrays.asList(ELEMENTCONTAINER_ID), provider.getElementContainerIds());
+    }
+
+    /**
+     * Given an active frame in a popup of the main container.<br/>
+     * When the popup is closed.<br/>
+     * Then the frame should be closed before the popup and the main container should be activated.
+     * @see ElementContainerProvider#closeElementContainer(String)
+     */
+    @Test
+    public void shouldCloseChildContainers() {
+        final ElementContainer popup = mock(ElementContainer.class);
+        when(popup.getId()).thenReturn("popup");
+        when(popup.getParentId()).thenReturn(ELEMENTCONTAINER_ID);
+        final ElementContainer frame = mock(ElementContainer.class);
+        when(frame.getId()).thenReturn("popup/frame");
+        when(frame.getParentId()).thenReturn("popup");
+        provider.manageElementContainer(elementContainer, true);
+        provider.manageElementContainer(popup, false);
+        provider.manageElementContainer(frame, true);
+        provider.register(containerListener);
+
+        provider.closeElementContainer("popup");
+
+        final InOrder order = inOrder(frame, popup);
+        order.verify(frame).close();
+        order.verify(popup).close();
+        verify(elementContainer, never()).close();
+        verify(elementContainer, times(2)).activate();
+        verify(containerListener, times(2)).onContainerClosed(any(ContainerClosedEvent.class));
+        assertEquals(Arrays.asList(ELEMENTCONTAINER_ID), provider.getElementContainerIds());
+    }
+
+    /**
+     * Given a container that has already been closed.<br/>
+     * When the container is closed again.<br/>
+     * Then a {@link NoSuchContainerException} should be thrown.
+     * @see ElementContainerProvider#closeElementContainer(String)
+     */
+    @Test(expected = NoSuchContainerException.class)
+    public void shouldNotCloseContainerTwice() {
+        provider.manageElementContainer(elementContainer, true);
+        provider.closeElementContainer(ELEMENTCONTAINER_ID);
+
+        provider.closeElementContainer(ELEMENTCONTAINER_ID);
+    }
+
+    /**
+     * Given a provider shared between threads.<br/>
+     * When containers are created, activated and closed concurrently.<br/>
+     * Then no container should be lost or left behind.
+     * @see ElementContainerProvider#manageElementContainer(ElementContainer, boolean)
+     */
+    @Test
+    public void shouldManageContainersConcurrently() throws Exception {
+        final int threads = 8;
+        final int containers = 100;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = 0; i < containers; i++) {
+                        final String id = thread + "-" + i;
+                        final ElementContainer container = mock(ElementContainer.class);
+                        when(container.getId()).thenReturn(id);
+                        provider.manageElementContainer(container, true);
+                        provider.register(containerListener);
+                        if (i % 2 == 0) {
+                            provider.closeElementContainer(id);
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * containers / 2, provider.getElementContainerIds().size());
+    }
+
     /**
      * Get the content of the private {@link org.fitting.ElementContainerProvider#containerListeners}.
      * @param provider The ElementContainerProvider to get the values from.
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link ElementSnapshot}. */
+public class ElementSnapshotTest {
+
+    /**
+     * Given a snapshot of an element without value.<br/>
+     * When the value is requested.<br/>
+     * Then the text of the element should be returned.
+     *
+     * @see ElementSnapshot#getValue()
+     */
+    @Test
+    public void shouldReturnTextAsValueForElementWithoutValue() {
+        ElementSnapshot snapshot = new ElementSnapshot("p", "text", null, null, true, false, null, null, false);
+
+        assertFalse(snapshot.hasValue());
+        assertEquals("text", snapshot.getValue());
+        assertTrue(snapshot.getAttributes().isEmpty());
+    }
+
+    /**
+     * Given a snapshot of an input element.<br/>
+     * When the value is requested.<br/>
+     * Then the value of the element should be returned.
+     *
+     * @see ElementSnapshot#getValue()
+     */
+    @Test
+    public void shouldReturnValueForInputElement() {
+        ElementSnapshot snapshot = new ElementSnapshot("input", "", "value", null, true, false, null, null, true);
+
+        assertTrue(snapshot.hasValue());
+        assertEquals("value", snapshot.getValue());
+        assertTrue(snapshot.isInput());
+    }
+
+    /**
+     * Given a snapshot created from mutable values.<br/>
+     * When the values are changed after creating the snapshot.<br/>
+     * Then the snapshot should not change.
+     *
+     * @see ElementSnapshot#ElementSnapshot(String, String, String, java.util.Map, boolean, boolean, Point, Dimension, boolean)
+     */
+    @Test
+    public void shouldNotChangeWithProvidedValues() {
+        Map<String, String> attributes = new HashMap<String, String>();
+        attributes.put("id", "name");
+        Point location = new Point(1, 2);
+        ElementSnapshot snapshot = new ElementSnapshot("input", "", "value", attributes, true, false, location, new Dimension(3, 4), true);
+
+        attributes.put("id", "other");
+        location.move(5, 6);
+        snapshot.getLocation().move(7, 8);
+
+        assertEquals("name", snapshot.getAttributeValue("id"));
+        assertNull(snapshot.getAttributeValue("class"));
+        assertEquals(new Point(1, 2), snapshot.getLocation());
+        assertEquals(3, snapshot.getSize().getWidth());
+    }
+}
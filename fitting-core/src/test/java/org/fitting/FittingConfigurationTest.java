@@ -26,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -60,6 +61,37 @@ public class FittingConfigurationTest {
         assertEquals(TestFittingConnector.class, configuration.getSystemConnector());
     }
 
+    /**
+     * Given a configured and an unconfigured typed key.<br/>
+     * When the values are read.<br/>
+     * Then the configured value should be converted and the unconfigured key should return its default.
+     * @see FittingConfiguration#get(FittingConfiguration.Key)
+     */
+    @Test
+    public void shouldReadTypedValues() {
+        assertEquals(Long.valueOf(1500), configuration.get(FittingConfiguration.longKey("fitting.test.timeout", 10)));
+        assertEquals(Integer.valueOf(10), configuration.get(FittingConfiguration.integerKey("fitting.test.missing", 10)));
+    }
+
+    /**
+     * Given a configuration snapshot.<br/>
+     * When the configuration is reloaded.<br/>
+     * Then a new snapshot with the same values should replace it.
+     * @see FittingConfiguration#reload()
+     */
+    @Test
+    public void shouldReplaceSnapshotOnReload() {
+        final FittingConfiguration.Snapshot snapshot = configuration.getSnapshot();
+        assertSame(snapshot, configuration.getSnapshot());
+
+        final FittingConfiguration.Snapshot reloaded = configuration.reload();
+
+        assertNotSame(snapshot, reloaded);
+        assertSame(reloaded, configuration.getSnapshot());
+        assertEquals(snapshot.getValues(), reloaded.getValues());
+        assertEquals(TestFittingConnector.class, reloaded.getSystemConnector());
+    }
+
     static class TestFittingConnector implements FittingConnector {
 
         @Override
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.List;
+
+import org.fitting.fixture.WarmUpFixture;
+import org.fitting.metrics.Instrumentation;
+import org.fitting.metrics.OperationStatistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/** Unit tests for {@link FittingConnectorFactories}. */
+public class FittingConnectorFactoriesTest {
+    private Instrumentation instrumentation;
+
+    @Before
+    public void setUp() {
+        instrumentation = Instrumentation.getInstance();
+        instrumentation.reset();
+        instrumentation.setEnabled(true);
+        TestFittingConnectorFactory.sessions = 0;
+    }
+
+    @After
+    public void tearDown() {
+        instrumentation.setEnabled(false);
+        instrumentation.reset();
+    }
+
+    /**
+     * Given a factory registered for the configured connector.<br/>
+     * When the configured factory is requested.<br/>
+     * Then the registered factory should be returned.
+     * @see FittingConnectorFactories#getConfiguredFactory()
+     */
+    @Test
+    public void shouldFindFactoryForConfiguredConnector() {
+        final FittingConnectorFactory factory = FittingConnectorFactories.getConfiguredFactory();
+
+        assertTrue(factory instanceof TestFittingConnectorFactory);
+        assertSame(factory, FittingConnectorFactories.getFactory(FittingConfigurationTest.TestFittingConnector.class));
+    }
+
+    /**
+     * Given no factory registered for a connector type.<br/>
+     * When the factory for the type is requested.<br/>
+     * Then an exception should be thrown.
+     * @see FittingConnectorFactories#getFactory(Class)
+     */
+    @Test(expected = FittingException.class)
+    public void shouldFailWithoutFactory() {
+        FittingConnectorFactories.getFactory(FittingConfigurationTest.DefaultFittingConnector.class);
+    }
+
+    /**
+     * Given an enabled instrumentation.<br/>
+     * When a factory is warmed up and a fixture call is started afterwards.<br/>
+     * Then the sessions should be opened, and the warm-up and the time to the first test should be recorded once.
+     * @see FittingConnectorFactories#warmUp(FittingConnectorFactory, int, int, String)
+     * @see Instrumentation#markStartup(long)
+     */
+    @Test
+    public void shouldRecordWarmUpAndTimeToFirstTest() {
+        FittingConnectorFactories.warmUp(FittingConnectorFactories.getConfiguredFactory(), 2, 0, null);
+        assertEquals(2, TestFittingConnectorFactory.sessions);
+
+        instrumentation.start("first").stop();
+        instrumentation.start("second").stop();
+
+        final List<OperationStatistics> statistics = instrumentation.getStatistics();
+        assertEquals(4, statistics.size());
+        assertEquals(Instrumentation.TIME_TO_FIRST_TEST, statistics.get(2).getName());
+        assertEquals(OperationStatistics.Type.STARTUP, statistics.get(2).getType());
+        assertEquals(1, statistics.get(2).getInvocations());
+        assertEquals(Instrumentation.WARM_UP, statistics.get(3).getName());
+    }
+
+    /**
+     * Given a factory registered for the configured connector.<br/>
+     * When the configured connector is warmed up twice through the warm-up fixture.<br/>
+     * Then the factory should be warmed up only the first time.
+     * @see FittingConnectorFactories#warmUpOnce()
+     * @see WarmUpFixture#warmUp()
+     */
+    @Test
+    public void shouldWarmUpOnce() {
+        final WarmUpFixture fixture = new WarmUpFixture();
+
+        assertTrue(fixture.warmUp());
+        assertEquals(1, TestFittingConnectorFactory.sessions);
+        TestFittingConnectorFactory.sessions = 0;
+        assertTrue(fixture.warmUp());
+        assertEquals(0, TestFittingConnectorFactory.sessions);
+    }
+
+    /** Factory registered for the connector configured in the test properties. */
+    public static class TestFittingConnectorFactory implements FittingConnectorFactory {
+        /** The number of sessions opened by the last warm-up. */
+        private static int sessions;
+
+        @Override
+        public Class<? extends FittingConnector> getConnectorType() {
+            return FittingConfigurationTest.TestFittingConnector.class;
+        }
+
+        @Override
+        public FittingConnector createConnector() {
+            return mock(FittingConnector.class);
+        }
+
+        @Override
+        public void warmUp(final int sessions) {
+            TestFittingConnectorFactory.sessions = sessions;
+        }
+
+        @Override
+        public String getWarmUpUrl() {
+            return null;
+        }
+    }
+}
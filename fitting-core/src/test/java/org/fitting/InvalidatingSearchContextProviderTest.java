@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.event.LocationChangedEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Unit tests for {@link org.fitting.InvalidatingSearchContextProvider}. */
+@RunWith(MockitoJUnitRunner.class)
+public class InvalidatingSearchContextProviderTest {
+    /** The id for the search context. */
+    private static final String CONTEXT_ID = "contextId";
+    /** The id for the selector. */
+    private static final String SELECTOR_ID = "selectorId";
+    /** The query for the selector. */
+    private static final String SELECTOR_QUERY = "selectorQuery";
+    /** Mock search context. */
+    @Mock
+    private SearchContext searchContext;
+    /** Mock element. */
+    @Mock
+    private Element element;
+    /** Mock selector provider. */
+    @Mock
+    private SelectorProvider selectorProvider;
+    /** Mock selector. */
+    @Mock
+    private Selector selector;
+    /** Mock selector for lookups in the search context. */
+    @Mock
+    private Selector childSelector;
+
+    /** The instance of the class under test. */
+    private InvalidatingSearchContextProvider instance;
+
+    /**
+     * Set up the mock behaviour, executed before each test.
+     * @throws Exception When initialization fails.
+     */
+    @Before
+    public void setUp() throws Exception {
+        when(selectorProvider.getSelector(eq(SELECTOR_ID), eq(SELECTOR_QUERY))).thenReturn(selector);
+        when(searchContext.findElementBy(eq(selector))).thenReturn(element);
+
+        instance = new InvalidatingSearchContextProvider(CONTEXT_ID, SELECTOR_ID, SELECTOR_QUERY, InvalidatingSearchContextProvider.NO_EXPIRY,
+                TimeUnit.SECONDS, StaleException.class);
+    }
+
+    /**
+     * Ensure a search context is only looked up once and lookups are delegated to it.
+     * @see org.fitting.InvalidatingSearchContextProvider#getSearchContext(SearchContext, SelectorProvider)
+     */
+    @Test
+    public void shouldOnlyLookupContextOnce() {
+        final Element child = mock(Element.class);
+        when(element.findElementBy(childSelector)).thenReturn(child);
+
+        instance.getSearchContext(searchContext, selectorProvider);
+        assertSame(child, instance.getSearchContext(searchContext, selectorProvider).findElementBy(childSelector));
+
+        verify(searchContext, times(1)).findElementBy(any(Selector.class));
+    }
+
+    /**
+     * Ensure the search context is looked up again after a location change.
+     * @see org.fitting.InvalidatingSearchContextProvider#onLocationChanged(org.fitting.event.LocationChangedEvent)
+     */
+    @Test
+    public void shouldLookupContextAgainAfterLocationChange() {
+        instance.getSearchContext(searchContext, selectorProvider);
+        instance.onLocationChanged(new LocationChangedEvent(mock(ElementContainer.class), "old", "new"));
+        instance.getSearchContext(searchContext, selectorProvider);
+
+        verify(searchContext, times(2)).findElementBy(selector);
+    }
+
+    /**
+     * Ensure the search context is looked up again when its time to live expired or the root changed.
+     * @see org.fitting.InvalidatingSearchContextProvider#getSearchContext(SearchContext, SelectorProvider)
+     */
+    @Test
+    public void shouldLookupContextAgainWhenExpiredOrRootChanged() {
+        final SearchContext otherRoot = mock(SearchContext.class);
+        when(otherRoot.findElementBy(selector)).thenReturn(element);
+        instance = new InvalidatingSearchContextProvider(CONTEXT_ID, SELECTOR_ID, SELECTOR_QUERY, 1, TimeUnit.NANOSECONDS, null);
+
+        instance.getSearchContext(searchContext, selectorProvider);
+        instance.getSearchContext(searchContext, selectorProvider);
+        instance.getSearchContext(otherRoot, selectorProvider);
+
+        verify(searchContext, times(2)).findElementBy(selector);
+        verify(otherRoot, times(1)).findElementBy(selector);
+    }
+
+    /**
+     * Ensure a lookup on a stale search context looks up the search context again and retries the lookup once.
+     * @see org.fitting.InvalidatingSearchContextProvider#getSearchContext(SearchContext, SelectorProvider)
+     */
+    @Test
+    public void shouldRetryLookupOnStaleContext() {
+        final Element fresh = mock(Element.class);
+        when(searchContext.findElementBy(selector)).thenReturn(element, fresh);
+        when(element.countElementsBy(childSelector)).thenThrow(new FittingException("Lookup failed.", new StaleException()));
+        when(fresh.countElementsBy(childSelector)).thenReturn(2);
+
+        assertEquals(2, instance.getSearchContext(searchContext, selectorProvider).countElementsBy(childSelector));
+        instance.getSearchContext(searchContext, selectorProvider).countElementsBy(childSelector);
+
+        verify(searchContext, times(2)).findElementBy(selector);
+        verify(fresh, times(2)).countElementsBy(childSelector);
+    }
+
+    /**
+     * Ensure failures other than stale search contexts are not retried.
+     * @see org.fitting.InvalidatingSearchContextProvider#getSearchContext(SearchContext, SelectorProvider)
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void shouldNotRetryOtherFailures() {
+        when(element.findElementBy(childSelector)).thenThrow(NoSuchElementException.class);
+
+        try {
+            instance.getSearchContext(searchContext, selectorProvider).findElementBy(childSelector);
+        } finally {
+            verify(searchContext, times(1)).findElementBy(selector);
+        }
+    }
+
+    /** Exception signalling a stale element. */
+    private static final class StaleException extends RuntimeException {
+    }
+}
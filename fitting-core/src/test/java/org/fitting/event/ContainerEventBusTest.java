@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.ElementContainer;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/** Unit tests for {@link ContainerEventBus}. */
+public class ContainerEventBusTest {
+    /** The time in milliseconds to wait for the dispatch thread. */
+    private static final long TIMEOUT = 5000;
+    /** The bus under test. */
+    private ContainerEventBus bus;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (bus != null) {
+            bus.close(TIMEOUT);
+        }
+    }
+
+    /**
+     * Given a bus with a subscriber.<br/>
+     * When events are published.<br/>
+     * Then the events should be delivered in order on the dispatch thread and the latencies should be recorded.
+     * @see ContainerEventBus#subscribe(ContainerListener)
+     */
+    @Test
+    public void shouldDeliverEventsInOrder() throws InterruptedException {
+        bus = new ContainerEventBus();
+        final RecordingListener listener = new RecordingListener(null);
+        bus.subscribe(listener);
+
+        final ContainerCreatedEvent created = new ContainerCreatedEvent(mock(ElementContainer.class), this);
+        final LocationChangedEvent changed = new LocationChangedEvent(mock(ElementContainer.class), "about:blank", "http://fitting", this);
+        final ContainerClosedEvent closed = new ContainerClosedEvent(mock(ElementContainer.class), this);
+        bus.onContainerCreated(created);
+        bus.onLocationChanged(changed);
+        bus.onContainerClosed(closed);
+
+        assertTrue(bus.flush(TIMEOUT));
+        assertEquals(Arrays.<FittingEvent>asList(created, changed, closed), listener.getEvents());
+        assertEquals(3, bus.getDispatchedCount());
+        assertEquals(3, bus.getLatencies(listener).getCount());
+        assertTrue(listener.getThreads().get(0) != Thread.currentThread());
+    }
+
+    /**
+     * Given a bus with a full buffer that drops new events.<br/>
+     * When another event is published.<br/>
+     * Then the event should be dropped without blocking the publisher.
+     * @see ContainerEventBus.OverflowPolicy#DROP_NEWEST
+     */
+    @Test
+    public void shouldDropNewestEventWhenFull() throws InterruptedException {
+        bus = new ContainerEventBus(1, ContainerEventBus.OverflowPolicy.DROP_NEWEST);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingListener listener = new RecordingListener(release);
+        bus.subscribe(listener);
+
+        final LocationChangedEvent first = changed("first");
+        final LocationChangedEvent second = changed("second");
+        final LocationChangedEvent third = changed("third");
+        bus.onLocationChanged(first);
+        listener.awaitDelivery();
+        bus.onLocationChanged(second);
+        bus.onLocationChanged(third);
+        release.countDown();
+
+        assertTrue(bus.flush(TIMEOUT));
+        assertEquals(Arrays.<FittingEvent>asList(first, second), listener.getEvents());
+        assertEquals(1, bus.getDroppedCount());
+    }
+
+    /**
+     * Given a bus with a full buffer that drops old events.<br/>
+     * When another event is published.<br/>
+     * Then the oldest buffered event should be dropped.
+     * @see ContainerEventBus.OverflowPolicy#DROP_OLDEST
+     */
+    @Test
+    public void shouldDropOldestEventWhenFull() throws InterruptedException {
+        bus = new ContainerEventBus(1, ContainerEventBus.OverflowPolicy.DROP_OLDEST);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingListener listener = new RecordingListener(release);
+        bus.subscribe(listener);
+
+        final LocationChangedEvent first = changed("first");
+        final LocationChangedEvent second = changed("second");
+        final LocationChangedEvent third = changed("third");
+        bus.onLocationChanged(first);
+        listener.awaitDelivery();
+        bus.onLocationChanged(second);
+        bus.onLocationChanged(third);
+        release.countDown();
+
+        assertTrue(bus.flush(TIMEOUT));
+        assertEquals(Arrays.<FittingEvent>asList(first, third), listener.getEvents());
+        assertEquals(1, bus.getDroppedCount());
+    }
+
+    /**
+     * Given a bus with a failing and a working subscriber.<br/>
+     * When an event is published.<br/>
+     * Then the working subscriber should still receive the event.
+     * @see ContainerEventBus#onContainerCreated(ContainerCreatedEvent)
+     */
+    @Test
+    public void shouldContinueAfterFailingSubscriber() throws InterruptedException {
+        bus = new ContainerEventBus();
+        final ContainerListener failing = mock(ContainerListener.class);
+        doThrow(new IllegalStateException("failed")).when(failing).onContainerCreated(any(ContainerCreatedEvent.class));
+        final ContainerListener working = mock(ContainerListener.class);
+        bus.subscribe(failing);
+        bus.subscribe(working);
+
+        bus.onContainerCreated(new ContainerCreatedEvent(mock(ElementContainer.class), this));
+
+        assertTrue(bus.flush(TIMEOUT));
+        verify(working).onContainerCreated(any(ContainerCreatedEvent.class));
+    }
+
+    /**
+     * Given a closed bus.<br/>
+     * When an event is published.<br/>
+     * Then the event should be dropped.
+     * @see ContainerEventBus#close(long)
+     */
+    @Test
+    public void shouldDropEventsAfterClose() throws InterruptedException {
+        bus = new ContainerEventBus();
+        final RecordingListener listener = new RecordingListener(null);
+        bus.subscribe(listener);
+        bus.onLocationChanged(changed("before"));
+        bus.close(TIMEOUT);
+
+        bus.onLocationChanged(changed("after"));
+
+        assertEquals(1, listener.getEvents().size());
+        assertEquals(1, bus.getDroppedCount());
+        assertTrue(bus.flush(TIMEOUT));
+    }
+
+    /**
+     * Create a location changed event.
+     * @param location The new location.
+     * @return The event.
+     */
+    private LocationChangedEvent changed(final String location) {
+        return new LocationChangedEvent(mock(ElementContainer.class), "about:blank", location, this);
+    }
+
+    /** Listener recording the received events, optionally blocking until released. */
+    private static final class RecordingListener implements ContainerListener {
+        /** The received events. */
+        private final List<FittingEvent> events = Collections.synchronizedList(new ArrayList<FittingEvent>());
+        /** The threads the events were received on. */
+        private final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        /** Signalled when the first event is received. */
+        private final CountDownLatch delivered = new CountDownLatch(1);
+        /** The latch to wait for before handling an event, if any. */
+        private final CountDownLatch release;
+
+        /**
+         * Create a new RecordingListener.
+         * @param release The latch to wait for before handling an event or <code>null</code> to handle events directly.
+         */
+        private RecordingListener(final CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onContainerCreated(final ContainerCreatedEvent event) {
+            record(event);
+        }
+
+        @Override
+        public void onContainerClosed(final ContainerClosedEvent event) {
+            record(event);
+        }
+
+        @Override
+        public void onLocationChanged(final LocationChangedEvent event) {
+            record(event);
+        }
+
+        /**
+         * Wait until the first event was received.
+         * @throws InterruptedException When interrupted while waiting.
+         */
+        private void awaitDelivery() throws InterruptedException {
+            assertTrue(delivered.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+
+        /**
+         * Get the received events.
+         * @return The events.
+         */
+        private List<FittingEvent> getEvents() {
+            return new ArrayList<FittingEvent>(events);
+        }
+
+        /**
+         * Get the threads the events were received on.
+         * @return The threads.
+         */
+        private List<Thread> getThreads() {
+            return new ArrayList<Thread>(threads);
+        }
+
+        /**
+         * Record an event.
+         * @param event The event.
+         */
+        private void record(final FittingEvent event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+            delivered.countDown();
+            if (release != null) {
+                try {
+                    release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
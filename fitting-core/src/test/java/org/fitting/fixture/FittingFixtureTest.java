@@ -20,6 +20,8 @@
 package org.fitting.fixture;
 
 import org.fitting.*;
+import org.fitting.metrics.Instrumentation;
+import org.fitting.metrics.InstrumentedFittingConnector;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,9 +33,14 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 /** Unit tests for {@link FittingFixture}. */
 @RunWith(PowerMockRunner.class)
@@ -165,6 +172,69 @@ public class FittingFixtureTest {
         fail("Managed to create a selector for a non-existing tag.");
     }
 
+    /**
+     * Ensure the search context of a provider is only resolved once within a table.
+     * @see FittingFixture#beginTable()
+     * @see FittingFixture#endTable()
+     */
+    @Test
+    public void shouldResolveSearchContextOncePerTable() {
+        final SearchContext root = mock(SearchContext.class);
+        final SearchContext region = mock(SearchContext.class);
+        when(connector.getDefaultSearchContext()).thenReturn(root);
+        when(searchContextProvider.getId()).thenReturn("region");
+        when(searchContextProvider.getSearchContext(root, selectorProvider)).thenReturn(region);
+        fixture = new FittingFixture(searchContextProvider) {
+        };
+
+        fixture.beginTable();
+        assertSame(region, fixture.getSearchContext("region"));
+        assertSame(region, fixture.getSearchContext("region"));
+        fixture.endTable();
+        fixture.getSearchContext("region");
+
+        verify(searchContextProvider, times(2)).getSearchContext(root, selectorProvider);
+    }
+
+    /**
+     * Ensure the search context of a provider is only resolved once within a table on an instrumented connector.
+     * @see FittingFixture#beginTable()
+     * @see org.fitting.metrics.InstrumentedFittingConnector#getDefaultSearchContext()
+     */
+    @Test
+    public void shouldResolveSearchContextOncePerTableWhenInstrumented() {
+        final SearchContext region = mock(SearchContext.class);
+        when(connector.getDefaultSearchContext()).thenReturn(mock(SearchContext.class));
+        when(searchContextProvider.getId()).thenReturn("region");
+        when(searchContextProvider.getSearchContext(any(SearchContext.class), eq(selectorProvider))).thenReturn(region);
+        PowerMockito.when(FittingContainer.get()).thenReturn(new InstrumentedFittingConnector(connector, Instrumentation.getInstance()));
+        fixture = new FittingFixture(searchContextProvider) {
+        };
+
+        fixture.beginTable();
+        assertSame(region, fixture.getSearchContext("region"));
+        assertSame(region, fixture.getSearchContext("region"));
+        fixture.endTable();
+
+        verify(searchContextProvider, times(1)).getSearchContext(any(SearchContext.class), eq(selectorProvider));
+    }
+
+    /**
+     * Ensure the commands queued by the connector are executed at the end of a table.
+     * @see FittingFixture#endTable()
+     */
+    @Test
+    public void shouldFlushQueuedCommandsAtEndOfTable() {
+        final FittingConnector bufferingConnector = mock(FittingConnector.class, withSettings().extraInterfaces(CommandBuffer.class));
+        when(bufferingConnector.getElementContainerProvider()).thenReturn(containerProvider);
+        PowerMockito.when(FittingContainer.get()).thenReturn(bufferingConnector);
+
+        fixture.beginTable();
+        fixture.endTable();
+
+        verify((CommandBuffer) bufferingConnector).flush();
+    }
+
     /**
      * Ensure the element container provider is retrieved.
      * @see FittingFixture#getElementContainerProvider()
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fitting.Element;
+import org.fitting.FittingConnector;
+import org.fitting.FittingContainer;
+import org.fitting.SearchContext;
+import org.fitting.Selector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Unit tests for {@link Instrumentation}. */
+public class InstrumentationTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private Instrumentation instrumentation;
+    private SearchContext searchContext;
+    private Element element;
+    private Selector selector;
+    private FittingConnector connector;
+
+    @Before
+    public void setUp() {
+        instrumentation = Instrumentation.getInstance();
+        instrumentation.reset();
+        instrumentation.setEnabled(true);
+        searchContext = mock(SearchContext.class);
+        element = mock(Element.class);
+        selector = mock(Selector.class);
+        when(searchContext.findElementBy(selector)).thenReturn(element);
+        final FittingConnector delegate = mock(FittingConnector.class);
+        when(delegate.getDefaultSearchContext()).thenReturn(searchContext);
+        connector = new InstrumentedFittingConnector(delegate, instrumentation);
+    }
+
+    @After
+    public void tearDown() {
+        instrumentation.setEnabled(false);
+        instrumentation.reset();
+    }
+
+    /**
+     * Given an enabled instrumentation and an instrumented connector.<br/>
+     * When a fixture call looks up and clicks an element and waits for another one.<br/>
+     * Then the call should be recorded with its remote commands and wait time, next to the statistics per command.
+     * @see Instrumentation#start(String)
+     * @see Instrumentation#command(String, long, boolean)
+     */
+    @Test
+    public void shouldAttributeCommandsToFixtureCall() {
+        final Instrumentation.Call call = instrumentation.start("ElementFixture.clickElementWithBeing");
+        try {
+            final SearchContext context = connector.getDefaultSearchContext();
+            context.findElementBy(selector).click();
+            context.waitForElement(selector, 1);
+        } finally {
+            call.stop();
+        }
+        call.stop();
+
+        verify(element).click();
+        final List<OperationStatistics> statistics = instrumentation.getStatistics();
+        assertEquals(4, statistics.size());
+        final OperationStatistics fixture = statistics.get(0);
+        assertEquals("ElementFixture.clickElementWithBeing", fixture.getName());
+        assertEquals(OperationStatistics.Type.FIXTURE, fixture.getType());
+        assertEquals(1, fixture.getInvocations());
+        assertEquals(3, fixture.getRemoteCalls());
+        assertEquals("Element.click", statistics.get(1).getName());
+        assertEquals("SearchContext.findElementBy", statistics.get(2).getName());
+        final OperationStatistics wait = statistics.get(3);
+        assertEquals("SearchContext.waitForElement", wait.getName());
+        assertEquals(OperationStatistics.Type.COMMAND, wait.getType());
+        assertEquals(0, wait.getWorkTime());
+    }
+
+    /**
+     * Given an enabled instrumentation with a running fixture call.<br/>
+     * When another fixture call is started on the same thread.<br/>
+     * Then the nested call should be part of the running call.
+     * @see Instrumentation#start(String)
+     */
+    @Test
+    public void shouldNotRecordNestedCalls() {
+        final Instrumentation.Call call = instrumentation.start("outer");
+        final Instrumentation.Call nested = instrumentation.start("inner");
+        nested.stop();
+        call.stop();
+
+        final List<OperationStatistics> statistics = instrumentation.getStatistics();
+        assertEquals(1, statistics.size());
+        assertEquals("outer", statistics.get(0).getName());
+    }
+
+    /**
+     * Given a disabled instrumentation.<br/>
+     * When a fixture call issues commands.<br/>
+     * Then nothing should be recorded.
+     * @see Instrumentation#setEnabled(boolean)
+     */
+    @Test
+    public void shouldNotRecordWhenDisabled() {
+        instrumentation.setEnabled(false);
+
+        final Instrumentation.Call call = instrumentation.start("ElementFixture.clickElementWithBeing");
+        connector.getDefaultSearchContext().findElementBy(selector).click();
+        call.stop();
+
+        assertTrue(instrumentation.getStatistics().isEmpty());
+    }
+
+    /**
+     * Given an enabled instrumentation.<br/>
+     * When a connector is set in the container, and set again.<br/>
+     * Then it should be wrapped once in an instrumented connector, recording its commands.
+     * @see Instrumentation#instrument(FittingConnector)
+     * @see FittingContainer#set(FittingConnector)
+     */
+    @Test
+    public void shouldInstrumentConnectorsSetInContainer() {
+        final FittingConnector delegate = mock(FittingConnector.class);
+        when(delegate.getDefaultSearchContext()).thenReturn(searchContext);
+        try {
+            FittingContainer.set(delegate);
+            final FittingConnector instrumented = FittingContainer.get();
+            FittingContainer.set(instrumented);
+
+            assertTrue(instrumented instanceof InstrumentedFittingConnector);
+            assertSame(instrumented, FittingContainer.get());
+            assertSame(delegate, InstrumentedFittingConnector.unwrap(instrumented));
+            instrumented.getDefaultSearchContext().findElementBy(selector);
+            assertEquals("SearchContext.findElementBy", instrumentation.getStatistics().get(0).getName());
+        } finally {
+            FittingContainer.unset();
+        }
+    }
+
+    /**
+     * Given a disabled instrumentation.<br/>
+     * When a connector is set in the container.<br/>
+     * Then the connector should be used as is.
+     * @see Instrumentation#instrument(FittingConnector)
+     */
+    @Test
+    public void shouldNotInstrumentConnectorsWhenDisabled() {
+        instrumentation.setEnabled(false);
+        final FittingConnector delegate = mock(FittingConnector.class);
+        try {
+            FittingContainer.set(delegate);
+
+            assertSame(delegate, FittingContainer.get());
+        } finally {
+            FittingContainer.unset();
+        }
+    }
+
+    /**
+     * Given recorded statistics.<br/>
+     * When the statistics are reported as CSV and JSON.<br/>
+     * Then a line and an object should be written per operation.
+     * @see CsvInstrumentationReporter
+     * @see JsonInstrumentationReporter
+     */
+    @Test
+    public void shouldReportStatistics() throws IOException {
+        final Instrumentation.Call call = instrumentation.start("ContainerFixture.navigateTo");
+        connector.getDefaultSearchContext().findElementBy(selector);
+        call.stop();
+        final File csv = new File(folder.getRoot(), "reports/fitting.csv");
+        final File json = new File(folder.getRoot(), "reports/fitting.json");
+
+        new CsvInstrumentationReporter(csv).report(instrumentation.getStatistics());
+        new JsonInstrumentationReporter(json).report(instrumentation.getStatistics());
+
+        final List<String> lines = readLines(csv);
+        assertEquals(3, lines.size());
+        assertEquals(CsvInstrumentationReporter.HEADER, lines.get(0));
+        assertTrue(lines.get(1).startsWith("FIXTURE,ContainerFixture.navigateTo,1,1,0,"));
+        assertTrue(lines.get(2).startsWith("COMMAND,SearchContext.findElementBy,1,1,0,"));
+        final StringBuilder report = new StringBuilder();
+        for (String line : readLines(json)) {
+            report.append(line).append('\n');
+        }
+        assertTrue(report.toString().startsWith("[\n  {\"type\":\"FIXTURE\",\"operation\":\"ContainerFixture.navigateTo\",\"invocations\":1,\"remoteCalls\":1,"));
+        assertTrue(report.toString().contains("{\"type\":\"COMMAND\",\"operation\":\"SearchContext.findElementBy\""));
+        assertTrue(report.toString().endsWith("}\n]\n"));
+    }
+
+    /**
+     * Read the lines of a report.
+     * @param file The report file.
+     * @return The lines.
+     * @throws IOException When the file could not be read.
+     */
+    private static List<String> readLines(final File file) throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link LatencyHistogram}. */
+public class LatencyHistogramTest {
+
+    /**
+     * Given a histogram with the values 1 to 1000.<br/>
+     * When the statistics are requested.<br/>
+     * Then the percentiles should be within the relative error of the histogram.
+     *
+     * @see LatencyHistogram#getPercentile(double)
+     */
+    @Test
+    public void shouldApproximatePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertWithinError(500, histogram.getPercentile(50));
+        assertWithinError(990, histogram.getPercentile(99));
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    /**
+     * Given a histogram with small values.<br/>
+     * When the percentiles are requested.<br/>
+     * Then the exact values should be returned.
+     *
+     * @see LatencyHistogram#getPercentile(double)
+     */
+    @Test
+    public void shouldCountSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-1);
+
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(3, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(100));
+    }
+
+    /**
+     * Given a histogram with recorded values.<br/>
+     * When the histogram is reset.<br/>
+     * Then no values should be left.
+     *
+     * @see LatencyHistogram#reset()
+     */
+    @Test
+    public void shouldRemoveValuesOnReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    /**
+     * Assert that a value is within the relative error of the histogram.
+     * @param expected The expected value.
+     * @param actual The actual value.
+     */
+    private static void assertWithinError(final long expected, final long actual) {
+        assertTrue(actual + " is not close to " + expected, Math.abs(actual - expected) <= expected / 8);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.wait;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link PollingStrategies}. */
+public class PollingStrategiesTest {
+
+    /**
+     * Given an exponential strategy.<br/>
+     * When the delays are requested.<br/>
+     * Then the delays should grow up to the maximum.
+     *
+     * @see PollingStrategies#exponential(long, double, long)
+     */
+    @Test
+    public void shouldIncreaseDelayExponentially() {
+        PollingStrategy strategy = PollingStrategies.exponential(50, 2, 500);
+
+        assertEquals(50, strategy.getDelay(1));
+        assertEquals(100, strategy.getDelay(2));
+        assertEquals(400, strategy.getDelay(4));
+        assertEquals(500, strategy.getDelay(5));
+        assertEquals(500, strategy.getDelay(100));
+    }
+
+    /**
+     * Given a jittered fixed strategy.<br/>
+     * When the delays are requested.<br/>
+     * Then all delays should be within the jitter of the fixed delay.
+     *
+     * @see PollingStrategies#jittered(PollingStrategy, double)
+     */
+    @Test
+    public void shouldKeepJitteredDelayWithinBounds() {
+        PollingStrategy strategy = PollingStrategies.jittered(PollingStrategies.fixed(100), 0.2);
+
+        for (int i = 1; i < 1000; i++) {
+            long delay = strategy.getDelay(i);
+            assertTrue(delay >= 80 && delay <= 120);
+        }
+    }
+
+    /**
+     * Given an exponential strategy with a multiplier smaller than 1.<br/>
+     * When the strategy is created.<br/>
+     * Then an exception should be thrown.
+     *
+     * @see PollingStrategies#exponential(long, double, long)
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectShrinkingBackoff() {
+        PollingStrategies.exponential(50, 0.5, 500);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.wait;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/** Unit tests for {@link WaitEngine}. */
+public class WaitEngineTest {
+    /** The pauses requested by the engine. */
+    private List<Long> pauses;
+    /** The engine under test, with a simulated clock. */
+    private WaitEngine engine;
+
+    @Before
+    public void setUp() {
+        pauses = new ArrayList<Long>();
+        engine = createEngine(PollingStrategies.exponential(10, 2, 40));
+    }
+
+    /**
+     * Given a condition that is met on the third evaluation.<br/>
+     * When the condition is waited for.<br/>
+     * Then the result should be returned after pausing with the delays of the strategy.
+     *
+     * @see WaitEngine#waitFor(String, Condition, long)
+     */
+    @Test
+    public void shouldPollWithDelaysOfStrategy() {
+        String result = engine.waitFor("test", new CountingCondition(3), 1000);
+
+        assertEquals("met", result);
+        assertEquals(asList(10L, 20L), pauses);
+        assertEquals(1, engine.getHistogram("test").getCount());
+        assertEquals(30, engine.getHistogram("test").getMax());
+    }
+
+    /**
+     * Given a condition that is never met.<br/>
+     * When the condition is waited for.<br/>
+     * Then <code>null</code> should be returned without waiting beyond the timeout.
+     *
+     * @see WaitEngine#waitFor(String, Condition, long)
+     */
+    @Test
+    public void shouldStopAtTimeout() {
+        assertNull(engine.waitFor("test", new CountingCondition(Integer.MAX_VALUE), 100));
+        assertEquals(asList(10L, 20L, 40L, 30L), pauses);
+    }
+
+    /**
+     * Given an event driven strategy and an event driven condition.<br/>
+     * When the condition is waited for.<br/>
+     * Then the condition should be awaited instead of polled.
+     *
+     * @see WaitEngine#waitFor(String, Condition, long)
+     */
+    @Test
+    public void shouldAwaitEventDrivenCondition() {
+        engine.setPollingStrategy(PollingStrategies.eventDriven(PollingStrategies.fixed(10)));
+        final CountingCondition condition = new CountingCondition(2);
+
+        String result = engine.waitFor("test", new EventDrivenCondition<String>() {
+            @Override
+            public boolean await(final long timeout) {
+                engine.pause(25);
+                return true;
+            }
+
+            @Override
+            public String evaluate() {
+                return condition.evaluate();
+            }
+        }, 1000);
+
+        assertEquals("met", result);
+        assertEquals(asList(25L), pauses);
+    }
+
+    /**
+     * Given an event driven strategy and an event driven condition that can't be awaited.<br/>
+     * When the condition is waited for.<br/>
+     * Then the condition should be polled with the fallback strategy.
+     *
+     * @see WaitEngine#waitFor(String, Condition, long)
+     */
+    @Test
+    public void shouldPollEventDrivenConditionThatCantBeAwaited() {
+        engine.setPollingStrategy(PollingStrategies.eventDriven(PollingStrategies.fixed(10)));
+        final CountingCondition condition = new CountingCondition(3);
+
+        String result = engine.waitFor("test", new EventDrivenCondition<String>() {
+            @Override
+            public boolean await(final long timeout) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String evaluate() {
+                return condition.evaluate();
+            }
+        }, 1000);
+
+        assertEquals("met", result);
+        assertEquals(asList(10L, 10L), pauses);
+    }
+
+    /**
+     * Given a wait engine.<br/>
+     * When the engine sleeps.<br/>
+     * Then it should pause once for the full duration and record the sleep.
+     *
+     * @see WaitEngine#sleep(long)
+     */
+    @Test
+    public void shouldSleepWithoutPolling() {
+        engine.sleep(1500);
+
+        assertEquals(asList(1500L), pauses);
+        assertEquals(1500, engine.getHistogram(WaitEngine.SLEEP).getMax());
+    }
+
+    /**
+     * Create an engine with a simulated clock that only advances when paused.
+     * @param strategy The strategy.
+     * @return The engine.
+     */
+    private WaitEngine createEngine(final PollingStrategy strategy) {
+        return new WaitEngine(strategy) {
+            private long time;
+
+            @Override
+            protected long currentTimeMillis() {
+                return time;
+            }
+
+            @Override
+            protected void pause(final long duration) {
+                pauses.add(duration);
+                time += duration;
+            }
+        };
+    }
+
+    /**
+     * Create a list of pauses.
+     * @param pauses The pauses.
+     * @return The list.
+     */
+    private static List<Long> asList(final Long... pauses) {
+        return java.util.Arrays.asList(pauses);
+    }
+
+    /** Condition that is met after a number of evaluations. */
+    private static final class CountingCondition implements Condition<String> {
+        /** The evaluation at which the condition is met. */
+        private final int metAt;
+        /** The number of evaluations. */
+        private int evaluations;
+
+        /**
+         * Create a new CountingCondition.
+         * @param metAt The evaluation at which the condition is met.
+         */
+        private CountingCondition(final int metAt) {
+            this.metAt = metAt;
+        }
+
+        @Override
+        public String evaluate() {
+            return ++evaluations >= metAt ? "met" : null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.htmlunit;
+
+import org.fitting.selenium.FittingSeleniumConnector;
+
+/**
+ * HtmlUnit implementation for the {@link org.fitting.FittingConnector}, running pages in an in-memory browser instead of a remote Selenium session.
+ * <p>
+ * The connector can be configured as test system with <code>fitting.system=org.fitting.htmlunit.FittingHtmlUnitConnector</code> in the
+ * <code>fitting.properties</code>. When created without arguments javascript is disabled, which is the fastest mode for pages that don't need it.
+ * </p>
+ */
+public class FittingHtmlUnitConnector extends FittingSeleniumConnector {
+    /** The implementation name. */
+    private static final String CONNECTOR_NAME = "htmlunit";
+
+    /** Create a new FittingHtmlUnitConnector with javascript disabled. */
+    public FittingHtmlUnitConnector() {
+        this(false);
+    }
+
+    /**
+     * Create a new FittingHtmlUnitConnector.
+     * @param javascriptEnabled Flag indicating if javascript is enabled.
+     */
+    public FittingHtmlUnitConnector(boolean javascriptEnabled) {
+        this(new HtmlUnitBrowserConnector(javascriptEnabled));
+    }
+
+    /**
+     * Create a new FittingHtmlUnitConnector.
+     * @param browser The HtmlUnit browser to use.
+     */
+    public FittingHtmlUnitConnector(HtmlUnitBrowserConnector browser) {
+        super(browser);
+    }
+
+    @Override
+    public String getName() {
+        return CONNECTOR_NAME;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.htmlunit;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import org.fitting.selenium.BrowserConnector;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+/**
+ * {@link org.fitting.selenium.BrowserConnector} for an in-process HtmlUnit browser.
+ * <p>
+ * Pages are loaded and parsed in memory, so no Selenium server or installed browser is needed.
+ * </p>
+ */
+public class HtmlUnitBrowserConnector extends BrowserConnector {
+    /** The browser version that is emulated by default, supporting the scripts Fitting uses to read elements. */
+    public static final BrowserVersion DEFAULT_BROWSER_VERSION = BrowserVersion.FIREFOX_17;
+
+    /**
+     * Create a new HtmlUnitBrowserConnector emulating the default browser version.
+     *
+     * @param javascriptEnabled Flag indicating if javascript is enabled.
+     */
+    public HtmlUnitBrowserConnector(boolean javascriptEnabled) {
+        this(DEFAULT_BROWSER_VERSION, javascriptEnabled);
+    }
+
+    /**
+     * Create a new HtmlUnitBrowserConnector.
+     *
+     * @param browserVersion    The browser version to emulate.
+     * @param javascriptEnabled Flag indicating if javascript is enabled.
+     */
+    public HtmlUnitBrowserConnector(BrowserVersion browserVersion, boolean javascriptEnabled) {
+        super(createDriver(browserVersion, javascriptEnabled), javascriptEnabled);
+    }
+
+    /**
+     * Create the HtmlUnit driver.
+     *
+     * @param browserVersion    The browser version to emulate.
+     * @param javascriptEnabled Flag indicating if javascript is enabled.
+     *
+     * @return The driver.
+     */
+    private static HtmlUnitDriver createDriver(BrowserVersion browserVersion, boolean javascriptEnabled) {
+        final HtmlUnitDriver driver = new HtmlUnitDriver(browserVersion);
+        driver.setJavascriptEnabled(javascriptEnabled);
+        return driver;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * HtmlUnit keeps no process running outside the JVM, so destroying the browser quits the driver, releasing all of its windows.
+     * </p>
+     */
+    @Override
+    public synchronized void destroy() {
+        quit();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.htmlunit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.fitting.FittingConfiguration;
+import org.fitting.FittingConnector;
+import org.fitting.FittingConnectorFactories;
+import org.fitting.FittingConnectorFactory;
+import org.fitting.FittingException;
+
+/**
+ * {@link org.fitting.FittingConnectorFactory} for {@link org.fitting.htmlunit.FittingHtmlUnitConnector} instances.
+ * <p>
+ * Every connector gets its own in-process browser, javascript is enabled when configured in the {@link org.fitting.FittingConfiguration}.
+ * </p>
+ */
+public class HtmlUnitConnectorFactory implements FittingConnectorFactory {
+    /** The configuration key for enabling javascript in the browsers. */
+    public static final FittingConfiguration.Key<Boolean> JAVASCRIPT = FittingConfiguration.booleanKey("fitting.htmlunit.javascript", false);
+    /** The file with the synthetic page, <code>null</code> until first requested. */
+    private File warmUpPage;
+
+    @Override
+    public Class<? extends FittingConnector> getConnectorType() {
+        return FittingHtmlUnitConnector.class;
+    }
+
+    @Override
+    public FittingConnector createConnector() throws FittingException {
+        return new FittingHtmlUnitConnector(FittingConfiguration.getInstance().get(JAVASCRIPT));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * HtmlUnit has no system to start and browsers are not shared between connectors, so no sessions are kept open. A single browser is opened and
+     * closed to load the HtmlUnit and javascript engine classes.
+     * </p>
+     */
+    @Override
+    public void warmUp(final int sessions) throws FittingException {
+        createConnector().destroy();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * HtmlUnit doesn't open <code>data:</code> URLs, so the synthetic page is written to a temporary file that is removed when the JVM exits.
+     * </p>
+     */
+    @Override
+    public synchronized String getWarmUpUrl() throws FittingException {
+        if (warmUpPage == null) {
+            try {
+                final File page = File.createTempFile("fitting-warm-up", ".html");
+                page.deleteOnExit();
+                final OutputStream out = new FileOutputStream(page);
+                try {
+                    out.write(FittingConnectorFactories.WARM_UP_PAGE.getBytes("UTF-8"));
+                } finally {
+                    out.close();
+                }
+                warmUpPage = page;
+            } catch (IOException e) {
+                throw new FittingException("Unable to write the warm-up page.", e);
+            }
+        }
+        return warmUpPage.toURI().toString();
+    }
+}
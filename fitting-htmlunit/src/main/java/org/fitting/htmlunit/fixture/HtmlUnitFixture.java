@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.htmlunit.fixture;
+
+import org.fitting.FittingConnector;
+import org.fitting.FittingContainer;
+import org.fitting.htmlunit.FittingHtmlUnitConnector;
+import org.fitting.selenium.SeleniumUtil;
+
+/**
+ * Fixture for starting and navigating in-process HtmlUnit browsers.
+ * <p>
+ * Every FitNesse thread gets its own browser, so pages using this fixture can run in parallel without a Selenium server.
+ * </p>
+ */
+public class HtmlUnitFixture {
+    /**
+     * Open an HtmlUnit browser without javascript and go to a specific URL.
+     *
+     * @param url The URL to navigate to.
+     */
+    public void openHtmlUnitFor(String url) {
+        open(new FittingHtmlUnitConnector(false), url);
+    }
+
+    /**
+     * Open an HtmlUnit browser with javascript enabled and go to a specific URL.
+     *
+     * @param url The URL to navigate to.
+     */
+    public void openHtmlUnitWithJavascriptFor(String url) {
+        open(new FittingHtmlUnitConnector(true), url);
+    }
+
+    /**
+     * Navigate the active browser window to the provided URL.
+     *
+     * @param url The URL to navigate to.
+     */
+    public void openUrl(final String url) {
+        FittingContainer.get().getElementContainerProvider().navigateElementContainerTo(SeleniumUtil.stripURL(url));
+    }
+
+    /** Close the browser. */
+    public void closeBrowser() {
+        final FittingConnector connector = FittingContainer.get();
+        if (connector != null) {
+            connector.destroy();
+            FittingContainer.unset();
+        }
+    }
+
+    /**
+     * Register a connector for the current thread, closing the previous browser, and go to a specific URL.
+     *
+     * @param connector The connector.
+     * @param url       The URL to navigate to.
+     */
+    private void open(final FittingConnector connector, final String url) {
+        closeBrowser();
+        FittingContainer.set(connector);
+        openUrl(url);
+    }
+}
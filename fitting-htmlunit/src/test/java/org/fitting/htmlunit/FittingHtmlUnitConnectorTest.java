@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.htmlunit;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.fitting.Element;
+import org.fitting.ElementSnapshot;
+import org.fitting.FittingContainer;
+import org.fitting.fixture.ElementFixture;
+import org.fitting.htmlunit.fixture.HtmlUnitFixture;
+import org.fitting.selenium.SeleniumSelector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link FittingHtmlUnitConnector}, running fixtures against pages on disk. */
+public class FittingHtmlUnitConnectorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    /** The fixture opening the browser. */
+    private HtmlUnitFixture browser;
+    /** The fixture querying the page. */
+    private ElementFixture elements;
+    /** The URL of the test page. */
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        browser = new HtmlUnitFixture();
+        elements = new ElementFixture();
+        final File page = folder.newFile("page.html");
+        final Writer writer = new FileWriter(page);
+        try {
+            writer.write("<html><head><title>Fitting</title></head><body>"
+                    + "<div id='message' class='info'>Welcome to Fitting</div>"
+                    + "<input id='username' name='username' value='fitting'/>"
+                    + "<ul><li class='item'>one</li><li class='item'>two</li><li class='item'>three</li></ul>"
+                    + "<div id='hidden' style='display: none'>hidden</div>"
+                    + "<div id='spaced'>\n  spaced \n\n  text&nbsp; <span style='display: none'>hidden</span> <span>shown</span>  \n</div>"
+                    + "<script>document.getElementById('message').innerHTML = 'Welcome to scripted Fitting';</script>"
+                    + "</body></html>");
+        } finally {
+            writer.close();
+        }
+        url = page.toURI().toString();
+    }
+
+    @After
+    public void tearDown() {
+        browser.closeBrowser();
+    }
+
+    /**
+     * Given a page opened without javascript.<br/>
+     * When elements are queried through the element fixture.<br/>
+     * Then the values should be read from the in-memory DOM.
+     *
+     * @see org.fitting.htmlunit.fixture.HtmlUnitFixture#openHtmlUnitFor(String)
+     */
+    @Test
+    public void shouldQueryPageWithoutJavascript() {
+        browser.openHtmlUnitFor(url);
+
+        assertEquals("htmlunit", FittingContainer.get().getName());
+        assertEquals("Welcome to Fitting", elements.textForElementWithBeing(SeleniumSelector.ID, "message"));
+        assertEquals("fitting", elements.valueOfElementWithBeing(SeleniumSelector.NAME, "username"));
+        assertEquals("info", elements.attributeValueOfForElementWithBeing("class", SeleniumSelector.ID, "message"));
+        assertEquals(3, elements.numberOfElementsWithBeingIs(SeleniumSelector.CLASS_NAME, "item"));
+        assertTrue(elements.valueOfElementWithBeingIsSettable(SeleniumSelector.ID, "username"));
+    }
+
+    /**
+     * Given a page opened with javascript.<br/>
+     * When elements are queried.<br/>
+     * Then the values changed by scripts and the computed styles should be used.
+     *
+     * @see org.fitting.htmlunit.fixture.HtmlUnitFixture#openHtmlUnitWithJavascriptFor(String)
+     */
+    @Test
+    public void shouldRunScriptsWhenJavascriptIsEnabled() {
+        browser.openHtmlUnitWithJavascriptFor(url);
+
+        assertEquals("Welcome to scripted Fitting", elements.textForElementWithBeing(SeleniumSelector.ID, "message"));
+        assertTrue(elements.elementWithBeingIsDisplayed(SeleniumSelector.ID, "message"));
+        assertFalse(elements.elementWithBeingIsDisplayed(SeleniumSelector.ID, "hidden"));
+    }
+
+    /**
+     * Given a page opened without javascript, with hidden and whitespace-heavy markup.<br/>
+     * When the text and displayed state are read through the element fixture, the element and the snapshot of the element.<br/>
+     * Then they should all agree.
+     *
+     * @see org.fitting.Element#snapshot()
+     */
+    @Test
+    public void shouldReadSameStateFromSnapshotWithoutJavascript() {
+        browser.openHtmlUnitFor(url);
+
+        assertSameState("spaced");
+        assertSameState("hidden");
+    }
+
+    /**
+     * Given a page opened with javascript, with hidden and whitespace-heavy markup.<br/>
+     * When the text and displayed state are read through the element fixture, the element and the snapshot read by script.<br/>
+     * Then they should all agree.
+     *
+     * @see org.fitting.Element#snapshot()
+     */
+    @Test
+    public void shouldReadSameStateFromSnapshotWithJavascript() {
+        browser.openHtmlUnitWithJavascriptFor(url);
+
+        assertSameState("spaced");
+        assertSameState("hidden");
+    }
+
+    /**
+     * Assert that the element fixture, the element and its snapshot return the same text and displayed state.
+     *
+     * @param id The id of the element.
+     */
+    private void assertSameState(final String id) {
+        final Element element = FittingContainer.get().getDefaultSearchContext().findElementBy(SeleniumSelector.byId(id));
+        final String text = element.getText();
+        final boolean displayed = element.isDisplayed();
+        final ElementSnapshot snapshot = element.snapshot();
+
+        assertEquals(text, snapshot.getText());
+        assertEquals(displayed, snapshot.isDisplayed());
+        assertEquals(element.getValue(), snapshot.getValue());
+        assertEquals(element.getValue(), elements.textForElementWithBeing(SeleniumSelector.ID, id));
+        assertEquals(displayed, elements.elementWithBeingIsDisplayed(SeleniumSelector.ID, id));
+    }
+
+    /**
+     * Given an opened browser.<br/>
+     * When the browser is closed.<br/>
+     * Then no connector should be registered for the thread anymore.
+     *
+     * @see org.fitting.htmlunit.fixture.HtmlUnitFixture#closeBrowser()
+     */
+    @Test
+    public void shouldUnregisterConnectorWhenClosed() {
+        browser.openHtmlUnitFor(url);
+        browser.closeBrowser();
+
+        assertNull(FittingContainer.get());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.htmlunit;
+
+import org.fitting.FittingConnectorFactories;
+import org.fitting.FittingConnectorFactory;
+import org.fitting.FittingContainer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link HtmlUnitConnectorFactory}. */
+public class HtmlUnitConnectorFactoryTest {
+    /**
+     * Given the factory registered as service.<br/>
+     * When the factory for the HtmlUnit connector is warmed up against its synthetic page.<br/>
+     * Then the fixture paths should run against the page without leaving a connector behind.
+     *
+     * @see org.fitting.FittingConnectorFactories#warmUp(org.fitting.FittingConnectorFactory, int, int, String)
+     */
+    @Test
+    public void shouldWarmUpAgainstDefaultPage() {
+        final FittingConnectorFactory factory = FittingConnectorFactories.getFactory(FittingHtmlUnitConnector.class);
+
+        assertTrue(factory instanceof HtmlUnitConnectorFactory);
+        FittingConnectorFactories.warmUp(factory, 1, 2, null);
+        assertFalse(FittingContainer.isInitialised());
+    }
+}
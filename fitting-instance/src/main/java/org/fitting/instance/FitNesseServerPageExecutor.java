@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.fitting.FittingException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import static java.lang.String.format;
+
+/**
+ * {@link org.fitting.instance.PageExecutor} that runs pages on a running FitNesse server, using the XML format of the test responder.
+ * <p>
+ * FitNesse starts a separate test system for each requested page, so every page gets its own {@link org.fitting.FittingConnector}.
+ * </p>
+ */
+public class FitNesseServerPageExecutor implements PageExecutor {
+    /** The URL of a test page, returning the results as XML. */
+    private static final String TEST_URL = "http://%s:%d/%s?test&format=xml";
+    /** The element containing the counts of a test page. */
+    private static final String FINAL_COUNTS = "finalCounts";
+    /** The host FitNesse runs on. */
+    private final String host;
+    /** The port FitNesse runs on. */
+    private final int port;
+    /** The timeout in milliseconds for a single page. */
+    private final int timeout;
+
+    /**
+     * Create a new FitNesseServerPageExecutor.
+     * @param host The host FitNesse runs on.
+     * @param port The port FitNesse runs on.
+     * @param timeout The timeout in milliseconds for a single page.
+     */
+    public FitNesseServerPageExecutor(final String host, final int port, final int timeout) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PageResult execute(final String pageName) throws Exception {
+        final long start = System.currentTimeMillis();
+        final HttpURLConnection connection = (HttpURLConnection) new URL(format(TEST_URL, host, port, pageName)).openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        final InputStream in = connection.getInputStream();
+        try {
+            return parseResult(pageName, in, start);
+        } finally {
+            in.close();
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Read the result of a page from the XML format of the test responder.
+     * @param pageName The full name of the page.
+     * @param in The XML test results.
+     * @param start The time in milliseconds the execution of the page started.
+     * @return The result of the page.
+     * @throws Exception When the results could not be read.
+     */
+    static PageResult parseResult(final String pageName, final InputStream in, final long start) throws Exception {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+        final NodeList counts = document.getElementsByTagName(FINAL_COUNTS);
+        if (counts.getLength() == 0) {
+            throw new FittingException(format("No test results returned for page %s.", pageName));
+        }
+        final Element finalCounts = (Element) counts.item(0);
+        return new PageResult(pageName, count(finalCounts, "right"), count(finalCounts, "wrong"), count(finalCounts, "ignores"), count(finalCounts, "exceptions"),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Get a count from the counts element.
+     * @param counts The counts element.
+     * @param name The name of the count.
+     * @return The count.
+     */
+    private static int count(final Element counts, final String name) {
+        final NodeList nodes = counts.getElementsByTagName(name);
+        return nodes.getLength() == 0 ? 0 : Integer.parseInt(nodes.item(0).getTextContent().trim());
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+/**
+ * Executor for running a single FitNesse test page.
+ * <p>
+ * Implementations are called concurrently from the worker threads of the {@link org.fitting.instance.ParallelSuiteRunner}.
+ * </p>
+ */
+public interface PageExecutor {
+    /**
+     * Execute a test page.
+     * @param pageName The full name of the page, e.g. <code>FittingProject.UsageExamples.FittingOnGithub.FittingReadme</code>.
+     * @return The result of the page.
+     * @throws Exception When the page could not be executed.
+     */
+    PageResult execute(final String pageName) throws Exception;
+}
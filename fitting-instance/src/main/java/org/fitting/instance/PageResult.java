@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import static java.lang.String.format;
+
+/** The result of executing a single FitNesse test page. */
+public final class PageResult {
+    /** The full name of the page. */
+    private final String pageName;
+    /** The number of passed assertions. */
+    private final int right;
+    /** The number of failed assertions. */
+    private final int wrong;
+    /** The number of ignored assertions. */
+    private final int ignores;
+    /** The number of exceptions. */
+    private final int exceptions;
+    /** The execution time in milliseconds. */
+    private final long runTime;
+    /** The reason the page could not be executed, or <code>null</code> if it was executed. */
+    private final String error;
+
+    /**
+     * Create a new PageResult for an executed page.
+     * @param pageName The full name of the page.
+     * @param right The number of passed assertions.
+     * @param wrong The number of failed assertions.
+     * @param ignores The number of ignored assertions.
+     * @param exceptions The number of exceptions.
+     * @param runTime The execution time in milliseconds.
+     */
+    public PageResult(final String pageName, final int right, final int wrong, final int ignores, final int exceptions, final long runTime) {
+        this(pageName, right, wrong, ignores, exceptions, runTime, null);
+    }
+
+    /**
+     * Create a new PageResult.
+     * @param pageName The full name of the page.
+     * @param right The number of passed assertions.
+     * @param wrong The number of failed assertions.
+     * @param ignores The number of ignored assertions.
+     * @param exceptions The number of exceptions.
+     * @param runTime The execution time in milliseconds.
+     * @param error The reason the page could not be executed, or <code>null</code> if it was executed.
+     */
+    private PageResult(final String pageName, final int right, final int wrong, final int ignores, final int exceptions, final long runTime, final String error) {
+        this.pageName = pageName;
+        this.right = right;
+        this.wrong = wrong;
+        this.ignores = ignores;
+        this.exceptions = exceptions;
+        this.runTime = runTime;
+        this.error = error;
+    }
+
+    /**
+     * Create a PageResult for a page that could not be executed, counting the failure as an exception.
+     * @param pageName The full name of the page.
+     * @param runTime The time in milliseconds spent before the execution failed.
+     * @param cause The cause of the failure.
+     * @return The result.
+     */
+    public static PageResult failed(final String pageName, final long runTime, final Throwable cause) {
+        return new PageResult(pageName, 0, 0, 0, 1, runTime, format("%s: %s", cause.getClass().getName(), cause.getMessage()));
+    }
+
+    /**
+     * Get the full name of the page.
+     * @return The page name.
+     */
+    public String getPageName() {
+        return pageName;
+    }
+
+    /**
+     * Get the number of passed assertions.
+     * @return The number of passed assertions.
+     */
+    public int getRight() {
+        return right;
+    }
+
+    /**
+     * Get the number of failed assertions.
+     * @return The number of failed assertions.
+     */
+    public int getWrong() {
+        return wrong;
+    }
+
+    /**
+     * Get the number of ignored assertions.
+     * @return The number of ignored assertions.
+     */
+    public int getIgnores() {
+        return ignores;
+    }
+
+    /**
+     * Get the number of exceptions.
+     * @return The number of exceptions.
+     */
+    public int getExceptions() {
+        return exceptions;
+    }
+
+    /**
+     * Get the execution time.
+     * @return The execution time in milliseconds.
+     */
+    public long getRunTime() {
+        return runTime;
+    }
+
+    /**
+     * Get the reason the page could not be executed.
+     * @return The reason or <code>null</code> if the page was executed.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Check if the page passed, e.g. it was executed without failed assertions or exceptions.
+     * @return <code>true</code> if the page passed.
+     */
+    public boolean isPassed() {
+        return error == null && wrong == 0 && exceptions == 0;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s: %d right, %d wrong, %d ignored, %d exceptions (%dms)", pageName, right, wrong, ignores, exceptions, runTime);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Command line entry point that runs the test pages of a suite in parallel on a running FitNesse server.
+ * <p>
+ * Usage: <code>ParallelSuite &lt;suite&gt; [workers] [host:port] [FitNesseRoot] [report]</code>.<br/>
+ * The number of workers defaults to the number of available processors and the server to <code>localhost:9000</code>.
+ * The exit code is 0 when all pages passed and 1 otherwise.
+ * </p>
+ */
+public final class ParallelSuite {
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSuite.class);
+    /** The default FitNesse server. */
+    private static final String DEFAULT_SERVER = "localhost:9000";
+    /** The default FitNesse root. */
+    private static final String DEFAULT_ROOT = "FitNesseRoot";
+    /** The timeout in milliseconds for a single page. */
+    private static final int PAGE_TIMEOUT = 30 * 60 * 1000;
+
+    /** Private constructor, for command line use only. */
+    private ParallelSuite() {
+    }
+
+    /**
+     * Run a suite in parallel.
+     * @param args The command line arguments.
+     * @throws Exception When the suite could not be run.
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ParallelSuite <suite> [workers] [host:port] [FitNesseRoot] [report]");
+            System.exit(2);
+        }
+        final String suite = args[0];
+        final int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final String[] server = (args.length > 2 ? args[2] : DEFAULT_SERVER).split(":");
+        final File root = new File(args.length > 3 ? args[3] : DEFAULT_ROOT);
+
+        final List<String> pages = new TestPageFinder(root).findTestPages(suite);
+        LOGGER.info("Running {} pages of suite {} with {} workers.", new Object[]{pages.size(), suite, workers});
+        final PageExecutor executor = new FitNesseServerPageExecutor(server[0], Integer.parseInt(server[1]), PAGE_TIMEOUT);
+        final SuiteReport report = new ParallelSuiteRunner(executor, workers).run(pages);
+        LOGGER.info(report.toString());
+
+        if (args.length > 4) {
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(args[4]), "UTF-8");
+            try {
+                report.writeXml(writer);
+            } finally {
+                writer.close();
+            }
+        }
+        System.exit(report.isPassed() ? 0 : 1);
+    }
+}
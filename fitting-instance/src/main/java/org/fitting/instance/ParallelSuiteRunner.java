@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * Runner that splits the test pages of a FitNesse suite over a fixed number of worker threads.
+ * <p>
+ * The {@link org.fitting.instance.PageExecutor} runs the pages out of process, like the {@link FitNesseServerPageExecutor} does, so the workers never
+ * share a {@link org.fitting.FittingConnector}: FitNesse starts a separate test system with its own connector for each page.
+ * </p>
+ * <p>
+ * The results of all pages are merged into a single {@link org.fitting.instance.SuiteReport}, in the order the pages were provided.
+ * </p>
+ */
+public class ParallelSuiteRunner {
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSuiteRunner.class);
+    /** The executor for the pages. */
+    private final PageExecutor executor;
+    /** The number of worker threads. */
+    private final int workers;
+
+    /**
+     * Create a new ParallelSuiteRunner.
+     * @param executor The executor for the pages.
+     * @param workers The number of worker threads.
+     * @throws IllegalArgumentException When no executor was provided or less than 1 worker was requested.
+     */
+    public ParallelSuiteRunner(final PageExecutor executor, final int workers) throws IllegalArgumentException {
+        if (executor == null) {
+            throw new IllegalArgumentException("No page executor provided.");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException(format("Can't run a suite with %d workers.", workers));
+        }
+        this.executor = executor;
+        this.workers = workers;
+    }
+
+    /**
+     * Run the pages, blocking until all pages have been executed.
+     * @param pageNames The full names of the pages to run.
+     * @return The merged report of all pages.
+     * @throws InterruptedException When the runner was interrupted while waiting for the pages to finish.
+     */
+    public SuiteReport run(final List<String> pageNames) throws InterruptedException {
+        final long start = System.currentTimeMillis();
+        final ExecutorService scheduler = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, pageNames.size())), new WorkerThreadFactory());
+        final List<Future<PageResult>> futures = new ArrayList<Future<PageResult>>(pageNames.size());
+        try {
+            for (final String pageName : pageNames) {
+                futures.add(scheduler.submit(new Callable<PageResult>() {
+                    @Override
+                    public PageResult call() throws Exception {
+                        return runPage(pageName);
+                    }
+                }));
+            }
+            final List<PageResult> results = new ArrayList<PageResult>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(getResult(pageNames.get(i), futures.get(i)));
+            }
+            return new SuiteReport(results, System.currentTimeMillis() - start);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a single page on the current worker thread.
+     * @param pageName The full name of the page.
+     * @return The result of the page.
+     */
+    private PageResult runPage(final String pageName) {
+        final long start = System.currentTimeMillis();
+        PageResult result;
+        try {
+            LOGGER.debug("Running page {}.", pageName);
+            result = executor.execute(pageName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = PageResult.failed(pageName, System.currentTimeMillis() - start, e);
+        } catch (Exception e) {
+            LOGGER.warn(format("Unable to run page %s.", pageName), e);
+            result = PageResult.failed(pageName, System.currentTimeMillis() - start, e);
+        }
+        return result;
+    }
+
+    /**
+     * Get the result of a scheduled page, converting scheduling failures to a failed page.
+     * @param pageName The full name of the page.
+     * @param future The scheduled page.
+     * @return The result of the page.
+     * @throws InterruptedException When the runner was interrupted while waiting for the page.
+     */
+    private static PageResult getResult(final String pageName, final Future<PageResult> future) throws InterruptedException {
+        PageResult result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            result = PageResult.failed(pageName, 0, e.getCause());
+        }
+        return result;
+    }
+
+    /** {@link java.util.concurrent.ThreadFactory} for named worker threads. */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        /** The number of created workers. */
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new Thread(runnable, "fitting-suite-worker-" + count.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+import static java.lang.String.format;
+
+/** Merged report of all pages executed by a {@link org.fitting.instance.ParallelSuiteRunner}. */
+public final class SuiteReport {
+    /** The results of the pages. */
+    private final List<PageResult> results;
+    /** The wall-clock time in milliseconds it took to run all pages. */
+    private final long runTime;
+
+    /**
+     * Create a new SuiteReport.
+     * @param results The results of the pages.
+     * @param runTime The wall-clock time in milliseconds it took to run all pages.
+     */
+    public SuiteReport(final List<PageResult> results, final long runTime) {
+        this.results = Collections.unmodifiableList(new ArrayList<PageResult>(results));
+        this.runTime = runTime;
+    }
+
+    /**
+     * Get the results of the individual pages.
+     * @return The results.
+     */
+    public List<PageResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the wall-clock time it took to run all pages.
+     * @return The run time in milliseconds.
+     */
+    public long getRunTime() {
+        return runTime;
+    }
+
+    /**
+     * Get the total number of passed assertions.
+     * @return The number of passed assertions.
+     */
+    public int getRight() {
+        int right = 0;
+        for (PageResult result : results) {
+            right += result.getRight();
+        }
+        return right;
+    }
+
+    /**
+     * Get the total number of failed assertions.
+     * @return The number of failed assertions.
+     */
+    public int getWrong() {
+        int wrong = 0;
+        for (PageResult result : results) {
+            wrong += result.getWrong();
+        }
+        return wrong;
+    }
+
+    /**
+     * Get the total number of ignored assertions.
+     * @return The number of ignored assertions.
+     */
+    public int getIgnores() {
+        int ignores = 0;
+        for (PageResult result : results) {
+            ignores += result.getIgnores();
+        }
+        return ignores;
+    }
+
+    /**
+     * Get the total number of exceptions.
+     * @return The number of exceptions.
+     */
+    public int getExceptions() {
+        int exceptions = 0;
+        for (PageResult result : results) {
+            exceptions += result.getExceptions();
+        }
+        return exceptions;
+    }
+
+    /**
+     * Get the number of pages that did not pass.
+     * @return The number of failed pages.
+     */
+    public int getFailedPages() {
+        int failed = 0;
+        for (PageResult result : results) {
+            if (!result.isPassed()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Check if all pages passed.
+     * @return <code>true</code> if all pages passed.
+     */
+    public boolean isPassed() {
+        return getFailedPages() == 0;
+    }
+
+    /**
+     * Write the report as XML, using the element names of the FitNesse XML test results format.
+     * @param writer The writer to write to.
+     * @throws IOException When writing failed.
+     */
+    public void writeXml(final Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\"?>\n<suiteResults>\n");
+        for (PageResult result : results) {
+            writer.write(format("  <pageHistoryReference>\n    <name>%s</name>\n", StringEscapeUtils.escapeXml(result.getPageName())));
+            writeCounts(writer, "    ", "counts", result.getRight(), result.getWrong(), result.getIgnores(), result.getExceptions());
+            writer.write(format("    <runTimeInMillis>%d</runTimeInMillis>\n", result.getRunTime()));
+            if (result.getError() != null) {
+                writer.write(format("    <error>%s</error>\n", StringEscapeUtils.escapeXml(result.getError())));
+            }
+            writer.write("  </pageHistoryReference>\n");
+        }
+        writeCounts(writer, "  ", "finalCounts", getRight(), getWrong(), getIgnores(), getExceptions());
+        writer.write(format("  <totalRunTimeInMillis>%d</totalRunTimeInMillis>\n</suiteResults>\n", runTime));
+        writer.flush();
+    }
+
+    /**
+     * Write a counts element.
+     * @param writer The writer to write to.
+     * @param indent The indentation of the element.
+     * @param element The name of the element.
+     * @param right The number of passed assertions.
+     * @param wrong The number of failed assertions.
+     * @param ignores The number of ignored assertions.
+     * @param exceptions The number of exceptions.
+     * @throws IOException When writing failed.
+     */
+    private static void writeCounts(final Writer writer, final String indent, final String element, final int right, final int wrong, final int ignores, final int exceptions)
+            throws IOException {
+        writer.write(format("%s<%s><right>%d</right><wrong>%d</wrong><ignores>%d</ignores><exceptions>%d</exceptions></%s>\n",
+                indent, element, right, wrong, ignores, exceptions, element));
+    }
+
+    @Override
+    public String toString() {
+        return format("%d pages (%d failed): %d right, %d wrong, %d ignored, %d exceptions in %dms",
+                results.size(), getFailedPages(), getRight(), getWrong(), getIgnores(), getExceptions(), runTime);
+    }
+}
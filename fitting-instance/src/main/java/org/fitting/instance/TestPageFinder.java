@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.fitting.FittingException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import static java.lang.String.format;
+
+/** Finder for the test pages of a FitNesse suite, based on the page directories of a FitNesseRoot. */
+public class TestPageFinder {
+    /** The pages that are included by FitNesse itself instead of being run as test. */
+    private static final List<String> SPECIAL_PAGES = Arrays.asList("SuiteSetUp", "SuiteTearDown", "SetUp", "TearDown", "ScenarioLibrary", "TemplateLibrary");
+    /** The file containing the page properties. */
+    private static final String PROPERTIES_FILE = "properties.xml";
+    /** The file containing the page content. */
+    private static final String CONTENT_FILE = "content.txt";
+    /** The property marking a page as test page. */
+    private static final String TEST_PROPERTY = "Test";
+    /** The root directory of the wiki. */
+    private final File root;
+
+    /**
+     * Create a new TestPageFinder.
+     * @param root The FitNesseRoot directory.
+     * @throws IllegalArgumentException When the root is not a directory.
+     */
+    public TestPageFinder(final File root) throws IllegalArgumentException {
+        if (root == null || !root.isDirectory()) {
+            throw new IllegalArgumentException(format("FitNesse root %s is not a directory.", root));
+        }
+        this.root = root;
+    }
+
+    /**
+     * Find all test pages within a suite, in the order FitNesse would run them.
+     * @param suiteName The full name of the suite, e.g. <code>FittingProject.UsageExamples</code>.
+     * @return The full names of the test pages.
+     * @throws FittingException When the suite does not exist or a page could not be read.
+     */
+    public List<String> findTestPages(final String suiteName) throws FittingException {
+        final File suite = new File(root, suiteName.replace('.', File.separatorChar));
+        if (!new File(suite, CONTENT_FILE).isFile()) {
+            throw new FittingException(format("No page found with name %s in %s.", suiteName, root));
+        }
+        final List<String> pages = new ArrayList<String>();
+        collect(suite, suiteName, pages);
+        return pages;
+    }
+
+    /**
+     * Collect the test pages for a page and its child pages.
+     * @param page The directory of the page.
+     * @param pageName The full name of the page.
+     * @param pages The collected test pages.
+     */
+    private void collect(final File page, final String pageName, final List<String> pages) {
+        if (isTestPage(page)) {
+            pages.add(pageName);
+        }
+        final File[] children = page.listFiles();
+        if (children != null) {
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.isDirectory() && new File(child, CONTENT_FILE).isFile() && !SPECIAL_PAGES.contains(child.getName())) {
+                    collect(child, pageName + "." + child.getName(), pages);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a page is marked as test page.
+     * @param page The directory of the page.
+     * @return <code>true</code> if the page is a test page.
+     * @throws FittingException When the properties of the page could not be read.
+     */
+    private static boolean isTestPage(final File page) throws FittingException {
+        boolean test = false;
+        final File properties = new File(page, PROPERTIES_FILE);
+        if (properties.isFile()) {
+            try {
+                final DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+                final Document document = builder.parse(properties);
+                final NodeList nodes = document.getDocumentElement().getElementsByTagName(TEST_PROPERTY);
+                if (nodes.getLength() > 0) {
+                    final String value = ((Element) nodes.item(0)).getTextContent().trim();
+                    test = value.length() == 0 || Boolean.parseBoolean(value);
+                }
+            } catch (Exception e) {
+                throw new FittingException(format("Unable to read the properties of page %s.", page), e);
+            }
+        }
+        return test;
+    }
+}
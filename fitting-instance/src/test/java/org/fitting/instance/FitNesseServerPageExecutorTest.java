@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.fitting.FittingException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/** Unit tests for {@link FitNesseServerPageExecutor}. */
+public class FitNesseServerPageExecutorTest {
+
+    /**
+     * Given the XML test results of a page, with counts per table and final counts.<br/>
+     * When the results are read.<br/>
+     * Then the final counts should be returned.
+     * @see FitNesseServerPageExecutor#parseResult(String, InputStream, long)
+     */
+    @Test
+    public void shouldReadFinalCounts() throws Exception {
+        final PageResult result = FitNesseServerPageExecutor.parseResult("Suite.Page", xml("<testResults><result><counts><right>1</right>"
+                + "<wrong>0</wrong></counts></result><finalCounts><right> 12 </right><wrong>2</wrong><ignores>1</ignores><exceptions>0</exceptions>"
+                + "</finalCounts></testResults>"), System.currentTimeMillis());
+
+        assertEquals("Suite.Page", result.getPageName());
+        assertEquals(12, result.getRight());
+        assertEquals(2, result.getWrong());
+        assertEquals(1, result.getIgnores());
+        assertEquals(0, result.getExceptions());
+        assertFalse(result.isPassed());
+    }
+
+    /**
+     * Given XML test results without final counts.<br/>
+     * When the results are read.<br/>
+     * Then the page should be reported as not executed.
+     * @see FitNesseServerPageExecutor#parseResult(String, InputStream, long)
+     */
+    @Test(expected = FittingException.class)
+    public void shouldRejectResultsWithoutFinalCounts() throws Exception {
+        FitNesseServerPageExecutor.parseResult("Suite.Page", xml("<testResults/>"), System.currentTimeMillis());
+    }
+
+    /**
+     * Create the input of an XML document.
+     * @param xml The XML.
+     * @return The input.
+     */
+    private static InputStream xml(final String xml) throws Exception {
+        return new ByteArrayInputStream(("<?xml version=\"1.0\"?>" + xml).getBytes("UTF-8"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link ParallelSuiteRunner}. */
+public class ParallelSuiteRunnerTest {
+
+    /**
+     * Given a runner with two workers.<br/>
+     * When two pages are run that each wait for the other one to start.<br/>
+     * Then both pages should run at the same time on different workers and the results should be in the order of the pages.
+     * @see ParallelSuiteRunner#run(java.util.List)
+     */
+    @Test
+    public void shouldRunPagesInParallel() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final Set<String> workers = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        final ParallelSuiteRunner runner = new ParallelSuiteRunner(new PageExecutor() {
+            @Override
+            public PageResult execute(final String pageName) throws Exception {
+                workers.add(Thread.currentThread().getName());
+                started.countDown();
+                final boolean parallel = started.await(5, TimeUnit.SECONDS);
+                return new PageResult(pageName, parallel ? 1 : 0, parallel ? 0 : 1, 0, 0, 0);
+            }
+        }, 2);
+
+        final SuiteReport report = runner.run(Arrays.asList("Suite.First", "Suite.Second"));
+
+        assertTrue(report.isPassed());
+        assertEquals(2, workers.size());
+        assertEquals("Suite.First", report.getResults().get(0).getPageName());
+        assertEquals("Suite.Second", report.getResults().get(1).getPageName());
+    }
+
+    /**
+     * Given a runner with an executor failing for one of the pages.<br/>
+     * When the pages are run.<br/>
+     * Then the failing page should be reported as an exception and the other pages should still run.
+     * @see ParallelSuiteRunner#run(java.util.List)
+     */
+    @Test
+    public void shouldReportFailingPageAsException() throws Exception {
+        final ParallelSuiteRunner runner = new ParallelSuiteRunner(new PageExecutor() {
+            @Override
+            public PageResult execute(final String pageName) throws Exception {
+                if (pageName.endsWith("Broken")) {
+                    throw new IllegalStateException("unreachable");
+                }
+                return new PageResult(pageName, 3, 0, 0, 0, 0);
+            }
+        }, 4);
+
+        final SuiteReport report = runner.run(Arrays.asList("Suite.Broken", "Suite.Working"));
+
+        assertFalse(report.isPassed());
+        assertEquals(1, report.getFailedPages());
+        assertEquals(1, report.getExceptions());
+        assertEquals(3, report.getRight());
+        assertEquals("java.lang.IllegalStateException: unreachable", report.getResults().get(0).getError());
+    }
+
+    /**
+     * Given no workers.<br/>
+     * When a runner is created.<br/>
+     * Then it should be rejected.
+     * @see ParallelSuiteRunner#ParallelSuiteRunner(PageExecutor, int)
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectRunnerWithoutWorkers() {
+        new ParallelSuiteRunner(new FitNesseServerPageExecutor("localhost", 9000, 1000), 0);
+    }
+}
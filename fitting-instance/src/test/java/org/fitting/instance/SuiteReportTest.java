@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.instance;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for {@link SuiteReport}. */
+public class SuiteReportTest {
+
+    /**
+     * Given the results of a passed, a failed and a not executed page.<br/>
+     * When the report is created.<br/>
+     * Then the counts should be summed and the failed pages counted.
+     * @see SuiteReport#getFailedPages()
+     */
+    @Test
+    public void shouldMergePageResults() {
+        final SuiteReport report = new SuiteReport(Arrays.asList(new PageResult("Suite.Passed", 4, 0, 1, 0, 10), new PageResult("Suite.Failed", 2, 1, 0, 0, 20),
+                PageResult.failed("Suite.Broken", 5, new IllegalStateException("down"))), 25);
+
+        assertEquals(6, report.getRight());
+        assertEquals(1, report.getWrong());
+        assertEquals(1, report.getIgnores());
+        assertEquals(1, report.getExceptions());
+        assertEquals(2, report.getFailedPages());
+        assertEquals("3 pages (2 failed): 6 right, 1 wrong, 1 ignored, 1 exceptions in 25ms", report.toString());
+    }
+
+    /**
+     * Given a report with a page that could not be executed.<br/>
+     * When the report is written as XML.<br/>
+     * Then the page counts, the escaped error and the final counts should be written.
+     * @see SuiteReport#writeXml(java.io.Writer)
+     */
+    @Test
+    public void shouldWriteXml() throws Exception {
+        final SuiteReport report = new SuiteReport(Arrays.asList(new PageResult("Suite.Passed", 4, 0, 0, 0, 10),
+                PageResult.failed("Suite.Broken", 5, new IllegalStateException("<down>"))), 25);
+        final StringWriter writer = new StringWriter();
+
+        report.writeXml(writer);
+
+        final String xml = writer.toString();
+        assertTrue(xml.contains("<name>Suite.Passed</name>\n    <counts><right>4</right><wrong>0</wrong><ignores>0</ignores><exceptions>0</exceptions></counts>"));
+        assertTrue(xml.contains("<error>java.lang.IllegalStateException: &lt;down&gt;</error>"));
+        assertTrue(xml.contains("<finalCounts><right>4</right><wrong>0</wrong><ignores>0</ignores><exceptions>1</exceptions></finalCounts>"));
+        assertTrue(xml.endsWith("<totalRunTimeInMillis>25</totalRunTimeInMillis>\n</suiteResults>\n"));
+    }
+}
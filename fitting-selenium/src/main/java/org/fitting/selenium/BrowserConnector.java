@@ -21,20 +21,24 @@ package org.fitting.selenium;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.remote.DesiredCapabilities;
-import org.openqa.selenium.remote.RemoteWebDriver;
 
 import static java.lang.String.format;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 /** Selenium browser object. */
 public class BrowserConnector {
+    /** The location of the blank page browsers are reset to. */
+    private static final String BLANK_PAGE = "about:blank";
     /** The main window. */
     private SeleniumWindow window;
     /** The underlying WebDriver implementation. */
@@ -44,15 +48,32 @@ public class BrowserConnector {
 
     /**
      * Create a new Browser instance.
+     * <p>
+     * The browser is driven by a {@link org.fitting.selenium.PipelinedWebDriver}, which only queues commands when pipelining is enabled.
+     * </p>
      *
      * @param capabilities The desired browser capabilities.
      * @param url          The URL to connect to.
      */
     protected BrowserConnector(DesiredCapabilities capabilities, URL url) {
-        webDriver = new RemoteWebDriver(url, capabilities);
+        webDriver = new PipelinedWebDriver(url, capabilities);
         javascriptEnabled = capabilities.isJavascriptEnabled();
     }
 
+    /**
+     * Create a new Browser instance for an already running WebDriver.
+     *
+     * @param webDriver         The WebDriver.
+     * @param javascriptEnabled Flag indicating if javascript is enabled.
+     */
+    protected BrowserConnector(WebDriver webDriver, boolean javascriptEnabled) {
+        if (webDriver == null) {
+            throw new IllegalArgumentException("Can't create a browser for a null WebDriver.");
+        }
+        this.webDriver = webDriver;
+        this.javascriptEnabled = javascriptEnabled;
+    }
+
     /**
      * Get the underlying WebDriver implementation.
      *
@@ -84,6 +105,42 @@ public class BrowserConnector {
         return javascriptEnabled;
     }
 
+    /**
+     * Reset the browser to a clean state, so the underlying session can be reused.
+     * <p>
+     * All windows except the main window are closed, all cookies are deleted and the main window is navigated to a blank page.
+     * </p>
+     *
+     * @throws IllegalStateException When the browser was already destroyed.
+     */
+    public synchronized void reset() throws IllegalStateException {
+        if (webDriver == null) {
+            throw new IllegalStateException("Can't reset a browser that has been destroyed.");
+        }
+        final String mainWindowHandle = getWindow().getId();
+        final Set<String> handles = webDriver.getWindowHandles();
+        for (String handle : handles) {
+            if (!handle.equals(mainWindowHandle)) {
+                SeleniumContextTracker.switchToWindow(webDriver, handle);
+                webDriver.close();
+                SeleniumContextTracker.invalidate(webDriver);
+            }
+        }
+        SeleniumContextTracker.switchToFrame(webDriver, mainWindowHandle, Collections.<By>emptyList());
+        webDriver.manage().deleteAllCookies();
+        webDriver.get(BLANK_PAGE);
+    }
+
+    /** Quit the underlying browser session, closing all of its windows. */
+    protected synchronized void quit() {
+        window = null;
+        if (webDriver != null) {
+            webDriver.quit();
+        }
+        webDriver = null;
+        javascriptEnabled = false;
+    }
+
     /** Destroy the Browser object. */
     public synchronized void destroy() {
         if (window != null) {
@@ -0,0 +1,608 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.fitting.FittingConfiguration;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * Pool of warm {@link org.fitting.selenium.BrowserConnector} sessions, indexed by the desired capabilities and Selenium server URL they were created for.
+ * <p>
+ * Browsers acquired via the pool are returned to it when they are destroyed. Returned browsers are reset (see {@link BrowserConnector#reset()}) and kept alive
+ * until they either have been idle for longer than the maximum idle time or have been used the maximum number of times.
+ * </p>
+ * <p>
+ * Browsers of a Selenium server that has been stopped are evicted (see {@link #evictServer(String, int)}), as their sessions died with the server.
+ * </p>
+ *
+ * @see org.fitting.selenium.PooledBrowserConnector
+ */
+public class BrowserConnectorPool {
+    /** The default maximum time in milliseconds a browser may stay idle in the pool. */
+    public static final long DEFAULT_MAX_IDLE_TIME = 5 * 60 * 1000L;
+    /** The default maximum number of times a browser may be acquired before being evicted. */
+    public static final int DEFAULT_MAX_USES = 50;
+    /** The configuration key for the maximum time in milliseconds a browser may stay idle in the pool. */
+    public static final FittingConfiguration.Key<Long> MAX_IDLE_TIME = FittingConfiguration.longKey("fitting.pool.maxIdleTime", DEFAULT_MAX_IDLE_TIME);
+    /** The configuration key for the maximum number of times a browser may be acquired before being evicted. */
+    public static final FittingConfiguration.Key<Integer> MAX_USES = FittingConfiguration.integerKey("fitting.pool.maxUses", DEFAULT_MAX_USES);
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrowserConnectorPool.class);
+    /** The singleton instance. */
+    private static BrowserConnectorPool instance;
+    /** The idle browsers, indexed by their pool key, with the most recently released browser first. */
+    private final Map<Key, LinkedList<PooledBrowserConnector>> idle;
+    /** The pool administration of all browsers managed by the pool, both idle and in use. */
+    private final Map<PooledBrowserConnector, Session> sessions;
+    /** The maximum time in milliseconds a browser may stay idle. */
+    private long maxIdleTime;
+    /** The maximum number of times a browser may be acquired. */
+    private int maxUses;
+    /** The number of times a browser was acquired from the idle browsers. */
+    private long hits;
+    /** The number of times no idle browser was available and a new one had to be started. */
+    private long misses;
+    /** The number of browser sessions started by the pool. */
+    private long warmUps;
+    /** The total time in milliseconds spent starting browser sessions. */
+    private long warmUpTime;
+    /** The number of browsers evicted from the pool. */
+    private long evictions;
+    /** Flag indicating the pool has been shut down. */
+    private boolean shutdown;
+
+    /** Create a new BrowserConnectorPool, with the maximum idle time and number of uses from the {@link org.fitting.FittingConfiguration}. */
+    protected BrowserConnectorPool() {
+        idle = new HashMap<Key, LinkedList<PooledBrowserConnector>>();
+        sessions = new IdentityHashMap<PooledBrowserConnector, Session>();
+        final FittingConfiguration.Snapshot configuration = FittingConfiguration.getInstance().getSnapshot();
+        maxIdleTime = configuration.get(MAX_IDLE_TIME);
+        maxUses = configuration.get(MAX_USES);
+    }
+
+    /**
+     * Get the singleton instance of the pool.
+     * <p>
+     * The pool is shut down, terminating all idle browsers, when the JVM exits.
+     * </p>
+     *
+     * @return The pool.
+     */
+    public static synchronized BrowserConnectorPool getInstance() {
+        if (instance == null) {
+            final BrowserConnectorPool pool = new BrowserConnectorPool();
+            Runtime.getRuntime().addShutdownHook(new Thread("fitting-browser-pool-shutdown") {
+                @Override
+                public void run() {
+                    pool.shutdown();
+                }
+            });
+            instance = pool;
+        }
+        return instance;
+    }
+
+    /**
+     * Get the singleton instance of the pool, without creating it.
+     *
+     * @return The pool or <code>null</code> when it hasn't been created yet.
+     */
+    static synchronized BrowserConnectorPool getCreatedInstance() {
+        return instance;
+    }
+
+    /**
+     * Acquire a browser matching the properties of the builder, reusing an idle browser when available.
+     *
+     * @param builder The builder with the properties of the browser.
+     *
+     * @return The browser.
+     *
+     * @throws IllegalArgumentException When invalid data was provided to the builder.
+     * @throws IllegalStateException    When the pool has been shut down.
+     */
+    public BrowserConnector acquire(final BrowserConnector.Builder builder) throws IllegalArgumentException, IllegalStateException {
+        final DesiredCapabilities capabilities = builder.createDesiredCapabilities();
+        final URL url = builder.createSeleniumUrl();
+        final Key key = new Key(capabilities, url);
+
+        evictExpired();
+        PooledBrowserConnector connector = takeIdle(key);
+        if (connector == null) {
+            connector = start(key, capabilities, url);
+            synchronized (this) {
+                misses++;
+            }
+        } else {
+            synchronized (this) {
+                hits++;
+            }
+        }
+        synchronized (this) {
+            sessions.get(connector).acquired();
+        }
+        return connector;
+    }
+
+    /**
+     * Start a number of browsers matching the properties of the builder in advance and add them to the idle browsers.
+     *
+     * @param builder  The builder with the properties of the browsers.
+     * @param browsers The number of browsers to start.
+     *
+     * @throws IllegalArgumentException When invalid data was provided to the builder.
+     * @throws IllegalStateException    When the pool has been shut down.
+     */
+    public void warmUp(final BrowserConnector.Builder builder, final int browsers) throws IllegalArgumentException, IllegalStateException {
+        final DesiredCapabilities capabilities = builder.createDesiredCapabilities();
+        final URL url = builder.createSeleniumUrl();
+        final Key key = new Key(capabilities, url);
+        for (int i = 0; i < browsers; i++) {
+            final PooledBrowserConnector connector = start(key, capabilities, url);
+            synchronized (this) {
+                sessions.get(connector).released();
+                getIdle(key).addLast(connector);
+            }
+        }
+    }
+
+    /**
+     * Release a browser back to the pool, resetting it for reuse or evicting it when it has reached its maximum number of uses.
+     *
+     * @param connector The browser to release.
+     */
+    void release(final PooledBrowserConnector connector) {
+        final Session session;
+        final boolean serverStopped;
+        synchronized (this) {
+            session = sessions.get(connector);
+            if (session == null || !session.isInUse()) {
+                return;
+            }
+            session.released();
+            serverStopped = session.isServerStopped();
+        }
+        boolean reusable = !isShutdown() && !serverStopped && session.getUses() < getMaxUses();
+        if (reusable) {
+            try {
+                connector.reset();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to reset browser, evicting it from the pool.", e);
+                reusable = false;
+            }
+        }
+        if (reusable) {
+            synchronized (this) {
+                getIdle(session.getKey()).addFirst(connector);
+            }
+        } else {
+            evict(connector);
+        }
+        evictExpired();
+    }
+
+    /** Evict all idle browsers that have been idle for longer than the maximum idle time. */
+    public void evictExpired() {
+        final List<PooledBrowserConnector> expired = new ArrayList<PooledBrowserConnector>();
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+            for (LinkedList<PooledBrowserConnector> connectors : idle.values()) {
+                final Iterator<PooledBrowserConnector> iterator = connectors.iterator();
+                while (iterator.hasNext()) {
+                    final PooledBrowserConnector connector = iterator.next();
+                    if (now - sessions.get(connector).getReleased() > maxIdleTime) {
+                        iterator.remove();
+                        expired.add(connector);
+                    }
+                }
+            }
+        }
+        for (PooledBrowserConnector connector : expired) {
+            evict(connector);
+        }
+    }
+
+    /**
+     * Evict all browsers of a Selenium server that has been stopped.
+     * <p>
+     * Idle browsers are evicted right away, browsers in use are evicted when they are released.
+     * </p>
+     *
+     * @param host The host of the Selenium server.
+     * @param port The port of the Selenium server.
+     */
+    public void evictServer(final String host, final int port) {
+        final List<PooledBrowserConnector> stopped = new ArrayList<PooledBrowserConnector>();
+        synchronized (this) {
+            for (Map.Entry<PooledBrowserConnector, Session> entry : sessions.entrySet()) {
+                final Session session = entry.getValue();
+                if (session.getKey().isOnServer(host, port)) {
+                    session.serverStopped();
+                    if (!session.isInUse()) {
+                        stopped.add(entry.getKey());
+                    }
+                }
+            }
+            for (LinkedList<PooledBrowserConnector> connectors : idle.values()) {
+                connectors.removeAll(stopped);
+            }
+        }
+        for (PooledBrowserConnector connector : stopped) {
+            evict(connector);
+        }
+    }
+
+    /** Shut the pool down, terminating all idle browsers. Browsers still in use are terminated when they are released. */
+    public void shutdown() {
+        final List<PooledBrowserConnector> connectors = new ArrayList<PooledBrowserConnector>();
+        synchronized (this) {
+            shutdown = true;
+            for (LinkedList<PooledBrowserConnector> idleConnectors : idle.values()) {
+                connectors.addAll(idleConnectors);
+            }
+            idle.clear();
+        }
+        for (PooledBrowserConnector connector : connectors) {
+            evict(connector);
+        }
+    }
+
+    /**
+     * Check if the pool has been shut down.
+     *
+     * @return <code>true</code> if the pool has been shut down.
+     */
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Get the maximum time in milliseconds a browser may stay idle in the pool.
+     *
+     * @return The maximum idle time.
+     */
+    public synchronized long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * Set the maximum time in milliseconds a browser may stay idle in the pool.
+     *
+     * @param maxIdleTime The maximum idle time.
+     */
+    public synchronized void setMaxIdleTime(final long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * Get the maximum number of times a browser may be acquired before it's evicted.
+     *
+     * @return The maximum number of uses.
+     */
+    public synchronized int getMaxUses() {
+        return maxUses;
+    }
+
+    /**
+     * Set the maximum number of times a browser may be acquired before it's evicted.
+     *
+     * @param maxUses The maximum number of uses.
+     */
+    public synchronized void setMaxUses(final int maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    /**
+     * Get the number of times an idle browser was reused.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Get the number of times no idle browser was available when acquiring a browser.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Get the number of browser sessions started by the pool, either on acquiring or when warming up.
+     *
+     * @return The number of started browser sessions.
+     */
+    public synchronized long getWarmUpCount() {
+        return warmUps;
+    }
+
+    /**
+     * Get the total time in milliseconds spent on starting browser sessions.
+     *
+     * @return The total warm-up time.
+     */
+    public synchronized long getWarmUpTime() {
+        return warmUpTime;
+    }
+
+    /**
+     * Get the number of browsers evicted from the pool.
+     *
+     * @return The number of evicted browsers.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Get the number of idle browsers in the pool.
+     *
+     * @return The number of idle browsers.
+     */
+    public synchronized int getIdleCount() {
+        int count = 0;
+        for (LinkedList<PooledBrowserConnector> connectors : idle.values()) {
+            count += connectors.size();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of idle browsers in the pool for a Selenium server.
+     *
+     * @param host The host of the Selenium server.
+     * @param port The port of the Selenium server.
+     *
+     * @return The number of idle browsers.
+     */
+    public synchronized int getIdleCount(final String host, final int port) {
+        int count = 0;
+        for (Map.Entry<Key, LinkedList<PooledBrowserConnector>> entry : idle.entrySet()) {
+            if (entry.getKey().isOnServer(host, port)) {
+                count += entry.getValue().size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Create a new browser session.
+     *
+     * @param capabilities The desired browser capabilities.
+     * @param url          The URL of the Selenium server.
+     *
+     * @return The browser.
+     */
+    protected PooledBrowserConnector createConnector(final DesiredCapabilities capabilities, final URL url) {
+        return new PooledBrowserConnector(capabilities, url, this);
+    }
+
+    /**
+     * Start and register a new browser session.
+     *
+     * @param key          The pool key for the browser.
+     * @param capabilities The desired browser capabilities.
+     * @param url          The URL of the Selenium server.
+     *
+     * @return The browser.
+     *
+     * @throws IllegalStateException When the pool has been shut down.
+     */
+    private PooledBrowserConnector start(final Key key, final DesiredCapabilities capabilities, final URL url) throws IllegalStateException {
+        if (isShutdown()) {
+            throw new IllegalStateException("Can't start a browser on a pool that has been shut down.");
+        }
+        final long start = System.currentTimeMillis();
+        final PooledBrowserConnector connector = createConnector(capabilities, url);
+        final long duration = System.currentTimeMillis() - start;
+        LOGGER.debug("Started browser for {} in {}ms.", key, duration);
+        synchronized (this) {
+            sessions.put(connector, new Session(key));
+            warmUps++;
+            warmUpTime += duration;
+        }
+        return connector;
+    }
+
+    /**
+     * Take the most recently released idle browser for a key.
+     *
+     * @param key The pool key.
+     *
+     * @return The browser or <code>null</code> if there is no idle browser for the key.
+     */
+    private synchronized PooledBrowserConnector takeIdle(final Key key) {
+        PooledBrowserConnector connector = null;
+        final LinkedList<PooledBrowserConnector> connectors = idle.get(key);
+        if (connectors != null && !connectors.isEmpty()) {
+            connector = connectors.removeFirst();
+        }
+        return connector;
+    }
+
+    /**
+     * Get the idle browsers for a key.
+     *
+     * @param key The pool key.
+     *
+     * @return The idle browsers.
+     */
+    private LinkedList<PooledBrowserConnector> getIdle(final Key key) {
+        LinkedList<PooledBrowserConnector> connectors = idle.get(key);
+        if (connectors == null) {
+            connectors = new LinkedList<PooledBrowserConnector>();
+            idle.put(key, connectors);
+        }
+        return connectors;
+    }
+
+    /**
+     * Evict a browser from the pool, terminating its session.
+     *
+     * @param connector The browser.
+     */
+    private void evict(final PooledBrowserConnector connector) {
+        synchronized (this) {
+            sessions.remove(connector);
+            evictions++;
+        }
+        try {
+            connector.terminate();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to terminate evicted browser.", e);
+        }
+    }
+
+    /** Key for pooled browsers, consisting of the desired capabilities and the Selenium server URL. */
+    private static final class Key {
+        /** The desired capabilities. */
+        private final Map<String, Object> capabilities;
+        /** The Selenium server URL. */
+        private final String url;
+        /** The host of the Selenium server. */
+        private final String host;
+        /** The port of the Selenium server. */
+        private final int port;
+
+        /**
+         * Create a new Key.
+         *
+         * @param capabilities The desired capabilities.
+         * @param url          The Selenium server URL.
+         */
+        private Key(final DesiredCapabilities capabilities, final URL url) {
+            this.capabilities = new HashMap<String, Object>(capabilities.asMap());
+            this.url = url.toExternalForm();
+            this.host = url.getHost();
+            this.port = url.getPort();
+        }
+
+        /**
+         * Check if the key is for a Selenium server.
+         *
+         * @param host The host of the Selenium server.
+         * @param port The port of the Selenium server.
+         *
+         * @return <code>true</code> if the key is for the Selenium server.
+         */
+        private boolean isOnServer(final String host, final int port) {
+            return this.port == port && this.host.equalsIgnoreCase(host);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            boolean equal = false;
+            if (this == o) {
+                equal = true;
+            } else if (o instanceof Key) {
+                final Key key = (Key) o;
+                equal = url.equals(key.url) && capabilities.equals(key.capabilities);
+            }
+            return equal;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * url.hashCode() + capabilities.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return format("%s %s", url, capabilities);
+        }
+    }
+
+    /** Pool administration for a single browser. */
+    private static final class Session {
+        /** The pool key of the browser. */
+        private final Key key;
+        /** The number of times the browser was acquired. */
+        private int uses;
+        /** Flag indicating the browser is in use. */
+        private boolean inUse;
+        /** The time the browser was last released. */
+        private long released;
+        /** Flag indicating the Selenium server of the browser has been stopped. */
+        private boolean serverStopped;
+
+        /**
+         * Create a new Session.
+         *
+         * @param key The pool key of the browser.
+         */
+        private Session(final Key key) {
+            this.key = key;
+            this.released = System.currentTimeMillis();
+        }
+
+        /** Mark the browser as acquired. */
+        private void acquired() {
+            uses++;
+            inUse = true;
+        }
+
+        /** Mark the browser as released. */
+        private void released() {
+            inUse = false;
+            released = System.currentTimeMillis();
+        }
+
+        /** Mark the Selenium server of the browser as stopped. */
+        private void serverStopped() {
+            serverStopped = true;
+        }
+
+        private Key getKey() {
+            return key;
+        }
+
+        private int getUses() {
+            return uses;
+        }
+
+        private boolean isInUse() {
+            return inUse;
+        }
+
+        private long getReleased() {
+            return released;
+        }
+
+        private boolean isServerStopped() {
+            return serverStopped;
+        }
+    }
+}
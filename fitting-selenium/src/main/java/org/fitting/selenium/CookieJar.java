@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.fitting.ElementContainer;
+import org.fitting.ElementContainerProvider;
+import org.fitting.FittingException;
+import org.fitting.FormattedFittingException;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import static java.lang.String.format;
+import static org.apache.commons.lang.StringUtils.isNotEmpty;
+
+/**
+ * Cookies of a browser per domain, visiting each domain at most once for a batch of operations.
+ * <p>
+ * Cookies can only be changed and read for the domain of the active window, so the operations for other domains are executed in a new window on that
+ * domain. Without batching every operation is executed right away. With batching the operations for other domains are queued per domain and executed
+ * when the batch is applied, with a single window per domain; reading the cookies of a domain executes the operations queued for that domain first.
+ * The operations on the domain of the active window are always executed right away, as they cost no window and the active window may navigate to
+ * another domain before the batch is applied.
+ * </p>
+ * <p>
+ * While batching, the cookies read in the window on another domain are kept as snapshot, so reading them again opens no new window. The snapshots
+ * are discarded when the jar changes the cookies of the domain and when batching is disabled, so changes made by the pages themselves are seen once
+ * batching is disabled. The cookies of the active window are always read from the browser. A cookie jar is meant for a single thread.
+ * </p>
+ */
+public class CookieJar {
+    /** The WebDriver. */
+    private final WebDriver driver;
+    /** The provider for opening windows on other domains. */
+    private final ElementContainerProvider provider;
+    /** The queued operations per domain other than the domain of the active window. */
+    private final Map<String, List<CookieOperation>> pending = new LinkedHashMap<String, List<CookieOperation>>();
+    /** The snapshots of the cookies by name per domain other than the domain of the active window, only kept while batching. */
+    private final Map<String, Map<String, Cookie>> snapshots = new LinkedHashMap<String, Map<String, Cookie>>();
+    /** Flag indicating if the operations are queued until the batch is applied. */
+    private boolean batching;
+
+    /**
+     * Create a new CookieJar.
+     *
+     * @param driver   The WebDriver.
+     * @param provider The provider for opening windows on other domains.
+     */
+    public CookieJar(final WebDriver driver, final ElementContainerProvider provider) {
+        this.driver = driver;
+        this.provider = provider;
+    }
+
+    /**
+     * Add a cookie.
+     *
+     * @param cookie The cookie.
+     * @param domain The URL of the domain to add the cookie on or <code>null</code> for the domain of the active window.
+     *
+     * @throws FittingException When the domain is invalid or the cookie could not be added.
+     */
+    public void add(final Cookie cookie, final String domain) throws FittingException {
+        queue(domain, new CookieOperation() {
+            @Override
+            public void execute() {
+                driver.manage().addCookie(cookie);
+            }
+        });
+    }
+
+    /**
+     * Delete a cookie.
+     *
+     * @param name   The name of the cookie.
+     * @param domain The URL of the domain to delete the cookie from or <code>null</code> for the domain of the active window.
+     *
+     * @throws FittingException When the domain is invalid or the cookie could not be deleted.
+     */
+    public void delete(final String name, final String domain) throws FittingException {
+        queue(domain, new CookieOperation() {
+            @Override
+            public void execute() {
+                driver.manage().deleteCookieNamed(name);
+            }
+        });
+    }
+
+    /**
+     * Delete all cookies.
+     *
+     * @param domain The URL of the domain to delete the cookies from or <code>null</code> for the domain of the active window.
+     *
+     * @throws FittingException When the domain is invalid or the cookies could not be deleted.
+     */
+    public void deleteAll(final String domain) throws FittingException {
+        queue(domain, new CookieOperation() {
+            @Override
+            public void execute() {
+                driver.manage().deleteAllCookies();
+            }
+        });
+    }
+
+    /**
+     * Get a cookie.
+     *
+     * @param name   The name of the cookie.
+     * @param domain The URL of the domain or <code>null</code> for the domain of the active window.
+     *
+     * @return The cookie or <code>null</code> if the domain has no cookie with the given name.
+     *
+     * @throws FittingException When the domain is invalid or the cookies could not be read.
+     */
+    public Cookie getCookie(final String name, final String domain) throws FittingException {
+        return getSnapshot(domain).get(name);
+    }
+
+    /**
+     * Get the cookies.
+     *
+     * @param domain The URL of the domain or <code>null</code> for the domain of the active window.
+     *
+     * @return The cookies by name.
+     *
+     * @throws FittingException When the domain is invalid or the cookies could not be read.
+     */
+    public Map<String, Cookie> getCookies(final String domain) throws FittingException {
+        return getSnapshot(domain);
+    }
+
+    /**
+     * Enable or disable batching, applying the queued operations and discarding the snapshots when disabling it.
+     *
+     * @param batching <code>true</code> to queue the operations until the batch is applied.
+     *
+     * @throws FittingException When a queued operation failed.
+     */
+    public void setBatching(final boolean batching) throws FittingException {
+        this.batching = batching;
+        if (!batching) {
+            try {
+                apply();
+            } finally {
+                invalidate();
+            }
+        }
+    }
+
+    /**
+     * Check if the operations are queued until the batch is applied.
+     *
+     * @return <code>true</code> if batching.
+     */
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Execute the queued operations, visiting each domain once.
+     *
+     * @throws FittingException When an operation failed, the operations for the other domains are discarded.
+     */
+    public void apply() throws FittingException {
+        try {
+            while (!pending.isEmpty()) {
+                apply(pending.keySet().iterator().next());
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /** Discard the snapshots, so the cookies are read from the browser again. */
+    public void invalidate() {
+        snapshots.clear();
+    }
+
+    /**
+     * Queue an operation, executing it right away when not batching or when it is on the domain of the active window.
+     *
+     * @param domain    The URL of the domain or <code>null</code> for the domain of the active window.
+     * @param operation The operation.
+     *
+     * @throws FittingException When the domain is invalid or the operation failed.
+     */
+    private void queue(final String domain, final CookieOperation operation) throws FittingException {
+        final String key = toKey(domain);
+        if (key == null) {
+            visit(null, Collections.singletonList(operation), false);
+        } else {
+            List<CookieOperation> operations = pending.get(key);
+            if (operations == null) {
+                operations = new ArrayList<CookieOperation>();
+                pending.put(key, operations);
+            }
+            operations.add(operation);
+            snapshots.remove(key);
+            if (!batching) {
+                apply(key);
+            }
+        }
+    }
+
+    /**
+     * Get the snapshot of the cookies of a domain, executing the operations queued for the domain first.
+     *
+     * @param domain The URL of the domain or <code>null</code> for the domain of the active window.
+     *
+     * @return The cookies by name.
+     *
+     * @throws FittingException When the domain is invalid or the cookies could not be read.
+     */
+    private Map<String, Cookie> getSnapshot(final String domain) throws FittingException {
+        final String key = toKey(domain);
+        Map<String, Cookie> snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            final List<CookieOperation> operations = pending.remove(key);
+            snapshot = visit(key, operations == null ? Collections.<CookieOperation>emptyList() : operations, true);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Execute the queued operations of a domain.
+     *
+     * @param key The domain or <code>null</code> for the domain of the active window.
+     *
+     * @throws FittingException When an operation failed.
+     */
+    private void apply(final String key) throws FittingException {
+        final List<CookieOperation> operations = pending.remove(key);
+        if (operations != null) {
+            visit(key, operations, false);
+        }
+    }
+
+    /**
+     * Execute operations on a domain and read its cookies, opening a window on the domain when it is not the domain of the active window.
+     * <p>
+     * While batching, the cookies of another domain are always read and kept as snapshot, since reading them later on would cost another window.
+     * </p>
+     *
+     * @param key        The domain or <code>null</code> for the domain of the active window.
+     * @param operations The operations.
+     * @param read       <code>true</code> to read the cookies after executing the operations.
+     *
+     * @return The cookies by name, or <code>null</code> if they were not read.
+     *
+     * @throws FittingException When an operation failed or the cookies could not be read.
+     */
+    private Map<String, Cookie> visit(final String key, final List<CookieOperation> operations, final boolean read) throws FittingException {
+        final ElementContainer container = key == null ? null : provider.createNewElementContainer(key, true);
+        try {
+            for (CookieOperation operation : operations) {
+                operation.execute();
+            }
+            final boolean keep = key != null && batching;
+            Map<String, Cookie> cookies = null;
+            if (read || keep) {
+                cookies = toSnapshot(driver.manage().getCookies());
+            }
+            if (keep) {
+                snapshots.put(key, cookies);
+            }
+            return cookies;
+        } catch (WebDriverException e) {
+            throw new FittingException(format("Unable to handle the cookies on %s.", key == null ? "the domain of the active window" : key), e);
+        } finally {
+            if (container != null) {
+                container.close();
+            }
+        }
+    }
+
+    /**
+     * Validate a domain.
+     *
+     * @param domain The URL of the domain or <code>null</code> for the domain of the active window.
+     *
+     * @return The domain or <code>null</code> if the domain is empty.
+     *
+     * @throws FormattedFittingException When the domain is invalid.
+     */
+    private static String toKey(final String domain) throws FormattedFittingException {
+        if (isNotEmpty(domain) && domain.startsWith(".")) {
+            throw new FormattedFittingException(format("Given domain [%s] is not valid.", domain));
+        }
+        return isNotEmpty(domain) ? domain : null;
+    }
+
+    /**
+     * Create a snapshot of cookies.
+     *
+     * @param cookies The cookies.
+     *
+     * @return The unmodifiable cookies by name.
+     */
+    private static Map<String, Cookie> toSnapshot(final Set<Cookie> cookies) {
+        final Map<String, Cookie> snapshot = new LinkedHashMap<String, Cookie>();
+        for (Cookie cookie : cookies) {
+            snapshot.put(cookie.getName(), cookie);
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /** Operation on the cookies of the domain of the active window. */
+    private interface CookieOperation {
+        /** Execute the operation. */
+        void execute();
+    }
+}
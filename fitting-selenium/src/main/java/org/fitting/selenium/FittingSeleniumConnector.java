@@ -22,12 +22,29 @@ package org.fitting.selenium;
 import org.fitting.*;
 import org.openqa.selenium.WebDriver;
 
-/** Selenium implementation for the {@link org.fitting.FittingConnector}, providing access for Fitting to test using the Selenium framework. */
-public class FittingSeleniumConnector implements FittingConnector {
+/**
+ * Selenium implementation for the {@link org.fitting.FittingConnector}, providing access for Fitting to test using the Selenium framework.
+ * <p>
+ * Element commands queued by a pipelining {@link org.fitting.selenium.PipelinedWebDriver} are flushed at the end of each table. Values are typed
+ * with the {@link org.fitting.selenium.InputStrategy} of the connector, which defaults to the configured strategy. Queued element commands and
+ * cookie operations still batched in the {@link org.fitting.selenium.CookieJar} are executed when the connector is destroyed.
+ * </p>
+ */
+public class FittingSeleniumConnector implements FittingConnector, CommandBuffer {
     /** The implementation name. */
     private static final String CONNECTOR_NAME = "selenium";
     /** The browser to use. */
     private BrowserConnector browser;
+    /** The selector provider, shared for the lifetime of the connector. */
+    private final SeleniumSelectorProvider selectorProvider = new SeleniumSelectorProvider();
+    /** The window provider, created on first use and kept until the connector is destroyed. */
+    private SeleniumWindowProvider windowProvider;
+    /** The default search context, created on first use and kept until the connector is destroyed. */
+    private WebDriverSearchContext defaultSearchContext;
+    /** The cookie jar, created on first use and kept until the connector is destroyed. */
+    private CookieJar cookieJar;
+    /** The strategy for typing values into input elements. */
+    private volatile InputStrategy inputStrategy = FittingConfiguration.getInstance().get(InputStrategy.CONFIGURATION_KEY);
 
     /**
      * Create a new FittingSeleniumConnect.
@@ -47,22 +64,78 @@ public class FittingSeleniumConnector implements FittingConnector {
 
     @Override
     public SelectorProvider getSelectorProvider() {
-        return new SeleniumSelectorProvider();
+        return selectorProvider;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The provider is shared by all fixtures using the connector, so the managed windows are kept between fixture calls.
+     * </p>
+     */
+    @Override
+    public synchronized ElementContainerProvider getElementContainerProvider() {
+        if (windowProvider == null) {
+            windowProvider = new SeleniumWindowProvider(browser);
+        }
+        return windowProvider;
     }
 
     @Override
-    public ElementContainerProvider getElementContainerProvider() {
-        return new SeleniumWindowProvider(browser);
+    public synchronized SearchContext getDefaultSearchContext() {
+        if (defaultSearchContext == null) {
+            defaultSearchContext = new WebDriverSearchContext(browser.getWebDriver());
+        }
+        return defaultSearchContext;
     }
 
     @Override
-    public SearchContext getDefaultSearchContext() {
-        return new WebDriverSearchContext(browser.getWebDriver());
+    public void flush() throws FittingException {
+        final WebDriver driver = browser.getWebDriver();
+        if (driver instanceof PipelinedWebDriver) {
+            ((PipelinedWebDriver) driver).flush();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Executes the queued element commands and the cookie operations that are still batched first.
+     * </p>
+     * @throws FittingException When a queued command or batched cookie operation failed, the browser is destroyed nonetheless.
+     */
     @Override
-    public void destroy() {
-        browser.destroy();
+    public synchronized void destroy() throws FittingException {
+        try {
+            flush();
+            applyCookies();
+        } finally {
+            cookieJar = null;
+            windowProvider = null;
+            defaultSearchContext = null;
+            browser.destroy();
+        }
+    }
+
+    /**
+     * Execute the cookie operations that are still batched, without creating a cookie jar when none was used.
+     * @throws FittingException When a batched cookie operation failed.
+     */
+    public synchronized void applyCookies() throws FittingException {
+        if (cookieJar != null) {
+            cookieJar.apply();
+        }
+    }
+
+    /**
+     * Get the cookie jar of the browser, shared by all fixtures using the connector.
+     * @return The cookie jar.
+     */
+    public synchronized CookieJar getCookieJar() {
+        if (cookieJar == null) {
+            cookieJar = new CookieJar(browser.getWebDriver(), getElementContainerProvider());
+        }
+        return cookieJar;
     }
 
     /**
@@ -72,4 +145,24 @@ public class FittingSeleniumConnector implements FittingConnector {
     public WebDriver getWebDriver() {
         return browser.getWebDriver();
     }
+
+    /**
+     * Get the strategy for typing values into input elements.
+     * @return The input strategy.
+     */
+    public InputStrategy getInputStrategy() {
+        return inputStrategy;
+    }
+
+    /**
+     * Set the strategy for typing values into input elements.
+     * @param inputStrategy The input strategy.
+     * @throws IllegalArgumentException When no input strategy was provided.
+     */
+    public void setInputStrategy(final InputStrategy inputStrategy) throws IllegalArgumentException {
+        if (inputStrategy == null) {
+            throw new IllegalArgumentException("No input strategy provided.");
+        }
+        this.inputStrategy = inputStrategy;
+    }
 }
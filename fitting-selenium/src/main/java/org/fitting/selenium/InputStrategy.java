@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.Locale;
+
+import org.fitting.FittingConfiguration;
+
+/**
+ * Strategy for setting the value of input elements.
+ *
+ * @see org.fitting.selenium.SeleniumElement#setValue(String, InputStrategy)
+ * @see org.fitting.selenium.FittingSeleniumConnector#setInputStrategy(InputStrategy)
+ */
+public enum InputStrategy {
+    /** Type the value key by key, like a user would. */
+    KEYS,
+    /**
+     * Set the value with a script and trigger the input and change events, which takes a single command regardless of the length of the value.
+     * <p>
+     * The value is typed key by key instead for elements that need real key events: elements other than writable, displayed text fields, fields with
+     * inline key handlers and values with special keys.
+     * </p>
+     */
+    SCRIPT;
+
+    /** The configuration key for the strategy used by new connectors. */
+    public static final FittingConfiguration.Key<InputStrategy> CONFIGURATION_KEY =
+            new FittingConfiguration.Key<InputStrategy>("fitting.selenium.inputStrategy", KEYS) {
+                @Override
+                protected InputStrategy parse(final String value) {
+                    return InputStrategy.valueOf(value.toUpperCase(Locale.ROOT));
+                }
+            };
+}
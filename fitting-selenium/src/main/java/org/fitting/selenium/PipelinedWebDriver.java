@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.fitting.FittingConfiguration;
+import org.fitting.FittingException;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * RemoteWebDriver that can queue element commands whose results aren't needed, like clicks and typing, and execute them as a single script.
+ * <p>
+ * Pipelining is opt-in, see {@link #PIPELINING} and {@link #setPipelining(boolean)}. Queued commands are executed before any other command is sent
+ * to the Selenium server, so every read sees their effects, and at the latest when {@link #flush()} is called at the end of a table. Commands the
+ * script can't execute like the WebDriver would, e.g. clicks on hidden elements, are executed by the WebDriver itself in the same order. A failure
+ * of a queued command names the command and the fixture method that queued it, since it is reported by a later fixture call. When the script fails
+ * after it may have run, e.g. because a click opened an alert, the commands are not executed again.
+ * </p>
+ * <p>
+ * Only clicks, clears and values typed with {@link org.fitting.selenium.InputStrategy#SCRIPT} are queued; keys sent to an element are always
+ * typed by the WebDriver. A queued click is a script click on a displayed, enabled element: unlike a WebDriver click it doesn't check whether the
+ * element is covered by another element and fires no mouse down and up events. Disable pipelining for pages that depend on those.
+ * </p>
+ * <p>
+ * A click always ends a batch, so the commands after a click that navigated to another page are not executed on the old page.
+ * </p>
+ */
+public class PipelinedWebDriver extends RemoteWebDriver {
+    /** The configuration key for enabling pipelining on new drivers. */
+    public static final FittingConfiguration.Key<Boolean> PIPELINING = FittingConfiguration.booleanKey("fitting.selenium.pipelining", false);
+    /** The name of a queued click. */
+    static final String CLICK = "click";
+    /** The name of a queued clear. */
+    static final String CLEAR = "clear";
+    /** The name of queued typing. */
+    static final String TYPE = "type";
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelinedWebDriver.class);
+    /** The queued commands, in order. */
+    private final List<PipelinedCommand> queue = new ArrayList<PipelinedCommand>();
+    /** Flag indicating if commands are queued. */
+    private volatile boolean pipelining;
+    /** Flag indicating if the queued commands are being executed. */
+    private boolean flushing;
+    /** The number of commands executed or queued so far. */
+    private volatile long commandCount;
+    /** The script timeout in milliseconds last set on the session, <code>null</code> when none was set through the driver. */
+    private volatile Long scriptTimeout;
+
+    /**
+     * Create a new PipelinedWebDriver, with pipelining enabled when configured.
+     *
+     * @param url          The URL of the Selenium server.
+     * @param capabilities The desired capabilities.
+     */
+    public PipelinedWebDriver(final URL url, final Capabilities capabilities) {
+        super(url, capabilities);
+        this.pipelining = FittingConfiguration.getInstance().get(PIPELINING);
+    }
+
+    /**
+     * Create a new PipelinedWebDriver, with pipelining enabled when configured.
+     *
+     * @param executor     The executor for the commands.
+     * @param capabilities The desired capabilities.
+     */
+    public PipelinedWebDriver(final CommandExecutor executor, final Capabilities capabilities) {
+        super(executor, capabilities);
+        this.pipelining = FittingConfiguration.getInstance().get(PIPELINING);
+    }
+
+    /**
+     * Check if commands are queued.
+     *
+     * @return <code>true</code> if pipelining is enabled.
+     */
+    public boolean isPipelining() {
+        return pipelining;
+    }
+
+    /**
+     * Enable or disable pipelining, executing the queued commands when disabled.
+     *
+     * @param pipelining <code>true</code> to queue commands.
+     *
+     * @throws FittingException When a queued command failed.
+     */
+    public void setPipelining(final boolean pipelining) throws FittingException {
+        this.pipelining = pipelining;
+        if (!pipelining) {
+            flush();
+        }
+    }
+
+    /**
+     * Get the number of queued commands.
+     *
+     * @return The number of commands.
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Get the number of commands executed or queued so far.
+     * <p>
+     * Any command may change the page, so properties read from the browser are only current as long as the count doesn't change.
+     * </p>
+     *
+     * @return The number of commands.
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Queue an element command when pipelining is enabled and the browser executes scripts.
+     *
+     * @param name        The name of the command, {@link #CLICK}, {@link #CLEAR} or {@link #TYPE}.
+     * @param element     The element.
+     * @param value       The value to type or <code>null</code>.
+     * @param description The description of the command for failures.
+     * @param fallback    The command executed by the WebDriver itself, when the script can't execute it.
+     *
+     * @return <code>true</code> if the command was queued, <code>false</code> if the caller has to execute it.
+     *
+     * @throws FittingException When queued commands had to be executed first and failed.
+     */
+    synchronized boolean enqueue(final String name, final WebElement element, final String value, final String description, final Runnable fallback)
+            throws FittingException {
+        boolean queued = false;
+        if (pipelining && !flushing && SeleniumScripts.isExecutable(this)) {
+            if (!queue.isEmpty() && CLICK.equals(queue.get(queue.size() - 1).name)) {
+                flush();
+            }
+            queue.add(new PipelinedCommand(name, element, value, description, findOrigin(), fallback));
+            commandCount++;
+            queued = true;
+        }
+        return queued;
+    }
+
+    /**
+     * Execute all queued commands.
+     *
+     * @throws FittingException When a queued command failed. The commands queued after it are discarded.
+     */
+    public synchronized void flush() throws FittingException {
+        if (!flushing && !queue.isEmpty()) {
+            final List<PipelinedCommand> commands = new ArrayList<PipelinedCommand>(queue);
+            queue.clear();
+            flushing = true;
+            try {
+                int next = 0;
+                while (next < commands.size()) {
+                    next = executeBatch(commands, next);
+                }
+            } finally {
+                flushing = false;
+            }
+        }
+    }
+
+    /**
+     * Get the script timeout of the session, as the WebDriver can't report it.
+     *
+     * @return The script timeout in milliseconds last set through the driver or <code>null</code> when it is unknown.
+     */
+    public Long getScriptTimeout() {
+        return scriptTimeout;
+    }
+
+    @Override
+    protected Response execute(final String driverCommand, final Map<String, ?> parameters) {
+        beforeExecute(driverCommand);
+        final Response response = super.execute(driverCommand, parameters);
+        if (DriverCommand.SET_SCRIPT_TIMEOUT.equals(driverCommand) && parameters.get("ms") instanceof Number) {
+            scriptTimeout = ((Number) parameters.get("ms")).longValue();
+        }
+        return response;
+    }
+
+    /**
+     * Count a command and execute the queued commands before it is sent to the Selenium server.
+     *
+     * @param driverCommand The command.
+     *
+     * @throws FittingException When a queued command failed.
+     */
+    private synchronized void beforeExecute(final String driverCommand) throws FittingException {
+        commandCount++;
+        // The queue is not initialised yet while the session is started from the constructor of the RemoteWebDriver.
+        if (queue != null && !flushing && !queue.isEmpty()) {
+            if (DriverCommand.QUIT.equals(driverCommand)) {
+                LOGGER.warn("Discarding {} queued commands, the browser quits.", queue.size());
+                queue.clear();
+            } else {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Execute the commands from an index with the pipeline script.
+     *
+     * @param commands The commands.
+     * @param from     The index of the first command to execute.
+     *
+     * @return The index of the first command that has not been executed.
+     *
+     * @throws FittingException When a command failed.
+     */
+    private int executeBatch(final List<PipelinedCommand> commands, final int from) throws FittingException {
+        final List<PipelinedCommand> batch = commands.subList(from, commands.size());
+        final List<String> names = new ArrayList<String>(batch.size());
+        final List<WebElement> elements = new ArrayList<WebElement>(batch.size());
+        final List<String> values = new ArrayList<String>(batch.size());
+        for (PipelinedCommand command : batch) {
+            names.add(command.name);
+            elements.add(command.element);
+            values.add(command.value);
+        }
+        Object result;
+        try {
+            result = executeScript(SeleniumScripts.PIPELINE, names, elements, values);
+        } catch (StaleElementReferenceException e) {
+            // A stale element can't be passed to the script, so the script never ran; let the WebDriver execute the commands one by one.
+            LOGGER.debug("Unable to pass the queued commands to a script, executing them one by one.", e);
+            for (int i = from; i < commands.size(); i++) {
+                executeNatively(commands, i);
+            }
+            return commands.size();
+        } catch (WebDriverException e) {
+            // E.g. an alert opened by a click or a page unloading, the script may have executed the commands already, so they are not repeated.
+            throw batchFailure(commands, from, e);
+        }
+
+        int next = commands.size();
+        if (result instanceof List && ((List<?>) result).size() == 2) {
+            final List<?> failure = (List<?>) result;
+            final int failed = from + ((Number) failure.get(0)).intValue();
+            if (SeleniumScripts.UNSUPPORTED.equals(failure.get(1))) {
+                executeNatively(commands, failed);
+                next = failed + 1;
+            } else {
+                throw failure(commands, failed, String.valueOf(failure.get(1)), null);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Execute a command with the WebDriver itself.
+     *
+     * @param commands The commands.
+     * @param index    The index of the command to execute.
+     *
+     * @throws FittingException When the command failed.
+     */
+    private void executeNatively(final List<PipelinedCommand> commands, final int index) throws FittingException {
+        try {
+            commands.get(index).fallback.run();
+        } catch (RuntimeException e) {
+            throw failure(commands, index, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create the exception for a failed command.
+     *
+     * @param commands The commands.
+     * @param index    The index of the failed command.
+     * @param reason   The reason of the failure.
+     * @param cause    The cause or <code>null</code>.
+     *
+     * @return The exception.
+     */
+    private static FittingException failure(final List<PipelinedCommand> commands, final int index, final String reason, final Throwable cause) {
+        final PipelinedCommand command = commands.get(index);
+        final int discarded = commands.size() - index - 1;
+        String message = format("Queued %s, called from %s, failed: %s", command.description, command.origin, reason);
+        if (discarded > 0) {
+            message += format(" (%d queued commands after it were not executed)", discarded);
+        }
+        return new FittingException(message, cause);
+    }
+
+    /**
+     * Create the exception for a batch of commands that failed while the script may have executed some of them.
+     *
+     * @param commands The commands.
+     * @param from     The index of the first command of the batch.
+     * @param cause    The cause.
+     *
+     * @return The exception.
+     */
+    private static FittingException batchFailure(final List<PipelinedCommand> commands, final int from, final WebDriverException cause) {
+        final PipelinedCommand command = commands.get(from);
+        return new FittingException(format("Queued %s, called from %s, and the %d queued commands after it failed, some may have been executed: %s",
+                command.description, command.origin, commands.size() - from - 1, cause.getMessage()), cause);
+    }
+
+    /**
+     * Find the fixture method that queues a command.
+     *
+     * @return The class and method name of the calling fixture, or the caller of the element when not called from a fixture.
+     */
+    private static String findOrigin() {
+        final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        StackTraceElement origin = null;
+        for (StackTraceElement element : stackTrace) {
+            final String className = element.getClassName();
+            if (origin == null && !isClassOrInnerClass(className, PipelinedWebDriver.class) && !isClassOrInnerClass(className, SeleniumElement.class)) {
+                origin = element;
+            }
+            if (className.endsWith("Fixture")) {
+                origin = element;
+                break;
+            }
+        }
+        final String className = origin.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + '.' + origin.getMethodName();
+    }
+
+    /**
+     * Check if a class name is the name of a class or of one of its inner classes.
+     *
+     * @param className The class name.
+     * @param type      The class.
+     *
+     * @return <code>true</code> if the name belongs to the class.
+     */
+    private static boolean isClassOrInnerClass(final String className, final Class<?> type) {
+        return className.equals(type.getName()) || className.startsWith(type.getName() + '$');
+    }
+
+    /** A queued element command. */
+    private static final class PipelinedCommand {
+        /** The name of the command. */
+        private final String name;
+        /** The element. */
+        private final WebElement element;
+        /** The value to type or <code>null</code>. */
+        private final String value;
+        /** The description of the command. */
+        private final String description;
+        /** The fixture method that queued the command. */
+        private final String origin;
+        /** The command executed by the WebDriver itself. */
+        private final Runnable fallback;
+
+        /**
+         * Create a new PipelinedCommand.
+         *
+         * @param name        The name of the command.
+         * @param element     The element.
+         * @param value       The value to type or <code>null</code>.
+         * @param description The description of the command.
+         * @param origin      The fixture method that queued the command.
+         * @param fallback    The command executed by the WebDriver itself.
+         */
+        private PipelinedCommand(final String name, final WebElement element, final String value, final String description, final String origin,
+                final Runnable fallback) {
+            this.name = name;
+            this.element = element;
+            this.value = value;
+            this.description = description;
+            this.origin = origin;
+            this.fallback = fallback;
+        }
+    }
+}
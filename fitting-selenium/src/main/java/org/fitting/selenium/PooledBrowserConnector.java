@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.net.URL;
+
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+/**
+ * {@link org.fitting.selenium.BrowserConnector} that is managed by a {@link org.fitting.selenium.BrowserConnectorPool}.
+ * <p>
+ * Destroying a pooled browser does not end the underlying browser session, but returns the browser to the pool it was acquired from.
+ * </p>
+ *
+ * @see org.fitting.selenium.BrowserConnectorPool
+ */
+public class PooledBrowserConnector extends BrowserConnector {
+    /** The pool the browser belongs to. */
+    private final BrowserConnectorPool pool;
+
+    /**
+     * Create a new PooledBrowserConnector.
+     *
+     * @param capabilities The desired browser capabilities.
+     * @param url          The URL to connect to.
+     * @param pool         The pool the browser belongs to.
+     */
+    protected PooledBrowserConnector(DesiredCapabilities capabilities, URL url, BrowserConnectorPool pool) {
+        super(capabilities, url);
+        this.pool = pool;
+    }
+
+    /**
+     * Release the browser back to the pool it was acquired from.
+     * <p>
+     * The browser session is kept alive and reset by the pool before it is handed out again.
+     * </p>
+     */
+    @Override
+    public void destroy() {
+        pool.release(this);
+    }
+
+    /** Terminate the underlying browser session, called by the pool when the browser is evicted. */
+    final void terminate() {
+        quit();
+    }
+}
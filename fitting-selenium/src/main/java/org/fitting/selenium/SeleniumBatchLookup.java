@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fitting.Element;
+import org.fitting.FittingException;
+import org.fitting.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import static java.lang.String.format;
+import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
+
+/**
+ * Lookup of the elements for multiple selectors in a single WebDriver round-trip.
+ * <p>
+ * The id, name, class name, css selector, tag name and XPath selectors are resolved by a single script, which also returns the
+ * {@link org.fitting.ElementSnapshot} of the found elements. Other selectors, or all selectors when the driver can't execute scripts, are resolved one by one.
+ * </p>
+ */
+public final class SeleniumBatchLookup {
+    /** The script resolving the selectors, returning <code>[status, element, snapshot]</code> for each selector. */
+    private static final String SCRIPT = SeleniumScripts.SNAPSHOT_FUNCTION + SeleniumScripts.FIND_FUNCTION
+            + "var root = arguments[0] || document, selectors = arguments[1], results = [];"
+            + "for (var i = 0; i < selectors.length; i++) {"
+            + "  try {"
+            + "    var e = find(root, selectors[i][0], selectors[i][1]);"
+            + "    results.push(e ? [1, e, snapshot(e)] : [0]);"
+            + "  } catch (x) {"
+            + "    results.push([2]);"
+            + "  }"
+            + "}"
+            + "return results;";
+    /** The status of a selector that was resolved to an element. */
+    private static final int FOUND = 1;
+    /** The status of a selector that could not be resolved by the script. */
+    private static final int UNRESOLVED = 2;
+
+    /** Private constructor, for static use only. */
+    private SeleniumBatchLookup() {
+    }
+
+    /**
+     * Find the first element for each of the selectors.
+     *
+     * @param driver    The WebDriver of the window the search context is on.
+     * @param root      The Selenium search context to search on, either the driver itself or an element.
+     * @param selectors The selectors.
+     *
+     * @return The found elements, keyed by selector and in the order of the selectors.
+     *
+     * @throws FittingException When the selectors could not be resolved.
+     */
+    public static Map<Selector, Element> findElementsBy(final WebDriver driver, final SearchContext root, final Collection<Selector> selectors)
+            throws FittingException {
+        final Map<Selector, Element> found = new HashMap<Selector, Element>();
+        final List<Selector> remaining = new ArrayList<Selector>();
+        try {
+            if (SeleniumScripts.isExecutable(driver)) {
+                final List<Selector> scripted = new ArrayList<Selector>();
+                final List<List<String>> arguments = new ArrayList<List<String>>();
+                for (Selector selector : selectors) {
+                    final SeleniumSelector seleniumSelector = toSeleniumSelector(selector);
+                    if (SeleniumScripts.FIND_SELECTORS.contains(seleniumSelector.getName())) {
+                        scripted.add(selector);
+                        arguments.add(Arrays.asList(seleniumSelector.getName(), seleniumSelector.getQuery()));
+                    } else {
+                        remaining.add(selector);
+                    }
+                }
+                if (!scripted.isEmpty()) {
+                    final Object element = root instanceof WebElement ? root : null;
+                    final List<?> results = (List<?>) ((JavascriptExecutor) driver).executeScript(SCRIPT, element, arguments);
+                    for (int i = 0; i < scripted.size(); i++) {
+                        final List<?> result = (List<?>) results.get(i);
+                        final int status = ((Number) result.get(0)).intValue();
+                        if (status == FOUND) {
+                            found.put(scripted.get(i), new SeleniumElement(root, convert(scripted.get(i)), SeleniumElement.NO_INDEX, (WebElement) result.get(1),
+                                    SeleniumScripts.toSnapshot(result.get(2))));
+                        } else if (status == UNRESOLVED) {
+                            remaining.add(scripted.get(i));
+                        }
+                    }
+                }
+            } else {
+                remaining.addAll(selectors);
+            }
+            for (Selector selector : remaining) {
+                final By by = convert(selector);
+                final List<WebElement> elements = root.findElements(by);
+                if (!elements.isEmpty()) {
+                    found.put(selector, convert(root, by, elements.get(0)));
+                }
+            }
+        } catch (WebDriverException e) {
+            throw new FittingException(format("Unable to find the elements for selectors %s.", selectors), e);
+        }
+        final Map<Selector, Element> elements = new LinkedHashMap<Selector, Element>();
+        for (Selector selector : selectors) {
+            if (found.containsKey(selector)) {
+                elements.put(selector, found.get(selector));
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Cast a selector to a {@link SeleniumSelector}.
+     *
+     * @param selector The selector.
+     *
+     * @return The {@link SeleniumSelector}.
+     *
+     * @throws IllegalArgumentException When the selector is not a {@link SeleniumSelector}.
+     */
+    private static SeleniumSelector toSeleniumSelector(final Selector selector) throws IllegalArgumentException {
+        if (!(selector instanceof SeleniumSelector)) {
+            throw new IllegalArgumentException(format("selector %s is not a valid Selenium selector.", selector.getClass().getName()));
+        }
+        return (SeleniumSelector) selector;
+    }
+}
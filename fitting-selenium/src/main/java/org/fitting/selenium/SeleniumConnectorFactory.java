@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import org.fitting.FittingConfiguration;
+import org.fitting.FittingConnector;
+import org.fitting.FittingConnectorFactories;
+import org.fitting.FittingConnectorFactory;
+import org.fitting.FittingException;
+
+/**
+ * {@link org.fitting.FittingConnectorFactory} for {@link org.fitting.selenium.FittingSeleniumConnector} instances.
+ * <p>
+ * The browser and the Selenium server are taken from the {@link org.fitting.FittingConfiguration}. Without a configured port, a Selenium server is
+ * leased from the {@link org.fitting.selenium.SeleniumServerManager} on first use and kept for the lifetime of the factory. Browsers are acquired from
+ * the {@link org.fitting.selenium.BrowserConnectorPool}, so the sessions opened by the warm-up are used by the first connectors.
+ * </p>
+ */
+public class SeleniumConnectorFactory implements FittingConnectorFactory {
+    /** The value of the port when no Selenium server has been configured or leased. */
+    public static final int NO_PORT = -1;
+    /** The configuration key for the browser to open. */
+    public static final FittingConfiguration.Key<String> BROWSER = FittingConfiguration.stringKey("fitting.selenium.browser", "firefox");
+    /** The configuration key for the host of the Selenium server. */
+    public static final FittingConfiguration.Key<String> HOST = FittingConfiguration.stringKey("fitting.selenium.host", "localhost");
+    /** The configuration key for the port of the Selenium server, {@link #NO_PORT} to start a server in process. */
+    public static final FittingConfiguration.Key<Integer> PORT = FittingConfiguration.integerKey("fitting.selenium.port", NO_PORT);
+    /** The number of ports to try when starting an in-process Selenium server. */
+    private static final int TRIES_FOR_SELENIUM_PORTS = 20;
+    /** The port of the leased in-process Selenium server, if any. */
+    private int leasedPort = NO_PORT;
+
+    @Override
+    public Class<? extends FittingConnector> getConnectorType() {
+        return FittingSeleniumConnector.class;
+    }
+
+    @Override
+    public FittingConnector createConnector() throws FittingException {
+        return new FittingSeleniumConnector(BrowserConnectorPool.getInstance().acquire(createBuilder()));
+    }
+
+    @Override
+    public void warmUp(final int sessions) throws FittingException {
+        BrowserConnectorPool.getInstance().warmUp(createBuilder(), sessions);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The browsers open the synthetic page as <code>data:</code> URL, so no server is needed to serve it.
+     * </p>
+     */
+    @Override
+    public String getWarmUpUrl() {
+        return "data:text/html," + FittingConnectorFactories.WARM_UP_PAGE;
+    }
+
+    /**
+     * Create the builder for the browsers, starting an in-process Selenium server when needed.
+     *
+     * @return The builder.
+     *
+     * @throws FittingException When no Selenium server could be started.
+     */
+    private BrowserConnector.Builder createBuilder() throws FittingException {
+        final FittingConfiguration.Snapshot configuration = FittingConfiguration.getInstance().getSnapshot();
+        int port = configuration.get(PORT);
+        if (port == NO_PORT) {
+            port = getLeasedPort();
+        }
+        return BrowserConnector.builder().withBrowser(configuration.get(BROWSER)).onHost(configuration.get(HOST), port);
+    }
+
+    /**
+     * Get the port of the in-process Selenium server, leasing one on first use.
+     *
+     * @return The port.
+     *
+     * @throws FittingException When no Selenium server could be started.
+     */
+    private synchronized int getLeasedPort() throws FittingException {
+        if (leasedPort == NO_PORT) {
+            try {
+                leasedPort = SeleniumServerManager.getInstance().leaseServer(TRIES_FOR_SELENIUM_PORTS);
+            } catch (Exception e) {
+                throw new FittingException("Unable to start a Selenium server.", e);
+            }
+            if (leasedPort == NO_PORT) {
+                throw new FittingException("Unable to start a Selenium server, no port available.");
+            }
+        }
+        return leasedPort;
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ByIdOrName;
+
+/**
+ * Tracker for the window and frame each WebDriver is switched to, so switching to the window or frame that is already selected doesn't cost a
+ * round-trip.
+ * <p>
+ * The selected frame is tracked as the path of selectors from the top-level content of the window to the frame. The tracker only knows about
+ * switches made through it, code switching a WebDriver directly should call {@link #invalidate(WebDriver)} afterwards. When the selected window or
+ * frame is unknown, the next switch is always executed.
+ * </p>
+ * <p>
+ * Clicks, including queued ones, and keys that may submit a form invalidate the tracker, since they can navigate the window or close it, see
+ * {@link org.fitting.selenium.SeleniumElement}. Navigation the tracker can't know about, like a redirect by a timer script, is detected by
+ * {@link org.fitting.selenium.SeleniumFrame} when a lookup in a frame that was assumed to be selected fails, after which it switches once more.
+ * </p>
+ */
+public final class SeleniumContextTracker {
+    /** The tracked contexts, by WebDriver. */
+    private static final Map<WebDriver, Context> CONTEXTS = new WeakHashMap<WebDriver, Context>();
+
+    /** Private constructor, for static use only. */
+    private SeleniumContextTracker() {
+    }
+
+    /**
+     * Get the handle of the selected window, only asking the WebDriver when it is not known.
+     *
+     * @param driver The WebDriver.
+     *
+     * @return The window handle.
+     */
+    public static String getWindowHandle(final WebDriver driver) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            if (context.windowHandle == null) {
+                context.windowHandle = driver.getWindowHandle();
+            }
+            return context.windowHandle;
+        }
+    }
+
+    /**
+     * Switch to the top-level content of a window, unless the window is already selected.
+     * <p>
+     * The frame selected in the window is kept when the window is already selected.
+     * </p>
+     *
+     * @param driver The WebDriver.
+     * @param handle The window handle.
+     */
+    public static void switchToWindow(final WebDriver driver, final String handle) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            if (!handle.equals(context.windowHandle)) {
+                context.invalidate();
+                driver.switchTo().window(handle);
+                context.windowHandle = handle;
+                context.frames = new ArrayList<By>();
+            }
+        }
+    }
+
+    /**
+     * Check if a frame is known to be selected.
+     *
+     * @param driver The WebDriver.
+     * @param handle The handle of the window the frame is on.
+     * @param frames The path of selectors from the top-level content of the window to the frame.
+     *
+     * @return <code>true</code> if the frame is selected.
+     */
+    public static boolean isFrameSelected(final WebDriver driver, final String handle, final List<By> frames) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            return handle.equals(context.windowHandle) && frames.equals(context.frames);
+        }
+    }
+
+    /**
+     * Switch to a frame in a window, only switching the part of the path that is not selected yet.
+     *
+     * @param driver The WebDriver.
+     * @param handle The handle of the window the frame is on.
+     * @param frames The path of selectors from the top-level content of the window to the frame, empty for the top-level content.
+     */
+    public static void switchToFrame(final WebDriver driver, final String handle, final List<By> frames) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            switchToWindow(driver, handle);
+            final List<By> selected = context.frames;
+            if (!frames.equals(selected)) {
+                int depth = 0;
+                if (selected != null && selected.size() < frames.size() && frames.subList(0, selected.size()).equals(selected)) {
+                    depth = selected.size();
+                } else {
+                    context.frames = null;
+                    driver.switchTo().defaultContent();
+                    context.frames = new ArrayList<By>();
+                }
+                for (By frame : frames.subList(depth, frames.size())) {
+                    select(driver, context, frame);
+                }
+            }
+        }
+    }
+
+    /**
+     * Switch to a child frame of the selected frame.
+     * <p>
+     * The switch is always executed, as the selected frame may have a child frame with the same selector.
+     * </p>
+     *
+     * @param driver The WebDriver.
+     * @param frame  The selector of the frame in the selected frame.
+     */
+    public static void switchToChildFrame(final WebDriver driver, final By frame) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            select(driver, context, frame);
+        }
+    }
+
+    /**
+     * Switch to a child frame of the selected frame by its element, even when a frame with the same selector is selected.
+     * <p>
+     * This allows callers that cached the element of the frame to switch without looking it up again. When the element went stale or is no frame,
+     * the selected frame doesn't change.
+     * </p>
+     *
+     * @param driver  The WebDriver.
+     * @param frame   The selector of the frame in the selected frame.
+     * @param element The element of the frame.
+     */
+    public static void switchToChildFrame(final WebDriver driver, final By frame, final WebElement element) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            final List<By> selected = context.frames;
+            context.frames = null;
+            try {
+                driver.switchTo().frame(element);
+            } catch (StaleElementReferenceException e) {
+                context.frames = selected;
+                throw e;
+            } catch (NoSuchFrameException e) {
+                context.frames = selected;
+                throw e;
+            }
+            context.frames = selected == null ? null : append(selected, frame);
+        }
+    }
+
+    /**
+     * Switch to a child frame with the given name or id of the selected frame.
+     * <p>
+     * The switch is always executed, as the selected frame may have a child frame with the same name or id.
+     * </p>
+     *
+     * @param driver   The WebDriver.
+     * @param nameOrId The name or id of the frame in the selected frame.
+     */
+    public static void switchToChildFrame(final WebDriver driver, final String nameOrId) {
+        final Context context = getContext(driver);
+        final By frame = new ByIdOrName(nameOrId);
+        synchronized (context) {
+            final List<By> selected = context.frames;
+            context.frames = null;
+            driver.switchTo().frame(nameOrId);
+            context.frames = selected == null ? null : append(selected, frame);
+        }
+    }
+
+    /**
+     * Switch to the top-level content of the selected window, unless it is already selected.
+     *
+     * @param driver The WebDriver.
+     */
+    public static void switchToDefaultContent(final WebDriver driver) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            if (context.frames == null || !context.frames.isEmpty()) {
+                context.frames = null;
+                driver.switchTo().defaultContent();
+                context.frames = new ArrayList<By>();
+            }
+        }
+    }
+
+    /**
+     * Get the selected frame.
+     *
+     * @param driver The WebDriver.
+     *
+     * @return The path of selectors from the top-level content of the window to the selected frame or <code>null</code> if it is unknown.
+     */
+    public static List<By> getSelectedFrames(final WebDriver driver) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            return context.frames == null ? null : Collections.unmodifiableList(new ArrayList<By>(context.frames));
+        }
+    }
+
+    /**
+     * Register that the selected window navigated or was refreshed, which selects its top-level content.
+     *
+     * @param driver The WebDriver.
+     */
+    public static void navigated(final WebDriver driver) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            context.frames = context.windowHandle == null ? null : new ArrayList<By>();
+        }
+    }
+
+    /**
+     * Forget the selected window and frame, so the next switch is always executed.
+     *
+     * @param driver The WebDriver.
+     */
+    public static void invalidate(final WebDriver driver) {
+        final Context context = getContext(driver);
+        synchronized (context) {
+            context.invalidate();
+        }
+    }
+
+    /**
+     * Select a child frame of the selected frame, leaving the selected frame unknown when selecting fails.
+     *
+     * @param driver  The WebDriver.
+     * @param context The tracked context.
+     * @param frame   The selector of the frame.
+     */
+    private static void select(final WebDriver driver, final Context context, final By frame) {
+        final List<By> selected = context.frames;
+        context.frames = null;
+        driver.switchTo().frame(driver.findElement(frame));
+        context.frames = selected == null ? null : append(selected, frame);
+    }
+
+    /**
+     * Create a path with an extra frame.
+     *
+     * @param frames The path.
+     * @param frame  The frame to add.
+     *
+     * @return The new path.
+     */
+    private static List<By> append(final List<By> frames, final By frame) {
+        final List<By> path = new ArrayList<By>(frames.size() + 1);
+        path.addAll(frames);
+        path.add(frame);
+        return path;
+    }
+
+    /**
+     * Get the tracked context for a WebDriver.
+     *
+     * @param driver The WebDriver.
+     *
+     * @return The tracked context.
+     */
+    private static Context getContext(final WebDriver driver) {
+        synchronized (CONTEXTS) {
+            Context context = CONTEXTS.get(driver);
+            if (context == null) {
+                context = new Context();
+                CONTEXTS.put(driver, context);
+            }
+            return context;
+        }
+    }
+
+    /** The selected window and frame of a WebDriver. */
+    private static final class Context {
+        /** The handle of the selected window, <code>null</code> if unknown. */
+        private String windowHandle;
+        /** The path of selectors to the selected frame, empty for the top-level content and <code>null</code> if unknown. */
+        private List<By> frames;
+
+        /** Forget the selected window and frame. */
+        private void invalidate() {
+            windowHandle = null;
+            frames = null;
+        }
+    }
+}
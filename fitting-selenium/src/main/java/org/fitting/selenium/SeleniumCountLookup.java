@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import org.fitting.FittingException;
+import org.fitting.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import static java.lang.String.format;
+import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
+
+/**
+ * Counting and existence checks for elements without retrieving the elements.
+ * <p>
+ * The id, name, class name, css selector, tag name and XPath selectors are evaluated by a single script returning a number or a boolean, so no element
+ * references are sent back and no exception is thrown for missing elements. Other selectors, or all selectors when the driver can't execute scripts,
+ * are resolved with a regular lookup.
+ * </p>
+ */
+public final class SeleniumCountLookup {
+    /** The result of the count script for an unsupported selector. */
+    private static final int UNSUPPORTED = -1;
+
+    /** Private constructor, for static use only. */
+    private SeleniumCountLookup() {
+    }
+
+    /**
+     * Count the elements matching a selector.
+     *
+     * @param driver   The WebDriver of the window the search context is on.
+     * @param root     The Selenium search context to search on, either the driver itself or an element.
+     * @param selector The selector.
+     *
+     * @return The number of matching elements.
+     *
+     * @throws FittingException When the selector could not be evaluated.
+     */
+    public static int countElementsBy(final WebDriver driver, final SearchContext root, final Selector selector) throws FittingException {
+        final By by = convert(selector);
+        try {
+            int count = UNSUPPORTED;
+            if (isScriptable(driver, selector)) {
+                final Object result = execute(driver, SeleniumScripts.COUNT, root, (SeleniumSelector) selector);
+                count = result instanceof Number ? ((Number) result).intValue() : UNSUPPORTED;
+            }
+            if (count == UNSUPPORTED) {
+                count = root.findElements(by).size();
+            }
+            return count;
+        } catch (WebDriverException e) {
+            throw new FittingException(format("Unable to count the elements for selector %s.", selector), e);
+        }
+    }
+
+    /**
+     * Check if an element matching a selector exists.
+     *
+     * @param driver   The WebDriver of the window the search context is on.
+     * @param root     The Selenium search context to search on, either the driver itself or an element.
+     * @param selector The selector.
+     *
+     * @return <code>true</code> if a matching element exists.
+     *
+     * @throws FittingException When the selector could not be evaluated.
+     */
+    public static boolean exists(final WebDriver driver, final SearchContext root, final Selector selector) throws FittingException {
+        final By by = convert(selector);
+        try {
+            Object result = null;
+            if (isScriptable(driver, selector)) {
+                result = execute(driver, SeleniumScripts.EXISTS, root, (SeleniumSelector) selector);
+            }
+            return result instanceof Boolean ? (Boolean) result : !root.findElements(by).isEmpty();
+        } catch (WebDriverException e) {
+            throw new FittingException(format("Unable to check the existence of an element for selector %s.", selector), e);
+        }
+    }
+
+    /**
+     * Check if a selector can be evaluated by a script.
+     *
+     * @param driver   The WebDriver.
+     * @param selector The selector.
+     *
+     * @return <code>true</code> if the selector can be evaluated by a script.
+     */
+    private static boolean isScriptable(final WebDriver driver, final Selector selector) {
+        return SeleniumScripts.isExecutable(driver) && SeleniumScripts.FIND_SELECTORS.contains(((SeleniumSelector) selector).getName());
+    }
+
+    /**
+     * Execute a script for a selector.
+     *
+     * @param driver   The WebDriver.
+     * @param script   The script.
+     * @param root     The Selenium search context to search on.
+     * @param selector The selector.
+     *
+     * @return The result of the script.
+     */
+    private static Object execute(final WebDriver driver, final String script, final SearchContext root, final SeleniumSelector selector) {
+        final Object element = root instanceof WebElement ? root : null;
+        return ((JavascriptExecutor) driver).executeScript(script, element, selector.getName(), selector.getQuery());
+    }
+}
@@ -19,10 +19,10 @@
 
 package org.fitting.selenium;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.fitting.*;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
 import static java.lang.String.format;
@@ -69,6 +69,17 @@ public class SeleniumDataTypeConverter {
         return new SeleniumElement(element);
     }
 
+    /**
+     * Convert a Selenium WebElement to a Fitting {@link org.fitting.Element} that is looked up again when it goes stale.
+     * @param origin The Selenium search context the element was found on.
+     * @param by The selector the element was found with.
+     * @param element The web element.
+     * @return The {@link org.fitting.Element}.
+     */
+    public static Element convert(org.openqa.selenium.SearchContext origin, By by, WebElement element) {
+        return new SeleniumElement(origin, by, SeleniumElement.NO_INDEX, element, null);
+    }
+
     /**
      * Convert a Fitting {@link org.fitting.Element} to a WebElement.
      * @param element The {@link org.fitting.Element}.
@@ -96,15 +107,29 @@ public class SeleniumDataTypeConverter {
 
     /**
      * Convert a List of Selenium WebElements to a list of Fitting {@link org.fitting.Element}.
+     * <p>
+     * The {@link org.fitting.Element} instances are only created when they are read from the list. The list is unmodifiable, unlike the
+     * <code>ArrayList</code> this method used to return; copy it when it has to be changed.
+     * </p>
      * @param elements The WebElements.
-     * @return The {@link org.fitting.Element} list.
+     * @return The unmodifiable {@link org.fitting.Element} list.
      */
     public static List<Element> convert(List<WebElement> elements) {
-        List<Element> fittingElements = new ArrayList<Element>(elements.size());
-        for (WebElement e : elements) {
-            fittingElements.add(convert(e));
-        }
-        return fittingElements;
+        return new SeleniumElementList(null, null, elements);
+    }
+
+    /**
+     * Convert a List of Selenium WebElements to a list of Fitting {@link org.fitting.Element} that are looked up again when they go stale.
+     * <p>
+     * The {@link org.fitting.Element} instances are only created when they are read from the list. The list is unmodifiable.
+     * </p>
+     * @param origin The Selenium search context the elements were found on.
+     * @param by The selector the elements were found with.
+     * @param elements The WebElements.
+     * @return The unmodifiable {@link org.fitting.Element} list.
+     */
+    public static List<Element> convert(org.openqa.selenium.SearchContext origin, By by, List<WebElement> elements) {
+        return new SeleniumElementList(origin, by, elements);
     }
 
     /**
@@ -20,26 +20,61 @@
 package org.fitting.selenium;
 
 import org.fitting.*;
+import org.fitting.metrics.InstrumentedFittingConnector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
 
 /**
  * {@link org.fitting.Element} Selenium implementation for Selenium HTML elements.
+ * <p>
+ * An element that knows the search context and selector it was found with is looked up once more when its WebElement went stale, e.g. because the
+ * page re-rendered it, instead of failing the fixture. Lookups resolve the WebElement right away, so a missing element is reported by the lookup
+ * itself; only an element created without WebElement is resolved on first use.
+ * </p>
  *
  * @author Barre Dijkstra
  * @since 1.0
  */
 public class SeleniumElement implements Element, SeleniumSearchContext {
+    /** The index for elements that were looked up as single element instead of as part of a list. */
+    public static final int NO_INDEX = -1;
     /** The tags of input elements. */
     private final static List<String> INPUT_TAGS = Arrays.asList("textarea", "input", "select");
-    /** The underlying implementing Selenium WebElement. */
-    private final WebElement element;
+    /** The tags of elements that can be selected. */
+    private final static List<String> SELECTABLE_TAGS = Arrays.asList("input", "option");
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeleniumElement.class);
+    /** The Selenium search context the element was found on, <code>null</code> if the element can't be looked up again. */
+    private final SearchContext origin;
+    /** The selector the element was found with, <code>null</code> if the element can't be looked up again. */
+    private final By by;
+    /** The index of the element in the elements matching the selector or {@link #NO_INDEX}. */
+    private final int index;
+    /** The search context for looking up sub-elements, looking up this element again when needed. */
+    private final SearchContext subContext = new SubSearchContext();
+    /** The underlying implementing Selenium WebElement, <code>null</code> until the element is resolved. */
+    private WebElement element;
+    /** The last snapshot of the element, <code>null</code> when none was read or the element was interacted with since. */
+    private ElementSnapshot snapshot;
+    /** The command count of the WebDriver when the snapshot was read, see {@link PipelinedWebDriver#getCommandCount()}. */
+    private long snapshotCommandCount;
+    /** Flag for the text and displayed state of the snapshot being read through the WebDriver, which the snapshot script doesn't read. */
+    private boolean snapshotComplete;
 
     /**
      * Create a new SeleniumElement.
@@ -47,93 +82,311 @@ public class SeleniumElement implements Element, SeleniumSearchContext {
      * @param element The implementing Selenium WebElement.
      */
     public SeleniumElement(WebElement element) {
+        this(element, null);
+    }
+
+    /**
+     * Create a new SeleniumElement with a snapshot that was read together with the element.
+     * <p>
+     * The properties in the snapshot are returned without querying the browser until another command is sent to the browser, see
+     * {@link #snapshot()}. The text and displayed state are always read through the WebDriver.
+     * </p>
+     *
+     * @param element  The implementing Selenium WebElement.
+     * @param snapshot The snapshot of the element.
+     */
+    public SeleniumElement(WebElement element, ElementSnapshot snapshot) {
+        this.origin = null;
+        this.by = null;
+        this.index = NO_INDEX;
         this.element = element;
+        keepSnapshot(snapshot);
+    }
+
+    /**
+     * Create a new SeleniumElement that can be looked up again.
+     *
+     * @param origin   The Selenium search context the element is found on.
+     * @param by       The selector of the element.
+     * @param index    The index of the element in the elements matching the selector, or {@link #NO_INDEX} for the first matching element.
+     * @param element  The implementing Selenium WebElement or <code>null</code> to look up the element on first use.
+     * @param snapshot The snapshot of the element or <code>null</code> if none was read.
+     *
+     * @throws IllegalArgumentException When no search context or selector was provided.
+     */
+    public SeleniumElement(SearchContext origin, By by, int index, WebElement element, ElementSnapshot snapshot) throws IllegalArgumentException {
+        if (origin == null || by == null) {
+            throw new IllegalArgumentException("A search context and selector are required to look up an element.");
+        }
+        this.origin = origin;
+        this.by = by;
+        this.index = index;
+        this.element = element;
+        keepSnapshot(snapshot);
     }
 
     /** {@inheritDoc} */
     @Override
     public String getName() {
-        return element.getTagName();
+        final ElementSnapshot current = getSnapshot();
+        return current != null ? current.getName() : execute(new ElementCommand<String>() {
+            @Override
+            public String execute(final WebElement webElement) {
+                return webElement.getTagName();
+            }
+        });
     }
 
     @Override
     public String getType() {
-        return element.getTagName();
+        return getName();
     }
 
     @Override
     public String getText() {
-        return element.getText();
+        final ElementSnapshot current = getCompleteSnapshot();
+        return current != null ? current.getText() : execute(new ElementCommand<String>() {
+            @Override
+            public String execute(final WebElement webElement) {
+                return webElement.getText();
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public String getValue() {
-        String value;
-        if (element.getAttribute("value") != null) {
-            value = element.getAttribute("value");
-        } else {
-            value = element.getText();
+        final ElementSnapshot current = getSnapshot();
+        return current != null && (current.hasValue() || snapshotComplete) ? current.getValue() : execute(new ElementCommand<String>() {
+            @Override
+            public String execute(final WebElement webElement) {
+                // Some drivers return an empty value for elements without a value, which should fall back to the text.
+                final String value = webElement.getAttribute("value");
+                final boolean hasValue = value != null && (!value.isEmpty() || INPUT_TAGS.contains(webElement.getTagName()));
+                return hasValue ? value : webElement.getText();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot is read with a single script when the WebDriver supports it, except for the text and displayed state that are read through the
+     * WebDriver, so they match {@link #getText()} and {@link #isDisplayed()} for hidden elements and whitespace. It is reused as long as no other
+     * command is sent to the browser, when the WebDriver counts its commands like the {@link org.fitting.selenium.PipelinedWebDriver} does, since any
+     * command may change the page.
+     * </p>
+     */
+    @Override
+    public ElementSnapshot snapshot() {
+        ElementSnapshot current = getCompleteSnapshot();
+        if (current == null) {
+            current = getSnapshot();
+        }
+        if (current == null) {
+            final WebDriver driver = getDriver();
+            if (SeleniumScripts.isExecutable(driver)) {
+                try {
+                    current = execute(new ElementCommand<ElementSnapshot>() {
+                        @Override
+                        public ElementSnapshot execute(final WebElement webElement) {
+                            return SeleniumScripts.toSnapshot(((JavascriptExecutor) driver).executeScript(SeleniumScripts.SNAPSHOT, webElement));
+                        }
+                    });
+                } catch (StaleElementReferenceException e) {
+                    throw e;
+                } catch (WebDriverException e) {
+                    // E.g. a browser emulation without getComputedStyle.
+                    LOGGER.debug("Unable to read the snapshot with a script, reading the properties one by one.", e);
+                }
+            }
+            if (current == null) {
+                current = readSnapshot();
+            }
+            keepSnapshot(current);
+        }
+        if (!snapshotComplete) {
+            final String value = current.hasValue() ? current.getValue() : null;
+            current = new ElementSnapshot(current.getName(), getText(), value, current.getAttributes(), isDisplayed(), current.isActive(),
+                    current.getLocation(), current.getSize(), current.isInput());
+            keepSnapshot(current);
+            snapshotComplete = true;
         }
-        return value;
+        return current;
     }
 
     /** {@inheritDoc} */
     @Override
     public void click() {
-        element.click();
+        final ElementCommand<Void> command = new ElementCommand<Void>() {
+            @Override
+            public Void execute(final WebElement webElement) {
+                webElement.click();
+                return null;
+            }
+        };
+        if (!pipeline(PipelinedWebDriver.CLICK, null, command)) {
+            execute(command);
+        }
+        snapshot = null;
+        invalidateContext();
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The keys are always typed by the WebDriver with key events, also when the WebDriver is pipelining, after executing the queued commands.
+     * </p>
+     */
     @Override
     public void sendKeys(final CharSequence... characters) {
-        element.sendKeys(characters);
+        execute(new ElementCommand<Void>() {
+            @Override
+            public Void execute(final WebElement webElement) {
+                webElement.sendKeys(characters);
+                return null;
+            }
+        });
+        snapshot = null;
+        final String text = toPlainText(characters);
+        if (text == null || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            invalidateContext();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is typed with the input strategy of the connector, see {@link #setValue(String, InputStrategy)}.
+     * </p>
+     */
     @Override
     public void setValue(final String value) throws FittingException {
-        sendKeys(value);
+        setValue(value, getInputStrategy());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is typed with the input strategy of the connector, see {@link #setValue(String, InputStrategy)}.
+     * </p>
+     */
     @Override
     public void setValueWithText(final String value) throws FittingException {
-        sendKeys(value);
+        setValue(value, getInputStrategy());
+    }
+
+    /**
+     * Type a value into the element with the given strategy.
+     * <p>
+     * With {@link org.fitting.selenium.InputStrategy#SCRIPT} the value is set by a single script triggering the input and change events, or queued
+     * when the WebDriver is pipelining. Values with special keys, elements that are not writable, displayed text fields and fields with inline key
+     * handlers get the value typed key by key instead, as do WebDrivers that can't execute scripts.
+     * </p>
+     *
+     * @param value    The value to type.
+     * @param strategy The input strategy.
+     *
+     * @throws FittingException When the value could not be typed.
+     */
+    public void setValue(final String value, final InputStrategy strategy) throws FittingException {
+        final WebDriver driver = strategy == InputStrategy.SCRIPT ? getDriver() : null;
+        if (driver == null || !SeleniumScripts.isExecutable(driver) || toPlainText(value) == null) {
+            sendKeys(value);
+        } else if (!pipeline(PipelinedWebDriver.TYPE, value, new ElementCommand<Void>() {
+            @Override
+            public Void execute(final WebElement webElement) {
+                webElement.sendKeys(value);
+                return null;
+            }
+        })) {
+            final Object result = execute(new ElementCommand<Object>() {
+                @Override
+                public Object execute(final WebElement webElement) {
+                    return ((JavascriptExecutor) driver).executeScript(SeleniumScripts.SET_VALUE, webElement, value);
+                }
+            });
+            if (SeleniumScripts.UNSUPPORTED.equals(result)) {
+                LOGGER.debug("Element {} needs key events, typing the value key by key.", by);
+                sendKeys(value);
+            }
+        }
+        snapshot = null;
     }
 
     /** {@inheritDoc} */
     @Override
     public void clear() {
-        element.clear();
+        final ElementCommand<Void> command = new ElementCommand<Void>() {
+            @Override
+            public Void execute(final WebElement webElement) {
+                webElement.clear();
+                return null;
+            }
+        };
+        if (!pipeline(PipelinedWebDriver.CLEAR, null, command)) {
+            execute(command);
+        }
+        snapshot = null;
     }
 
     /** {@inheritDoc} */
     @Override
-    public String getAttributeValue(String attributeName) {
-        return element.getAttribute(attributeName);
+    public String getAttributeValue(final String attributeName) {
+        return execute(new ElementCommand<String>() {
+            @Override
+            public String execute(final WebElement webElement) {
+                return webElement.getAttribute(attributeName);
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean isActive() {
-        return element.isSelected();
+        final ElementSnapshot current = getSnapshot();
+        return current != null ? current.isActive() : execute(new ElementCommand<Boolean>() {
+            @Override
+            public Boolean execute(final WebElement webElement) {
+                return webElement.isSelected();
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean isDisplayed() {
-        return element.isDisplayed();
+        final ElementSnapshot current = getCompleteSnapshot();
+        return current != null ? current.isDisplayed() : execute(new ElementCommand<Boolean>() {
+            @Override
+            public Boolean execute(final WebElement webElement) {
+                return webElement.isDisplayed();
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public Point getLocation() {
-        return convert(element.getLocation());
+        final ElementSnapshot current = getSnapshot();
+        return current != null ? current.getLocation() : execute(new ElementCommand<Point>() {
+            @Override
+            public Point execute(final WebElement webElement) {
+                return convert(webElement.getLocation());
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public Dimension getSize() {
-        return convert(element.getSize());
+        final ElementSnapshot current = getSnapshot();
+        return current != null ? current.getSize() : execute(new ElementCommand<Dimension>() {
+            @Override
+            public Dimension execute(final WebElement webElement) {
+                return convert(webElement.getSize());
+            }
+        });
     }
 
     @Override
@@ -144,13 +397,33 @@ public class SeleniumElement implements Element, SeleniumSearchContext {
     /** {@inheritDoc} */
     @Override
     public List<Element> findElementsBy(final Selector selector) {
-        return convert(element.findElements(convert(selector)));
+        final By selectorBy = convert(selector);
+        return convert(subContext, selectorBy, subContext.findElements(selectorBy));
     }
 
     /** {@inheritDoc} */
     @Override
     public Element findElementBy(final Selector selector) {
-        return convert(element.findElement(convert(selector)));
+        final By selectorBy = convert(selector);
+        return convert(subContext, selectorBy, subContext.findElement(selectorBy));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int countElementsBy(final Selector selector) {
+        return SeleniumCountLookup.countElementsBy(getDriver(), getWebElement(), selector);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean exists(final Selector selector) {
+        return SeleniumCountLookup.exists(getDriver(), getWebElement(), selector);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) {
+        return SeleniumBatchLookup.findElementsBy(getDriver(), getWebElement(), selectors);
     }
 
     /** {@inheritDoc} */
@@ -168,11 +441,149 @@ public class SeleniumElement implements Element, SeleniumSearchContext {
     /** {@inheritDoc} */
     @Override
     public SearchContext getImplementation() {
+        return getWebElement();
+    }
+
+    /**
+     * Read the snapshot of the element by querying the properties one by one, except for the text and displayed state, see {@link #snapshot()}.
+     *
+     * @return The snapshot.
+     */
+    private ElementSnapshot readSnapshot() {
+        final String name = getName();
+        final boolean input = INPUT_TAGS.contains(name);
+        final boolean active = SELECTABLE_TAGS.contains(name) && isActive();
+        // Some drivers return an empty value for elements without a value, which should fall back to the text.
+        String value = getAttributeValue("value");
+        if (!input && value != null && value.isEmpty()) {
+            value = null;
+        }
+        Point location = null;
+        Dimension size = null;
+        try {
+            location = getLocation();
+            size = getSize();
+        } catch (StaleElementReferenceException e) {
+            throw e;
+        } catch (WebDriverException e) {
+            // E.g. a browser without layout engine.
+            LOGGER.debug("Unable to read the location and size of the element.", e);
+        }
+        return new ElementSnapshot(name, null, value, null, false, active, location, size, input);
+    }
+
+    /**
+     * Queue a command without result on the {@link org.fitting.selenium.PipelinedWebDriver} of the element, when it is pipelining.
+     *
+     * @param name    The name of the command.
+     * @param value   The value to type or <code>null</code>.
+     * @param command The command, executed by the WebDriver itself when the pipeline can't execute it.
+     *
+     * @return <code>true</code> if the command was queued, <code>false</code> if it has to be executed right away.
+     */
+    private boolean pipeline(final String name, final String value, final ElementCommand<Void> command) {
+        boolean queued = false;
+        final WebElement webElement = getWebElement();
+        if (webElement instanceof WrapsDriver && ((WrapsDriver) webElement).getWrappedDriver() instanceof PipelinedWebDriver) {
+            final String description = String.format("%s on %s", name, by != null ? by : webElement);
+            queued = ((PipelinedWebDriver) ((WrapsDriver) webElement).getWrappedDriver()).enqueue(name, webElement, value, description, new Runnable() {
+                @Override
+                public void run() {
+                    execute(command);
+                }
+            });
+        }
+        return queued;
+    }
+
+    /**
+     * Join characters to send to an element into plain text.
+     *
+     * @param characters The characters.
+     *
+     * @return The text or <code>null</code> when the characters contain special keys, like {@link org.openqa.selenium.Keys#ENTER}.
+     */
+    private static String toPlainText(final CharSequence... characters) {
+        final StringBuilder text = new StringBuilder();
+        boolean plain = true;
+        for (CharSequence sequence : characters) {
+            for (int i = 0; i < sequence.length() && plain; i++) {
+                // Selenium encodes the special keys in the private use area of Unicode.
+                plain = sequence.charAt(i) < '\uE000' || sequence.charAt(i) > '\uF8FF';
+            }
+            text.append(sequence);
+        }
+        return plain ? text.toString() : null;
+    }
+
+    /**
+     * Forget the window and frame selected in the WebDriver, after a click or keys that may have submitted a form navigated or closed them.
+     * <p>
+     * A queued click is executed before the next command that could tell the {@link SeleniumContextTracker} which frame is selected, so the
+     * tracker is invalidated when the click is queued.
+     * </p>
+     */
+    private void invalidateContext() {
+        WebDriver driver = null;
+        final FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
+        if (element instanceof WrapsDriver) {
+            driver = ((WrapsDriver) element).getWrappedDriver();
+        } else if (connector instanceof FittingSeleniumConnector) {
+            driver = ((FittingSeleniumConnector) connector).getWebDriver();
+        }
+        if (driver != null) {
+            SeleniumContextTracker.invalidate(driver);
+        }
+    }
+
+    /**
+     * Execute a command on the WebElement, looking up the element once more when it went stale.
+     *
+     * @param command The command.
+     * @param <T>     The type of the result.
+     *
+     * @return The result of the command.
+     *
+     * @throws StaleElementReferenceException When the element went stale and can't be looked up again.
+     */
+    private <T> T execute(final ElementCommand<T> command) throws StaleElementReferenceException {
+        try {
+            return command.execute(getWebElement());
+        } catch (StaleElementReferenceException e) {
+            if (origin == null) {
+                throw e;
+            }
+            LOGGER.debug("Element {} went stale, looking it up again.", by);
+            element = null;
+            snapshot = null;
+            return command.execute(getWebElement());
+        }
+    }
+
+    /**
+     * Get the underlying WebElement, looking it up when it was not resolved yet.
+     *
+     * @return The WebElement.
+     *
+     * @throws org.openqa.selenium.NoSuchElementException When the element could not be found anymore.
+     */
+    private WebElement getWebElement() throws org.openqa.selenium.NoSuchElementException {
+        if (element == null) {
+            if (index == NO_INDEX) {
+                element = origin.findElement(by);
+            } else {
+                final List<WebElement> elements = origin.findElements(by);
+                if (index >= elements.size()) {
+                    throw new org.openqa.selenium.NoSuchElementException(String.format("No element found at index %d for %s.", index, by));
+                }
+                element = elements.get(index);
+            }
+        }
         return element;
     }
 
     /**
-     * Get the WebDriver instance for the current thread.
+     * Get the WebDriver instance of the element, or the one for the current thread when the element does not expose its WebDriver.
      *
      * @return The WebDriver.
      *
@@ -180,12 +591,116 @@ public class SeleniumElement implements Element, SeleniumSearchContext {
      */
     private WebDriver getDriver() throws IllegalArgumentException {
         WebDriver driver;
-        FittingConnector connector = FittingContainer.get();
-        if (FittingSeleniumConnector.class.isAssignableFrom(connector.getClass())) {
+        final FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
+        final WebElement webElement = getWebElement();
+        if (webElement instanceof WrapsDriver) {
+            driver = ((WrapsDriver) webElement).getWrappedDriver();
+        } else if (connector != null && FittingSeleniumConnector.class.isAssignableFrom(connector.getClass())) {
             driver = ((FittingSeleniumConnector) connector).getWebDriver();
         } else {
             throw new IllegalArgumentException("No WebDriver instance available for current thread.");
         }
         return driver;
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the snapshot of the element, if it is still current.
+     *
+     * @return The snapshot or <code>null</code> if there is none or a command was sent to the browser since it was read.
+     */
+    private ElementSnapshot getSnapshot() {
+        if (snapshot != null && (snapshotCommandCount < 0 || snapshotCommandCount != getCommandCount())) {
+            snapshot = null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the snapshot of the element, if it is still current and its text and displayed state were read through the WebDriver.
+     *
+     * @return The snapshot or <code>null</code> if there is no such snapshot.
+     */
+    private ElementSnapshot getCompleteSnapshot() {
+        final ElementSnapshot current = getSnapshot();
+        return snapshotComplete ? current : null;
+    }
+
+    /**
+     * Keep a snapshot that was just read from the browser, without the text and displayed state read through the WebDriver.
+     *
+     * @param current The snapshot or <code>null</code>.
+     */
+    private void keepSnapshot(final ElementSnapshot current) {
+        snapshot = current;
+        snapshotCommandCount = getCommandCount();
+        snapshotComplete = false;
+    }
+
+    /**
+     * Get the command count of the WebDriver of the element, without resolving the element.
+     *
+     * @return The command count or <code>-1</code> when the WebDriver doesn't count its commands.
+     */
+    private long getCommandCount() {
+        long count = -1;
+        if (element instanceof WrapsDriver && ((WrapsDriver) element).getWrappedDriver() instanceof PipelinedWebDriver) {
+            count = ((PipelinedWebDriver) ((WrapsDriver) element).getWrappedDriver()).getCommandCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the input strategy of the connector for the current thread.
+     *
+     * @return The input strategy, the configured default when no Selenium connector is available for the current thread.
+     */
+    private static InputStrategy getInputStrategy() {
+        final FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
+        InputStrategy strategy;
+        if (connector instanceof FittingSeleniumConnector) {
+            strategy = ((FittingSeleniumConnector) connector).getInputStrategy();
+        } else {
+            strategy = FittingConfiguration.getInstance().get(InputStrategy.CONFIGURATION_KEY);
+        }
+        return strategy;
+    }
+
+    /**
+     * Command on the underlying WebElement.
+     *
+     * @param <T> The type of the result.
+     */
+    private interface ElementCommand<T> {
+        /**
+         * Execute the command.
+         *
+         * @param webElement The WebElement.
+         *
+         * @return The result.
+         */
+        T execute(WebElement webElement);
+    }
+
+    /** Selenium search context for looking up sub-elements, looking up this element again when it went stale. */
+    private final class SubSearchContext implements SearchContext {
+        @Override
+        public List<WebElement> findElements(final By selector) {
+            return execute(new ElementCommand<List<WebElement>>() {
+                @Override
+                public List<WebElement> execute(final WebElement webElement) {
+                    return webElement.findElements(selector);
+                }
+            });
+        }
+
+        @Override
+        public WebElement findElement(final By selector) {
+            return execute(new ElementCommand<WebElement>() {
+                @Override
+                public WebElement execute(final WebElement webElement) {
+                    return webElement.findElement(selector);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.fitting.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Unmodifiable list of {@link org.fitting.Element} instances backed by the WebElements of a lookup.
+ * <p>
+ * The elements are only created when they are read, so counting the elements doesn't create any. When the search context and selector of the
+ * lookup are known, each element remembers its index and is looked up again when it goes stale.
+ * </p>
+ *
+ * @see SeleniumElement
+ */
+final class SeleniumElementList extends AbstractList<Element> implements RandomAccess {
+    /** The Selenium search context the elements were found on, <code>null</code> if the elements can't be looked up again. */
+    private final SearchContext origin;
+    /** The selector the elements were found with, <code>null</code> if the elements can't be looked up again. */
+    private final By by;
+    /** The found WebElements. */
+    private final List<WebElement> webElements;
+    /** The created elements, by index. */
+    private final Element[] elements;
+
+    /**
+     * Create a new SeleniumElementList.
+     *
+     * @param origin      The Selenium search context the elements were found on or <code>null</code>.
+     * @param by          The selector the elements were found with or <code>null</code>.
+     * @param webElements The found WebElements.
+     */
+    SeleniumElementList(final SearchContext origin, final By by, final List<WebElement> webElements) {
+        this.origin = origin;
+        this.by = by;
+        this.webElements = webElements;
+        this.elements = new Element[webElements.size()];
+    }
+
+    @Override
+    public Element get(final int index) {
+        Element element = elements[index];
+        if (element == null) {
+            if (origin == null || by == null) {
+                element = new SeleniumElement(webElements.get(index));
+            } else {
+                element = new SeleniumElement(origin, by, index, webElements.get(index), null);
+            }
+            elements[index] = element;
+        }
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+}
@@ -19,122 +19,417 @@
 
 package org.fitting.selenium;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.fitting.*;
+import org.fitting.wait.WaitEngine;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NotFoundException;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** {@link org.fitting.ElementContainer} implementation for Selenium based HTML (i)frames. */
+import static java.lang.String.format;
+import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
+
+/**
+ * {@link org.fitting.ElementContainer} implementation for Selenium based HTML (i)frames.
+ * <p>
+ * A frame is identified by the window it is on and the path of selectors from the top-level content of that window to the frame, frames nested in
+ * other frames have the frame they are in as parent. The frame is only switched to when an operation crosses into it, operations on the frame that is
+ * already selected don't switch again, see {@link SeleniumContextTracker}. When the page navigated without the tracker knowing, e.g. by a script,
+ * and switching or a lookup in the frame fails, the frame is switched to once more from the top-level content of the window. The element of the
+ * frame in its parent is cached and only looked up again when it went stale. Navigating, refreshing and reading the location or title of a frame require a driver that can execute scripts.
+ * </p>
+ */
 public class SeleniumFrame implements ElementContainer, SeleniumSearchContext {
+    /** The separator between the id of the parent and the name or id of the frame in the ids created by {@link #createId(String, String)}. */
+    public static final String ID_SEPARATOR = "/";
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeleniumFrame.class);
+    /** The id of the frame. */
+    private final String id;
+    /** The id of the parent window or frame. */
+    private final String parentId;
+    /** The frame the frame is in, <code>null</code> for a frame in the top-level content of the window. */
+    private final SeleniumFrame parent;
+    /** The selector of the frame in its parent. */
+    private final By frame;
+    /** The cached element of the frame in its parent, <code>null</code> when it is not looked up yet. */
+    private volatile WebElement frameElement;
+    /** The handle of the window the frame is on. */
+    private final String windowHandle;
+    /** The path of selectors from the top-level content of the window to the frame. */
+    private final List<By> frames;
+    /** The underlying web driver. */
+    private final WebDriver driver;
+    /** The Selenium search context selecting the frame before each lookup. */
+    private final SearchContext searchContext = new FrameSearchContext();
+
+    /**
+     * Create a new SeleniumFrame for a frame in the top-level content of a window.
+     *
+     * @param id     The frame id.
+     * @param window The window the frame is on.
+     * @param frame  The selector of the frame in the window.
+     */
+    public SeleniumFrame(final String id, final SeleniumWindow window, final By frame) {
+        this(id, window.getId(), null, window.getId(), Collections.<By>emptyList(), frame, window.getDriver());
+    }
+
+    /**
+     * Create a new SeleniumFrame for a frame nested in another frame.
+     *
+     * @param id     The frame id.
+     * @param parent The frame the frame is in.
+     * @param frame  The selector of the frame in the parent frame.
+     */
+    public SeleniumFrame(final String id, final SeleniumFrame parent, final By frame) {
+        this(id, parent.getId(), parent, parent.windowHandle, parent.frames, frame, parent.driver);
+    }
+
+    /**
+     * Create a new SeleniumFrame.
+     *
+     * @param id           The frame id.
+     * @param parentId     The id of the parent window or frame.
+     * @param parent       The frame the frame is in or <code>null</code>.
+     * @param windowHandle The handle of the window the frame is on.
+     * @param parentFrames The path of selectors to the parent frame.
+     * @param frame        The selector of the frame in the parent frame.
+     * @param driver       The underlying web driver.
+     */
+    private SeleniumFrame(final String id, final String parentId, final SeleniumFrame parent, final String windowHandle, final List<By> parentFrames,
+                          final By frame, final WebDriver driver) {
+        if (frame == null) {
+            throw new IllegalArgumentException("Can't create a frame without a frame selector.");
+        }
+        this.id = id;
+        this.parentId = parentId;
+        this.parent = parent;
+        this.frame = frame;
+        this.windowHandle = windowHandle;
+        final List<By> path = new ArrayList<By>(parentFrames);
+        path.add(frame);
+        this.frames = Collections.unmodifiableList(path);
+        this.driver = driver;
+    }
+
     @Override
     public String getId() {
-        // TODO Implement me!
-        return null;
+        return id;
     }
 
     @Override
     public String getParentId() {
-        // TODO Implement me!
-        return null;
+        return parentId;
     }
 
     @Override
     public boolean hasParent() {
-        // TODO Implement me!
-        return false;
+        return true;
+    }
+
+    /**
+     * Get the handle of the window the frame is on.
+     *
+     * @return The window handle.
+     */
+    public String getWindowHandle() {
+        return windowHandle;
+    }
+
+    /**
+     * Get the path of selectors from the top-level content of the window to the frame.
+     *
+     * @return The selectors.
+     */
+    public List<By> getFrames() {
+        return frames;
+    }
+
+    /**
+     * Create the id for a frame in a container.
+     *
+     * @param parentId The id of the parent window or frame.
+     * @param nameOrId The name or id of the frame in the parent.
+     *
+     * @return The id.
+     */
+    public static String createId(final String parentId, final String nameOrId) {
+        return parentId + ID_SEPARATOR + nameOrId;
+    }
+
+    /**
+     * Get the selector of the frame in its parent.
+     *
+     * @return The selector.
+     */
+    public By getFrameSelector() {
+        return frame;
     }
 
     @Override
     public Dimension getSize() {
-        // TODO Implement me!
-        return null;
+        activateParent();
+        return convert(getFrameElement().getSize());
     }
 
     @Override
     public void setSize(final Dimension size) throws FittingException {
-        // TODO Implement me!
+        throw new FittingException(format("The size of frame %s is determined by its parent and can't be set.", id));
     }
 
     @Override
     public boolean isActive() {
-        // TODO Implement me!
-        return false;
+        return SeleniumContextTracker.isFrameSelected(driver, windowHandle, frames);
     }
 
     @Override
     public void activate() {
-        // TODO Implement me!
+        if (!isActive()) {
+            final boolean tracked = SeleniumContextTracker.getSelectedFrames(driver) != null;
+            try {
+                switchToFrame();
+            } catch (NotFoundException e) {
+                if (!tracked) {
+                    throw e;
+                }
+                LOGGER.debug("Unable to switch to frame {} from the tracked frame, switching from the top-level content.", id, e);
+                SeleniumContextTracker.invalidate(driver);
+                frameElement = null;
+                switchToFrame();
+            }
+        }
     }
 
     @Override
     public void refresh() {
-        // TODO Implement me!
+        execute("window.location.reload();");
     }
 
     @Override
     public boolean isRootContainer() {
-        // TODO Implement me!
         return false;
     }
 
+    /** Leave the frame by selecting its parent when it is selected, frames are closed together with their window. */
     @Override
     public void close() {
-        // TODO Implement me!
+        if (isActive()) {
+            activateParent();
+        }
+        frameElement = null;
     }
 
     @Override
-    public void navigateTo(String uri) {
-        // TODO Implement me!
+    public void navigateTo(final String uri) {
+        execute("window.location.href = arguments[0];", uri);
     }
 
     @Override
     public String currentLocation() {
-        // TODO Implement me!
-        return null;
+        return (String) execute("return window.location.href;");
     }
 
     @Override
     public String getTitle() {
-        // TODO Implement me!
-        return null;
+        return (String) execute("return document.title;");
     }
 
     @Override
     public void waitSeconds(final int seconds) {
-        // TODO Implement me!
+        WaitEngine.getInstance().sleep(TimeUnit.SECONDS.toMillis(seconds));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The text is searched in the displayed text of the body of the frame, as read by the WebDriver.
+     * </p>
+     */
     @Override
     public boolean isTextPresent(final String text) {
-        // TODO Implement me!
-        return false;
+        final List<WebElement> bodies = searchContext.findElements(By.tagName("body"));
+        return !bodies.isEmpty() && bodies.get(0).getText().contains(text);
     }
 
     @Override
     public List<Element> findElementsBy(final Selector selector) {
-        // TODO Implement me!
-        return null;
+        final By by = convert(selector);
+        return convert(searchContext, by, searchContext.findElements(by));
     }
 
     @Override
     public Element findElementBy(final Selector selector) {
-        // TODO Implement me!
-        return null;
+        final By by = convert(selector);
+        return convert(searchContext, by, searchContext.findElement(by));
+    }
+
+    @Override
+    public int countElementsBy(final Selector selector) {
+        final boolean selected = isActive();
+        activate();
+        int count = SeleniumCountLookup.countElementsBy(driver, driver, selector);
+        if (selected && count == 0) {
+            reactivate();
+            count = SeleniumCountLookup.countElementsBy(driver, driver, selector);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean exists(final Selector selector) {
+        final boolean selected = isActive();
+        activate();
+        boolean exists = SeleniumCountLookup.exists(driver, driver, selector);
+        if (selected && !exists) {
+            reactivate();
+            exists = SeleniumCountLookup.exists(driver, driver, selector);
+        }
+        return exists;
+    }
+
+    @Override
+    public Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) {
+        activate();
+        return SeleniumBatchLookup.findElementsBy(driver, searchContext, selectors);
     }
 
     @Override
     public void waitForElement(final Selector selector, final int timeout) throws NoSuchElementException {
-        // TODO Implement me!
+        activate();
+        SeleniumUtil.waitForElement(driver, this, selector, timeout);
     }
 
     @Override
     public void waitForElementWithContent(final Selector selector, final String content, final int timeout) {
-        // TODO Implement me!
+        activate();
+        SeleniumUtil.waitForElementWithContent(driver, this, selector, content, timeout);
     }
 
+    /** {@inheritDoc} */
     @Override
     public SearchContext getImplementation() {
-        // TODO Implement me!
-        return null;
+        return searchContext;
+    }
+
+    /** Switch to the frame from the selected frame, selecting its parent first. */
+    private void switchToFrame() {
+        activateParent();
+        boolean switched = false;
+        final WebElement cached = frameElement;
+        if (cached != null) {
+            try {
+                SeleniumContextTracker.switchToChildFrame(driver, frame, cached);
+                switched = true;
+            } catch (StaleElementReferenceException e) {
+                frameElement = null;
+            } catch (NoSuchFrameException e) {
+                frameElement = null;
+            }
+        }
+        if (!switched) {
+            SeleniumContextTracker.switchToChildFrame(driver, frame, getFrameElement());
+        }
+    }
+
+    /**
+     * Switch to the frame again from the top-level content of the window, after nothing was found in the frame while it was assumed to be selected.
+     */
+    private void reactivate() {
+        LOGGER.debug("Nothing found in frame {} that was assumed to be selected, switching to it again.", id);
+        SeleniumContextTracker.invalidate(driver);
+        activate();
+    }
+
+    /** Select the parent frame or the top-level content of the window. */
+    private void activateParent() {
+        if (parent == null) {
+            SeleniumContextTracker.switchToFrame(driver, windowHandle, Collections.<By>emptyList());
+        } else {
+            parent.activate();
+        }
+    }
+
+    /**
+     * Get the element of the frame in its parent, looking it up when it is not cached.
+     * <p>
+     * The parent has to be selected.
+     * </p>
+     *
+     * @return The frame element.
+     */
+    private WebElement getFrameElement() {
+        WebElement element = frameElement;
+        if (element == null) {
+            element = driver.findElement(frame);
+            frameElement = element;
+        }
+        return element;
+    }
+
+    /**
+     * Execute a script in the frame.
+     *
+     * @param script    The script.
+     * @param arguments The script arguments.
+     *
+     * @return The result of the script.
+     *
+     * @throws FittingException When the driver can't execute scripts.
+     */
+    private Object execute(final String script, final Object... arguments) throws FittingException {
+        if (!SeleniumScripts.isExecutable(driver)) {
+            throw new FittingException(format("The provided webdriver does not support javascript execution, frame %s can not be accessed.", id));
+        }
+        activate();
+        return ((JavascriptExecutor) driver).executeScript(script, arguments);
+    }
+
+    /**
+     * Selenium search context selecting the frame before each lookup, so elements that went stale are looked up again in the frame.
+     * <p>
+     * When the frame was assumed to be selected and nothing is found, the lookup is repeated after switching to the frame again, see
+     * {@link #reactivate()}.
+     * </p>
+     */
+    private final class FrameSearchContext implements SearchContext {
+        @Override
+        public List<WebElement> findElements(final By by) {
+            final boolean selected = isActive();
+            activate();
+            List<WebElement> elements = driver.findElements(by);
+            if (selected && elements.isEmpty()) {
+                reactivate();
+                elements = driver.findElements(by);
+            }
+            return elements;
+        }
+
+        @Override
+        public WebElement findElement(final By by) {
+            final boolean selected = isActive();
+            activate();
+            try {
+                return driver.findElement(by);
+            } catch (NotFoundException e) {
+                if (!selected) {
+                    throw e;
+                }
+                reactivate();
+                return driver.findElement(by);
+            }
+        }
     }
 }
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fitting.Dimension;
+import org.fitting.ElementSnapshot;
+import org.fitting.Point;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/** Collection of the JavaScript snippets executed through a Selenium JavascriptExecutor. */
+final class SeleniumScripts {
+    /**
+     * Function <code>snapshot(element)</code>, reading the properties for an {@link org.fitting.ElementSnapshot} at once.
+     * <p>
+     * The text and the displayed state are not read, since only the WebDriver applies the Selenium rules for whitespace and visibility to them.
+     * </p>
+     */
+    static final String SNAPSHOT_FUNCTION = ""
+            + "function snapshot(e) {"
+            + "  var rect = e.getBoundingClientRect(), attributes = {}, tag = e.tagName.toLowerCase();"
+            + "  for (var i = 0; i < e.attributes.length; i++) { attributes[e.attributes[i].name] = e.attributes[i].value; }"
+            + "  return {"
+            + "    tag: tag,"
+            + "    value: e.value == null ? null : String(e.value),"
+            + "    attributes: attributes,"
+            + "    selected: !!(e.selected || e.checked),"
+            + "    x: Math.round(rect.left + (window.pageXOffset || 0)),"
+            + "    y: Math.round(rect.top + (window.pageYOffset || 0)),"
+            + "    width: Math.round(rect.width),"
+            + "    height: Math.round(rect.height),"
+            + "    input: tag == 'input' || tag == 'textarea' || tag == 'select'"
+            + "  };"
+            + "}";
+    /** Script returning the snapshot of the element passed as first argument. */
+    static final String SNAPSHOT = SNAPSHOT_FUNCTION + "return snapshot(arguments[0]);";
+    /** The selectors that can be resolved by the <code>find</code> function. */
+    static final List<String> FIND_SELECTORS = Arrays.asList(SeleniumSelector.ID, SeleniumSelector.NAME, SeleniumSelector.CLASS_NAME,
+            SeleniumSelector.CSS_SELECTOR, SeleniumSelector.TAG_NAME, SeleniumSelector.XPATH);
+    /** Function <code>find(root, type, query)</code>, returning the first element matching a selector or throwing when the selector can't be resolved. */
+    static final String FIND_FUNCTION = ""
+            + "function find(root, type, query) {"
+            + "  function first(nodes, test) {"
+            + "    for (var i = 0; i < nodes.length; i++) { if (test(nodes[i])) { return nodes[i]; } }"
+            + "    return null;"
+            + "  }"
+            + "  if (type == 'id') {"
+            + "    return root === document ? document.getElementById(query) : first(root.getElementsByTagName('*'), function (e) { return e.id == query; });"
+            + "  } else if (type == 'name') {"
+            + "    return first(root.getElementsByTagName('*'), function (e) { return e.getAttribute('name') == query; });"
+            + "  } else if (type == 'className') {"
+            + "    return root.getElementsByClassName(query)[0] || null;"
+            + "  } else if (type == 'cssSelector') {"
+            + "    return root.querySelector(query);"
+            + "  } else if (type == 'tagName') {"
+            + "    return root.getElementsByTagName(query)[0] || null;"
+            + "  } else if (type == 'xpath') {"
+            + "    var node = document.evaluate(query, root, null, 9, null).singleNodeValue;"
+            + "    if (node && node.nodeType != 1) { throw 'not an element'; }"
+            + "    return node;"
+            + "  }"
+            + "  throw 'unsupported';"
+            + "}";
+    /** Function <code>count(root, type, query)</code>, returning the number of elements matching a selector or throwing when the selector can't be resolved. */
+    static final String COUNT_FUNCTION = ""
+            + "function count(root, type, query) {"
+            + "  function matching(nodes, test) {"
+            + "    var n = 0;"
+            + "    for (var i = 0; i < nodes.length; i++) { if (test(nodes[i])) { n++; } }"
+            + "    return n;"
+            + "  }"
+            + "  if (type == 'id') {"
+            + "    return matching(root.getElementsByTagName('*'), function (e) { return e.id == query; });"
+            + "  } else if (type == 'name') {"
+            + "    return matching(root.getElementsByTagName('*'), function (e) { return e.getAttribute('name') == query; });"
+            + "  } else if (type == 'className') {"
+            + "    return root.getElementsByClassName(query).length;"
+            + "  } else if (type == 'cssSelector') {"
+            + "    return root.querySelectorAll(query).length;"
+            + "  } else if (type == 'tagName') {"
+            + "    return root.getElementsByTagName(query).length;"
+            + "  } else if (type == 'xpath') {"
+            + "    return document.evaluate('count(' + query + ')', root, null, 1, null).numberValue;"
+            + "  }"
+            + "  throw 'unsupported';"
+            + "}";
+    /**
+     * Script returning the number of elements matching a selector.
+     * <p>
+     * Arguments: the root element or <code>null</code> for the document, the selector type and the selector query.
+     * Returns <code>-1</code> when the selector is not supported.
+     * </p>
+     */
+    static final String COUNT = COUNT_FUNCTION
+            + "try { return count(arguments[0] || document, arguments[1], arguments[2]); } catch (x) { return -1; }";
+    /**
+     * Script checking if an element matching a selector exists.
+     * <p>
+     * Arguments: the root element or <code>null</code> for the document, the selector type and the selector query.
+     * Returns a boolean, or <code>'unsupported'</code> when the selector is not supported.
+     * </p>
+     */
+    static final String EXISTS = FIND_FUNCTION
+            + "try { return find(arguments[0] || document, arguments[1], arguments[2]) != null; } catch (x) { return 'unsupported'; }";
+    /**
+     * Asynchronous script waiting for an element to become present, and optionally to contain a text, using a MutationObserver instead of polling.
+     * <p>
+     * Arguments: the root element or <code>null</code> for the document, the selector type, the selector query, the timeout in milliseconds and the
+     * content to wait for or <code>null</code>. The content is matched against the value of the element, or its text for elements without value.
+     * Returns <code>true</code> when the condition was met, <code>false</code> on timeout and <code>'unsupported'</code> when the browser or
+     * selector is not supported.
+     * </p>
+     * <p>
+     * Value changes made by scripts don't trigger mutations, so the condition is also checked on input events and every 250ms within the browser.
+     * </p>
+     */
+    static final String AWAIT_ELEMENT = FIND_FUNCTION
+            + "var root = arguments[0] || document, type = arguments[1], query = arguments[2], timeout = arguments[3], content = arguments[4];"
+            + "var callback = arguments[arguments.length - 1], done = false, observer = null, timer = null, interval = null;"
+            + "function finish(result) {"
+            + "  if (!done) {"
+            + "    done = true;"
+            + "    if (observer) { observer.disconnect(); }"
+            + "    if (timer) { clearTimeout(timer); }"
+            + "    if (interval) { clearInterval(interval); }"
+            + "    document.removeEventListener('input', check, true);"
+            + "    document.removeEventListener('change', check, true);"
+            + "    callback(result);"
+            + "  }"
+            + "}"
+            + "function matches(e) {"
+            + "  if (content == null) { return true; }"
+            + "  var value = e.value != null ? String(e.value) : ('innerText' in e ? e.innerText : e.textContent);"
+            + "  return value != null && value.indexOf(content) >= 0;"
+            + "}"
+            + "function check() {"
+            + "  try {"
+            + "    var e = find(root, type, query);"
+            + "    if (e && matches(e)) { finish(true); }"
+            + "  } catch (x) {"
+            + "    finish('unsupported');"
+            + "  }"
+            + "}"
+            + "check();"
+            + "if (!done) {"
+            + "  if (typeof MutationObserver == 'undefined') {"
+            + "    finish('unsupported');"
+            + "  } else {"
+            + "    observer = new MutationObserver(check);"
+            + "    observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "    document.addEventListener('input', check, true);"
+            + "    document.addEventListener('change', check, true);"
+            + "    interval = setInterval(check, 250);"
+            + "    timer = setTimeout(function () { finish(false); }, timeout);"
+            + "  }"
+            + "}";
+
+    /** The result of the input scripts for a command that has to be executed by the WebDriver itself. */
+    static final String UNSUPPORTED = "unsupported";
+    /**
+     * Functions for changing input elements like the WebDriver would, without key events.
+     * <p>
+     * <code>displayed(element)</code> checks if an element is displayed, <code>typeable(element)</code> checks if an element is a displayed, writable
+     * text field without inline key handlers, <code>type(element, value)</code> appends a value up to the maximum length of the element and
+     * <code>fire(element, type)</code> dispatches an event. Typing triggers the input and change events.
+     * </p>
+     */
+    static final String INPUT_FUNCTIONS = ""
+            + "function fire(e, type) {"
+            + "  var event = document.createEvent('HTMLEvents');"
+            + "  event.initEvent(type, true, true);"
+            + "  e.dispatchEvent(event);"
+            + "}"
+            + "function displayed(e) {"
+            + "  return e.offsetWidth > 0 || e.offsetHeight > 0 || e.getClientRects().length > 0;"
+            + "}"
+            + "function typeable(e) {"
+            + "  var tag = e.tagName.toLowerCase(), type = String(e.type || '').toLowerCase();"
+            + "  var text = tag == 'textarea' || (tag == 'input' && /^(text|search|email|url|tel|password)$/.test(type));"
+            + "  return text && displayed(e) && !e.disabled && !e.readOnly && !e.onkeydown && !e.onkeypress && !e.onkeyup;"
+            + "}"
+            + "function type(e, value) {"
+            + "  var length = e.maxLength >= 0 ? Math.max(0, e.maxLength - e.value.length) : value.length;"
+            + "  e.focus();"
+            + "  e.value = e.value + value.substring(0, length);"
+            + "  fire(e, 'input');"
+            + "  fire(e, 'change');"
+            + "}";
+    /**
+     * Script typing the value passed as second argument into the element passed as first argument, see {@link #INPUT_FUNCTIONS}.
+     * Returns <code>true</code>, or <code>'unsupported'</code> when the element is not a typeable text field.
+     */
+    static final String SET_VALUE = INPUT_FUNCTIONS
+            + "if (!typeable(arguments[0])) { return 'unsupported'; }"
+            + "type(arguments[0], arguments[1]);"
+            + "return true;";
+    /**
+     * Script executing a batch of element commands, with the command names (<code>click</code>, <code>clear</code> or <code>type</code>), the
+     * elements and the typed values as arguments.
+     * <p>
+     * Returns <code>null</code> when all commands were executed, or the index of the first command that was not executed with either
+     * <code>'unsupported'</code>, when the command has to be executed by the WebDriver itself, or the error message. Clicks are only executed on
+     * displayed, enabled elements and clearing and typing only on typeable text fields (see {@link #INPUT_FUNCTIONS}), so the WebDriver reports the
+     * other cases as it would without the batch.
+     * </p>
+     */
+    static final String PIPELINE = INPUT_FUNCTIONS
+            + "var names = arguments[0], elements = arguments[1], values = arguments[2];"
+            + "for (var i = 0; i < names.length; i++) {"
+            + "  var e = elements[i];"
+            + "  if (names[i] == 'click' ? !displayed(e) || e.disabled || typeof e.click != 'function' : !typeable(e)) { return [i, 'unsupported']; }"
+            + "  try {"
+            + "    if (names[i] == 'click') {"
+            + "      e.click();"
+            + "    } else if (names[i] == 'clear') {"
+            + "      e.value = '';"
+            + "      fire(e, 'input');"
+            + "      fire(e, 'change');"
+            + "    } else {"
+            + "      type(e, values[i]);"
+            + "    }"
+            + "  } catch (x) {"
+            + "    return [i, String(x && x.message ? x.message : x)];"
+            + "  }"
+            + "}"
+            + "return null;";
+
+    /** Private constructor, for static use only. */
+    private SeleniumScripts() {
+    }
+
+    /**
+     * Check if scripts can be executed on a driver.
+     * <p>
+     * Drivers reporting their capabilities, like the HtmlUnit driver, can have JavaScript disabled while still implementing the JavascriptExecutor.
+     * </p>
+     *
+     * @param driver The driver.
+     *
+     * @return <code>true</code> if the driver can execute scripts.
+     */
+    static boolean isExecutable(final WebDriver driver) {
+        boolean executable = driver instanceof JavascriptExecutor;
+        if (executable && driver instanceof HasCapabilities) {
+            final Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+            executable = capabilities == null || capabilities.isJavascriptEnabled();
+        }
+        return executable;
+    }
+
+    /**
+     * Convert the result of the <code>snapshot</code> function to an {@link org.fitting.ElementSnapshot}.
+     * <p>
+     * The snapshot has no text and is not displayed, as these are not read by the function, see {@link SeleniumElement#snapshot()}.
+     * </p>
+     *
+     * @param result The result of the function.
+     *
+     * @return The snapshot.
+     */
+    static ElementSnapshot toSnapshot(final Object result) {
+        final Map<?, ?> properties = (Map<?, ?>) result;
+        final Map<String, String> attributes = new LinkedHashMap<String, String>();
+        final Map<?, ?> attributeValues = (Map<?, ?>) properties.get("attributes");
+        if (attributeValues != null) {
+            for (Map.Entry<?, ?> attribute : attributeValues.entrySet()) {
+                attributes.put(String.valueOf(attribute.getKey()), attribute.getValue() == null ? null : String.valueOf(attribute.getValue()));
+            }
+        }
+        return new ElementSnapshot((String) properties.get("tag"), null, (String) properties.get("value"), attributes, false,
+                Boolean.TRUE.equals(properties.get("selected")),
+                new Point(toInt(properties.get("x")), toInt(properties.get("y"))), new Dimension(toInt(properties.get("width")), toInt(properties.get("height"))),
+                Boolean.TRUE.equals(properties.get("input")));
+    }
+
+    /**
+     * Convert a number returned by a script to an int.
+     *
+     * @param number The number.
+     *
+     * @return The int value, <code>0</code> if no number was returned.
+     */
+    private static int toInt(final Object number) {
+        return number instanceof Number ? ((Number) number).intValue() : 0;
+    }
+}
@@ -44,14 +44,19 @@ public class SeleniumSelector implements Selector {
     private final By selector;
     /** The name of the selector. */
     private final String name;
+    /** The query of the selector. */
+    private final String query;
 
     /**
      * Create a new SeleniumBy.
      *
+     * @param name     The name of the selector.
+     * @param query    The query of the selector.
      * @param selector The Selenium selector to wrap.
      */
-    private SeleniumSelector(String name, By selector) {
+    private SeleniumSelector(String name, String query, By selector) {
         this.name = name;
+        this.query = query;
         this.selector = selector;
     }
 
@@ -83,6 +88,15 @@ public class SeleniumSelector implements Selector {
         return name;
     }
 
+    /**
+     * Get the query of the selector.
+     *
+     * @return The query.
+     */
+    public String getQuery() {
+        return query;
+    }
+
     @Override
     public String toString() {
         return selector.toString();
@@ -96,7 +110,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byClassName(String className) {
-        return new SeleniumSelector(CLASS_NAME, By.className(className));
+        return new SeleniumSelector(CLASS_NAME, className, By.className(className));
     }
 
     /**
@@ -107,7 +121,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byCssSelector(String cssSelector) {
-        return new SeleniumSelector(CSS_SELECTOR, By.cssSelector(cssSelector));
+        return new SeleniumSelector(CSS_SELECTOR, cssSelector, By.cssSelector(cssSelector));
     }
 
     /**
@@ -118,7 +132,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byId(String id) {
-        return new SeleniumSelector(ID, By.id(id));
+        return new SeleniumSelector(ID, id, By.id(id));
     }
 
     /**
@@ -129,7 +143,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byLinkText(String linkText) {
-        return new SeleniumSelector(LINK_TEXT, By.linkText(linkText));
+        return new SeleniumSelector(LINK_TEXT, linkText, By.linkText(linkText));
     }
 
     /**
@@ -140,7 +154,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byName(String name) {
-        return new SeleniumSelector(NAME, By.name(name));
+        return new SeleniumSelector(NAME, name, By.name(name));
     }
 
     /**
@@ -151,7 +165,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byPartialLinkText(String partialLinkText) {
-        return new SeleniumSelector(PARTIAL_LINK_TEXT, By.partialLinkText(partialLinkText));
+        return new SeleniumSelector(PARTIAL_LINK_TEXT, partialLinkText, By.partialLinkText(partialLinkText));
     }
 
     /**
@@ -162,7 +176,7 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector selectorName(String tagName) {
-        return new SeleniumSelector(TAG_NAME, By.tagName(tagName));
+        return new SeleniumSelector(TAG_NAME, tagName, By.tagName(tagName));
     }
 
     /**
@@ -173,6 +187,6 @@ public class SeleniumSelector implements Selector {
      * @return The {@link org.fitting.selenium.SeleniumSelector} implementation.
      */
     public static SeleniumSelector byXPath(String xpath) {
-        return new SeleniumSelector(XPATH, By.xpath(xpath));
+        return new SeleniumSelector(XPATH, xpath, By.xpath(xpath));
     }
 }
@@ -24,13 +24,27 @@ import org.fitting.SelectorProvider;
 import org.fitting.FittingException;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
 
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
-/** {@link org.fitting.SelectorProvider} implementation for Selenium based {@link org.fitting.Selector}-clauses. */
+/**
+ * {@link org.fitting.SelectorProvider} implementation for Selenium based {@link org.fitting.Selector}-clauses.
+ * <p>
+ * Created selectors are kept in a bounded, least-recently-used cache, so repeated lookups of the same selector share a single instance.
+ * XPath queries are compiled when the selector is created, failing malformed queries before they are sent to the browser. CSS queries are only
+ * checked for unbalanced brackets, parentheses and quotes; other CSS syntax errors are reported by the browser.
+ * </p>
+ */
 public class SeleniumSelectorProvider implements SelectorProvider {
+    /** The default maximum number of cached selectors. */
+    public static final int DEFAULT_CACHE_SIZE = 512;
     /** The selectors provided by this provider. */
     private static final Map<String, SeleniumByFactory> BY_CLAUSES = new HashMap<String, SeleniumByFactory>() {{
         put(SeleniumSelector.CLASS_NAME, new SeleniumByFactory() {
@@ -83,6 +97,32 @@ public class SeleniumSelectorProvider implements SelectorProvider {
         });
     }};
 
+    /** The cached selectors, keyed by tag and query, in least-recently-used order. */
+    private final Map<String, SeleniumSelector> cache;
+    /** The number of selectors served from the cache. */
+    private final AtomicLong hits = new AtomicLong();
+    /** The number of selectors created. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Create a new SeleniumSelectorProvider with the default cache size. */
+    public SeleniumSelectorProvider() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Create a new SeleniumSelectorProvider.
+     *
+     * @param cacheSize The maximum number of cached selectors.
+     */
+    public SeleniumSelectorProvider(final int cacheSize) {
+        this.cache = new LinkedHashMap<String, SeleniumSelector>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, SeleniumSelector> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
     @Override
     public String[] getAvailableTags() {
         return BY_CLAUSES.keySet().toArray(new String[BY_CLAUSES.size()]);
@@ -99,7 +139,117 @@ public class SeleniumSelectorProvider implements SelectorProvider {
         if (!BY_CLAUSES.containsKey(selector)) {
             throw new FittingException(format("No Selenium selector found with tag [%s] for query [%s]", selector, query));
         }
-        return BY_CLAUSES.get(selector).create(query);
+        final String key = selector + ':' + query;
+        SeleniumSelector seleniumSelector;
+        synchronized (cache) {
+            seleniumSelector = cache.get(key);
+        }
+        if (seleniumSelector == null) {
+            misses.incrementAndGet();
+            validate(selector, query);
+            seleniumSelector = BY_CLAUSES.get(selector).create(query);
+            synchronized (cache) {
+                cache.put(key, seleniumSelector);
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        return seleniumSelector;
+    }
+
+    /**
+     * Get the number of selectors served from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of selectors that had to be created.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the ratio of selectors served from the cache.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if no selectors were requested yet.
+     */
+    public double getHitRatio() {
+        final long hitCount = hits.get();
+        final long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Get the number of cached selectors.
+     *
+     * @return The number of cached selectors.
+     */
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Validate the query of an XPath or CSS selector, compiling XPath queries and checking CSS queries for balance only.
+     *
+     * @param selector The tag of the selector.
+     * @param query    The query.
+     *
+     * @throws FittingException When the XPath query is malformed or the CSS query is unbalanced.
+     */
+    private static void validate(final String selector, final String query) throws FittingException {
+        if (SeleniumSelector.XPATH.equals(selector)) {
+            try {
+                XPathFactory.newInstance().newXPath().compile(query);
+            } catch (XPathExpressionException e) {
+                throw new FittingException(format("Invalid XPath query [%s].", query), e);
+            }
+        } else if (SeleniumSelector.CSS_SELECTOR.equals(selector) && !isBalanced(query)) {
+            throw new FittingException(format("Invalid CSS selector query [%s].", query));
+        }
+    }
+
+    /**
+     * Check if the brackets, parentheses and quotes in a CSS selector are balanced.
+     *
+     * @param query The CSS selector.
+     *
+     * @return <code>true</code> if the CSS selector is balanced.
+     */
+    private static boolean isBalanced(final String query) {
+        int brackets = 0;
+        int parentheses = 0;
+        char quote = 0;
+        boolean balanced = true;
+        for (int i = 0; i < query.length() && balanced; i++) {
+            final char c = query.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '[') {
+                brackets++;
+            } else if (c == ']') {
+                balanced = --brackets >= 0;
+            } else if (c == '(') {
+                parentheses++;
+            } else if (c == ')') {
+                balanced = --parentheses >= 0;
+            }
+        }
+        return balanced && quote == 0 && brackets == 0 && parentheses == 0;
     }
 
     /** Factory for instantiating {@link SeleniumSelector} instances. */
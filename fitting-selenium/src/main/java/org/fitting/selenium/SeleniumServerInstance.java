@@ -23,7 +23,9 @@ import org.openqa.selenium.server.RemoteControlConfiguration;
 import org.openqa.selenium.server.SeleniumServer;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.net.Socket;
 
 import static java.lang.String.format;
 
@@ -40,8 +42,11 @@ public class SeleniumServerInstance {
     /** The server implementation. */
     private SeleniumServer server;
 
+    /** The timeout in milliseconds for connecting to the server when checking if it responds. */
+    private static final int RESPONSE_TIMEOUT = 1000;
+
     /** Flag indicating if the server is running. */
-    private boolean running;
+    private volatile boolean running;
 
     /**
      * Create a manager instance for a custom port.
@@ -100,6 +105,31 @@ public class SeleniumServerInstance {
         return running;
     }
 
+    /**
+     * Check if the server is running and accepts connections on its port.
+     *
+     * @return <code>true</code> if the server responds.
+     */
+    public boolean isResponding() {
+        boolean responding = false;
+        if (isRunning()) {
+            final Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress("localhost", port), RESPONSE_TIMEOUT);
+                responding = true;
+            } catch (IOException e) {
+                responding = false;
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Closing a connection that was only used for checking can't fail in a relevant way.
+                }
+            }
+        }
+        return responding;
+    }
+
     /**
      * Check if the port for the server is available or used (either by the selenium server or another process).
      *
@@ -20,14 +20,33 @@
 package org.fitting.selenium;
 
 import org.openqa.selenium.server.RemoteControlConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Manager for starting and stopping Selenium server instances.
+ * <p>
+ * The manager is thread-safe. Ports are claimed atomically while a server is started on them, so parallel suites never start servers on the same
+ * port. Servers can be leased for exclusive use by a thread (see {@link #leaseServer(int)}); released servers and servers started in the background
+ * (see {@link #setStandbySize(int, int)}) are kept on standby, so a lease doesn't have to wait for a server to start. All managed servers are stopped
+ * when the JVM exits.
+ * </p>
+ * <p>
+ * Pooled browsers of a server are evicted from the {@link org.fitting.selenium.BrowserConnectorPool} when the server is stopped, and leases prefer
+ * servers with idle pooled browsers, so released browsers can be reused.
+ * </p>
  *
  * @author Barre Dijkstra
  * @since 1.0
@@ -35,10 +54,30 @@ import java.util.Set;
 public class SeleniumServerManager {
     /** The default Selenium server port. */
     public static final int DEFAULT_PORT = RemoteControlConfiguration.DEFAULT_PORT;
+    /** The host of the managed servers. */
+    private static final String HOST = "localhost";
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeleniumServerManager.class);
     /** The singleton instance. */
-    private static SeleniumServerManager instance;
+    private static volatile SeleniumServerManager instance;
     /** Map containing all server managers, indexed by port. */
-    private final Map<Integer, SeleniumServerInstance> servers;
+    private final ConcurrentMap<Integer, SeleniumServerInstance> servers;
+    /** The ports claimed by {@link #startServerOnFirstAvailablePort(int)}, either being started or running. */
+    private final Set<Integer> allocatedPorts;
+    /** The ports of the leased servers. */
+    private final Set<Integer> leasedPorts;
+    /** The running servers that are not leased, in the order they became available. */
+    private final BlockingQueue<SeleniumServerInstance> standby;
+    /** The number of servers to keep on standby. */
+    private int standbySize;
+    /** The number of ports to try when starting a server on standby. */
+    private int standbyTries;
+    /** The number of servers being started in the background. */
+    private int pendingStandby;
+    /** The executor starting servers in the background, created when first needed. */
+    private ExecutorService executor;
+    /** Flag indicating if the manager has been shut down. */
+    private volatile boolean shutdown;
 
     /**
      * Create a new instance.
@@ -47,17 +86,34 @@ public class SeleniumServerManager {
      * @see org.fitting.selenium.SeleniumServerManager#getInstance()
      */
     private SeleniumServerManager() {
-        this.servers = new HashMap<Integer, SeleniumServerInstance>();
+        this.servers = new ConcurrentHashMap<Integer, SeleniumServerInstance>();
+        this.allocatedPorts = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+        this.leasedPorts = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+        this.standby = new LinkedBlockingQueue<SeleniumServerInstance>();
     }
 
     /**
      * Get the singleton instance of the {@link org.fitting.selenium.SeleniumServerManager}.
+     * <p>
+     * The manager is shut down, stopping all managed servers, when the JVM exits.
+     * </p>
      *
      * @return The {@link org.fitting.selenium.SeleniumServerManager} singleton instance.
      */
     public static SeleniumServerManager getInstance() {
         if (instance == null) {
-            instance = new SeleniumServerManager();
+            synchronized (SeleniumServerManager.class) {
+                if (instance == null) {
+                    final SeleniumServerManager manager = new SeleniumServerManager();
+                    Runtime.getRuntime().addShutdownHook(new Thread("fitting-selenium-server-shutdown") {
+                        @Override
+                        public void run() {
+                            manager.shutdown();
+                        }
+                    });
+                    instance = manager;
+                }
+            }
         }
         return instance;
     }
@@ -97,6 +153,9 @@ public class SeleniumServerManager {
 
     /**
      * Start the server on the first available port, starting at {@link org.fitting.selenium.SeleniumServerManager#DEFAULT_PORT}.
+     * <p>
+     * A port is claimed before it is checked and started, so concurrent calls never start a server on the same port.
+     * </p>
      *
      * @param tries The number of ports to try before giving up.
      *
@@ -108,15 +167,108 @@ public class SeleniumServerManager {
         int port = DEFAULT_PORT;
         int assignedPort = -1;
         while (port != assignedPort && port < DEFAULT_PORT + tries) {
-            if ((!isServerRunning(port)) && getSeleniumServerInstanceForPort(port).isPortAvailable() && startServer(port)) {
-                assignedPort = port;
-            } else {
+            if (!isServerRunning(port) && allocatedPorts.add(port)) {
+                boolean started = false;
+                try {
+                    started = getSeleniumServerInstanceForPort(port).isPortAvailable() && startServer(port);
+                } finally {
+                    if (!started) {
+                        allocatedPorts.remove(port);
+                    }
+                }
+                if (started) {
+                    assignedPort = port;
+                }
+            }
+            if (port != assignedPort) {
                 port++;
             }
         }
         return assignedPort;
     }
 
+    /**
+     * Lease a running server for exclusive use until it is released.
+     * <p>
+     * A responding server on standby is leased when available, preferring servers with idle browsers in the
+     * {@link org.fitting.selenium.BrowserConnectorPool}, otherwise a new server is started on the first available port. Servers on standby that
+     * don't respond anymore are stopped. After the lease the standby servers are replenished in the background.
+     * </p>
+     *
+     * @param tries The number of ports to try when a new server has to be started.
+     *
+     * @return The port of the leased server or <code>-1</code> when no server could be started.
+     *
+     * @throws Exception            When starting a new server failed.
+     * @throws IllegalStateException When the manager has been shut down.
+     */
+    public int leaseServer(int tries) throws Exception {
+        if (shutdown) {
+            throw new IllegalStateException("Can't lease a server from a manager that has been shut down.");
+        }
+        int port = -1;
+        SeleniumServerInstance server = pollStandby();
+        while (server != null && port == -1) {
+            if (server.isResponding()) {
+                port = server.getPort();
+            } else {
+                LOGGER.warn("Selenium server on port {} is not responding, stopping it.", server.getPort());
+                stopServer(server.getPort());
+                server = pollStandby();
+            }
+        }
+        if (port == -1) {
+            port = startServerOnFirstAvailablePort(tries);
+        }
+        if (port != -1) {
+            leasedPorts.add(port);
+        }
+        replenishStandby();
+        return port;
+    }
+
+    /**
+     * Release a leased server, putting it back on standby.
+     *
+     * @param port The port of the server.
+     */
+    public void releaseServer(int port) {
+        if (leasedPorts.remove(port)) {
+            final SeleniumServerInstance server = servers.get(port);
+            if (server != null && server.isRunning() && !shutdown) {
+                standby.offer(server);
+            }
+        }
+    }
+
+    /**
+     * Set the number of servers to keep running on standby, starting missing servers in the background.
+     *
+     * @param servers The number of servers.
+     * @param tries   The number of ports to try for each server.
+     *
+     * @throws IllegalArgumentException When a negative number of servers or no tries were provided.
+     */
+    public void setStandbySize(int servers, int tries) {
+        if (servers < 0 || tries < 1) {
+            throw new IllegalArgumentException(String.format("Cannot keep %d servers on standby with %d tries.", servers, tries));
+        }
+        synchronized (this) {
+            standbySize = servers;
+            standbyTries = tries;
+        }
+        replenishStandby();
+    }
+
+    /**
+     * Get the number of servers on standby.
+     *
+     * @return The number of running servers that are not leased.
+     */
+    public int getStandbyCount() {
+        return standby.size();
+    }
+
     /**
      * Check if a server is running on the default port.
      *
@@ -134,13 +286,8 @@ public class SeleniumServerManager {
      * @return <code>true</code> if a server is running on the given port.
      */
     public boolean isServerRunning(int port) {
-        boolean running = false;
-        // Ensure no managed server manager is added while checking.
-        if (servers.containsKey(port)) {
-            SeleniumServerInstance manager = getSeleniumServerInstanceForPort(port);
-            running = manager.isRunning();
-        }
-        return running;
+        final SeleniumServerInstance manager = servers.get(port);
+        return manager != null && manager.isRunning();
     }
 
     /**
@@ -154,6 +301,9 @@ public class SeleniumServerManager {
 
     /**
      * Stop the server on the provided port, if it's running and managed.
+     * <p>
+     * The pooled browsers of the server are evicted from the {@link org.fitting.selenium.BrowserConnectorPool}.
+     * </p>
      *
      * @param port The port.
      *
@@ -162,16 +312,34 @@ public class SeleniumServerManager {
     public boolean stopServer(int port) {
         boolean stopped = false;
 
-        // Ensure no managed server manager is added while checking.
-        if (servers.containsKey(port)) {
-            SeleniumServerInstance instance = getSeleniumServerInstanceForPort(port);
+        final SeleniumServerInstance instance = servers.remove(port);
+        if (instance != null) {
+            standby.remove(instance);
             stopped = instance.stop();
-            servers.remove(port);
+        }
+        leasedPorts.remove(port);
+        allocatedPorts.remove(port);
+        final BrowserConnectorPool pool = BrowserConnectorPool.getCreatedInstance();
+        if (pool != null) {
+            pool.evictServer(HOST, port);
         }
 
         return stopped;
     }
 
+    /** Shut the manager down, stopping the background starts and all managed servers. */
+    public void shutdown() {
+        shutdown = true;
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        for (Integer port : getPortsOfManagedServers()) {
+            stopServer(port);
+        }
+    }
+
     /**
      * Get a server manager for the given port, creating a new one if it doesn't exist.
      *
@@ -180,16 +348,87 @@ public class SeleniumServerManager {
      * @return The server manager.
      */
     private SeleniumServerInstance getSeleniumServerInstanceForPort(int port) {
-        SeleniumServerInstance manager;
-        if (servers.containsKey(port)) {
-            manager = servers.get(port);
-        } else {
-            manager = new SeleniumServerInstance(port);
-            servers.put(manager.getPort(), manager);
+        SeleniumServerInstance manager = servers.get(port);
+        if (manager == null) {
+            final SeleniumServerInstance created = new SeleniumServerInstance(port);
+            manager = servers.putIfAbsent(port, created);
+            if (manager == null) {
+                manager = created;
+            }
         }
         return manager;
     }
 
+    /**
+     * Take a server from standby, preferring the first server with idle browsers in the {@link org.fitting.selenium.BrowserConnectorPool}.
+     *
+     * @return The server or <code>null</code> when no server is on standby.
+     */
+    private SeleniumServerInstance pollStandby() {
+        SeleniumServerInstance server = null;
+        final BrowserConnectorPool pool = BrowserConnectorPool.getCreatedInstance();
+        if (pool != null) {
+            final Iterator<SeleniumServerInstance> iterator = standby.iterator();
+            while (server == null && iterator.hasNext()) {
+                final SeleniumServerInstance candidate = iterator.next();
+                if (pool.getIdleCount(HOST, candidate.getPort()) > 0 && standby.remove(candidate)) {
+                    server = candidate;
+                }
+            }
+        }
+        if (server == null) {
+            server = standby.poll();
+        }
+        return server;
+    }
+
+    /** Start servers in the background until the number of servers on standby and being started matches the standby size. */
+    private synchronized void replenishStandby() {
+        while (!shutdown && standby.size() + pendingStandby < standbySize) {
+            pendingStandby++;
+            final int tries = standbyTries;
+            getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final int port = startServerOnFirstAvailablePort(tries);
+                        final SeleniumServerInstance server = port == -1 ? null : servers.get(port);
+                        if (server == null) {
+                            LOGGER.warn("Unable to start a Selenium server on standby, no port available.");
+                        } else {
+                            standby.offer(server);
+                        }
+                    } catch (Exception e) {
+                        LOGGER.warn("Unable to start a Selenium server on standby.", e);
+                    } finally {
+                        synchronized (SeleniumServerManager.this) {
+                            pendingStandby--;
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the executor starting servers in the background, creating it when needed.
+     *
+     * @return The executor.
+     */
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "fitting-selenium-server-standby");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
     /**
      * Get the ports of all managed servers.
      *
@@ -19,28 +19,69 @@
 
 package org.fitting.selenium;
 
+import java.util.concurrent.TimeUnit;
+
 import org.fitting.*;
-import org.openqa.selenium.TimeoutException;
+import org.fitting.metrics.InstrumentedSearchContext;
+import org.fitting.wait.Condition;
+import org.fitting.wait.EventDrivenCondition;
+import org.fitting.wait.WaitEngine;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
 
 /**
  * Collection of generic Selenium utility methods.
+ * <p>
+ * All waits are executed by the shared {@link org.fitting.wait.WaitEngine}.
+ * </p>
  */
 public class SeleniumUtil {
-    /** The id of an (highly likely to be) unknown element. */
-    private static final String UNKNOWN_ELEMENT_ID = "unknown_element_id_x3asdf4hd462345";
+    /** The name under which waits for elements are recorded. */
+    public static final String WAIT_FOR_ELEMENT = "waitForElement";
+    /** The name under which waits for elements with content are recorded. */
+    public static final String WAIT_FOR_ELEMENT_WITH_CONTENT = "waitForElementWithContent";
+    /** The name under which waits for generic conditions are recorded. */
+    public static final String WAIT_FOR_CONDITION = "waitForCondition";
+    /** The time in milliseconds an asynchronous script may run longer than the wait it implements. */
+    private static final long SCRIPT_TIMEOUT_MARGIN = 2000;
+    /** The logging instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeleniumUtil.class);
+
+    /**
+     * Since FitNesse passes URLs as full &lt;a&gt;-tags, strip the tags from it.
+     *
+     * @param url The URL to strip.
+     *
+     * @return The stripped URL.
+     */
+    public static String stripURL(final String url) {
+        String uri;
+        if (url.startsWith("<") && url.endsWith("</a>")) {
+            uri = url.split(">", 2)[1].split("<", 2)[0];
+        } else {
+            uri = url;
+        }
+        return uri;
+    }
 
+    /**
+     * Sleep for the given time, without querying the browser.
+     *
+     * @param driver  The Selenium web driver, unused.
+     * @param source  The search context, unused.
+     * @param timeout The time to sleep in seconds.
+     */
     public static void wait(final WebDriver driver, final SearchContext source, final int timeout) {
-        waitForElement(driver, source, SeleniumSelector.byId(UNKNOWN_ELEMENT_ID), timeout, new NoSuchElementCallback() {
-            @Override
-            public void onNoSuchElementFound(final Object... objects) {
-                // Ignore.
-            }
-        });
+        WaitEngine.getInstance().sleep(TimeUnit.SECONDS.toMillis(timeout));
     }
 
     /**
@@ -59,6 +100,9 @@ public class SeleniumUtil {
 
     /**
      * Wait for an element to be present in a search context within a given timeout.
+     * <p>
+     * When the wait engine uses an event driven strategy, the browser is asked to report the element through a MutationObserver instead of being polled.
+     * </p>
      *
      * @param driver        The Selenium web driver of the window the search context is on.
      * @param searchContext The search context to search on.
@@ -68,18 +112,11 @@ public class SeleniumUtil {
      */
     public static void waitForElement(final WebDriver driver, final SearchContext searchContext, final Selector selector, int timeout, final NoSuchElementCallback callback)
             throws NoSuchElementException {
-        waitFor(driver, new ExpectedCondition<Element>() {
-            @Override
-            public Element apply(WebDriver driver) {
-                Element element;
-                if (searchContext == null) {
-                    element = convert(driver.findElement(convert(selector)));
-                } else {
-                    element = searchContext.findElementBy(selector);
-                }
-                return element;
-            }
-        }, timeout, callback);
+        final Element element = WaitEngine.getInstance().waitFor(WAIT_FOR_ELEMENT, new ElementCondition(driver, searchContext, selector, null),
+                TimeUnit.SECONDS.toMillis(timeout));
+        if (element == null && callback != null) {
+            callback.onNoSuchElementFound();
+        }
     }
 
     /**
@@ -93,27 +130,15 @@ public class SeleniumUtil {
      */
     public static void waitForElementWithContent(final WebDriver driver, final SearchContext searchContext, final Selector selector, final String content, int timeout)
             throws NoSuchElementException {
-        waitFor(driver, new ExpectedCondition<Element>() {
-            @Override
-            public Element apply(WebDriver driver) {
-                boolean found = false;
-                Element element;
-                if (searchContext == null) {
-                    element = convert(driver.findElement(convert(selector)));
-                } else {
-                    element = searchContext.findElementBy(selector);
-                }
-                if (element != null) {
-                    final String text = element.getValue();
-                    found = text != null && text.contains(content);
-                }
-                return found ? element : null;
-            }
-        }, timeout, createNoSuchElementCallback(searchContext, selector));
+        waitForElementWithContent(driver, searchContext, selector, content, timeout, createNoSuchElementCallback(searchContext, selector));
     }
 
     /**
      * Wait for an element with specific content to be present in a search context within a given timeout.
+     * <p>
+     * When the wait engine uses an event driven strategy, a single asynchronous script waits for the content within the browser instead of the
+     * element being polled.
+     * </p>
      *
      * @param driver        The Selenium web driver of the window the search context is on.
      * @param searchContext The search context to search on.
@@ -125,23 +150,11 @@ public class SeleniumUtil {
     public static void waitForElementWithContent(final WebDriver driver, final SearchContext searchContext, final Selector selector, final String content, int timeout,
             final NoSuchElementCallback callback)
             throws NoSuchElementException {
-        waitFor(driver, new ExpectedCondition<Element>() {
-            @Override
-            public Element apply(WebDriver driver) {
-                boolean found = false;
-                Element element;
-                if (searchContext == null) {
-                    element = convert(driver.findElement(convert(selector)));
-                } else {
-                    element = searchContext.findElementBy(selector);
-                }
-                if (element != null) {
-                    final String text = element.getValue();
-                    found = text != null && text.contains(content);
-                }
-                return found ? element : null;
-            }
-        }, timeout, callback);
+        final Element element = WaitEngine.getInstance().waitFor(WAIT_FOR_ELEMENT_WITH_CONTENT, new ElementCondition(driver, searchContext, selector, content),
+                TimeUnit.SECONDS.toMillis(timeout));
+        if (element == null && callback != null) {
+            callback.onNoSuchElementFound();
+        }
     }
 
     /**
@@ -156,18 +169,53 @@ public class SeleniumUtil {
      * @return <code>true</code> if the condition was met within the timeout period.
      */
     public static <E> boolean waitFor(final WebDriver driver, final ExpectedCondition<E> expectedCondition, final int seconds, final NoSuchElementCallback callback) {
-        boolean present = false;
-        try {
-            new WebDriverWait(driver, seconds).until(expectedCondition);
-            present = true;
-        } catch (TimeoutException e) {
-            if (callback != null) {
-                callback.onNoSuchElementFound();
+        final E result = WaitEngine.getInstance().waitFor(WAIT_FOR_CONDITION, new Condition<E>() {
+            @Override
+            public E evaluate() {
+                E value;
+                try {
+                    value = expectedCondition.apply(driver);
+                } catch (NotFoundException e) {
+                    value = null;
+                } catch (StaleElementReferenceException e) {
+                    value = null;
+                }
+                return value;
             }
+        }, TimeUnit.SECONDS.toMillis(seconds));
+        final boolean present = result != null;
+        if (!present && callback != null) {
+            callback.onNoSuchElementFound();
         }
         return present;
     }
 
+    /**
+     * Find an element, returning <code>null</code> instead of failing when the element is not (yet) present.
+     *
+     * @param driver        The Selenium web driver of the window the search context is on.
+     * @param searchContext The search context to search on or <code>null</code> to search the whole window.
+     * @param selector      The selector of the element.
+     *
+     * @return The element or <code>null</code> if it was not found.
+     */
+    private static Element findElement(final WebDriver driver, final SearchContext searchContext, final Selector selector) {
+        Element element;
+        try {
+            if (searchContext == null) {
+                final By by = convert(selector);
+                element = convert(driver, by, driver.findElement(by));
+            } else {
+                element = searchContext.findElementBy(selector);
+            }
+        } catch (NotFoundException e) {
+            element = null;
+        } catch (StaleElementReferenceException e) {
+            element = null;
+        }
+        return element;
+    }
+
     /**
      * Create a {@link NoSuchElementCallback} that throws a {@link NoSuchElementException}.
      *
@@ -184,4 +232,123 @@ public class SeleniumUtil {
             }
         };
     }
+
+    /**
+     * {@link org.fitting.wait.EventDrivenCondition} for an element being present with optional content, awaited in the browser with a MutationObserver.
+     * <p>
+     * The script timeout of the session is raised for the wait. It is restored afterwards when the driver knows it, see
+     * {@link PipelinedWebDriver#getScriptTimeout()}, and left at the raised value otherwise.
+     * </p>
+     */
+    private static final class ElementCondition implements EventDrivenCondition<Element> {
+        /** The Selenium web driver of the window the search context is on. */
+        private final WebDriver driver;
+        /** The search context to search on or <code>null</code> to search the whole window. */
+        private final SearchContext searchContext;
+        /** The selector of the element. */
+        private final Selector selector;
+        /** The content the value of the element must contain or <code>null</code> if only the presence of the element matters. */
+        private final String content;
+
+        /**
+         * Create a new ElementCondition.
+         *
+         * @param driver        The Selenium web driver of the window the search context is on.
+         * @param searchContext The search context to search on or <code>null</code> to search the whole window.
+         * @param selector      The selector of the element.
+         * @param content       The content the value of the element must contain or <code>null</code> if only the presence of the element matters.
+         */
+        private ElementCondition(final WebDriver driver, final SearchContext searchContext, final Selector selector, final String content) {
+            this.driver = driver;
+            this.searchContext = searchContext;
+            this.selector = selector;
+            this.content = content;
+        }
+
+        @Override
+        public Element evaluate() {
+            Element element = findElement(driver, searchContext, selector);
+            if (element != null && content != null) {
+                final String value = element.getValue();
+                if (value == null || !value.contains(content)) {
+                    element = null;
+                }
+            }
+            return element;
+        }
+
+        @Override
+        public boolean await(final long timeout) throws UnsupportedOperationException {
+            if (!SeleniumScripts.isExecutable(driver) || !(selector instanceof SeleniumSelector)
+                    || !SeleniumScripts.FIND_SELECTORS.contains(((SeleniumSelector) selector).getName())) {
+                throw new UnsupportedOperationException("The element can't be awaited in the browser.");
+            }
+            final SeleniumSelector seleniumSelector = (SeleniumSelector) selector;
+            final Object root = getScriptRoot(searchContext);
+            final Object result;
+            final Long previousTimeout = driver instanceof PipelinedWebDriver ? ((PipelinedWebDriver) driver).getScriptTimeout() : null;
+            final WebDriver.Timeouts timeouts = driver.manage().timeouts();
+            try {
+                timeouts.setScriptTimeout(timeout + SCRIPT_TIMEOUT_MARGIN, TimeUnit.MILLISECONDS);
+                result = ((JavascriptExecutor) driver).executeAsyncScript(SeleniumScripts.AWAIT_ELEMENT, root, seleniumSelector.getName(),
+                        seleniumSelector.getQuery(), timeout, content);
+            } catch (WebDriverException e) {
+                // E.g. the page was unloaded while waiting.
+                throw new UnsupportedOperationException("Awaiting the element in the browser failed.", e);
+            } finally {
+                if (previousTimeout != null) {
+                    restoreScriptTimeout(timeouts, previousTimeout);
+                }
+            }
+            if (!(result instanceof Boolean)) {
+                throw new UnsupportedOperationException("The browser does not support awaiting the element.");
+            }
+            return (Boolean) result;
+        }
+
+        /**
+         * Get the root element to pass to the script for the search context.
+         * <p>
+         * A window or frame is activated, so the script searches its whole document.
+         * </p>
+         *
+         * @param context The search context or <code>null</code> to search the whole window.
+         *
+         * @return The Selenium WebElement to search on or <code>null</code> to search the whole window or frame.
+         *
+         * @throws UnsupportedOperationException When the search context can't be passed to the script.
+         */
+        private static Object getScriptRoot(final SearchContext context) throws UnsupportedOperationException {
+            SearchContext unwrapped = context;
+            while (unwrapped instanceof InstrumentedSearchContext) {
+                unwrapped = ((InstrumentedSearchContext) unwrapped).getDelegate();
+            }
+            final Object root;
+            if (unwrapped == null || unwrapped instanceof WebDriverSearchContext) {
+                root = null;
+            } else if (unwrapped instanceof SeleniumElement) {
+                root = ((SeleniumElement) unwrapped).getImplementation();
+            } else if (unwrapped instanceof SeleniumWindow || unwrapped instanceof SeleniumFrame) {
+                ((ElementContainer) unwrapped).activate();
+                root = null;
+            } else {
+                throw new UnsupportedOperationException("The search context can't be passed to the browser.");
+            }
+            return root;
+        }
+
+        /**
+         * Restore the script timeout of the session.
+         *
+         * @param timeouts The timeouts of the session.
+         * @param timeout  The script timeout in milliseconds before the element was awaited.
+         */
+        private static void restoreScriptTimeout(final WebDriver.Timeouts timeouts, final long timeout) {
+            try {
+                timeouts.setScriptTimeout(timeout, TimeUnit.MILLISECONDS);
+            } catch (WebDriverException e) {
+                LOGGER.warn("Unable to restore the script timeout of the session.", e);
+            }
+        }
+    }
 }
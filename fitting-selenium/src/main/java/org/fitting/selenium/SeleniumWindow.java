@@ -20,12 +20,16 @@
 package org.fitting.selenium;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.fitting.Dimension;
 import org.fitting.*;
 import org.fitting.NoSuchElementException;
+import org.fitting.wait.WaitEngine;
 import org.openqa.selenium.*;
 import org.openqa.selenium.SearchContext;
 
@@ -36,8 +40,6 @@ import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
 public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
     /** The name of the default frame name. */
     private static final String FRAME_NAME_DEFAULT = "_top";
-    /** The id of an (highly likely to be) unknown element. */
-    private static final String UNKNOWN_ELEMENT_ID = "unknown_element_id_x3asdf4hd462345";
     /** The id of the window. */
     private final String id;
     /** The parent id of the window. */
@@ -93,31 +95,30 @@ public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
     @Override
     public void refresh() {
         driver.navigate().refresh();
+        SeleniumContextTracker.navigated(driver);
     }
 
     /**
-     * Select the frame with id.
+     * Select the frame with id in the selected frame.
      *
      * @param id     The frame id.
      * @param driver The WebDriver.
      */
     public void selectFrameWithId(final String id, final WebDriver driver) {
         final org.openqa.selenium.By frameSelector = org.openqa.selenium.By.id(id);
-        final WebElement element = driver.findElement(frameSelector);
-        driver.switchTo().frame(element);
+        SeleniumContextTracker.switchToChildFrame(driver, frameSelector);
         this.currentFrameSelector = frameSelector;
     }
 
     /**
-     * Select the frame with name.
+     * Select the frame with name in the selected frame.
      *
      * @param name   The frame name.
      * @param driver The WebDriver.
      */
     public void selectFrameWithName(final String name, final WebDriver driver) {
         final org.openqa.selenium.By frameSelector = org.openqa.selenium.By.name(name);
-        final WebElement element = driver.findElement(frameSelector);
-        driver.switchTo().frame(element);
+        SeleniumContextTracker.switchToChildFrame(driver, frameSelector);
         this.currentFrameSelector = frameSelector;
     }
 
@@ -127,8 +128,7 @@ public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
      * @param driver The WebDriver.
      */
     public void selectMainFrame(final WebDriver driver) {
-        driver.switchTo().defaultContent();
-        WebElement element = driver.switchTo().activeElement();
+        SeleniumContextTracker.switchToDefaultContent(driver);
         currentFrameSelector = org.openqa.selenium.By.name(FRAME_NAME_DEFAULT);
     }
 
@@ -153,24 +153,25 @@ public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
 
     @Override
     public boolean isActive() {
-        return id.equals(driver.getWindowHandle());
+        return id.equals(SeleniumContextTracker.getWindowHandle(driver));
     }
 
     @Override
     public void activate() {
-        if (!isActive()) {
-            driver.switchTo().window(id);
-        }
+        SeleniumContextTracker.switchToWindow(driver, id);
     }
 
     @Override
     public void close() {
+        activate();
         driver.close();
+        SeleniumContextTracker.invalidate(driver);
     }
 
     @Override
     public void navigateTo(String uri) {
         driver.get(uri);
+        SeleniumContextTracker.navigated(driver);
     }
 
     @Override
@@ -185,11 +186,7 @@ public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
 
     @Override
     public void waitSeconds(final int seconds) {
-        try {
-            waitForElement(SeleniumSelector.byId(UNKNOWN_ELEMENT_ID), seconds);
-        } catch (NoSuchElementException e) {
-            // Ignore.
-        }
+        WaitEngine.getInstance().sleep(TimeUnit.SECONDS.toMillis(seconds));
     }
 
     @Override
@@ -199,12 +196,29 @@ public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
 
     @Override
     public List<Element> findElementsBy(final Selector selector) {
-        return convert(driver.findElements(convert(selector)));
+        final org.openqa.selenium.By by = convert(selector);
+        return convert(driver, by, driver.findElements(by));
     }
 
     @Override
     public Element findElementBy(final Selector selector) {
-        return convert(driver.findElement(convert(selector)));
+        final org.openqa.selenium.By by = convert(selector);
+        return convert(driver, by, driver.findElement(by));
+    }
+
+    @Override
+    public int countElementsBy(final Selector selector) {
+        return SeleniumCountLookup.countElementsBy(driver, driver, selector);
+    }
+
+    @Override
+    public boolean exists(final Selector selector) {
+        return SeleniumCountLookup.exists(driver, driver, selector);
+    }
+
+    @Override
+    public Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) {
+        return SeleniumBatchLookup.findElementsBy(driver, driver, selectors);
     }
 
     @Override
@@ -217,6 +231,15 @@ public class SeleniumWindow implements ElementContainer, SeleniumSearchContext {
         SeleniumUtil.waitForElementWithContent(driver, this, selector, content, timeout);
     }
 
+    /**
+     * Get the underlying web driver.
+     *
+     * @return The web driver.
+     */
+    WebDriver getDriver() {
+        return driver;
+    }
+
     /** {@inheritDoc} */
     @Override
     public SearchContext getImplementation() {
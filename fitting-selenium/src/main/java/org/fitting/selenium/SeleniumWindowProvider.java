@@ -24,6 +24,7 @@ import org.fitting.ElementContainerProvider;
 import org.fitting.FittingException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ByIdOrName;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,7 +51,7 @@ public class SeleniumWindowProvider extends ElementContainerProvider {
             throw new FittingException("The provided webdriver does not support javascript execution, a new window can not be created.");
         }
         final Set<String> currentHandles = driver.getWindowHandles();
-        final String currentWindowHandle = driver.getWindowHandle();
+        final String currentWindowHandle = SeleniumContextTracker.getWindowHandle(driver);
         final JavascriptExecutor executor = (JavascriptExecutor) driver;
         executor.executeScript("window.open('" + uri + "')");
 
@@ -63,9 +64,31 @@ public class SeleniumWindowProvider extends ElementContainerProvider {
         return new SeleniumWindow(newWindowHandle, currentWindowHandle, driver);
     }
 
+    /**
+     * Create a container for a frame in a window or frame.
+     * <p>
+     * The frame is not switched to until it is activated or searched, so creating the container doesn't require the frame to be loaded yet.
+     * </p>
+     *
+     * @param uri    The name or id of the frame in the parent.
+     * @param parent The window or frame the frame is in.
+     *
+     * @return The frame, with an id created by {@link SeleniumFrame#createId(String, String)}.
+     *
+     * @throws FittingException When the parent is not a window or frame.
+     */
     @Override
     protected ElementContainer createContainer(final String uri, final ElementContainer parent) throws FittingException {
-        // TODO Implement me!
-        return null;
+        final String id = SeleniumFrame.createId(parent.getId(), uri);
+        final ByIdOrName frame = new ByIdOrName(uri);
+        final ElementContainer container;
+        if (parent instanceof SeleniumWindow) {
+            container = new SeleniumFrame(id, (SeleniumWindow) parent, frame);
+        } else if (parent instanceof SeleniumFrame) {
+            container = new SeleniumFrame(id, (SeleniumFrame) parent, frame);
+        } else {
+            throw new FittingException("The container " + parent.getId() + " is not a window or frame, a frame can not be created in it.");
+        }
+        return container;
     }
 }
@@ -1,8 +1,11 @@
 package org.fitting.selenium;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.fitting.*;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
 import static org.fitting.selenium.SeleniumDataTypeConverter.convert;
@@ -26,12 +29,29 @@ public class WebDriverSearchContext implements SearchContext, SeleniumSearchCont
 
     @Override
     public List<Element> findElementsBy(Selector selector) throws FittingException {
-        return convert(webDriver.findElements(convert(selector)));
+        final By by = convert(selector);
+        return convert(webDriver, by, webDriver.findElements(by));
     }
 
     @Override
     public Element findElementBy(Selector selector) throws NoSuchElementException, FittingException {
-        return convert(webDriver.findElement(convert(selector)));
+        final By by = convert(selector);
+        return convert(webDriver, by, webDriver.findElement(by));
+    }
+
+    @Override
+    public int countElementsBy(final Selector selector) throws FittingException {
+        return SeleniumCountLookup.countElementsBy(webDriver, webDriver, selector);
+    }
+
+    @Override
+    public boolean exists(final Selector selector) throws FittingException {
+        return SeleniumCountLookup.exists(webDriver, webDriver, selector);
+    }
+
+    @Override
+    public Map<Selector, Element> findElementsBy(final Collection<Selector> selectors) {
+        return SeleniumBatchLookup.findElementsBy(webDriver, webDriver, selectors);
     }
 
     @Override
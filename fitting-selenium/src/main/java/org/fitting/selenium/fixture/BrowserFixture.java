@@ -19,11 +19,18 @@
 
 package org.fitting.selenium.fixture;
 
+import java.util.Locale;
+
 import org.fitting.FittingConnector;
 import org.fitting.FittingContainer;
+import org.fitting.metrics.InstrumentedFittingConnector;
 import org.fitting.selenium.BrowserConnector;
+import org.fitting.selenium.BrowserConnectorPool;
 import org.fitting.selenium.FittingSeleniumConnector;
+import org.fitting.selenium.InputStrategy;
+import org.fitting.selenium.PipelinedWebDriver;
 import org.fitting.selenium.SeleniumServerManager;
+import org.fitting.selenium.SeleniumUtil;
 
 /**
  * Fixture for initialising the Selenium coupling and starting/navigating browsers.
@@ -38,14 +45,29 @@ public class BrowserFixture {
     private ThreadLocal<Integer> seleniumPort = new ThreadLocal<Integer>();
 
     /**
-     * Open a browser, starting a local selenium server in process, and go to a specific URL.
+     * Keep a number of in-process Selenium servers running on standby, so opening a browser doesn't have to wait for a server to start.
+     *
+     * @param servers The number of servers to keep on standby.
+     */
+    public void keepSeleniumServersOnStandby(int servers) {
+        SeleniumServerManager.getInstance().setStandbySize(servers, TRIES_FOR_SELENIUM_PORTS);
+    }
+
+    /**
+     * Open a browser, leasing a local selenium server in process, and go to a specific URL.
+     * <p>
+     * The server is leased from the {@link org.fitting.selenium.SeleniumServerManager} until the browser is closed.
+     * </p>
      *
      * @param browser The browser to open. See {@link org.fitting.selenium.Browser}.
      * @param url     The URL to navigate to.
      */
     public void openBrowserFor(String browser, String url) throws Exception {
         if (seleniumPort.get() == null) {
-            int port = SeleniumServerManager.getInstance().startServerOnFirstAvailablePort(TRIES_FOR_SELENIUM_PORTS);
+            int port = SeleniumServerManager.getInstance().leaseServer(TRIES_FOR_SELENIUM_PORTS);
+            if (port == -1) {
+                throw new IllegalStateException("Unable to start a Selenium server, no port available.");
+            }
             seleniumPort.set(port);
         }
         openBrowserOnHostWithPortFor(browser, "localhost", seleniumPort.get(), url);
@@ -53,6 +75,9 @@ public class BrowserFixture {
 
     /**
      * Open a browser, connecting to an external selenium running on the provided host and port, and go to a specific URL.
+     * <p>
+     * Browsers are acquired from the {@link org.fitting.selenium.BrowserConnectorPool}, reusing an idle browser session with the same capabilities when available.
+     * </p>
      *
      * @param browser The browser to open. See {@link org.fitting.selenium.Browser}.
      * @param host    The host the selenium server is running on.
@@ -60,38 +85,72 @@ public class BrowserFixture {
      * @param url     The URL to navigate to.
      */
     public void openBrowserOnHostWithPortFor(String browser, String host, int port, String url) {
-        FittingContainer.set(new FittingSeleniumConnector(BrowserConnector.builder().withBrowser(browser).onHost(host, port).build()));
+        final BrowserConnector.Builder builder = BrowserConnector.builder().withBrowser(browser).onHost(host, port);
+        FittingContainer.set(new FittingSeleniumConnector(BrowserConnectorPool.getInstance().acquire(builder)));
         openUrl(url);
     }
 
+    /**
+     * Close the browser, returning it to the {@link org.fitting.selenium.BrowserConnectorPool} when it was acquired from the pool.
+     * <p>
+     * A Selenium server leased by {@link #openBrowserFor(String, String)} is released for use by other browsers. The pooled browser stays bound to
+     * that server, so later leases prefer it and its browsers are evicted from the pool when the server is stopped.
+     * </p>
+     */
     public void closeBrowser() {
         FittingConnector connector = FittingContainer.get();
-        connector.destroy();
+        try {
+            connector.destroy();
+        } finally {
+            final Integer port = seleniumPort.get();
+            if (port != null) {
+                seleniumPort.remove();
+                SeleniumServerManager.getInstance().releaseServer(port);
+            }
+        }
     }
 
     /**
-     * Navigate the active browser window to the provided URL.
+     * Enable or disable pipelining of clicks and typing for the active browser.
+     * <p>
+     * When enabled, element commands whose results aren't needed are queued and sent to the browser as a single script before the next read or at
+     * the end of the table. Typing is only queued with the script {@link #useInputStrategy(String) input strategy}, and queued clicks are script
+     * clicks without mouse events. See {@link org.fitting.selenium.PipelinedWebDriver}.
+     * </p>
      *
-     * @param url The URL to navigate to.
+     * @param enabled <code>true</code> to pipeline the commands.
      */
-    public void openUrl(final String url) {
-        FittingContainer.get().getElementContainerProvider().navigateElementContainerTo(stripURL(url));
+    public void pipelineCommands(final boolean enabled) {
+        final FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
+        if (connector instanceof FittingSeleniumConnector && ((FittingSeleniumConnector) connector).getWebDriver() instanceof PipelinedWebDriver) {
+            ((PipelinedWebDriver) ((FittingSeleniumConnector) connector).getWebDriver()).setPipelining(enabled);
+        }
     }
 
     /**
-     * Since Selenium passes URLs as full &lt;a&gt;-tags, strip the tags from it.
+     * Select the strategy for typing values into input elements of the active browser.
+     * <p>
+     * With <code>script</code> values are set by a single script instead of key by key, which pays off for large texts. Fields that need real key
+     * events still get the value typed key by key. See {@link org.fitting.selenium.InputStrategy}.
+     * </p>
      *
-     * @param url The URL to strip.
+     * @param strategy The strategy, <code>keys</code> or <code>script</code>.
      *
-     * @return The stripped URL.
+     * @throws IllegalArgumentException When the strategy is unknown.
      */
-    private static final String stripURL(String url) {
-        String uri;
-        if (url.startsWith("<") && url.endsWith("</a>")) {
-            uri = url.split(">", 2)[1].split("<", 2)[0];
-        } else {
-            uri = url;
+    public void useInputStrategy(final String strategy) throws IllegalArgumentException {
+        final FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
+        if (connector instanceof FittingSeleniumConnector) {
+            ((FittingSeleniumConnector) connector).setInputStrategy(InputStrategy.valueOf(strategy.trim().toUpperCase(Locale.ROOT)));
         }
-        return uri;
+    }
+
+    /**
+     * Navigate the active browser window to the provided URL.
+     *
+     * @param url The URL to navigate to.
+     */
+    public void openUrl(final String url) {
+        FittingContainer.get().getElementContainerProvider().navigateElementContainerTo(SeleniumUtil.stripURL(url));
     }
 }
@@ -22,17 +22,24 @@ package org.fitting.selenium.fixture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.fitting.ElementContainer;
-import org.fitting.ElementContainerProvider;
+import org.fitting.FittingConnector;
+import org.fitting.FittingContainer;
+import org.fitting.FittingException;
 import org.fitting.FormattedFittingException;
+import org.fitting.metrics.InstrumentedFittingConnector;
+import org.fitting.selenium.CookieJar;
+import org.fitting.selenium.FittingSeleniumConnector;
 import org.openqa.selenium.Cookie;
-import org.openqa.selenium.WebDriver;
 
 import static java.lang.String.format;
 import static org.apache.commons.lang.StringUtils.isNotEmpty;
 
 /**
  * Fixture for managing cookies in Selenium.
+ * <p>
+ * Operations on other domains are batched with {@link #batchCookieOperations(boolean)} so each domain is visited once, the cookies read from other
+ * domains are kept while batching. See {@link org.fitting.selenium.CookieJar}.
+ * </p>
  *
  * @author Barre Dijkstra
  * @since 1.0
@@ -40,6 +47,37 @@ import static org.apache.commons.lang.StringUtils.isNotEmpty;
 public class CookieFixture extends SeleniumFixture {
     /** The pattern for a domain. */
     protected static final Pattern DOMAIN_PATTERN = Pattern.compile("^\\w+://([^\\/:\\?]+)([\\w\\W])*$");
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Executes the cookie operations that are still batched first, when a Selenium browser is open.
+     * </p>
+     */
+    @Override
+    public void endTable() throws FittingException {
+        try {
+            final FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
+            if (connector instanceof FittingSeleniumConnector) {
+                ((FittingSeleniumConnector) connector).applyCookies();
+            }
+        } finally {
+            super.endTable();
+        }
+    }
+
+    /**
+     * Enable or disable batching of cookie operations.
+     * <p>
+     * When enabled, adding, copying and deleting cookies is queued per domain until batching is disabled, the cookies of the domain are read or the
+     * table ends, so each domain is visited only once. Script tables don't end until the page ends, so disable batching at the end of the operations
+     * in a script table; operations still queued when the browser is closed are executed before it closes.
+     * </p>
+     *
+     * @param enabled <code>true</code> to batch the cookie operations.
+     */
+    public void batchCookieOperations(boolean enabled) {
+        getCookieJar().setBatching(enabled);
+    }
 
     /**
      * Get the value of a cookie within the current domain..
@@ -49,7 +87,7 @@ public class CookieFixture extends SeleniumFixture {
      * @return value The value of the cookie.
      */
     public String valueForCookieWithNameIs(String cookieName) {
-        return getCookieValue(getWebDriver(), cookieName);
+        return getCookieValue(cookieName);
     }
 
     /**
@@ -61,7 +99,7 @@ public class CookieFixture extends SeleniumFixture {
      * @return <code>true</code> if the cookie value contains the given value.
      */
     public boolean valueForCookieWithNameContains(String cookieName, String value) {
-        String cookieValue = getCookieValue(getWebDriver(), cookieName);
+        String cookieValue = getCookieValue(cookieName);
         return cookieValue != null && cookieValue.contains(value);
     }
 
@@ -72,7 +110,7 @@ public class CookieFixture extends SeleniumFixture {
      * @param value The value of the cookie.
      */
     public void addCookieWithNameAndValue(String name, String value) {
-        addCookie(getWebDriver(), name, value, null, null);
+        addCookie(name, value, null, null);
     }
 
     /**
@@ -83,20 +121,20 @@ public class CookieFixture extends SeleniumFixture {
      * @param domain The domain to add the cookie to.
      */
     public void addCookieWithNameAndValueToDomain(String name, String value, String domain) {
-        addCookie(getWebDriver(), name, value, null, domain);
+        addCookie(name, value, null, domain);
     }
 
     /**
      * Copy a cookie from the current domain to the provided domain.
      * <p>
-     * To copy the cookie, a new browser window is opened on the provided domain to set the domain cookie.
+     * To copy the cookie, a new browser window is opened on the provided domain to set the domain cookie, once for all copies of a batch.
      * </p>
      *
      * @param name   The name of the cookie.
      * @param domain The target domain.
      */
     public void copyCookieWithNameToDomain(String name, String domain) {
-        copyCookieToDomain(getWebDriver(), name, domain);
+        copyCookieToDomain(name, domain);
     }
 
     /**
@@ -105,27 +143,27 @@ public class CookieFixture extends SeleniumFixture {
      * @param domain The domain.
      */
     public void clearAllCookiesOnDomain(String domain) {
-        clearAllCookiesOnDomain(getWebDriver(), domain);
+        getCookieJar().deleteAll(domain);
     }
 
     /**
      * Clear all cookies on the current domain.
      */
     public void clearAllCookies() {
-        clearAllCookiesOnDomain(getWebDriver(), null);
+        getCookieJar().deleteAll(null);
     }
 
     /**
      * Deletes a cookie from the specified domain.
      * <p>
-     * To delete the cookie, a new browser window is opened on the provided domain.
+     * To delete the cookie, a new browser window is opened on the provided domain, once for all operations of a batch.
      * </p>
      *
      * @param name   The name of the cookie.
      * @param domain The domain.
      */
     public void deleteCookieWithNameOnDomain(String name, String domain) {
-        deleteCookieWithNameOnDomain(getWebDriver(), name, domain);
+        getCookieJar().delete(name, domain);
     }
 
     /**
@@ -134,7 +172,7 @@ public class CookieFixture extends SeleniumFixture {
      * @param name The name of the cookie.
      */
     public void deleteCookieWithName(String name) {
-        deleteCookieWithNameOnDomain(getWebDriver(), name, null);
+        getCookieJar().delete(name, null);
     }
 
     /**
@@ -146,7 +184,7 @@ public class CookieFixture extends SeleniumFixture {
      * @return <code>true</code> if a cookie with the given name is present.
      */
     public boolean cookieWithNameIsPresentOnDomain(String name, String domain) {
-        return isCookieWithNamePresentOnDomain(getWebDriver(), name, domain);
+        return getCookieJar().getCookie(name, domain) != null;
     }
 
     /**
@@ -157,161 +195,74 @@ public class CookieFixture extends SeleniumFixture {
      * @return <code>true</code> if a cookie with the given name is present.
      */
     public boolean cookieWithNameIsPresent(String name) {
-        return isCookieWithNamePresentOnDomain(getWebDriver(), name, null);
+        return getCookieJar().getCookie(name, null) != null;
     }
 
     /**
      * Get the value of a cookie.
      *
-     * @param driver The web driver to use.
-     * @param name   The name of the cookie.
+     * @param name The name of the cookie.
      *
      * @return value The value of the cookie.
      */
-    private String getCookieValue(WebDriver driver, String name) {
-        try {
-            return getCookie(driver, name).getValue();
-        } catch (NullPointerException e) {
-            throw new FormattedFittingException(format("No cookie with name [%s] found.", name), e);
-        }
+    private String getCookieValue(String name) {
+        return getExistingCookie(name).getValue();
     }
 
     /**
-     * Get a cookie.
+     * Get a cookie on the current domain.
      *
-     * @param driver The Selenium web driver.
-     * @param name   The name of the cookie.
+     * @param name The name of the cookie.
+     *
+     * @return The cookie.
      *
-     * @return cookie The cookie or <code>null</code> if none was found with the given name.
+     * @throws FormattedFittingException When no cookie was found with the given name.
      */
-    private Cookie getCookie(WebDriver driver, String name) {
-        return driver.manage().getCookieNamed(name);
+    private Cookie getExistingCookie(String name) throws FormattedFittingException {
+        final Cookie cookie = getCookieJar().getCookie(name, null);
+        if (cookie == null) {
+            throw new FormattedFittingException(format("No cookie with name [%s] found.", name));
+        }
+        return cookie;
     }
 
     /**
      * Adds a cookie with the given data.
      *
-     * @param driver The web driver.
      * @param name   The name of the cookie.
      * @param value  The value of the cookie.
      * @param path   The path to set the cookie.
      * @param domain The domain.
      */
-    private void addCookie(final WebDriver driver, final String name, final String value, final String path, final String domain) {
-        handleCookie(domain, new CookieCallback() {
-            @Override
-            public void execute() {
-                final Cookie.Builder builder = new Cookie.Builder(name, value);
-                if (isNotEmpty(path)) {
-                    builder.path(path);
-                }
-                if (isNotEmpty(domain)) {
-                    builder.domain(getStrippedDomain(domain));
-                }
-
-                driver.manage().addCookie(builder.build());
-            }
-        });
-    }
-
-    /**
-     * Copy the cookie matching the given name to the given domain.
-     *
-     * @param driver The web driver.
-     * @param name   The name of the cookie.
-     * @param domain The domain.
-     */
-    private void copyCookieToDomain(WebDriver driver, String name, String domain) {
-        try {
-            final Cookie cookie = getCookie(driver, name);
-            addCookie(driver, name, cookie.getValue(), cookie.getPath(), domain);
-        } catch (NullPointerException e) {
-            throw new FormattedFittingException(format("No cookie with name [%s] found.", name), e);
+    private void addCookie(final String name, final String value, final String path, final String domain) {
+        final Cookie.Builder builder = new Cookie.Builder(name, value);
+        if (isNotEmpty(path)) {
+            builder.path(path);
         }
+        if (isNotEmpty(domain)) {
+            builder.domain(getStrippedDomain(domain));
+        }
+        getCookieJar().add(builder.build(), domain);
     }
 
     /**
-     * Clears all cookies on the provided domain.
-     *
-     * @param driver The web driver.
-     * @param domain The domain.
-     */
-    private void clearAllCookiesOnDomain(final WebDriver driver, String domain) {
-        handleCookie(domain, new CookieCallback() {
-            @Override
-            public void execute() {
-                driver.manage().deleteAllCookies();
-            }
-        });
-    }
-
-    /**
-     * Clears all cookies on the provided domain.
-     *
-     * @param driver The web driver.
-     * @param name   The name of the cookie.
-     * @param domain The domain.
-     */
-    private void deleteCookieWithNameOnDomain(final WebDriver driver, final String name, String domain) {
-        handleCookie(domain, new CookieCallback() {
-            @Override
-            public void execute() {
-                driver.manage().deleteCookieNamed(name);
-            }
-        });
-    }
-
-    /**
-     * Indicates if a cookie with the given name exists on the given domain.
+     * Copy the cookie matching the given name to the given domain.
      *
-     * @param driver The web driver.
      * @param name   The name of the cookie.
      * @param domain The domain.
-     *
-     * @return <code>true</code> if cookie is present, else <code>false</code>.
      */
-    private boolean isCookieWithNamePresentOnDomain(final WebDriver driver, final String name, String domain) {
-        final boolean[] exists = { false };
-        handleCookie(domain, new CookieCallback() {
-            @Override
-            public void execute() {
-                if (driver.manage().getCookieNamed(name) != null) {
-                    exists[0] = true;
-                }
-            }
-        });
-        return exists[0];
+    private void copyCookieToDomain(String name, String domain) {
+        final Cookie cookie = getExistingCookie(name);
+        addCookie(name, cookie.getValue(), cookie.getPath(), domain);
     }
 
     /**
-     * Based on the domain something is done with a cookie. If the domain is not null a window on that domain is opened
-     * and something is done with the cookie on that domain.
+     * Get the cookie jar of the browser.
      *
-     * @param domain   The domain.
-     * @param callback The CookieCallback.
+     * @return The cookie jar.
      */
-    private void handleCookie(String domain, CookieCallback callback) {
-        ElementContainerProvider provider = getSeleniumConnector().getElementContainerProvider();
-        if (isNotEmpty(domain) && domain.startsWith(".")) {
-            throw new FormattedFittingException(format("Given domain [%s] is not valid.", domain));
-        }
-        ElementContainer container = null;
-        if (isNotEmpty(domain)) {
-            container = provider.createNewElementContainer(domain, true);
-        }
-
-        // TODO Double check that it's not needed to pass get, and pass through, the WebDriver instance for the window.
-        callback.execute();
-
-        if (container != null) {
-            container.close();
-        }
-    }
-
-    /** Cookie callback Interface. */
-    private static interface CookieCallback {
-        /** Do something with the cookie. */
-        void execute();
+    private CookieJar getCookieJar() {
+        return getSeleniumConnector().getCookieJar();
     }
 
     /**
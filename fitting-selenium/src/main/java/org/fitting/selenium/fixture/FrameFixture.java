@@ -18,27 +18,65 @@
  */
 package org.fitting.selenium.fixture;
 
+import org.fitting.ElementContainer;
+import org.fitting.ElementContainerProvider;
 import org.fitting.FittingException;
 import org.fitting.FormattedFittingException;
-import org.openqa.selenium.NoSuchFrameException;
+import org.fitting.NoSuchContainerException;
+import org.fitting.selenium.SeleniumFrame;
+import org.fitting.selenium.SeleniumWindow;
+import org.openqa.selenium.NotFoundException;
 
 /**
  * Fixture for navigating between HTML (i)Frames.
  * <p>
- * TODO: Add management of frames via {@link org.fitting.selenium.SeleniumFrame}.
+ * Frames are managed as {@link org.fitting.selenium.SeleniumFrame} containers, so the frame stays selected for the other fixtures and activating a
+ * frame that is already selected, e.g. the parent frame when leaving a frame, doesn't cost a round-trip.
  * </p>
  */
 public class FrameFixture extends SeleniumFixture {
     /**
-     * Switch to a frame with the given name/id.
+     * Switch to a frame with the given name/id in the active window or frame.
+     * <p>
+     * Switching to a frame with the name/id of the active frame selects its child frame, like the WebDriver does.
+     * </p>
      * @param frameId The name or id of the frame to switch to.
      * @throws FittingException When switching to the specified frame failed.
      */
     public void switchToFrame(String frameId) throws FittingException {
+        final ElementContainerProvider provider = getElementContainerProvider();
+        final ElementContainer active = provider.getActiveElementContainer();
+        final String id = SeleniumFrame.createId(active.getId(), frameId);
+        boolean created = false;
         try {
-            getWebDriver().switchTo().frame(frameId);
-        } catch (NoSuchFrameException e) {
+            provider.getElementContainer(id);
+        } catch (NoSuchContainerException e) {
+            provider.createNewElementContainer(frameId, active.getId(), false);
+            created = true;
+        }
+        try {
+            provider.activateElementContainer(id);
+        } catch (NotFoundException e) {
+            if (created) {
+                provider.closeElementContainer(id);
+            }
             throw new FormattedFittingException("No frame found with name/id " + frameId, e);
         }
     }
+
+    /**
+     * Leave the active frame by switching to the window or frame it is in.
+     * @throws FittingException When no frame is active.
+     */
+    public void leaveFrame() throws FittingException {
+        final ElementContainerProvider provider = getElementContainerProvider();
+        final ElementContainer active = provider.getActiveElementContainer();
+        if (!(active instanceof SeleniumFrame)) {
+            throw new FormattedFittingException("No frame is active.");
+        }
+        final ElementContainer parent = provider.activateElementContainer(active.getParentId());
+        if (parent instanceof SeleniumWindow) {
+            ((SeleniumWindow) parent).selectMainFrame(getWebDriver());
+        }
+    }
 }
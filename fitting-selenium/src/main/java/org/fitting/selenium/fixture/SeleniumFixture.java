@@ -21,6 +21,7 @@ package org.fitting.selenium.fixture;
 
 import org.fitting.*;
 import org.fitting.fixture.FittingFixture;
+import org.fitting.metrics.InstrumentedFittingConnector;
 import org.fitting.selenium.FittingSeleniumConnector;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
@@ -84,7 +85,7 @@ public abstract class SeleniumFixture extends FittingFixture {
      */
     protected final FittingSeleniumConnector getSeleniumConnector() {
         FittingSeleniumConnector seleniumConnector;
-        FittingConnector connector = FittingContainer.get();
+        FittingConnector connector = InstrumentedFittingConnector.unwrap(FittingContainer.get());
 
         if (FittingSeleniumConnector.class.isAssignableFrom(connector.getClass())) {
             seleniumConnector = (FittingSeleniumConnector) connector;
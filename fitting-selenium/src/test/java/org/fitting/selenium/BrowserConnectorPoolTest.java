@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/** Unit tests for {@link BrowserConnectorPool}. */
+public class BrowserConnectorPoolTest {
+    /** The pool under test, creating mock browsers instead of remote sessions. */
+    private BrowserConnectorPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new BrowserConnectorPool() {
+            @Override
+            protected PooledBrowserConnector createConnector(final DesiredCapabilities capabilities, final URL url) {
+                return mock(PooledBrowserConnector.class);
+            }
+        };
+    }
+
+    /**
+     * Given an empty pool.<br/>
+     * When a browser is acquired, released and acquired again with the same properties.<br/>
+     * Then the same, reset, browser should be returned and registered as a hit.
+     *
+     * @see BrowserConnectorPool#acquire(BrowserConnector.Builder)
+     */
+    @Test
+    public void shouldReuseReleasedBrowser() {
+        PooledBrowserConnector first = (PooledBrowserConnector) pool.acquire(firefox());
+        pool.release(first);
+        BrowserConnector second = pool.acquire(firefox());
+
+        assertSame(first, second);
+        verify(first, times(1)).reset();
+        assertEquals(1, pool.getMissCount());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getWarmUpCount());
+    }
+
+    /**
+     * Given a released browser in the pool.<br/>
+     * When a browser with different capabilities is acquired.<br/>
+     * Then a new browser should be started.
+     *
+     * @see BrowserConnectorPool#acquire(BrowserConnector.Builder)
+     */
+    @Test
+    public void shouldNotShareBrowsersWithDifferentCapabilities() {
+        PooledBrowserConnector first = (PooledBrowserConnector) pool.acquire(firefox());
+        pool.release(first);
+
+        assertNotSame(first, pool.acquire(BrowserConnector.builder().withBrowser("chrome").onHost("localhost", 4444)));
+        assertEquals(2, pool.getMissCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /**
+     * Given a pool allowing a single use per browser.<br/>
+     * When a browser is released.<br/>
+     * Then the browser should be terminated instead of returned to the pool.
+     *
+     * @see BrowserConnectorPool#release(PooledBrowserConnector)
+     */
+    @Test
+    public void shouldEvictBrowserAfterMaximumUses() {
+        pool.setMaxUses(1);
+        PooledBrowserConnector connector = (PooledBrowserConnector) pool.acquire(firefox());
+        pool.release(connector);
+
+        verify(connector, never()).reset();
+        verify(connector, times(1)).quit();
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getEvictionCount());
+    }
+
+    /**
+     * Given a browser that can't be reset.<br/>
+     * When the browser is released.<br/>
+     * Then the browser should be evicted.
+     *
+     * @see BrowserConnectorPool#release(PooledBrowserConnector)
+     */
+    @Test
+    public void shouldEvictBrowserThatFailsToReset() {
+        PooledBrowserConnector connector = (PooledBrowserConnector) pool.acquire(firefox());
+        doThrow(new IllegalStateException("reset failed")).when(connector).reset();
+        pool.release(connector);
+
+        verify(connector, times(1)).quit();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    /**
+     * Given a pool with a negative maximum idle time.<br/>
+     * When idle browsers are evicted.<br/>
+     * Then all idle browsers should be terminated.
+     *
+     * @see BrowserConnectorPool#evictExpired()
+     */
+    @Test
+    public void shouldEvictIdleBrowsers() {
+        pool.warmUp(firefox(), 2);
+        assertEquals(2, pool.getIdleCount());
+
+        pool.setMaxIdleTime(-1);
+        pool.evictExpired();
+
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(2, pool.getEvictionCount());
+    }
+
+    /**
+     * Given a warmed-up pool.<br/>
+     * When a browser is acquired.<br/>
+     * Then no new browser should be started.
+     *
+     * @see BrowserConnectorPool#warmUp(BrowserConnector.Builder, int)
+     */
+    @Test
+    public void shouldAcquireWarmedUpBrowser() {
+        pool.warmUp(firefox(), 1);
+        pool.acquire(firefox());
+
+        assertEquals(1, pool.getWarmUpCount());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(0, pool.getMissCount());
+    }
+
+    /**
+     * Given a pool that has been shut down.<br/>
+     * When a browser in use is released.<br/>
+     * Then the browser should be terminated.
+     *
+     * @see BrowserConnectorPool#shutdown()
+     */
+    @Test
+    public void shouldTerminateBrowsersReleasedAfterShutdown() {
+        PooledBrowserConnector connector = (PooledBrowserConnector) pool.acquire(firefox());
+        pool.shutdown();
+        pool.release(connector);
+
+        verify(connector, times(1)).quit();
+    }
+
+    /**
+     * Given an idle and an in use browser for a Selenium server and an idle browser for another server.<br/>
+     * When the browsers of the first server are evicted.<br/>
+     * Then the idle browser of that server should be terminated right away and the browser in use when it's released.
+     *
+     * @see BrowserConnectorPool#evictServer(String, int)
+     */
+    @Test
+    public void shouldEvictBrowsersOfStoppedServer() {
+        pool.warmUp(firefox(), 1);
+        pool.warmUp(BrowserConnector.builder().withBrowser("firefox").onHost("localhost", 4445), 1);
+        PooledBrowserConnector inUse = (PooledBrowserConnector) pool.acquire(firefox());
+        PooledBrowserConnector idle = (PooledBrowserConnector) pool.acquire(firefox());
+        pool.release(idle);
+
+        pool.evictServer("localhost", 4444);
+
+        verify(idle, times(1)).quit();
+        verify(inUse, never()).quit();
+        assertEquals(0, pool.getIdleCount("localhost", 4444));
+        assertEquals(1, pool.getIdleCount("localhost", 4445));
+
+        pool.release(inUse);
+
+        verify(inUse, never()).reset();
+        verify(inUse, times(1)).quit();
+        assertEquals(0, pool.getIdleCount("localhost", 4444));
+    }
+
+    /**
+     * Create a builder for a Firefox browser on a local Selenium server.
+     *
+     * @return The builder.
+     */
+    private static BrowserConnector.Builder firefox() {
+        return BrowserConnector.builder().withBrowser("firefox").onHost("localhost", 4444);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.fitting.ElementContainer;
+import org.fitting.ElementContainerProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Unit tests for {@link CookieJar}. */
+public class CookieJarTest {
+    private static final String DOMAIN = "http://other.example.com/";
+    private WebDriver driver;
+    private WebDriver.Options options;
+    private ElementContainer container;
+    private List<String> visited;
+    private CookieJar jar;
+
+    @Before
+    public void setUp() {
+        driver = mock(WebDriver.class);
+        options = mock(WebDriver.Options.class);
+        container = mock(ElementContainer.class);
+        visited = new ArrayList<String>();
+        when(driver.manage()).thenReturn(options);
+        when(container.getId()).thenReturn("window");
+        jar = new CookieJar(driver, new ElementContainerProvider() {
+            @Override
+            protected ElementContainer createContainer(final String uri) {
+                visited.add(uri);
+                return container;
+            }
+
+            @Override
+            protected ElementContainer createContainer(final String uri, final ElementContainer parent) {
+                return createContainer(uri);
+            }
+        });
+    }
+
+    /**
+     * Given a cookie jar with batching enabled.<br/>
+     * When several cookies are added and deleted on another domain, read, and the batch is applied.<br/>
+     * Then the domain should be visited once, executing the operations in order before reading the cookies.
+     *
+     * @see CookieJar#setBatching(boolean)
+     */
+    @Test
+    public void shouldVisitDomainOncePerBatch() {
+        final Cookie first = new Cookie("first", "1");
+        final Cookie second = new Cookie("second", "2");
+        when(options.getCookies()).thenReturn(Collections.singleton(second));
+
+        jar.setBatching(true);
+        jar.add(first, DOMAIN);
+        jar.add(second, DOMAIN);
+        jar.delete("first", DOMAIN);
+        assertTrue(visited.isEmpty());
+        assertEquals(second, jar.getCookie("second", DOMAIN));
+        assertNull(jar.getCookie("first", DOMAIN));
+        jar.setBatching(false);
+
+        assertEquals(Arrays.asList(DOMAIN), visited);
+        verify(options).addCookie(first);
+        verify(options).addCookie(second);
+        verify(options).deleteCookieNamed("first");
+        verify(options, times(1)).getCookies();
+        verify(container).close();
+    }
+
+    /**
+     * Given a cookie jar with batching enabled.<br/>
+     * When a cookie is added to the active window.<br/>
+     * Then it should be added right away, before the window could navigate to another domain.
+     *
+     * @see CookieJar#add(Cookie, String)
+     */
+    @Test
+    public void shouldChangeActiveWindowCookiesWhileBatching() {
+        final Cookie cookie = new Cookie("name", "value");
+
+        jar.setBatching(true);
+        jar.add(cookie, null);
+
+        verify(options).addCookie(cookie);
+        assertTrue(visited.isEmpty());
+    }
+
+    /**
+     * Given a cookie jar, with batching enabled or disabled.<br/>
+     * When the cookies of the active window are read, changed by the page, e.g. after a navigation, and read again.<br/>
+     * Then the changed cookies should be read from the browser without opening a window.
+     *
+     * @see CookieJar#getCookie(String, String)
+     */
+    @Test
+    public void shouldReadActiveWindowCookiesFromBrowser() {
+        when(options.getCookies()).thenReturn(Collections.singleton(new Cookie("name", "value")),
+                Collections.singleton(new Cookie("name", "navigated")), Collections.singleton(new Cookie("name", "scripted")));
+
+        assertEquals("value", jar.getCookie("name", null).getValue());
+        assertEquals("navigated", jar.getCookie("name", null).getValue());
+        jar.setBatching(true);
+        assertEquals("scripted", jar.getCookie("name", null).getValue());
+
+        verify(options, times(3)).getCookies();
+        assertTrue(visited.isEmpty());
+    }
+
+    /**
+     * Given a cookie jar with batching enabled.<br/>
+     * When the cookies of another domain are read repeatedly, before and after disabling batching.<br/>
+     * Then they should be read from a snapshot while batching and from the browser again afterwards.
+     *
+     * @see CookieJar#getCookie(String, String)
+     * @see CookieJar#setBatching(boolean)
+     */
+    @Test
+    public void shouldReadOtherDomainFromSnapshotWhileBatching() {
+        when(options.getCookies()).thenReturn(Collections.singleton(new Cookie("name", "value")),
+                Collections.singleton(new Cookie("name", "changed")));
+
+        jar.setBatching(true);
+        assertEquals("value", jar.getCookie("name", DOMAIN).getValue());
+        assertEquals("value", jar.getCookie("name", DOMAIN).getValue());
+        assertEquals(Arrays.asList(DOMAIN), visited);
+        jar.setBatching(false);
+
+        assertEquals("changed", jar.getCookie("name", DOMAIN).getValue());
+        assertEquals(Arrays.asList(DOMAIN, DOMAIN), visited);
+    }
+}
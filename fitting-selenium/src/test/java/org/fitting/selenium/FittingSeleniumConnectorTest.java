@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mock;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+/** Unit tests for {@link FittingSeleniumConnector}. */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(BrowserConnector.class)
+public class FittingSeleniumConnectorTest {
+    @Mock
+    private WebDriver webDriver;
+    @Mock
+    private SeleniumWindow window;
+    private BrowserConnector browser;
+    private FittingSeleniumConnector connector;
+
+    @Before
+    public void setUp() {
+        browser = mock(BrowserConnector.class);
+        when(browser.getWebDriver()).thenReturn(webDriver);
+        when(browser.getWindow()).thenReturn(window);
+        when(window.getId()).thenReturn("main");
+        connector = new FittingSeleniumConnector(browser);
+    }
+
+    /**
+     * Given a connector.<br/>
+     * When the providers and default search context are requested multiple times.<br/>
+     * Then the same instances should be returned and the main window should be registered only once.
+     *
+     * @see FittingSeleniumConnector#getElementContainerProvider()
+     * @see FittingSeleniumConnector#getDefaultSearchContext()
+     * @see FittingSeleniumConnector#getSelectorProvider()
+     */
+    @Test
+    public void shouldReuseProvidersForLifetimeOfConnector() {
+        assertSame(connector.getElementContainerProvider(), connector.getElementContainerProvider());
+        assertSame(connector.getDefaultSearchContext(), connector.getDefaultSearchContext());
+        assertSame(connector.getSelectorProvider(), connector.getSelectorProvider());
+        verify(window, times(1)).activate();
+    }
+
+    /**
+     * Given a connector with a created window provider.<br/>
+     * When the connector is destroyed.<br/>
+     * Then the browser should be destroyed and the providers should be discarded.
+     *
+     * @see FittingSeleniumConnector#destroy()
+     */
+    @Test
+    public void shouldDiscardProvidersOnDestroy() {
+        Object provider = connector.getElementContainerProvider();
+        connector.destroy();
+
+        verify(browser).destroy();
+        assertNotSame(provider, connector.getElementContainerProvider());
+    }
+
+    /**
+     * Given a connector on a pipelining WebDriver.<br/>
+     * When the connector is destroyed.<br/>
+     * Then the queued commands should be executed before the browser is destroyed.
+     *
+     * @see FittingSeleniumConnector#destroy()
+     */
+    @Test
+    public void shouldFlushQueuedCommandsOnDestroy() {
+        final PipelinedWebDriver pipelinedDriver = mock(PipelinedWebDriver.class);
+        when(browser.getWebDriver()).thenReturn(pipelinedDriver);
+
+        connector.destroy();
+
+        final InOrder order = inOrder(pipelinedDriver, browser);
+        order.verify(pipelinedDriver).flush();
+        order.verify(browser).destroy();
+    }
+
+    /**
+     * Given a connector with a cookie operation still batched.<br/>
+     * When the connector is destroyed.<br/>
+     * Then the cookie operation should be executed before the browser is destroyed.
+     *
+     * @see FittingSeleniumConnector#destroy()
+     * @see FittingSeleniumConnector#getCookieJar()
+     */
+    @Test
+    public void shouldApplyBatchedCookiesOnDestroy() {
+        final WebDriver.Options options = mock(WebDriver.Options.class);
+        when(webDriver.manage()).thenReturn(options);
+        final Cookie cookie = new Cookie("name", "value");
+        connector.getCookieJar().setBatching(true);
+        connector.getCookieJar().add(cookie, null);
+
+        connector.destroy();
+
+        final InOrder order = inOrder(options, browser);
+        order.verify(options).addCookie(cookie);
+        order.verify(browser).destroy();
+    }
+}
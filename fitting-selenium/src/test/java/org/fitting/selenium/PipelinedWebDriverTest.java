@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.FittingException;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.UselessFileDetector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Unit tests for {@link PipelinedWebDriver}. */
+public class PipelinedWebDriverTest {
+    /** The names of the commands sent to the Selenium server after the session was started. */
+    private List<String> commands;
+    /** The results of the next scripts. */
+    private LinkedList<Object> scriptResults;
+    /** The error statuses of the next scripts, before the results are used. */
+    private LinkedList<Integer> scriptErrors;
+    private PipelinedWebDriver driver;
+    private SeleniumElement element;
+
+    @Before
+    public void setUp() {
+        commands = new ArrayList<String>();
+        scriptResults = new LinkedList<Object>();
+        scriptErrors = new LinkedList<Integer>();
+        driver = new PipelinedWebDriver(new CommandExecutor() {
+            @Override
+            public Response execute(final Command command) {
+                final Response response = new Response();
+                response.setSessionId("session");
+                response.setStatus(0);
+                if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+                    final Map<String, Object> capabilities = new HashMap<String, Object>();
+                    capabilities.put("javascriptEnabled", true);
+                    response.setValue(capabilities);
+                } else {
+                    commands.add(command.getName());
+                    if (DriverCommand.EXECUTE_SCRIPT.equals(command.getName()) && !scriptErrors.isEmpty()) {
+                        response.setStatus(scriptErrors.poll());
+                        response.setValue(Collections.singletonMap("message", "script error"));
+                    } else if (DriverCommand.EXECUTE_SCRIPT.equals(command.getName())) {
+                        response.setValue(scriptResults.poll());
+                    } else if (DriverCommand.GET_TITLE.equals(command.getName())) {
+                        response.setValue("title");
+                    }
+                }
+                return response;
+            }
+        }, DesiredCapabilities.firefox());
+        driver.setPipelining(true);
+        final RemoteWebElement webElement = new RemoteWebElement();
+        webElement.setParent(driver);
+        webElement.setId("1");
+        webElement.setFileDetector(new UselessFileDetector());
+        element = new SeleniumElement(webElement);
+    }
+
+    /**
+     * Given a pipelining driver.<br/>
+     * When text is typed into an element and the element is clicked, followed by a read.<br/>
+     * Then both commands should be sent as a single script before the read.
+     *
+     * @see PipelinedWebDriver#enqueue(String, org.openqa.selenium.WebElement, String, String, Runnable)
+     */
+    @Test
+    public void shouldExecuteQueuedCommandsAsOneScriptBeforeRead() {
+        element.setValue("text", InputStrategy.SCRIPT);
+        element.click();
+
+        assertTrue(commands.isEmpty());
+        assertEquals(2, driver.getQueuedCount());
+
+        assertEquals("title", driver.getTitle());
+        assertEquals(Arrays.asList(DriverCommand.EXECUTE_SCRIPT, DriverCommand.GET_TITLE), commands);
+        assertEquals(0, driver.getQueuedCount());
+    }
+
+    /**
+     * Given a driver without script timeout set.<br/>
+     * When the script timeout is set.<br/>
+     * Then the driver should report the timeout.
+     *
+     * @see PipelinedWebDriver#getScriptTimeout()
+     */
+    @Test
+    public void shouldTrackScriptTimeout() {
+        assertNull(driver.getScriptTimeout());
+
+        driver.manage().timeouts().setScriptTimeout(5, TimeUnit.SECONDS);
+
+        assertEquals(Long.valueOf(5000), driver.getScriptTimeout());
+    }
+
+    /**
+     * Given a queued command that the script can't execute.<br/>
+     * When the queue is flushed.<br/>
+     * Then the command should be executed by the WebDriver itself.
+     *
+     * @see PipelinedWebDriver#flush()
+     */
+    @Test
+    public void shouldExecuteUnsupportedCommandNatively() {
+        scriptResults.add(Arrays.asList(0L, SeleniumScripts.UNSUPPORTED));
+        element.click();
+
+        driver.flush();
+
+        assertEquals(Arrays.asList(DriverCommand.EXECUTE_SCRIPT, DriverCommand.CLICK_ELEMENT), commands);
+    }
+
+    /**
+     * Given two queued commands of which the second fails in the browser.<br/>
+     * When the queue is flushed.<br/>
+     * Then the failure should name the failed command and the method that queued it.
+     *
+     * @see PipelinedWebDriver#flush()
+     */
+    @Test
+    public void shouldAttributeFailureToQueuingCall() {
+        scriptResults.add(Arrays.asList(1L, "boom"));
+        element.setValue("text", InputStrategy.SCRIPT);
+        element.clear();
+
+        try {
+            driver.flush();
+            fail("The failure of the queued command was not reported.");
+        } catch (FittingException e) {
+            assertTrue(e.getMessage().startsWith("Queued clear on "));
+            assertTrue(e.getMessage().endsWith(", called from PipelinedWebDriverTest.shouldAttributeFailureToQueuingCall, failed: boom"));
+        }
+    }
+
+    /**
+     * Given a queued click.<br/>
+     * When keys are typed with the keys strategy.<br/>
+     * Then the click should be executed first and the keys should be typed by the WebDriver.
+     *
+     * @see SeleniumElement#setValue(String, InputStrategy)
+     */
+    @Test
+    public void shouldTypeKeysNativelyAfterQueuedCommands() {
+        element.click();
+        element.setValue("text", InputStrategy.KEYS);
+
+        assertEquals(Arrays.asList(DriverCommand.EXECUTE_SCRIPT, DriverCommand.SEND_KEYS_TO_ELEMENT), commands);
+        assertEquals(0, driver.getQueuedCount());
+    }
+
+    /**
+     * Given queued typing and a click.<br/>
+     * When the script fails after it ran, because the click opened an alert.<br/>
+     * Then the failure should be reported without typing or clicking again.
+     *
+     * @see PipelinedWebDriver#flush()
+     */
+    @Test
+    public void shouldNotRepeatCommandsWhenScriptFailedAfterRunning() {
+        scriptErrors.add(ErrorCodes.UNEXPECTED_ALERT_PRESENT);
+        element.setValue("text", InputStrategy.SCRIPT);
+        element.click();
+
+        try {
+            driver.flush();
+            fail("The failure of the queued commands was not reported.");
+        } catch (FittingException e) {
+            assertTrue(e.getMessage().startsWith("Queued type "));
+            assertTrue(e.getMessage().contains("and the 1 queued commands after it failed, some may have been executed"));
+        }
+        assertEquals(Arrays.asList(DriverCommand.EXECUTE_SCRIPT), commands);
+    }
+
+    /**
+     * Given a queued click.<br/>
+     * When the element can't be passed to the script because it is stale.<br/>
+     * Then the click should be executed by the WebDriver itself.
+     *
+     * @see PipelinedWebDriver#flush()
+     */
+    @Test
+    public void shouldExecuteNativelyWhenElementCannotBePassed() {
+        scriptErrors.add(ErrorCodes.STALE_ELEMENT_REFERENCE);
+        element.click();
+
+        driver.flush();
+
+        assertEquals(Arrays.asList(DriverCommand.EXECUTE_SCRIPT, DriverCommand.CLICK_ELEMENT), commands);
+    }
+}
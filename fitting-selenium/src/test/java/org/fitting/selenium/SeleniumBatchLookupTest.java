@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fitting.Element;
+import org.fitting.Point;
+import org.fitting.Selector;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/** Unit tests for {@link SeleniumBatchLookup}. */
+public class SeleniumBatchLookupTest {
+    private WebDriver driver;
+    private PipelinedWebDriver elementDriver;
+    private WebElement element;
+
+    @Before
+    public void setUp() {
+        driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        elementDriver = mock(PipelinedWebDriver.class);
+        element = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+        when(((WrapsDriver) element).getWrappedDriver()).thenReturn(elementDriver);
+    }
+
+    /**
+     * Given a driver that can execute scripts.<br/>
+     * When multiple script-resolvable selectors are looked up.<br/>
+     * Then a single script should be executed and the found elements should return the state read by the script, except for the text and displayed
+     * state that are read through the WebDriver.
+     *
+     * @see SeleniumBatchLookup#findElementsBy(WebDriver, org.openqa.selenium.SearchContext, java.util.Collection)
+     */
+    @Test
+    public void shouldResolveSelectorsInSingleScript() {
+        Selector id = SeleniumSelector.byId("name");
+        Selector xpath = SeleniumSelector.byXPath("//p");
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any())).thenReturn(Arrays.asList(
+                Arrays.<Object>asList(1L, element, snapshot("p", "value")),
+                Arrays.<Object>asList(0L)));
+        when(element.getText()).thenReturn("text");
+        when(element.isDisplayed()).thenReturn(true);
+
+        Map<Selector, Element> elements = SeleniumBatchLookup.findElementsBy(driver, driver, Arrays.asList(id, xpath));
+
+        assertEquals(1, elements.size());
+        Element found = elements.get(id);
+        assertEquals("text", found.getText());
+        assertEquals("value", found.getValue());
+        assertTrue(found.isDisplayed());
+        assertEquals(new Point(1, 2), found.getLocation());
+        assertEquals("name", found.snapshot().getAttributeValue("id"));
+        assertFalse(elements.containsKey(xpath));
+        verify(((JavascriptExecutor) driver), times(1)).executeScript(anyString(), any(), any());
+        verify(element, never()).getLocation();
+        verify(element, never()).getAttribute("value");
+    }
+
+    /**
+     * Given an element found by a batch lookup.<br/>
+     * When the element is interacted with.<br/>
+     * Then its state should be read from the browser again.
+     *
+     * @see SeleniumElement#sendKeys(CharSequence...)
+     */
+    @Test
+    public void shouldReadStateAgainAfterInteraction() {
+        Selector id = SeleniumSelector.byId("name");
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any())).thenReturn(singletonList(
+                Arrays.<Object>asList(1L, element, snapshot("input", "old"))));
+        when(element.getAttribute("value")).thenReturn("new");
+
+        Element found = SeleniumBatchLookup.findElementsBy(driver, driver, singletonList(id)).get(id);
+        found.sendKeys("new");
+
+        assertEquals("new", found.getValue());
+    }
+
+    /**
+     * Given an element found by a batch lookup.<br/>
+     * When another command is sent to the browser, e.g. a click on another element.<br/>
+     * Then the state of the element should be read from the browser again.
+     *
+     * @see PipelinedWebDriver#getCommandCount()
+     */
+    @Test
+    public void shouldReadStateAgainAfterOtherCommand() {
+        Selector id = SeleniumSelector.byId("name");
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any())).thenReturn(singletonList(
+                Arrays.<Object>asList(1L, element, snapshot("input", "old"))));
+        when(elementDriver.getCommandCount()).thenReturn(4L);
+        when(element.getAttribute("value")).thenReturn("new");
+
+        Element found = SeleniumBatchLookup.findElementsBy(driver, driver, singletonList(id)).get(id);
+        assertEquals("old", found.getValue());
+        when(elementDriver.getCommandCount()).thenReturn(5L);
+
+        assertEquals("new", found.getValue());
+    }
+
+    /**
+     * Create the result of the snapshot script.
+     *
+     * @param tag   The tag of the element.
+     * @param value The value of the element.
+     *
+     * @return The result.
+     */
+    private static Map<String, Object> snapshot(final String tag, final String value) {
+        Map<String, Object> snapshot = new HashMap<String, Object>();
+        snapshot.put("tag", tag);
+        snapshot.put("value", value);
+        snapshot.put("attributes", singletonMap("id", "name"));
+        snapshot.put("x", 1L);
+        snapshot.put("y", 2L);
+        snapshot.put("width", 3L);
+        snapshot.put("height", 4L);
+        return snapshot;
+    }
+
+    /**
+     * Given a driver that can execute scripts.<br/>
+     * When a selector is looked up that can't be resolved by the script.<br/>
+     * Then the selector should be resolved through the driver.
+     *
+     * @see SeleniumBatchLookup#findElementsBy(WebDriver, org.openqa.selenium.SearchContext, java.util.Collection)
+     */
+    @Test
+    public void shouldResolveLinkTextThroughDriver() {
+        SeleniumSelector link = SeleniumSelector.byLinkText("home");
+        when(driver.findElements(any(By.class))).thenReturn(singletonList(element));
+
+        Map<Selector, Element> elements = SeleniumBatchLookup.findElementsBy(driver, driver, singletonList((Selector) link));
+
+        assertSame(element, ((SeleniumElement) elements.get(link)).getImplementation());
+        verify(((JavascriptExecutor) driver), never()).executeScript(anyString(), any(), any());
+    }
+
+    /**
+     * Given a driver that can't execute scripts.<br/>
+     * When selectors are looked up.<br/>
+     * Then each selector should be resolved through the driver, keeping the order of the selectors.
+     *
+     * @see SeleniumBatchLookup#findElementsBy(WebDriver, org.openqa.selenium.SearchContext, java.util.Collection)
+     */
+    @Test
+    public void shouldResolveSelectorsOneByOneWithoutScriptSupport() {
+        WebDriver plainDriver = mock(WebDriver.class);
+        Selector first = SeleniumSelector.byId("first");
+        Selector second = SeleniumSelector.byCssSelector(".second");
+        when(plainDriver.findElements(any(By.class))).thenReturn(singletonList(element));
+
+        Map<Selector, Element> elements = SeleniumBatchLookup.findElementsBy(plainDriver, plainDriver, Arrays.asList(second, first));
+
+        assertEquals(Arrays.asList(second, first), Arrays.asList(elements.keySet().toArray()));
+        verify(plainDriver, times(2)).findElements(any(By.class));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ByIdOrName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Unit tests for {@link SeleniumContextTracker}. */
+public class SeleniumContextTrackerTest {
+    private WebDriver driver;
+    private WebDriver.TargetLocator locator;
+    private WebElement outer;
+    private WebElement inner;
+
+    @Before
+    public void setUp() {
+        driver = mock(WebDriver.class);
+        locator = mock(WebDriver.TargetLocator.class);
+        outer = mock(WebElement.class);
+        inner = mock(WebElement.class);
+        when(driver.switchTo()).thenReturn(locator);
+        when(driver.getWindowHandle()).thenReturn("main");
+        when(driver.findElement(By.id("outer"))).thenReturn(outer);
+        when(driver.findElement(By.id("inner"))).thenReturn(inner);
+    }
+
+    /**
+     * Given a tracked driver.<br/>
+     * When the window handle is requested and the same window is switched to repeatedly.<br/>
+     * Then the driver should only be asked for the handle once and only switch once.
+     *
+     * @see SeleniumContextTracker#getWindowHandle(WebDriver)
+     * @see SeleniumContextTracker#switchToWindow(WebDriver, String)
+     */
+    @Test
+    public void shouldSkipSwitchToSelectedWindow() {
+        assertEquals("main", SeleniumContextTracker.getWindowHandle(driver));
+        assertEquals("main", SeleniumContextTracker.getWindowHandle(driver));
+        SeleniumContextTracker.switchToWindow(driver, "popup");
+        SeleniumContextTracker.switchToWindow(driver, "popup");
+
+        assertEquals("popup", SeleniumContextTracker.getWindowHandle(driver));
+        verify(driver, times(1)).getWindowHandle();
+        verify(locator, times(1)).window("popup");
+    }
+
+    /**
+     * Given a driver switched to a nested frame.<br/>
+     * When the same frame, its parent and the nested frame again are switched to.<br/>
+     * Then only the switches that change the selected frame should be executed.
+     *
+     * @see SeleniumContextTracker#switchToFrame(WebDriver, String, java.util.List)
+     */
+    @Test
+    public void shouldOnlySwitchChangedPartOfFramePath() {
+        SeleniumContextTracker.switchToFrame(driver, "main", Arrays.asList(By.id("outer"), By.id("inner")));
+        SeleniumContextTracker.switchToFrame(driver, "main", Arrays.asList(By.id("outer"), By.id("inner")));
+        assertTrue(SeleniumContextTracker.isFrameSelected(driver, "main", Arrays.asList(By.id("outer"), By.id("inner"))));
+        SeleniumContextTracker.switchToFrame(driver, "main", Collections.singletonList(By.id("outer")));
+        SeleniumContextTracker.switchToFrame(driver, "main", Arrays.asList(By.id("outer"), By.id("inner")));
+
+        final InOrder order = inOrder(locator);
+        order.verify(locator).window("main");
+        order.verify(locator).frame(outer);
+        order.verify(locator).frame(inner);
+        order.verify(locator).defaultContent();
+        order.verify(locator).frame(outer);
+        order.verify(locator).frame(inner);
+        order.verifyNoMoreInteractions();
+    }
+
+    /**
+     * Given a driver switched to a frame by name or id.<br/>
+     * When a frame with the same name or id is switched to again and the window navigates.<br/>
+     * Then the nested child frame should be selected and the navigation should select the top-level content.
+     *
+     * @see SeleniumContextTracker#switchToChildFrame(WebDriver, String)
+     * @see SeleniumContextTracker#navigated(WebDriver)
+     */
+    @Test
+    public void shouldSwitchToNestedChildFrameWithSameName() {
+        SeleniumContextTracker.switchToWindow(driver, "main");
+        SeleniumContextTracker.switchToChildFrame(driver, "content");
+        SeleniumContextTracker.switchToChildFrame(driver, "content");
+        assertEquals(Arrays.<By>asList(new ByIdOrName("content"), new ByIdOrName("content")), SeleniumContextTracker.getSelectedFrames(driver));
+        SeleniumContextTracker.navigated(driver);
+        SeleniumContextTracker.switchToDefaultContent(driver);
+
+        verify(locator, times(2)).frame("content");
+        verify(locator, never()).defaultContent();
+        assertTrue(SeleniumContextTracker.getSelectedFrames(driver).isEmpty());
+    }
+
+    /**
+     * Given an invalidated tracker.<br/>
+     * When the top-level content of the window is switched to.<br/>
+     * Then the window should be switched to again, which also selects its top-level content.
+     *
+     * @see SeleniumContextTracker#invalidate(WebDriver)
+     */
+    @Test
+    public void shouldSwitchAfterInvalidate() {
+        SeleniumContextTracker.switchToWindow(driver, "main");
+        SeleniumContextTracker.invalidate(driver);
+        assertNull(SeleniumContextTracker.getSelectedFrames(driver));
+        assertFalse(SeleniumContextTracker.isFrameSelected(driver, "main", Collections.<By>emptyList()));
+
+        SeleniumContextTracker.switchToFrame(driver, "main", Collections.<By>emptyList());
+
+        verify(locator, times(2)).window("main");
+        verify(locator, never()).defaultContent();
+    }
+}
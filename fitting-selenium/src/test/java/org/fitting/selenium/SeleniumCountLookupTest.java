@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.fitting.Selector;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/** Unit tests for {@link SeleniumCountLookup}. */
+public class SeleniumCountLookupTest {
+    private WebDriver driver;
+
+    @Before
+    public void setUp() {
+        driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+    }
+
+    /**
+     * Given a driver that can execute scripts.<br/>
+     * When the elements for a script-resolvable selector are counted.<br/>
+     * Then the count should be read by a script without retrieving the elements.
+     *
+     * @see SeleniumCountLookup#countElementsBy(WebDriver, org.openqa.selenium.SearchContext, Selector)
+     */
+    @Test
+    public void shouldCountElementsInScript() {
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any(), any())).thenReturn(3L);
+
+        assertEquals(3, SeleniumCountLookup.countElementsBy(driver, driver, SeleniumSelector.byXPath("//p")));
+        verify(driver, never()).findElements(any(By.class));
+    }
+
+    /**
+     * Given a driver that can execute scripts.<br/>
+     * When the existence of an element for a script-resolvable selector is checked.<br/>
+     * Then the result of the script should be returned without retrieving the element.
+     *
+     * @see SeleniumCountLookup#exists(WebDriver, org.openqa.selenium.SearchContext, Selector)
+     */
+    @Test
+    public void shouldCheckExistenceInScript() {
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any(), any(), any())).thenReturn(Boolean.FALSE);
+
+        assertFalse(SeleniumCountLookup.exists(driver, driver, SeleniumSelector.byId("missing")));
+        verify(driver, never()).findElement(any(By.class));
+        verify(driver, never()).findElements(any(By.class));
+    }
+
+    /**
+     * Given a selector that can't be resolved by a script.<br/>
+     * When the elements are counted and their existence is checked.<br/>
+     * Then a regular lookup should be used.
+     *
+     * @see SeleniumCountLookup#countElementsBy(WebDriver, org.openqa.selenium.SearchContext, Selector)
+     * @see SeleniumCountLookup#exists(WebDriver, org.openqa.selenium.SearchContext, Selector)
+     */
+    @Test
+    public void shouldFallBackToLookupForOtherSelectors() {
+        final Selector selector = SeleniumSelector.byLinkText("Home");
+        when(driver.findElements(By.linkText("Home"))).thenReturn(Arrays.asList(mock(WebElement.class), mock(WebElement.class)));
+
+        assertEquals(2, SeleniumCountLookup.countElementsBy(driver, driver, selector));
+        assertTrue(SeleniumCountLookup.exists(driver, driver, selector));
+        verify(((JavascriptExecutor) driver), never()).executeScript(anyString(), any(), any(), any());
+    }
+
+    /**
+     * Given a driver that can't execute scripts.<br/>
+     * When the elements for a selector are counted.<br/>
+     * Then a regular lookup should be used.
+     *
+     * @see SeleniumCountLookup#countElementsBy(WebDriver, org.openqa.selenium.SearchContext, Selector)
+     */
+    @Test
+    public void shouldFallBackToLookupWithoutScripts() {
+        final WebDriver plain = mock(WebDriver.class);
+        when(plain.findElements(By.id("missing"))).thenReturn(Collections.<WebElement>emptyList());
+
+        assertEquals(0, SeleniumCountLookup.countElementsBy(plain, plain, SeleniumSelector.byId("missing")));
+        assertFalse(SeleniumCountLookup.exists(plain, plain, SeleniumSelector.byId("missing")));
+    }
+}
@@ -19,11 +19,19 @@
 
 package org.fitting.selenium;
 
+import java.util.Arrays;
+import java.util.List;
+
+import org.fitting.Element;
 import org.fitting.FittingContainer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -31,8 +39,14 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
 /**
@@ -130,4 +144,99 @@ public class SeleniumElementTest {
         assertEquals("tagName", instance.getType());
         verify(textElement).getTagName();
     }
+
+    /**
+     * Given a SeleniumElement found with a selector whose web element went stale.<br/>
+     * When the element is clicked.<br/>
+     * Then the element should be looked up again and the fresh web element should be clicked.
+     *
+     * @see SeleniumElement#click()
+     */
+    @Test
+    public void shouldLookUpStaleElementAgain() {
+        final By by = By.id("button");
+        final WebElement fresh = mock(WebElement.class);
+        doThrow(new StaleElementReferenceException("stale")).when(textElement).click();
+        when(webDriver.findElement(by)).thenReturn(fresh);
+        SeleniumElement instance = new SeleniumElement(webDriver, by, SeleniumElement.NO_INDEX, textElement, null);
+
+        instance.click();
+
+        verify(fresh).click();
+        assertSame(fresh, instance.getImplementation());
+    }
+
+    /**
+     * Given a SeleniumElement without a selector whose web element went stale.<br/>
+     * When the element is clicked.<br/>
+     * Then the stale element exception should be thrown.
+     *
+     * @see SeleniumElement#click()
+     */
+    @Test(expected = StaleElementReferenceException.class)
+    public void shouldFailOnStaleElementWithoutSelector() {
+        doThrow(new StaleElementReferenceException("stale")).when(textElement).click();
+        SeleniumElement instance = new SeleniumElement(textElement);
+
+        instance.click();
+    }
+
+    /**
+     * Given a SeleniumElement for the second element matching a selector, without a web element.<br/>
+     * When the text of the element is read.<br/>
+     * Then the element should be looked up on first use.
+     *
+     * @see SeleniumElement#SeleniumElement(org.openqa.selenium.SearchContext, By, int, WebElement, org.fitting.ElementSnapshot)
+     */
+    @Test
+    public void shouldResolveElementOnFirstUse() {
+        final By by = By.tagName("p");
+        SeleniumElement instance = new SeleniumElement(webDriver, by, 1, null, null);
+        verifyZeroInteractions(webDriver);
+        when(webDriver.findElements(by)).thenReturn(Arrays.asList(inputElement, textElement));
+
+        assertEquals(TEXTELEMENT_TEXT, instance.getText());
+        assertEquals(TEXTELEMENT_TEXT, instance.getText());
+        verify(webDriver, times(1)).findElements(by);
+    }
+
+    /**
+     * Given the web elements of a lookup converted to a list of elements.<br/>
+     * When the size of the list is requested.<br/>
+     * Then no element should be created and the web elements should not be queried.
+     *
+     * @see SeleniumDataTypeConverter#convert(org.openqa.selenium.SearchContext, By, java.util.List)
+     */
+    @Test
+    public void shouldCountElementsWithoutCreatingThem() {
+        final By by = By.tagName("p");
+        List<Element> elements = SeleniumDataTypeConverter.convert(webDriver, by, Arrays.asList(textElement, inputElement));
+
+        assertEquals(2, elements.size());
+        verifyZeroInteractions(textElement, inputElement);
+        assertSame(elements.get(1), elements.get(1));
+        assertSame(inputElement, ((SeleniumElement) elements.get(1)).getImplementation());
+    }
+
+    /**
+     * Given a WebDriver executing scripts and the script input strategy.<br/>
+     * When a value is set on a typeable field and on a field needing key events.<br/>
+     * Then the first value should be set by the script and the second one should be typed key by key.
+     *
+     * @see SeleniumElement#setValue(String, InputStrategy)
+     */
+    @Test
+    public void shouldSetValueWithScriptAndFallBackToKeys() {
+        final WebDriver scriptDriver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        final WebElement keyedElement = mock(WebElement.class);
+        when(fittingSeleniumConnector.getWebDriver()).thenReturn(scriptDriver);
+        when(((JavascriptExecutor) scriptDriver).executeScript(SeleniumScripts.SET_VALUE, inputElement, "value")).thenReturn(Boolean.TRUE);
+        when(((JavascriptExecutor) scriptDriver).executeScript(SeleniumScripts.SET_VALUE, keyedElement, "value")).thenReturn(SeleniumScripts.UNSUPPORTED);
+
+        new SeleniumElement(inputElement).setValue("value", InputStrategy.SCRIPT);
+        new SeleniumElement(keyedElement).setValue("value", InputStrategy.SCRIPT);
+
+        verify(inputElement, never()).sendKeys(Matchers.<CharSequence>anyVararg());
+        verify(keyedElement).sendKeys("value");
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.Arrays;
+
+import org.fitting.Element;
+import org.fitting.FittingException;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/** Unit tests for {@link SeleniumFrame}. */
+public class SeleniumFrameTest {
+    private WebDriver driver;
+    private WebDriver.TargetLocator locator;
+    private WebElement outer;
+    private WebElement inner;
+    private SeleniumFrame frame;
+
+    @Before
+    public void setUp() {
+        driver = mock(WebDriver.class);
+        locator = mock(WebDriver.TargetLocator.class);
+        outer = mock(WebElement.class);
+        inner = mock(WebElement.class);
+        when(driver.switchTo()).thenReturn(locator);
+        when(driver.findElement(By.id("outer"))).thenReturn(outer);
+        when(driver.findElement(By.id("inner"))).thenReturn(inner);
+        final SeleniumWindow window = new SeleniumWindow("main", driver);
+        frame = new SeleniumFrame("inner", new SeleniumFrame("outer", window, By.id("outer")), By.id("inner"));
+    }
+
+    /**
+     * Given a nested frame.<br/>
+     * When elements are looked up in the frame repeatedly.<br/>
+     * Then the frame should only be switched to once.
+     *
+     * @see SeleniumFrame#findElementBy(org.fitting.Selector)
+     */
+    @Test
+    public void shouldOnlySwitchToFrameOnce() {
+        final WebElement webElement = mock(WebElement.class);
+        when(webElement.getText()).thenReturn("text");
+        when(driver.findElement(By.id("text"))).thenReturn(webElement);
+
+        assertFalse(frame.isActive());
+        final Element element = frame.findElementBy(SeleniumSelector.byId("text"));
+        frame.findElementBy(SeleniumSelector.byId("text"));
+
+        assertTrue(frame.isActive());
+        assertEquals("text", element.getText());
+        assertEquals("outer", frame.getParentId());
+        assertEquals(Arrays.asList(By.id("outer"), By.id("inner")), frame.getFrames());
+        verify(locator, times(1)).window("main");
+        verify(locator, times(1)).frame(outer);
+        verify(locator, times(1)).frame(inner);
+    }
+
+    /**
+     * Given a frame that was switched to before.<br/>
+     * When the frame is switched to again after its cached element went stale.<br/>
+     * Then the element of the frame should be looked up again.
+     *
+     * @see SeleniumFrame#activate()
+     */
+    @Test
+    public void shouldLookUpStaleFrameElementAgain() {
+        final SeleniumFrame top = new SeleniumFrame("outer", new SeleniumWindow("main", driver), By.id("outer"));
+        top.activate();
+        SeleniumContextTracker.switchToDefaultContent(driver);
+        top.activate();
+        SeleniumContextTracker.switchToDefaultContent(driver);
+        doThrow(new StaleElementReferenceException("stale")).when(locator).frame(outer);
+        final WebElement reloaded = mock(WebElement.class);
+        when(driver.findElement(By.id("outer"))).thenReturn(reloaded);
+
+        top.activate();
+
+        assertTrue(top.isActive());
+        verify(driver, times(2)).findElement(By.id("outer"));
+        verify(locator).frame(reloaded);
+    }
+
+    /**
+     * Given a selected frame.<br/>
+     * When an element in the frame is clicked, which may navigate the window.<br/>
+     * Then the frame should be switched to again for the next lookup.
+     *
+     * @see SeleniumElement#click()
+     */
+    @Test
+    public void shouldSwitchToFrameAgainAfterClick() {
+        final WebElement webElement = mock(WebElement.class, withSettings().extraInterfaces(WrapsDriver.class));
+        when(((WrapsDriver) webElement).getWrappedDriver()).thenReturn(driver);
+        when(driver.findElement(By.id("link"))).thenReturn(webElement);
+
+        frame.findElementBy(SeleniumSelector.byId("link")).click();
+        assertFalse(frame.isActive());
+        frame.findElementBy(SeleniumSelector.byId("link"));
+
+        assertTrue(frame.isActive());
+        verify(locator, times(2)).window("main");
+        verify(locator, times(2)).frame(inner);
+    }
+
+    /**
+     * Given a frame that is assumed to be selected, while a script navigated the window.<br/>
+     * When an element is looked up in the frame and not found.<br/>
+     * Then the frame should be switched to again and the element should be looked up once more.
+     *
+     * @see SeleniumFrame#findElementBy(org.fitting.Selector)
+     */
+    @Test
+    public void shouldSwitchToFrameAgainWhenNothingFoundInSelectedFrame() {
+        final WebElement webElement = mock(WebElement.class);
+        when(driver.findElement(By.id("text"))).thenThrow(new NoSuchElementException("top-level content")).thenReturn(webElement);
+        frame.activate();
+
+        frame.findElementBy(SeleniumSelector.byId("text"));
+
+        verify(locator, times(2)).window("main");
+        verify(locator, times(2)).frame(inner);
+        verify(driver, times(2)).findElement(By.id("text"));
+    }
+
+    /**
+     * Given a frame with a body.<br/>
+     * When text is searched in the frame.<br/>
+     * Then the displayed text of the body of the frame should be searched, after switching to the frame.
+     *
+     * @see SeleniumFrame#isTextPresent(String)
+     */
+    @Test
+    public void shouldFindTextInFrameBody() {
+        final WebElement body = mock(WebElement.class);
+        when(body.getText()).thenReturn("Welcome to Fitting");
+        when(driver.findElements(By.tagName("body"))).thenReturn(Arrays.asList(body));
+
+        assertTrue(frame.isTextPresent("Fitting"));
+        assertFalse(frame.isTextPresent("hidden"));
+
+        assertTrue(frame.isActive());
+        verify(locator, times(1)).frame(inner);
+    }
+
+    /**
+     * Given a frame.<br/>
+     * When the size of the frame is set.<br/>
+     * Then a FittingException should be thrown.
+     *
+     * @see SeleniumFrame#setSize(org.fitting.Dimension)
+     */
+    @Test(expected = FittingException.class)
+    public void shouldNotSetSize() {
+        frame.setSize(new org.fitting.Dimension(1, 1));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import org.fitting.FittingException;
+import org.fitting.Selector;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/** Unit tests for {@link SeleniumSelectorProvider}. */
+public class SeleniumSelectorProviderTest {
+
+    /**
+     * Given a selector provider.<br/>
+     * When the same selector is requested twice.<br/>
+     * Then the same instance should be returned and registered as a hit.
+     *
+     * @see SeleniumSelectorProvider#getSelector(String, String)
+     */
+    @Test
+    public void shouldReuseCachedSelector() {
+        SeleniumSelectorProvider provider = new SeleniumSelectorProvider();
+        Selector first = provider.getSelector(SeleniumSelector.ID, "name");
+
+        assertSame(first, provider.getSelector(SeleniumSelector.ID, "name"));
+        assertNotSame(first, provider.getSelector(SeleniumSelector.NAME, "name"));
+        assertEquals(1, provider.getHitCount());
+        assertEquals(2, provider.getMissCount());
+        assertEquals(1d / 3, provider.getHitRatio(), 0.001);
+    }
+
+    /**
+     * Given a selector provider with a cache size of 1.<br/>
+     * When two different selectors are requested.<br/>
+     * Then only the last selector should be cached.
+     *
+     * @see SeleniumSelectorProvider#getSelector(String, String)
+     */
+    @Test
+    public void shouldEvictLeastRecentlyUsedSelector() {
+        SeleniumSelectorProvider provider = new SeleniumSelectorProvider(1);
+        Selector first = provider.getSelector(SeleniumSelector.ID, "first");
+        provider.getSelector(SeleniumSelector.ID, "second");
+
+        assertEquals(1, provider.getCacheSize());
+        assertNotSame(first, provider.getSelector(SeleniumSelector.ID, "first"));
+    }
+
+    /**
+     * Given a selector provider.<br/>
+     * When a CSS selector with brackets inside quotes is requested.<br/>
+     * Then the selector should be accepted.
+     *
+     * @see SeleniumSelectorProvider#getSelector(String, String)
+     */
+    @Test
+    public void shouldAcceptQuotedBracketsInCssSelector() {
+        new SeleniumSelectorProvider().getSelector(SeleniumSelector.CSS_SELECTOR, "a[title='(]'] > span:nth-child(2)");
+    }
+
+    /**
+     * Given a selector provider.<br/>
+     * When a malformed XPath selector is requested.<br/>
+     * Then an exception should be thrown.
+     *
+     * @see SeleniumSelectorProvider#getSelector(String, String)
+     */
+    @Test(expected = FittingException.class)
+    public void shouldRejectMalformedXPath() {
+        new SeleniumSelectorProvider().getSelector(SeleniumSelector.XPATH, "//div[@id='x'");
+    }
+
+    /**
+     * Given a selector provider.<br/>
+     * When a CSS selector with unbalanced brackets is requested.<br/>
+     * Then an exception should be thrown.
+     *
+     * @see SeleniumSelectorProvider#getSelector(String, String)
+     */
+    @Test(expected = FittingException.class)
+    public void shouldRejectUnbalancedCssSelector() {
+        new SeleniumSelectorProvider().getSelector(SeleniumSelector.CSS_SELECTOR, "input[name='x'");
+    }
+}
@@ -20,6 +20,7 @@
 package org.fitting.selenium;
 
 import org.fitting.test.ReflectionUtility;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +37,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -61,6 +63,10 @@ public class SeleniumServerManagerTest {
     @Mock
     private SeleniumServerInstance serverInstance;
 
+    /** Browser pool mock, used as the pool singleton. */
+    @Mock
+    private BrowserConnectorPool pool;
+
     /** The {@link SeleniumServerManager} instance under test, recreated between tests. */
     private SeleniumServerManager instance;
 
@@ -69,6 +75,12 @@ public class SeleniumServerManagerTest {
         whenNew(SeleniumServerInstance.class).withAnyArguments().thenReturn(serverInstance);
 
         instance = ReflectionUtility.createNewInstanceAndUpdateSingleton(SeleniumServerManager.class, "instance");
+        ReflectionUtility.injectStatic(BrowserConnectorPool.class, "instance", pool);
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionUtility.injectStatic(BrowserConnectorPool.class, "instance", null);
     }
 
     /**
@@ -317,4 +329,118 @@ public class SeleniumServerManagerTest {
 
         assertEquals(ports, instance.getPortsOfManagedServers());
     }
+
+    /**
+     * Given a server that was leased and released again.<br/>
+     * When {@link SeleniumServerManager#leaseServer(int)} is called.<br/>
+     * Then ensure that the responding server on standby is leased instead of starting a new one.
+     *
+     * @throws Exception When execution failed.
+     * @see SeleniumServerManager#leaseServer(int)
+     * @see SeleniumServerManager#releaseServer(int)
+     */
+    @Test
+    public void shouldLeaseReleasedServer() throws Exception {
+        when(serverInstance.start()).thenReturn(true);
+        when(serverInstance.isPortAvailable()).thenReturn(true);
+        when(serverInstance.getPort()).thenReturn(PORT_DEFAULT);
+        when(serverInstance.isResponding()).thenReturn(true);
+        assertEquals(PORT_DEFAULT, instance.leaseServer(20));
+        when(serverInstance.isRunning()).thenReturn(true);
+        instance.releaseServer(PORT_DEFAULT);
+        assertEquals(1, instance.getStandbyCount());
+
+        assertEquals(PORT_DEFAULT, instance.leaseServer(20));
+
+        assertEquals(0, instance.getStandbyCount());
+        verify(serverInstance, times(1)).start();
+    }
+
+    /**
+     * Given a released server on standby that doesn't respond anymore.<br/>
+     * When {@link SeleniumServerManager#leaseServer(int)} is called.<br/>
+     * Then ensure that the server on standby is stopped and a new server is started.
+     *
+     * @throws Exception When execution failed.
+     * @see SeleniumServerManager#leaseServer(int)
+     */
+    @Test
+    public void shouldReplaceUnresponsiveServerOnStandby() throws Exception {
+        when(serverInstance.start()).thenReturn(true);
+        when(serverInstance.isPortAvailable()).thenReturn(true);
+        when(serverInstance.getPort()).thenReturn(PORT_DEFAULT);
+        when(serverInstance.isResponding()).thenReturn(false);
+        instance.leaseServer(20);
+        when(serverInstance.isRunning()).thenReturn(true);
+        instance.releaseServer(PORT_DEFAULT);
+        when(serverInstance.isRunning()).thenReturn(false);
+
+        assertEquals(PORT_DEFAULT, instance.leaseServer(20));
+
+        verify(serverInstance, times(1)).stop();
+        verify(serverInstance, times(2)).start();
+    }
+
+    /**
+     * Given a running server with pooled browsers.<br/>
+     * When {@link SeleniumServerManager#stopServer(int)} is called.<br/>
+     * Then ensure that the pooled browsers of the server are evicted.
+     *
+     * @throws Exception When execution failed.
+     * @see SeleniumServerManager#stopServer(int)
+     */
+    @Test
+    public void shouldEvictPooledBrowsersOfStoppedServer() throws Exception {
+        when(serverInstance.start()).thenReturn(true);
+        instance.startServer(PORT_CUSTOM);
+
+        instance.stopServer(PORT_CUSTOM);
+
+        verify(pool, times(1)).evictServer("localhost", PORT_CUSTOM);
+    }
+
+    /**
+     * Given two released servers on standby, of which only the last released server has idle pooled browsers.<br/>
+     * When {@link SeleniumServerManager#leaseServer(int)} is called.<br/>
+     * Then ensure that the server with the idle pooled browsers is leased.
+     *
+     * @throws Exception When execution failed.
+     * @see SeleniumServerManager#leaseServer(int)
+     */
+    @Test
+    public void shouldPreferServerWithIdlePooledBrowsers() throws Exception {
+        SeleniumServerInstance first = mockServerInstance(PORT_DEFAULT);
+        SeleniumServerInstance second = mockServerInstance(PORT_DEFAULT + 1);
+        when(pool.getIdleCount("localhost", PORT_DEFAULT + 1)).thenReturn(1);
+        assertEquals(PORT_DEFAULT, instance.leaseServer(20));
+        assertEquals(PORT_DEFAULT + 1, instance.leaseServer(20));
+        instance.releaseServer(PORT_DEFAULT);
+        instance.releaseServer(PORT_DEFAULT + 1);
+
+        assertEquals(PORT_DEFAULT + 1, instance.leaseServer(20));
+
+        assertEquals(1, instance.getStandbyCount());
+        verify(first, times(1)).start();
+        verify(second, times(1)).start();
+    }
+
+    /**
+     * Create a server instance mock that is returned for a port and is running once started.
+     *
+     * @param port The port.
+     *
+     * @return The server instance mock.
+     *
+     * @throws Exception When execution failed.
+     */
+    private static SeleniumServerInstance mockServerInstance(final int port) throws Exception {
+        SeleniumServerInstance server = mock(SeleniumServerInstance.class);
+        when(server.start()).thenReturn(true);
+        when(server.isPortAvailable()).thenReturn(true);
+        when(server.getPort()).thenReturn(port);
+        when(server.isResponding()).thenReturn(true);
+        when(server.isRunning()).thenReturn(false).thenReturn(true);
+        whenNew(SeleniumServerInstance.class).withArguments(port).thenReturn(server);
+        return server;
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Fitting Project under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The Fitting Project licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.fitting.selenium;
+
+import java.util.concurrent.TimeUnit;
+
+import org.fitting.Element;
+import org.fitting.NoSuchElementException;
+import org.fitting.SearchContext;
+import org.fitting.Selector;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/** Unit tests for the waits in {@link SeleniumUtil}, using the default event driven wait strategy. */
+public class SeleniumUtilTest {
+    private WebDriver driver;
+    private JavascriptExecutor executor;
+    private WebElement element;
+
+    @Before
+    public void setUp() {
+        driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class).defaultAnswer(RETURNS_DEEP_STUBS));
+        executor = (JavascriptExecutor) driver;
+        element = mock(WebElement.class);
+        when(driver.findElement(any(By.class))).thenReturn(element);
+    }
+
+    /**
+     * Given an element that does not have the expected content yet.<br/>
+     * When the content is waited for.<br/>
+     * Then the content should be awaited with a single asynchronous script.
+     *
+     * @see SeleniumUtil#waitForElementWithContent(WebDriver, org.fitting.SearchContext, org.fitting.Selector, String, int)
+     */
+    @Test
+    public void shouldAwaitContentInBrowser() {
+        when(element.getAttribute("value")).thenReturn("loading", "done");
+        when(executor.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn(true);
+
+        SeleniumUtil.waitForElementWithContent(driver, null, SeleniumSelector.byId("status"), "done", 10);
+
+        verify(executor, times(1)).executeAsyncScript(anyString(), any(), eq(SeleniumSelector.ID), eq("status"), anyLong(), eq("done"));
+        verify(element, times(2)).getAttribute("value");
+    }
+
+    /**
+     * Given a browser that can't await the content.<br/>
+     * When the content is waited for.<br/>
+     * Then the element should be polled until it has the expected content.
+     *
+     * @see SeleniumUtil#waitForElementWithContent(WebDriver, org.fitting.SearchContext, org.fitting.Selector, String, int)
+     */
+    @Test
+    public void shouldPollContentWhenBrowserCantAwait() {
+        when(element.getAttribute("value")).thenReturn("loading", "loading", "done");
+        when(executor.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn("unsupported");
+
+        SeleniumUtil.waitForElementWithContent(driver, null, SeleniumSelector.byId("status"), "done", 10);
+
+        verify(element, times(3)).getAttribute("value");
+    }
+
+    /**
+     * Given an element that never gets the expected content.<br/>
+     * When the content is waited for.<br/>
+     * Then a {@link NoSuchElementException} should be thrown once the browser reports the timeout.
+     *
+     * @see SeleniumUtil#waitForElementWithContent(WebDriver, org.fitting.SearchContext, org.fitting.Selector, String, int)
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void shouldFailWhenContentDoesNotAppear() {
+        when(element.getAttribute("value")).thenReturn("loading");
+        when(executor.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn(false);
+
+        SeleniumUtil.waitForElementWithContent(driver, null, SeleniumSelector.byId("status"), "done", 10);
+    }
+
+    /**
+     * Given a driver that knows the script timeout of its session.<br/>
+     * When the content was awaited in the browser.<br/>
+     * Then the previous script timeout of the session should be restored.
+     *
+     * @see PipelinedWebDriver#getScriptTimeout()
+     */
+    @Test
+    public void shouldRestoreScriptTimeout() {
+        final PipelinedWebDriver pipelined = mock(PipelinedWebDriver.class, RETURNS_DEEP_STUBS);
+        when(pipelined.getScriptTimeout()).thenReturn(1234L);
+        when(pipelined.getCapabilities().isJavascriptEnabled()).thenReturn(true);
+        when(pipelined.findElement(any(By.class))).thenReturn(element);
+        when(element.getAttribute("value")).thenReturn("loading", "done");
+        when(pipelined.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn(true);
+
+        SeleniumUtil.waitForElementWithContent(pipelined, null, SeleniumSelector.byId("status"), "done", 10);
+
+        verify(pipelined.manage().timeouts()).setScriptTimeout(1234L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Given a driver that doesn't know the script timeout of its session.<br/>
+     * When the content was awaited in the browser.<br/>
+     * Then the script timeout should only be raised for the wait and not be reset to a guessed value.
+     *
+     * @see SeleniumUtil#waitForElementWithContent(WebDriver, org.fitting.SearchContext, org.fitting.Selector, String, int)
+     */
+    @Test
+    public void shouldLeaveUnknownScriptTimeout() {
+        when(element.getAttribute("value")).thenReturn("loading", "done");
+        when(executor.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn(true);
+
+        SeleniumUtil.waitForElementWithContent(driver, null, SeleniumSelector.byId("status"), "done", 10);
+
+        verify(driver.manage().timeouts(), times(1)).setScriptTimeout(anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Given a frame as search context.<br/>
+     * When content is waited for within the frame.<br/>
+     * Then the frame should be activated and the content awaited in its whole document.
+     *
+     * @see SeleniumUtil#waitForElementWithContent(WebDriver, org.fitting.SearchContext, org.fitting.Selector, String, int)
+     */
+    @Test
+    public void shouldAwaitContentInFrame() {
+        final SeleniumFrame frame = mock(SeleniumFrame.class);
+        final Selector selector = SeleniumSelector.byId("status");
+        final Element found = mock(Element.class);
+        when(frame.findElementBy(selector)).thenReturn(found);
+        when(found.getValue()).thenReturn("loading", "done");
+        when(executor.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn(true);
+
+        SeleniumUtil.waitForElementWithContent(driver, frame, selector, "done", 10);
+
+        verify(frame).activate();
+        verify(executor, times(1)).executeAsyncScript(anyString(), eq(null), eq(SeleniumSelector.ID), eq("status"), anyLong(), eq("done"));
+    }
+
+    /**
+     * Given a search context that can't be passed to the browser, like a search context of another connector.<br/>
+     * When content is waited for within the search context.<br/>
+     * Then the element should be polled on the search context instead of awaited in the whole document.
+     *
+     * @see SeleniumUtil#waitForElementWithContent(WebDriver, org.fitting.SearchContext, org.fitting.Selector, String, int)
+     */
+    @Test
+    public void shouldPollContentInScopedContext() {
+        final SearchContext context = mock(SearchContext.class);
+        final Element scoped = mock(Element.class);
+        final Selector selector = SeleniumSelector.byId("status");
+        when(context.findElementBy(selector)).thenReturn(scoped);
+        when(scoped.getValue()).thenReturn("loading", "done");
+        when(executor.executeAsyncScript(anyString(), any(), any(), any(), any(), any())).thenReturn(false);
+
+        SeleniumUtil.waitForElementWithContent(driver, context, selector, "done", 10);
+
+        verify(executor, never()).executeAsyncScript(anyString(), any(), any(), any(), any(), any());
+        verify(scoped, times(2)).getValue();
+    }
+
+    /**
+     * Given a URL as passed by FitNesse, wrapped in an &lt;a&gt;-tag, and a plain URL.<br/>
+     * When the URLs are stripped.<br/>
+     * Then the bare URLs should be returned.
+     *
+     * @see SeleniumUtil#stripURL(String)
+     */
+    @Test
+    public void shouldStripLinkFromURL() {
+        assertEquals("http://localhost/", SeleniumUtil.stripURL("<a href=\"http://localhost/\">http://localhost/</a>"));
+        assertEquals("about:blank", SeleniumUtil.stripURL("about:blank"));
+    }
+}